@@ -0,0 +1,44 @@
+package org.itinov.bankApp.batch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Balance queries shared by the batch jobs, which read accounts over plain JDBC.
+ */
+final class AccountBalances {
+
+    private AccountBalances() {
+    }
+
+    /**
+     * Sums the balance slots of the split accounts whose id is in {@code (after, upTo]}.
+     *
+     * @return the slot total by account id, split accounts only
+     */
+    static Map<Long, Double> slotSums(JdbcTemplate jdbc, long after, long upTo) {
+        Map<Long, Double> sums = new HashMap<>();
+        jdbc.query("""
+                select account_id, sum(balance) as total from account_balance_slot_entity
+                where account_id > ? and account_id <= ? group by account_id""",
+            rs -> {
+                sums.put(rs.getLong("account_id"), rs.getDouble("total"));
+            },
+            after, upTo);
+        return sums;
+    }
+
+    /**
+     * Reads the logical balance of one account: its balance plus its slots when it is split.
+     */
+    static double logicalBalance(JdbcTemplate jdbc, long accountId) {
+        Double balance = jdbc.queryForObject("""
+                select a.balance + coalesce((select sum(s.balance) from account_balance_slot_entity s
+                                             where s.account_id = a.id), 0)
+                from account_entity a where a.id = ?""",
+            Double.class, accountId);
+        return balance == null ? 0 : balance;
+    }
+}
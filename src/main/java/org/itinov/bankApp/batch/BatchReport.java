@@ -0,0 +1,34 @@
+package org.itinov.bankApp.batch;
+
+import java.time.Duration;
+
+/**
+ * Outcome and throughput of one batch job run.
+ *
+ * @param job        the job name
+ * @param runKey     the run identifier (e.g. business date)
+ * @param partitions partitions processed by this run, excluding those already completed by a previous attempt
+ * @param items      items read (accounts, transactions...)
+ * @param written    rows written
+ * @param elapsed    wall-clock duration of the run
+ */
+public record BatchReport(
+    String job,
+    String runKey,
+    int partitions,
+    long items,
+    long written,
+    Duration elapsed
+) {
+
+    public double itemsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return items * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return "%s[%s]: %d partitions, %d items, %d rows written in %d ms (%.0f items/s)"
+            .formatted(job, runKey, partitions, items, written, elapsed.toMillis(), itemsPerSecond());
+    }
+}
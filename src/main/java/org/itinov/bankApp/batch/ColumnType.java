@@ -0,0 +1,321 @@
+package org.itinov.bankApp.batch;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encoding of one column of a {@link SnapshotFile} row group.
+ * <p>
+ * Values are held as {@code Long}, {@code Integer}, {@code Double}, {@code Boolean}, {@code String},
+ * {@link LocalDateTime} or {@link LocalDate}, which JDBC binds directly. Nullable columns start with a null bitmap;
+ * numbers and dates are stored as zigzag varints of the difference with the previous value, strings through a
+ * dictionary of the row group, so that ids, foreign keys, dates and low-cardinality labels shrink to a byte or two
+ * before compression.
+ */
+enum ColumnType {
+
+    LONG {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            long value = rs.getLong(column);
+            return rs.wasNull() ? null : value;
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            writeNulls(values, rows, out);
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    long value = (Long) values[i];
+                    writeVarLong(out, zigzag(value - previous));
+                    previous = value;
+                }
+            }
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            boolean[] nulls = readNulls(in, rows);
+            Object[] values = new Object[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if (!nulls[i]) {
+                    previous += unzigzag(readVarLong(in));
+                    values[i] = previous;
+                }
+            }
+            return values;
+        }
+    },
+
+    INT {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            int value = rs.getInt(column);
+            return rs.wasNull() ? null : value;
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            writeNulls(values, rows, out);
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    writeVarLong(out, zigzag((Integer) values[i]));
+                }
+            }
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            boolean[] nulls = readNulls(in, rows);
+            Object[] values = new Object[rows];
+            for (int i = 0; i < rows; i++) {
+                if (!nulls[i]) {
+                    values[i] = (int) unzigzag(readVarLong(in));
+                }
+            }
+            return values;
+        }
+    },
+
+    /** Not nullable: the double columns of the schema are primitives. */
+    DOUBLE {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            return rs.getDouble(column);
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            byte[] bytes = new byte[rows * Double.BYTES];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int i = 0; i < rows; i++) {
+                buffer.putDouble((Double) values[i]);
+            }
+            out.writeBytes(bytes);
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            Object[] values = new Object[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = in.getDouble();
+            }
+            return values;
+        }
+    },
+
+    /** Not nullable: the boolean columns of the schema are primitives. One byte per value, left to the compression. */
+    BOOLEAN {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            return rs.getBoolean(column);
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            for (int i = 0; i < rows; i++) {
+                out.write((Boolean) values[i] ? 1 : 0);
+            }
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            Object[] values = new Object[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = in.get() != 0;
+            }
+            return values;
+        }
+    },
+
+    STRING {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            return rs.getString(column);
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            // code 0 = null, sinon position dans le dictionnaire + 1
+            Map<Object, Integer> dictionary = new HashMap<>();
+            ByteArrayOutputStream entries = new ByteArrayOutputStream();
+            ByteArrayOutputStream codes = new ByteArrayOutputStream(rows);
+            for (int i = 0; i < rows; i++) {
+                if (values[i] == null) {
+                    writeVarLong(codes, 0);
+                    continue;
+                }
+                Integer code = dictionary.get(values[i]);
+                if (code == null) {
+                    code = dictionary.size() + 1;
+                    dictionary.put(values[i], code);
+                    byte[] utf8 = ((String) values[i]).getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(entries, utf8.length);
+                    entries.writeBytes(utf8);
+                }
+                writeVarLong(codes, code);
+            }
+            writeVarLong(out, dictionary.size());
+            out.writeBytes(entries.toByteArray());
+            out.writeBytes(codes.toByteArray());
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            String[] dictionary = new String[(int) readVarLong(in)];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] utf8 = new byte[(int) readVarLong(in)];
+                in.get(utf8);
+                dictionary[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            Object[] values = new Object[rows];
+            for (int i = 0; i < rows; i++) {
+                int code = (int) readVarLong(in);
+                values[i] = code == 0 ? null : dictionary[code - 1];
+            }
+            return values;
+        }
+    },
+
+    TIMESTAMP {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            return rs.getObject(column, LocalDateTime.class);
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            writeNulls(values, rows, out);
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    LocalDateTime value = (LocalDateTime) values[i];
+                    long seconds = value.toEpochSecond(ZoneOffset.UTC);
+                    writeVarLong(out, zigzag(seconds - previous));
+                    writeVarLong(out, value.getNano());
+                    previous = seconds;
+                }
+            }
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            boolean[] nulls = readNulls(in, rows);
+            Object[] values = new Object[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if (!nulls[i]) {
+                    previous += unzigzag(readVarLong(in));
+                    values[i] = LocalDateTime.ofEpochSecond(previous, (int) readVarLong(in), ZoneOffset.UTC);
+                }
+            }
+            return values;
+        }
+    },
+
+    DATE {
+        @Override
+        Object read(ResultSet rs, int column) throws SQLException {
+            return rs.getObject(column, LocalDate.class);
+        }
+
+        @Override
+        void encode(Object[] values, int rows, ByteArrayOutputStream out) {
+            writeNulls(values, rows, out);
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    long day = ((LocalDate) values[i]).toEpochDay();
+                    writeVarLong(out, zigzag(day - previous));
+                    previous = day;
+                }
+            }
+        }
+
+        @Override
+        Object[] decode(ByteBuffer in, int rows) {
+            boolean[] nulls = readNulls(in, rows);
+            Object[] values = new Object[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                if (!nulls[i]) {
+                    previous += unzigzag(readVarLong(in));
+                    values[i] = LocalDate.ofEpochDay(previous);
+                }
+            }
+            return values;
+        }
+    };
+
+    /**
+     * Reads the value of a column of the current row.
+     */
+    abstract Object read(ResultSet rs, int column) throws SQLException;
+
+    /**
+     * Appends the first {@code rows} values to {@code out}.
+     */
+    abstract void encode(Object[] values, int rows, ByteArrayOutputStream out);
+
+    /**
+     * Reads back {@code rows} values written by {@link #encode}.
+     */
+    abstract Object[] decode(ByteBuffer in, int rows);
+
+    private static void writeNulls(Object[] values, int rows, ByteArrayOutputStream out) {
+        byte[] bitmap = new byte[(rows + 7) / 8];
+        for (int i = 0; i < rows; i++) {
+            if (values[i] == null) {
+                bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.writeBytes(bitmap);
+    }
+
+    private static boolean[] readNulls(ByteBuffer in, int rows) {
+        byte[] bitmap = new byte[(rows + 7) / 8];
+        in.get(bitmap);
+        boolean[] nulls = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            nulls[i] = (bitmap[i >>> 3] & (1 << (i & 7))) != 0;
+        }
+        return nulls;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
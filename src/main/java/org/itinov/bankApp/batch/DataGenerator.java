@@ -0,0 +1,422 @@
+package org.itinov.bankApp.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.DataGenerationProperties;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Generates a production-shaped data set for benchmarks, replacing the demo data when the {@code datagen} profile is
+ * active.
+ * <p>
+ * Customers and accounts are written first, then every account gets its own transaction history. The number of
+ * transactions of each account follows a Zipf distribution (a few very busy accounts, a long tail of quiet ones), and
+ * each history is a chronological sequence of deposits, withdrawals and transfers whose {@code balanceAfter}, daily
+ * balance snapshots, activity counters and final account balance are consistent with each other. Transfers are
+ * generated on each side independently: they are not paired with a counterpart transaction.
+ * <p>
+ * Every random choice comes from a generator seeded by {@link DataGenerationProperties#seed()} and the index of the
+ * customer, account or block it belongs to, so the data set only depends on the settings, not on the number of
+ * threads or on their scheduling. Rows are written over plain JDBC batches, one database transaction per batch, on a
+ * dedicated fork-join pool. The generation is skipped when the database already holds the data set for this seed;
+ * an interrupted generation is not resumed and needs an empty database.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+public class DataGenerator implements ApplicationRunner {
+
+    public static final String JOB_NAME = "data-generation";
+    private static final int CUSTOMER_BLOCK = 10_000;
+    private static final int ACCOUNT_BLOCK = 1_000;
+    private static final int SAMPLE_BLOCK = 1 << 20;
+
+    private static final long SALT_CUSTOMER = 1;
+    private static final long SALT_ACCOUNT = 2;
+    private static final long SALT_ACTIVITY = 3;
+    private static final long SALT_TRANSACTIONS = 4;
+
+    private static final String[] FIRST_NAMES = {
+        "Alice", "Bruno", "Camille", "David", "Emma", "François", "Gabriel", "Hugo", "Inès", "Jules", "Léa", "Louis",
+        "Manon", "Nathan", "Océane", "Paul", "Quentin", "Raphaël", "Sarah", "Thomas", "Ulysse", "Victor", "Yasmine",
+        "Zoé"};
+    private static final String[] LAST_NAMES = {
+        "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau", "Simon",
+        "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier", "Morel",
+        "Girard", "Andre", "Mercier"};
+    private static final double[] OVERDRAFT_LIMITS = {0, -100, -200, -500, -1000};
+    /** Median amount of 80 with a long tail of large operations. */
+    private static final double MEDIAN_AMOUNT = 80;
+    private static final double AMOUNT_SPREAD = 1.0;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate batchTransaction;
+    private final SequenceIdAllocator ids;
+    private final DataGenerationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public DataGenerator(JdbcTemplate jdbc,
+                         PlatformTransactionManager transactionManager,
+                         SequenceIdAllocator ids,
+                         DataGenerationProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ids = ids;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+    }
+
+    /**
+     * Generates the whole data set, unless it is already there.
+     *
+     * @return the run report, items being the generated transactions
+     */
+    public BatchReport generate() {
+        String runKey = "seed=" + properties.seed();
+        Integer existing = jdbc.queryForObject("select count(*) from customer_entity where keycloak_id = ?",
+            Integer.class, keycloakId(0));
+        if (existing != null && existing > 0) {
+            log.info("Data set {} already generated, skipping", runKey);
+            return new BatchReport(JOB_NAME, runKey, 0, 0, 0, Duration.ZERO);
+        }
+
+        LongAdder transactions = new LongAdder();
+        LongAdder written = new LongAdder();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(properties.parallelism());
+        int accountBlocks;
+        try {
+            long[] customerIds = insertCustomers(pool, written);
+            long[] accountIds = insertAccounts(pool, customerIds, written);
+            long[] activity = pool.submit(this::drawActivity).join();
+            accountBlocks = (accountIds.length + ACCOUNT_BLOCK - 1) / ACCOUNT_BLOCK;
+            pool.submit(() -> IntStream.range(0, accountBlocks).parallel()
+                .forEach(block -> insertHistories(block, accountIds, activity, transactions, written))).join();
+        } finally {
+            pool.shutdown();
+            sample.stop(meterRegistry.timer("bank.batch.duration", "job", JOB_NAME));
+        }
+
+        BatchReport report = new BatchReport(JOB_NAME, runKey, accountBlocks, transactions.sum(), written.sum(),
+            Duration.ofNanos(System.nanoTime() - start));
+        meterRegistry.counter("bank.batch.items", "job", JOB_NAME).increment(report.items());
+        log.info("Batch {}", report);
+        return report;
+    }
+
+    private long[] insertCustomers(ForkJoinPool pool, LongAdder written) {
+        long[] customerIds = new long[properties.customers()];
+        int blocks = (customerIds.length + CUSTOMER_BLOCK - 1) / CUSTOMER_BLOCK;
+        pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * CUSTOMER_BLOCK;
+            int to = Math.min(from + CUSTOMER_BLOCK, customerIds.length);
+            long[] blockIds = ids.allocate(CustomerEntity.ID_SEQUENCE, CustomerEntity.ID_ALLOCATION_SIZE, to - from);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                String[] name = customerName(i);
+                customerIds[i] = blockIds[i - from];
+                rows.add(new Object[]{customerIds[i], keycloakId(i), name[0] + " " + name[1],
+                    (name[0] + "." + name[1] + "." + i + "@example.com").toLowerCase()});
+            }
+            insert("""
+                insert into customer_entity (id, keycloak_id, name, email)
+                values (?, ?, ?, ?)""", rows);
+            written.add(rows.size());
+        })).join();
+        log.info("Generated {} customers", customerIds.length);
+        return customerIds;
+    }
+
+    /**
+     * Writes the accounts with a zero balance, set once their history is generated.
+     */
+    private long[] insertAccounts(ForkJoinPool pool, long[] customerIds, LongAdder written) {
+        long[] accountIds = new long[properties.accounts()];
+        int blocks = (accountIds.length + CUSTOMER_BLOCK - 1) / CUSTOMER_BLOCK;
+        pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * CUSTOMER_BLOCK;
+            int to = Math.min(from + CUSTOMER_BLOCK, accountIds.length);
+            long[] blockIds = ids.allocate(AccountEntity.ID_SEQUENCE, AccountEntity.ID_ALLOCATION_SIZE, to - from);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                AccountProfile account = accountProfile(i);
+                accountIds[i] = blockIds[i - from];
+                rows.add(new Object[]{accountIds[i], 0L, accountNumber(i), 0.0, account.overdraftLimit(), 0,
+                    account.currency().name(), customerIds[customerIndex(i)]});
+            }
+            insert("""
+                insert into account_entity (id, version, number, balance, overdraft_limit, balance_slots, currency,
+                                            customer_id)
+                values (?, ?, ?, ?, ?, ?, ?, ?)""", rows);
+            written.add(rows.size());
+        })).join();
+        log.info("Generated {} accounts", accountIds.length);
+        return accountIds;
+    }
+
+    /**
+     * Draws the account of every transaction from the Zipf distribution and counts them per account.
+     * <p>
+     * Samples are drawn by blocks with their own seed; workers sum their blocks into a private array, merged at the
+     * end, so the counts do not depend on the parallelism.
+     */
+    private long[] drawActivity() {
+        int accounts = properties.accounts();
+        long total = properties.transactions();
+        long blocks = (total + SAMPLE_BLOCK - 1) / SAMPLE_BLOCK;
+        int workers = properties.parallelism();
+        ZipfSampler zipf = new ZipfSampler(accounts, properties.zipfExponent());
+        long stride = coprimeStride(accounts);
+        return IntStream.range(0, workers).parallel()
+            .mapToObj(worker -> {
+                long[] counts = new long[accounts];
+                for (long block = worker; block < blocks; block += workers) {
+                    SplittableRandom random = random(SALT_ACTIVITY, block);
+                    long samples = Math.min(SAMPLE_BLOCK, total - block * SAMPLE_BLOCK);
+                    for (long s = 0; s < samples; s++) {
+                        // rang -> compte : les comptes les plus actifs sont dispersés parmi les identifiants
+                        int rank = zipf.sample(random);
+                        counts[(int) ((rank - 1) * stride % accounts)]++;
+                    }
+                }
+                return counts;
+            })
+            .reduce((left, right) -> {
+                for (int i = 0; i < accounts; i++) {
+                    left[i] += right[i];
+                }
+                return left;
+            })
+            .orElseGet(() -> new long[accounts]);
+    }
+
+    /**
+     * Generates and writes the histories of one block of accounts, then their balances and activity counters.
+     */
+    private void insertHistories(int block, long[] accountIds, long[] activity, LongAdder transactions,
+                                 LongAdder written) {
+        int from = block * ACCOUNT_BLOCK;
+        int to = Math.min(from + ACCOUNT_BLOCK, accountIds.length);
+        LocalDateTime end = LocalDate.now().atStartOfDay();
+        LocalDateTime start = end.minusDays(properties.days());
+        long span = Duration.between(start, end).toSeconds();
+
+        List<Object[]> transactionRows = new ArrayList<>(properties.batchSize());
+        List<Object[]> snapshotRows = new ArrayList<>();
+        List<Object[]> balanceRows = new ArrayList<>(to - from);
+        List<Object[]> activityRows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            AccountProfile account = accountProfile(i);
+            String[] name = customerName(customerIndex(i));
+            String performedBy = name[0] + " " + name[1];
+            SplittableRandom random = random(SALT_TRANSACTIONS, i);
+            long count = activity[i];
+
+            double balance = 0;
+            double deposits = 0;
+            double withdrawals = 0;
+            double transfersIn = 0;
+            double transfersOut = 0;
+            LocalDateTime date = null;
+            double offset = 0;
+            for (long k = 0; k < count; k++) {
+                // dates croissantes sans tri : minimum des (count - k) tirages uniformes restants
+                offset += (span - offset) * (1 - Math.pow(random.nextDouble(), 1.0 / (count - k)));
+                LocalDateTime next = start.plusSeconds((long) offset);
+                if (date != null && !next.toLocalDate().equals(date.toLocalDate())) {
+                    snapshotRows.add(new Object[]{accountIds[i], Date.valueOf(date.toLocalDate()), balance});
+                }
+                date = next;
+
+                double amount = Math.max(0.01,
+                    Math.round(MEDIAN_AMOUNT * Math.exp(random.nextGaussian() * AMOUNT_SPREAD) * 100) / 100.0);
+                double roll = random.nextDouble();
+                OperationType type = roll < 0.4 ? OperationType.DEPOSIT
+                    : roll < 0.75 ? OperationType.WITHDRAWAL : OperationType.TRANSFER;
+                boolean credit = type == OperationType.DEPOSIT
+                    || type == OperationType.TRANSFER && random.nextBoolean();
+                if (!credit && balance - amount < account.overdraftLimit()) {
+                    type = OperationType.DEPOSIT;
+                    credit = true;
+                }
+                balance = Math.round((credit ? balance + amount : balance - amount) * 100) / 100.0;
+                switch (type) {
+                    case DEPOSIT -> deposits += amount;
+                    case WITHDRAWAL -> withdrawals += amount;
+                    default -> {
+                        if (credit) {
+                            transfersIn += amount;
+                        } else {
+                            transfersOut += amount;
+                        }
+                    }
+                }
+
+                transactionRows.add(new Object[]{Timestamp.valueOf(date), amount, type.name(),
+                    account.currency().name(), performedBy, balance, credit, false, accountIds[i]});
+                if (transactionRows.size() >= properties.batchSize()) {
+                    written.add(writeHistory(transactionRows, snapshotRows, List.of(), List.of()));
+                }
+            }
+            if (date != null) {
+                snapshotRows.add(new Object[]{accountIds[i], Date.valueOf(date.toLocalDate()), balance});
+            }
+            balanceRows.add(new Object[]{balance, accountIds[i]});
+            activityRows.add(new Object[]{accountIds[i], count, deposits, withdrawals, transfersIn, transfersOut,
+                date == null ? null : Timestamp.valueOf(date)});
+            transactions.add(count);
+        }
+        written.add(writeHistory(transactionRows, snapshotRows, balanceRows, activityRows));
+    }
+
+    /**
+     * Writes and clears the buffered rows in one database transaction.
+     *
+     * @return the number of rows written
+     */
+    private long writeHistory(List<Object[]> transactionRows, List<Object[]> snapshotRows,
+                              List<Object[]> balanceRows, List<Object[]> activityRows) {
+        long rows = transactionRows.size() + snapshotRows.size() + balanceRows.size() + activityRows.size();
+        batchTransaction.executeWithoutResult(status -> {
+            if (!transactionRows.isEmpty()) {
+                long[] transactionIds = ids.allocate(TransactionEntity.ID_SEQUENCE,
+                    TransactionEntity.ID_ALLOCATION_SIZE, transactionRows.size());
+                List<Object[]> inserts = new ArrayList<>(transactionRows.size());
+                for (int i = 0; i < transactionRows.size(); i++) {
+                    inserts.add(withId(transactionIds[i], transactionRows.get(i)));
+                }
+                jdbc.batchUpdate("""
+                    insert into transaction_entity (id, date, amount, type, currency, performed_by, balance_after,
+                                                    credit, approximate_balance, account_id)
+                    values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", inserts);
+            }
+            if (!snapshotRows.isEmpty()) {
+                long[] snapshotIds = ids.allocate(BalanceSnapshotEntity.ID_SEQUENCE,
+                    BalanceSnapshotEntity.ID_ALLOCATION_SIZE, snapshotRows.size());
+                List<Object[]> inserts = new ArrayList<>(snapshotRows.size());
+                for (int i = 0; i < snapshotRows.size(); i++) {
+                    inserts.add(withId(snapshotIds[i], snapshotRows.get(i)));
+                }
+                jdbc.batchUpdate("""
+                    insert into balance_snapshot_entity (id, account_id, snapshot_date, closing_balance)
+                    values (?, ?, ?, ?)""", inserts);
+            }
+            if (!balanceRows.isEmpty()) {
+                jdbc.batchUpdate("update account_entity set balance = ? where id = ?", balanceRows);
+            }
+            if (!activityRows.isEmpty()) {
+                jdbc.batchUpdate("""
+                    insert into account_activity_entity (account_id, transaction_count, total_deposits,
+                                                         total_withdrawals, total_transfers_in, total_transfers_out,
+                                                         last_activity_at)
+                    values (?, ?, ?, ?, ?, ?, ?)""", activityRows);
+            }
+        });
+        transactionRows.clear();
+        snapshotRows.clear();
+        return rows;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        batchTransaction.executeWithoutResult(status -> {
+            for (int from = 0; from < rows.size(); from += properties.batchSize()) {
+                jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + properties.batchSize(), rows.size())));
+            }
+        });
+    }
+
+    private static Object[] withId(long id, Object[] row) {
+        Object[] values = new Object[row.length + 1];
+        values[0] = id;
+        System.arraycopy(row, 0, values, 1, row.length);
+        return values;
+    }
+
+    private String keycloakId(int customer) {
+        return UUID.nameUUIDFromBytes(("datagen:" + properties.seed() + ":" + customer)
+            .getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private String[] customerName(int customer) {
+        SplittableRandom random = random(SALT_CUSTOMER, customer);
+        return new String[]{FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+            LAST_NAMES[random.nextInt(LAST_NAMES.length)]};
+    }
+
+    /** Accounts are spread evenly and contiguously over the customers. */
+    private int customerIndex(int account) {
+        return (int) ((long) account * properties.customers() / properties.accounts());
+    }
+
+    private static String accountNumber(int account) {
+        return "ACC-%09d".formatted(account);
+    }
+
+    private AccountProfile accountProfile(int account) {
+        SplittableRandom random = random(SALT_ACCOUNT, account);
+        double roll = random.nextDouble();
+        Currency currency = roll < 0.9 ? Currency.EUR : roll < 0.97 ? Currency.USD : Currency.GBP;
+        return new AccountProfile(currency, OVERDRAFT_LIMITS[random.nextInt(OVERDRAFT_LIMITS.length)]);
+    }
+
+    /**
+     * Generator dedicated to one item of one kind, independent of the order in which items are generated.
+     */
+    private SplittableRandom random(long salt, long index) {
+        return new SplittableRandom(properties.seed() + salt * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L);
+    }
+
+    /**
+     * A multiplier coprime with {@code n}, so that {@code rank * stride mod n} is a permutation of the accounts.
+     */
+    static long coprimeStride(int n) {
+        return LongStream.iterate((long) (n * 0.618_033_988_7) + 1, stride -> stride + 1)
+            .filter(stride -> gcd(stride, n) == 1)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private record AccountProfile(Currency currency, double overdraftLimit) {
+    }
+}
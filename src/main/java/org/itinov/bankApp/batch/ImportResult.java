@@ -0,0 +1,26 @@
+package org.itinov.bankApp.batch;
+
+import java.util.List;
+
+/**
+ * Outcome of a ledger import run.
+ *
+ * @param report        throughput of the run (items are the lines read, rows written the imported transactions)
+ * @param rejectedCount lines rejected, including those not kept in {@code rejections}
+ * @param rejections    the first rejected lines, bounded by {@code bank.transaction-import.max-reported-rejections}
+ */
+public record ImportResult(
+    BatchReport report,
+    long rejectedCount,
+    List<Rejection> rejections
+) {
+
+    /**
+     * One rejected line.
+     *
+     * @param offset the byte offset of the line in the file
+     * @param reason why it was rejected
+     */
+    public record Rejection(long offset, String reason) {
+    }
+}
@@ -0,0 +1,271 @@
+package org.itinov.bankApp.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.InterestAccrualProperties;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.itinov.bankApp.infrastructure.entity.JobCheckpointEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.JobCheckpointRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-of-day accrual of interest on positive balances and overdraft fees on negative ones.
+ * <p>
+ * Accounts are split into id ranges persisted as {@link JobCheckpointEntity} rows for the business date. Pending
+ * partitions run on a dedicated fork-join pool; each one is read in id order by chunks, and every chunk is a single
+ * transaction that locks its accounts, writes the INTEREST/FEE transactions, balance updates, daily balance
+ * snapshots and activity counters as JDBC batches and advances the partition checkpoint. Running the job again for
+ * the same date therefore resumes a crashed run where it stopped and is a no-op once every partition is completed.
+ * <p>
+ * The business date only keys the run. The accruals are computed on the balance read under the chunk lock, so they
+ * are dated when the chunk posts them and update the snapshot of that day; dating them at the end of the business
+ * date would give them a balance after that ignores every operation between that time and the run.
+ */
+@Slf4j
+@Component
+public class InterestAccrualJob {
+
+    public static final String JOB_NAME = "interest-accrual";
+    static final String PERFORMED_BY = "system:" + JOB_NAME;
+    private static final int DAYS_PER_YEAR = 365;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate chunkTransaction;
+    private final JobCheckpointRepository checkpoints;
+    private final SequenceIdAllocator ids;
+    private final InterestAccrualProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public InterestAccrualJob(JdbcTemplate jdbc,
+                              PlatformTransactionManager transactionManager,
+                              JobCheckpointRepository checkpoints,
+                              SequenceIdAllocator ids,
+                              InterestAccrualProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkpoints = checkpoints;
+        this.ids = ids;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${bank.interest-accrual.cron:-}")
+    public void runForToday() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Accrues one day of interest and fees on every account, or finishes a previous attempt for that day.
+     *
+     * @param businessDate the accrued day
+     * @return the run report
+     */
+    public BatchReport run(LocalDate businessDate) {
+        String runKey = businessDate.toString();
+        List<JobCheckpointEntity> pending = chunkTransaction.execute(status -> preparePartitions(runKey)).stream()
+            .filter(partition -> !partition.isCompleted())
+            .toList();
+
+        LongAdder accounts = new LongAdder();
+        LongAdder written = new LongAdder();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(properties.parallelism());
+        try {
+            List<ForkJoinTask<?>> tasks = pending.stream()
+                .<ForkJoinTask<?>>map(partition -> ForkJoinTask.adapt(
+                    () -> processPartition(partition, accounts, written)))
+                .toList();
+            pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+        } finally {
+            pool.shutdown();
+            sample.stop(meterRegistry.timer("bank.batch.duration", "job", JOB_NAME));
+        }
+
+        BatchReport report = new BatchReport(JOB_NAME, runKey, pending.size(), accounts.sum(), written.sum(),
+            Duration.ofNanos(System.nanoTime() - start));
+        meterRegistry.counter("bank.batch.items", "job", JOB_NAME).increment(report.items());
+        log.info("Batch {}", report);
+        return report;
+    }
+
+    /**
+     * Signed daily accrual for a balance, rounded to the cent: interest when positive, fee when negative.
+     */
+    static double dailyAccrual(double balance, double creditRate, double overdraftRate) {
+        double rate = balance >= 0 ? creditRate : overdraftRate;
+        return Math.round(balance * rate / DAYS_PER_YEAR * 100) / 100.0;
+    }
+
+    private List<JobCheckpointEntity> preparePartitions(String runKey) {
+        List<JobCheckpointEntity> existing = checkpoints.findByJobNameAndRunKeyOrderByPartitionStartAsc(JOB_NAME, runKey);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+        Map<String, Object> bounds = jdbc.queryForMap("select min(id) as min_id, max(id) as max_id from account_entity");
+        if (bounds.get("min_id") == null) {
+            return List.of();
+        }
+        long min = ((Number) bounds.get("min_id")).longValue();
+        long max = ((Number) bounds.get("max_id")).longValue();
+        LocalDateTime now = LocalDateTime.now();
+        List<JobCheckpointEntity> partitions = new ArrayList<>();
+        for (long start = min - 1; start < max; start += properties.partitionSize()) {
+            partitions.add(JobCheckpointEntity.builder()
+                .jobName(JOB_NAME)
+                .runKey(runKey)
+                .partitionStart(start)
+                .partitionEnd(Math.min(start + properties.partitionSize(), max))
+                .position(start)
+                .updatedAt(now)
+                .build());
+        }
+        return checkpoints.saveAll(partitions);
+    }
+
+    private void processPartition(JobCheckpointEntity partition, LongAdder accounts, LongAdder written) {
+        long start = System.nanoTime();
+        long position = partition.getPosition();
+        long processed = 0;
+        ChunkResult chunk;
+        do {
+            long after = position;
+            chunk = chunkTransaction.execute(status -> processChunk(partition, after));
+            position = chunk.lastId();
+            processed += chunk.accounts();
+            accounts.add(chunk.accounts());
+            written.add(chunk.transactions());
+        } while (!chunk.last());
+        log.debug("Partition ({}, {}] of {} done: {} accounts in {} ms", partition.getPartitionStart(),
+            partition.getPartitionEnd(), partition.getRunKey(), processed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ChunkResult processChunk(JobCheckpointEntity partition, long after) {
+        List<AccountRow> rows = jdbc.query("""
+                select id, balance, balance_slots, currency from account_entity
+                where id > ? and id <= ? order by id fetch first ? rows only for update""",
+            (rs, i) -> new AccountRow(rs.getLong("id"), rs.getDouble("balance"), rs.getInt("balance_slots"),
+                rs.getString("currency")),
+            after, partition.getPartitionEnd(), properties.chunkSize());
+        boolean last = rows.size() < properties.chunkSize();
+        long lastId = rows.isEmpty() ? after : rows.getLast().id();
+
+        Map<Long, Double> slotSums = rows.stream().anyMatch(row -> row.balanceSlots() > 0)
+            ? AccountBalances.slotSums(jdbc, after, lastId)
+            : Map.of();
+        LocalDateTime postedAt = LocalDateTime.now();
+        List<Accrual> accruals = new ArrayList<>();
+        for (AccountRow row : rows) {
+            double balance = row.balance() + slotSums.getOrDefault(row.id(), 0.0);
+            double accrual = dailyAccrual(balance, properties.creditRate(), properties.overdraftRate());
+            if (accrual != 0) {
+                accruals.add(new Accrual(row, accrual, balance + accrual));
+            }
+        }
+        if (!accruals.isEmpty()) {
+            write(accruals, postedAt);
+        }
+        checkpoints.advance(partition.getId(), last ? partition.getPartitionEnd() : lastId, last, postedAt);
+        return new ChunkResult(last ? partition.getPartitionEnd() : lastId, rows.size(), accruals.size(), last);
+    }
+
+    /**
+     * Writes the accrual transactions, the balance updates, the closing balance of the day and the activity counters
+     * as JDBC batches. Split accounts get no snapshot here: their day is closed by {@code BalanceSnapshots}.
+     */
+    private void write(List<Accrual> accruals, LocalDateTime postedAt) {
+        Timestamp date = Timestamp.valueOf(postedAt);
+        long[] transactionIds = ids.allocate(TransactionEntity.ID_SEQUENCE, TransactionEntity.ID_ALLOCATION_SIZE,
+            accruals.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < accruals.size(); i++) {
+            Accrual accrual = accruals.get(i);
+            OperationType type = accrual.amount() > 0 ? OperationType.INTEREST : OperationType.FEE;
+            inserts.add(new Object[]{transactionIds[i], date, Math.abs(accrual.amount()), type.name(),
+                accrual.account().currency(), PERFORMED_BY, accrual.balanceAfter(), accrual.amount() > 0,
+                accrual.account().balanceSlots() > 0, accrual.account().id()});
+        }
+        jdbc.batchUpdate("""
+            insert into transaction_entity (id, date, amount, type, currency, performed_by, balance_after, credit,
+                                            approximate_balance, account_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", inserts);
+        // bumping the version makes concurrent JPA writers of these accounts retry instead of overwriting
+        jdbc.batchUpdate("update account_entity set balance = balance + ?, version = version + 1 where id = ?",
+            accruals.stream().map(a -> new Object[]{a.amount(), a.account().id()}).toList());
+
+        // the accounts are locked by this chunk, so the update-then-insert of the snapshots cannot race
+        Date day = Date.valueOf(postedAt.toLocalDate());
+        List<Accrual> unsplit = accruals.stream().filter(a -> a.account().balanceSlots() == 0).toList();
+        List<Accrual> missing = notUpdated(unsplit, jdbc.batchUpdate(
+            "update balance_snapshot_entity set closing_balance = ? where account_id = ? and snapshot_date = ?",
+            unsplit.stream().map(a -> new Object[]{a.balanceAfter(), a.account().id(), day}).toList()));
+        if (!missing.isEmpty()) {
+            long[] snapshotIds = ids.allocate(BalanceSnapshotEntity.ID_SEQUENCE,
+                BalanceSnapshotEntity.ID_ALLOCATION_SIZE, missing.size());
+            List<Object[]> snapshots = new ArrayList<>();
+            for (int i = 0; i < missing.size(); i++) {
+                snapshots.add(new Object[]{snapshotIds[i], missing.get(i).account().id(), day,
+                    missing.get(i).balanceAfter()});
+            }
+            jdbc.batchUpdate("""
+                insert into balance_snapshot_entity (id, account_id, snapshot_date, closing_balance)
+                values (?, ?, ?, ?)""", snapshots);
+        }
+
+        // interest and fees only count as activity, their amounts are not part of the deposit/withdrawal totals
+        List<Accrual> withoutCounters = notUpdated(accruals, jdbc.batchUpdate("""
+                update account_activity_entity set transaction_count = transaction_count + 1,
+                    last_activity_at = case when last_activity_at is null or last_activity_at < ? then ?
+                                            else last_activity_at end
+                where account_id = ?""",
+            accruals.stream().map(a -> new Object[]{date, date, a.account().id()}).toList()));
+        if (!withoutCounters.isEmpty()) {
+            jdbc.batchUpdate("""
+                insert into account_activity_entity (account_id, transaction_count, total_deposits, total_withdrawals,
+                    total_transfers_in, total_transfers_out, last_activity_at)
+                values (?, 1, 0, 0, 0, 0, ?)""",
+                withoutCounters.stream().map(a -> new Object[]{a.account().id(), date}).toList());
+        }
+    }
+
+    private static List<Accrual> notUpdated(List<Accrual> accruals, int[] updated) {
+        List<Accrual> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(accruals.get(i));
+            }
+        }
+        return missing;
+    }
+
+    private record AccountRow(long id, double balance, int balanceSlots, String currency) {
+    }
+
+    private record Accrual(AccountRow account, double amount, double balanceAfter) {
+    }
+
+    private record ChunkResult(long lastId, int accounts, int transactions, boolean last) {
+    }
+}
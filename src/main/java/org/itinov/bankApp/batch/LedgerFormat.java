@@ -0,0 +1,115 @@
+package org.itinov.bankApp.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Line formats of the ledger files accepted by the transaction import, chosen by file extension.
+ * Both carry the fields of {@link LedgerRecord}; parsing is stateless, so lines may be parsed concurrently.
+ */
+enum LedgerFormat {
+
+    /**
+     * Comma-separated values in the order {@code accountNumber,date,type,amount,currency,balanceAfter,performedBy},
+     * with an optional header line; fields may be enclosed in double quotes ({@code ""} inside quotes is a quote).
+     */
+    CSV {
+        @Override
+        LedgerRecord parse(String line) {
+            List<String> fields = split(line);
+            if (fields.size() < 6 || fields.size() > 7) {
+                throw new IllegalArgumentException("expected 6 or 7 fields, found " + fields.size());
+            }
+            if (fields.getFirst().equalsIgnoreCase("accountNumber")) {
+                return null;
+            }
+            return LedgerRecord.of(fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4),
+                fields.get(5), fields.size() == 7 ? fields.get(6) : null);
+        }
+    },
+
+    /**
+     * One JSON object per line, with the field names of {@link LedgerRecord}.
+     */
+    NDJSON {
+        @Override
+        LedgerRecord parse(String line) {
+            JsonNode node;
+            try {
+                node = JSON.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("expected a JSON object");
+            }
+            return LedgerRecord.of(text(node, "accountNumber"), text(node, "date"), text(node, "type"),
+                text(node, "amount"), text(node, "currency"), text(node, "balanceAfter"), text(node, "performedBy"));
+        }
+    };
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Parses one line.
+     *
+     * @param line a non-blank line of the file
+     * @return the record, or {@code null} if the line is a header
+     * @throws IllegalArgumentException with the reason why the line is rejected
+     */
+    abstract LedgerRecord parse(String line);
+
+    static LedgerFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported ledger file type: " + file.getFileName()
+            + " (expected .csv, .ndjson or .jsonl)");
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(7);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
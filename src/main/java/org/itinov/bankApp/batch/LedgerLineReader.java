@@ -0,0 +1,92 @@
+package org.itinov.bankApp.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a UTF-8 text file line by line through a {@link FileChannel}, keeping only one buffer and the current line in
+ * memory, and tells the byte offset right after each line so that a later reader can resume there.
+ */
+class LedgerLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * A line without its terminator.
+     *
+     * @param text      the decoded line
+     * @param endOffset the offset of the first byte after the line terminator
+     */
+    record Line(String text, long endOffset) {
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private long offset;
+    private boolean eof;
+
+    /**
+     * Opens a file for reading from a byte offset, which must be the start of a line.
+     *
+     * @param file   the file
+     * @param offset where to start, 0 for the beginning of the file
+     */
+    LedgerLineReader(Path file, long offset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.channel.position(offset);
+        this.offset = offset;
+        this.buffer.flip();
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return the line, or {@code null} at the end of the file
+     */
+    Line next() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (eof || !fill()) {
+                    eof = true;
+                    return length == 0 ? null : toLine(length);
+                }
+            }
+            byte b = buffer.get();
+            offset++;
+            if (b == '\n') {
+                return toLine(length);
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = b;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read = channel.read(buffer);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private Line toLine(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new Line(new String(line, 0, length, StandardCharsets.UTF_8), offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
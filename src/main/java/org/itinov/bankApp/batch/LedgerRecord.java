@@ -0,0 +1,84 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One transaction of an imported ledger.
+ *
+ * @param amount signed amount: positive when it credits the account, negative when it debits it, which gives the
+ *               direction of TRANSFER rows
+ */
+record LedgerRecord(
+    String accountNumber,
+    LocalDateTime date,
+    OperationType type,
+    double amount,
+    Currency currency,
+    double balanceAfter,
+    String performedBy
+) {
+
+    static final String DEFAULT_PERFORMER = "system:import";
+
+    boolean credit() {
+        return amount > 0;
+    }
+
+    /**
+     * Parses and validates the fields of a record, independently of the database.
+     *
+     * @throws IllegalArgumentException with the reason of the rejection
+     */
+    static LedgerRecord of(String accountNumber, String date, String type, String amount, String currency,
+                           String balanceAfter, String performedBy) {
+        if (accountNumber == null || accountNumber.isBlank()) {
+            throw new IllegalArgumentException("missing account number");
+        }
+        OperationType operation = parseEnum(OperationType.class, type, "type");
+        double value = parseAmount(amount, "amount");
+        if (value == 0) {
+            throw new IllegalArgumentException("zero amount");
+        }
+        boolean credit = switch (operation) {
+            case DEPOSIT, INTEREST -> true;
+            case WITHDRAWAL, FEE -> false;
+            case TRANSFER -> value > 0;
+        };
+        if (credit != value > 0) {
+            throw new IllegalArgumentException(operation + " amount must be " + (credit ? "positive" : "negative"));
+        }
+        LocalDateTime at;
+        try {
+            at = LocalDateTime.parse(date == null ? "" : date.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid date '" + date + "'");
+        }
+        return new LedgerRecord(accountNumber.trim(), at, operation, value,
+            parseEnum(Currency.class, currency, "currency"), parseAmount(balanceAfter, "balanceAfter"),
+            performedBy == null || performedBy.isBlank() ? DEFAULT_PERFORMER : performedBy.trim());
+    }
+
+    private static double parseAmount(String text, String field) {
+        try {
+            double value = Double.parseDouble(text == null ? "" : text.trim());
+            if (Double.isFinite(value)) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("invalid " + field + " '" + text + "'");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String text, String field) {
+        try {
+            return Enum.valueOf(type, text == null ? "" : text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + text + "'");
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package org.itinov.bankApp.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.batch.ReconciliationResult.Drift;
+import org.itinov.bankApp.batch.ReconciliationResult.DriftKind;
+import org.itinov.bankApp.config.ReconciliationProperties;
+import org.itinov.bankApp.infrastructure.entity.ReconciliationCheckpointEntity;
+import org.itinov.bankApp.infrastructure.repository.ReconciliationCheckpointRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies that the {@code balanceAfter} chain of every account adds up to its current balance.
+ * <p>
+ * Accounts are read by pages in id order and verified concurrently, one page at a time, so memory stays bounded by
+ * the page size whatever the number of accounts. Each account's transactions are walked in (date, id) order with a
+ * keyset cursor on the (account_id, date, id) index, keeping a running balance: every exact {@code balanceAfter} must
+ * equal the running balance plus or minus the amount, according to the direction of the row, and the running balance
+ * must end on the logical balance of the account (including its balance slots).
+ * <p>
+ * Rows posted on a split balance account have an approximate {@code balanceAfter}, which concurrent deposits make
+ * out of order, so they are not chain-checked: only their amount moves the running balance, and they are reconciled
+ * against the balance plus the slots alone. The first row of an account opens the running balance at its
+ * {@code balanceAfter}, or at zero plus its amount when that balance is approximate.
+ * <p>
+ * The last verified transaction of a consistent account and its running balance are stored as a
+ * {@link ReconciliationCheckpointEntity}; the {@link Mode#INCREMENTAL incremental} mode only walks the transactions
+ * after it. Accounts with a drift keep their previous checkpoint, so the drift is reported again until it is fixed.
+ */
+@Slf4j
+@Component
+public class ReconciliationJob {
+
+    public static final String JOB_NAME = "reconciliation";
+    /** a balance read before newer transactions were committed is refreshed this many times before reporting it */
+    private static final int MAX_BALANCE_READS = 3;
+
+    public enum Mode {
+        /** walks every transaction from the beginning of each account */
+        FULL,
+        /** walks only the transactions after each account's checkpoint */
+        INCREMENTAL
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final ReconciliationCheckpointRepository checkpoints;
+    private final ReconciliationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ReconciliationJob(JdbcTemplate jdbc,
+                             PlatformTransactionManager transactionManager,
+                             ReconciliationCheckpointRepository checkpoints,
+                             ReconciliationProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.checkpoints = checkpoints;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${bank.reconciliation.cron:-}")
+    public void runIncremental() {
+        run(Mode.INCREMENTAL);
+    }
+
+    /**
+     * Reconciles every account.
+     *
+     * @param mode whether to start from the beginning of each account or from its checkpoint
+     * @return the drifts found and the run report
+     */
+    public ReconciliationResult run(Mode mode) {
+        long scanned = 0;
+        List<Drift> drifts = new ArrayList<>();
+        long driftCount = 0;
+        long accounts = 0;
+        long written = 0;
+        int pages = 0;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(properties.parallelism())) {
+            long after = 0;
+            List<AccountRow> page;
+            do {
+                page = readAccounts(after);
+                if (page.isEmpty()) {
+                    break;
+                }
+                Map<Long, ReconciliationCheckpointEntity> previous = mode == Mode.FULL
+                    ? Map.of()
+                    : checkpoints.findAllById(page.stream().map(AccountRow::id).toList()).stream()
+                    .collect(Collectors.toMap(ReconciliationCheckpointEntity::getAccountId, Function.identity()));
+
+                List<CompletableFuture<AccountCheck>> checks = page.stream()
+                    .map(account -> CompletableFuture.supplyAsync(
+                        () -> verify(account, previous.get(account.id())), pool))
+                    .toList();
+                List<ReconciliationCheckpointEntity> verified = new ArrayList<>();
+                for (CompletableFuture<AccountCheck> future : checks) {
+                    AccountCheck check = future.join();
+                    scanned += check.scanned();
+                    if (check.drift() != null) {
+                        driftCount++;
+                        log.warn("Balance drift on account {}: {}", check.drift().accountId(), check.drift());
+                        if (drifts.size() < properties.maxReportedDrifts()) {
+                            drifts.add(check.drift());
+                        }
+                    } else if (check.checkpoint() != null) {
+                        verified.add(check.checkpoint());
+                    }
+                }
+                written += saveCheckpoints(verified);
+                accounts += page.size();
+                pages++;
+                after = page.getLast().id();
+            } while (page.size() == properties.accountPageSize());
+        } finally {
+            sample.stop(meterRegistry.timer("bank.batch.duration", "job", JOB_NAME));
+        }
+
+        BatchReport report = new BatchReport(JOB_NAME, mode.name().toLowerCase(), pages, scanned, written,
+            Duration.ofNanos(System.nanoTime() - start));
+        meterRegistry.counter("bank.batch.items", "job", JOB_NAME).increment(report.items());
+        meterRegistry.counter("bank.reconciliation.drifts").increment(driftCount);
+        log.info("Batch {}, {} accounts verified, {} drifts", report, accounts, driftCount);
+        return new ReconciliationResult(report, accounts, driftCount, List.copyOf(drifts));
+    }
+
+    private List<AccountRow> readAccounts(long after) {
+        List<AccountRow> rows = jdbc.query(
+            "select id, balance, balance_slots from account_entity where id > ? order by id fetch first ? rows only",
+            (rs, i) -> new AccountRow(rs.getLong("id"), rs.getDouble("balance"), rs.getInt("balance_slots") > 0),
+            after, properties.accountPageSize());
+        if (rows.stream().noneMatch(AccountRow::split)) {
+            return rows;
+        }
+        Map<Long, Double> slotSums = AccountBalances.slotSums(jdbc, after, rows.getLast().id());
+        return rows.stream()
+            .map(row -> new AccountRow(row.id(), row.balance() + slotSums.getOrDefault(row.id(), 0.0), row.split()))
+            .toList();
+    }
+
+    private AccountCheck verify(AccountRow account, ReconciliationCheckpointEntity checkpoint) {
+        Cursor cursor = checkpoint == null
+            ? new Cursor(null, null, null)
+            : new Cursor(checkpoint.getLastTransactionDate(), checkpoint.getLastTransactionId(),
+            checkpoint.getLastBalanceAfter());
+        Drift chainDrift = null;
+        long scanned = 0;
+        double balance = account.balance();
+
+        for (int read = 1; ; read++) {
+            List<TransactionRow> rows;
+            do {
+                rows = readTransactions(account.id(), cursor);
+                for (TransactionRow row : rows) {
+                    double running;
+                    if (row.approximateBalance()) {
+                        running = (cursor.balance() == null ? 0 : cursor.balance()) + row.signedAmount();
+                    } else {
+                        if (chainDrift == null && cursor.balance() != null) {
+                            chainDrift = checkLink(account.id(), cursor.balance(), row);
+                        }
+                        running = row.balanceAfter();
+                    }
+                    cursor = new Cursor(row.date(), row.id(), running);
+                    scanned++;
+                }
+            } while (rows.size() == properties.transactionPageSize());
+
+            // an account without transactions has nothing to compare its balance with
+            if (cursor.balance() == null || matches(cursor.balance(), balance)) {
+                break;
+            }
+            if (read == MAX_BALANCE_READS) {
+                Drift balanceDrift = new Drift(account.id(), cursor.id(), DriftKind.BALANCE, cursor.balance(),
+                    balance);
+                return new AccountCheck(scanned, chainDrift != null ? chainDrift : balanceDrift, null);
+            }
+            // transactions committed after the balance was read: read it again and follow them
+            balance = AccountBalances.logicalBalance(jdbc, account.id());
+        }
+
+        if (chainDrift != null) {
+            return new AccountCheck(scanned, chainDrift, null);
+        }
+        boolean moved = cursor.id() != null
+            && (checkpoint == null || !cursor.id().equals(checkpoint.getLastTransactionId()));
+        return new AccountCheck(scanned, null, moved
+            ? ReconciliationCheckpointEntity.builder()
+            .accountId(account.id())
+            .lastTransactionId(cursor.id())
+            .lastTransactionDate(cursor.date())
+            .lastBalanceAfter(cursor.balance())
+            .checkedAt(LocalDateTime.now())
+            .build()
+            : null);
+    }
+
+    private Drift checkLink(long accountId, double previous, TransactionRow row) {
+        double expected = previous + row.signedAmount();
+        return matches(expected, row.balanceAfter())
+            ? null
+            : new Drift(accountId, row.id(), DriftKind.CHAIN, expected, row.balanceAfter());
+    }
+
+    private boolean matches(double expected, double actual) {
+        return Math.abs(expected - actual) <= properties.tolerance();
+    }
+
+    private List<TransactionRow> readTransactions(long accountId, Cursor cursor) {
+        if (cursor.id() == null) {
+            return jdbc.query("""
+                    select id, date, amount, credit, balance_after, approximate_balance from transaction_entity
+                    where account_id = ? order by date, id fetch first ? rows only""",
+                TransactionRow::map, accountId, properties.transactionPageSize());
+        }
+        Timestamp date = Timestamp.valueOf(cursor.date());
+        return jdbc.query("""
+                select id, date, amount, credit, balance_after, approximate_balance from transaction_entity
+                where account_id = ? and (date > ? or (date = ? and id > ?))
+                order by date, id fetch first ? rows only""",
+            TransactionRow::map, accountId, date, date, cursor.id(), properties.transactionPageSize());
+    }
+
+    /**
+     * Upserts the checkpoints of one account page as two JDBC batches.
+     */
+    private int saveCheckpoints(List<ReconciliationCheckpointEntity> verified) {
+        if (verified.isEmpty()) {
+            return 0;
+        }
+        return transaction.execute(status -> {
+            int[] updated = jdbc.batchUpdate("""
+                    update reconciliation_checkpoint_entity
+                    set last_transaction_id = ?, last_transaction_date = ?, last_balance_after = ?, checked_at = ?
+                    where account_id = ?""",
+                verified.stream().map(c -> new Object[]{c.getLastTransactionId(),
+                    Timestamp.valueOf(c.getLastTransactionDate()), c.getLastBalanceAfter(),
+                    Timestamp.valueOf(c.getCheckedAt()), c.getAccountId()}).toList());
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    ReconciliationCheckpointEntity c = verified.get(i);
+                    inserts.add(new Object[]{c.getAccountId(), c.getLastTransactionId(),
+                        Timestamp.valueOf(c.getLastTransactionDate()), c.getLastBalanceAfter(),
+                        Timestamp.valueOf(c.getCheckedAt())});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbc.batchUpdate("""
+                    insert into reconciliation_checkpoint_entity
+                    (account_id, last_transaction_id, last_transaction_date, last_balance_after, checked_at)
+                    values (?, ?, ?, ?, ?)""", inserts);
+            }
+            return verified.size();
+        });
+    }
+
+    private record AccountRow(long id, double balance, boolean split) {
+    }
+
+    private record TransactionRow(long id, LocalDateTime date, double amount, boolean credit,
+                                  double balanceAfter, boolean approximateBalance) {
+
+        static TransactionRow map(ResultSet rs, int rowNum) throws SQLException {
+            return new TransactionRow(rs.getLong("id"), rs.getTimestamp("date").toLocalDateTime(),
+                rs.getDouble("amount"), rs.getBoolean("credit"), rs.getDouble("balance_after"),
+                rs.getBoolean("approximate_balance"));
+        }
+
+        double signedAmount() {
+            return credit ? amount : -amount;
+        }
+    }
+
+    /** position of an account scan: the last transaction read and the running balance, all null before the first one */
+    private record Cursor(LocalDateTime date, Long id, Double balance) {
+    }
+
+    private record AccountCheck(long scanned, Drift drift, ReconciliationCheckpointEntity checkpoint) {
+    }
+}
@@ -0,0 +1,38 @@
+package org.itinov.bankApp.batch;
+
+import java.util.List;
+
+/**
+ * Outcome of a reconciliation run.
+ *
+ * @param report     throughput of the run (items are the transactions scanned, rows written the checkpoints)
+ * @param accounts   accounts verified
+ * @param driftCount drifts found, including those not kept in {@code drifts}
+ * @param drifts     the first drifts found, bounded by {@code bank.reconciliation.max-reported-drifts}
+ */
+public record ReconciliationResult(
+    BatchReport report,
+    long accounts,
+    long driftCount,
+    List<Drift> drifts
+) {
+
+    public enum DriftKind {
+        /** a transaction's balanceAfter does not follow from the previous one and its amount */
+        CHAIN,
+        /** the balance after the last transaction differs from the current account balance */
+        BALANCE
+    }
+
+    /**
+     * One inconsistency found on an account.
+     *
+     * @param accountId     the account
+     * @param transactionId the offending transaction, or the last one for a {@link DriftKind#BALANCE} drift
+     * @param kind          what does not add up
+     * @param expected      the balance implied by the chain
+     * @param actual        the stored balance
+     */
+    public record Drift(long accountId, Long transactionId, DriftKind kind, double expected, double actual) {
+    }
+}
@@ -0,0 +1,55 @@
+package org.itinov.bankApp.batch;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserves entity ids for rows inserted over plain JDBC.
+ * <p>
+ * Follows Hibernate's pooled optimizer: a sequence value {@code hi} owns the ids {@code (hi - allocationSize, hi]},
+ * so ids handed out here never collide with the ones Hibernate generates for regular operations.
+ */
+@Component
+class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbc;
+    private final Dialect dialect;
+    private final Map<String, String> nextValueSql = new ConcurrentHashMap<>();
+
+    SequenceIdAllocator(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    /**
+     * Reserves ids from a pooled sequence, one sequence call per block of {@code allocationSize} ids.
+     *
+     * @param sequence       the sequence name, as declared on the entity
+     * @param allocationSize the allocation size declared on the entity
+     * @param count          the number of ids needed
+     * @return the reserved ids, in increasing order
+     */
+    long[] allocate(String sequence, int allocationSize, int count) {
+        String sql = nextValueSql.computeIfAbsent(sequence,
+            name -> dialect.getSequenceSupport().getSequenceNextValString(name));
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            Long hi = jdbc.queryForObject(sql, Long.class);
+            if (hi == null || hi < allocationSize) {
+                // initial value of the sequence: Hibernate keeps the ids up to the next value for itself
+                continue;
+            }
+            for (long id = hi - allocationSize + 1; id <= hi && filled < count; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,261 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.batch.SnapshotTable.Column;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar, compressed file format of the bank state snapshots.
+ * <p>
+ * Layout: a magic number, then the row groups of every table one after the other, then a footer indexing them and
+ * its offset. In a row group each column is encoded by its {@link ColumnType} and deflated on its own, so similar
+ * values sit next to each other and compress well. Row groups are independent: the reader memory-maps each one and
+ * several threads can decode different groups at the same time.
+ */
+final class SnapshotFile {
+
+    private static final byte[] MAGIC = "BKSNAP01".getBytes(StandardCharsets.US_ASCII);
+    private static final int TRAILER_LENGTH = Long.BYTES + MAGIC.length;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Decoded rows of a group, column by column: {@code columns[column][row]}.
+     */
+    record RowGroup(int rows, Object[][] columns) {
+    }
+
+    record GroupIndex(long offset, int rows, int[] compressedLengths, int[] rawLengths) {
+
+        long length() {
+            return Arrays.stream(compressedLengths).asLongStream().sum();
+        }
+    }
+
+    record TableIndex(String tableName, List<Column> columns, List<GroupIndex> groups) {
+
+        long rows() {
+            return groups.stream().mapToLong(GroupIndex::rows).sum();
+        }
+    }
+
+    /**
+     * Appends tables to a new file; the footer is written by {@link #close()}.
+     */
+    static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final List<TableIndex> tables = new ArrayList<>();
+        private final Deflater deflater = new Deflater();
+        private long position;
+
+        Writer(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+            write(MAGIC);
+        }
+
+        void beginTable(String tableName, List<Column> columns) {
+            tables.add(new TableIndex(tableName, columns, new ArrayList<>()));
+        }
+
+        /**
+         * Writes a row group of the current table.
+         */
+        void write(RowGroup group) throws IOException {
+            TableIndex table = tables.getLast();
+            int columnCount = table.columns().size();
+            int[] compressedLengths = new int[columnCount];
+            int[] rawLengths = new int[columnCount];
+            long offset = position;
+            for (int c = 0; c < columnCount; c++) {
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                table.columns().get(c).type().encode(group.columns()[c], group.rows(), raw);
+                byte[] compressed = deflate(raw.toByteArray());
+                rawLengths[c] = raw.size();
+                compressedLengths[c] = compressed.length;
+                write(compressed);
+            }
+            table.groups().add(new GroupIndex(offset, group.rows(), compressedLengths, rawLengths));
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                deflater.end();
+                long footerOffset = position;
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream footer = new DataOutputStream(bytes);
+                footer.writeInt(tables.size());
+                for (TableIndex table : tables) {
+                    footer.writeUTF(table.tableName());
+                    footer.writeInt(table.columns().size());
+                    for (Column column : table.columns()) {
+                        footer.writeUTF(column.name());
+                        footer.writeUTF(column.type().name());
+                    }
+                    footer.writeInt(table.groups().size());
+                    for (GroupIndex group : table.groups()) {
+                        footer.writeLong(group.offset());
+                        footer.writeInt(group.rows());
+                        for (int c = 0; c < table.columns().size(); c++) {
+                            footer.writeInt(group.compressedLengths()[c]);
+                            footer.writeInt(group.rawLengths()[c]);
+                        }
+                    }
+                }
+                footer.writeLong(footerOffset);
+                footer.write(MAGIC);
+                write(bytes.toByteArray());
+                channel.force(true);
+            }
+        }
+
+        private byte[] deflate(byte[] raw) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot; {@link #read} is thread-safe.
+     */
+    static final class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final List<TableIndex> tables;
+
+        Reader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                this.tables = readFooter(file);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        List<TableIndex> tables() {
+            return tables;
+        }
+
+        RowGroup read(TableIndex table, GroupIndex group) {
+            try {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, group.offset(), group.length());
+                Object[][] columns = new Object[table.columns().size()][];
+                Inflater inflater = new Inflater();
+                try {
+                    int start = 0;
+                    for (int c = 0; c < columns.length; c++) {
+                        byte[] raw = new byte[group.rawLengths()[c]];
+                        inflater.reset();
+                        inflater.setInput(mapped.slice(start, group.compressedLengths()[c]));
+                        int filled = 0;
+                        while (filled < raw.length && !inflater.finished()) {
+                            filled += inflater.inflate(raw, filled, raw.length - filled);
+                        }
+                        columns[c] = table.columns().get(c).type().decode(ByteBuffer.wrap(raw), group.rows());
+                        start += group.compressedLengths()[c];
+                    }
+                } finally {
+                    inflater.end();
+                }
+                return new RowGroup(group.rows(), columns);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupted snapshot row group at offset " + group.offset(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private List<TableIndex> readFooter(Path file) throws IOException {
+            long size = channel.size();
+            if (size < MAGIC.length + TRAILER_LENGTH || !Arrays.equals(MAGIC, readBytes(0, MAGIC.length))) {
+                throw new IllegalArgumentException("Not a bank snapshot: " + file.getFileName());
+            }
+            ByteBuffer trailer = ByteBuffer.wrap(readBytes(size - TRAILER_LENGTH, TRAILER_LENGTH));
+            long footerOffset = trailer.getLong();
+            byte[] magic = new byte[MAGIC.length];
+            trailer.get(magic);
+            if (!Arrays.equals(MAGIC, magic) || footerOffset < MAGIC.length || footerOffset > size - TRAILER_LENGTH) {
+                throw new IllegalArgumentException("Truncated bank snapshot: " + file.getFileName());
+            }
+
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(
+                readBytes(footerOffset, (int) (size - TRAILER_LENGTH - footerOffset))));
+            int tableCount = footer.readInt();
+            List<TableIndex> result = new ArrayList<>(tableCount);
+            for (int t = 0; t < tableCount; t++) {
+                String tableName = footer.readUTF();
+                List<Column> columns = new ArrayList<>();
+                int columnCount = footer.readInt();
+                for (int c = 0; c < columnCount; c++) {
+                    columns.add(new Column(footer.readUTF(), ColumnType.valueOf(footer.readUTF())));
+                }
+                int groupCount = footer.readInt();
+                List<GroupIndex> groups = new ArrayList<>(groupCount);
+                for (int g = 0; g < groupCount; g++) {
+                    long offset = footer.readLong();
+                    int rows = footer.readInt();
+                    int[] compressedLengths = new int[columnCount];
+                    int[] rawLengths = new int[columnCount];
+                    for (int c = 0; c < columnCount; c++) {
+                        compressedLengths[c] = footer.readInt();
+                        rawLengths[c] = footer.readInt();
+                    }
+                    groups.add(new GroupIndex(offset, rows, compressedLengths, rawLengths));
+                }
+                result.add(new TableIndex(tableName, List.copyOf(columns), List.copyOf(groups)));
+            }
+            return List.copyOf(result);
+        }
+
+        private byte[] readBytes(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IllegalArgumentException("Truncated bank snapshot");
+                }
+            }
+            return buffer.array();
+        }
+    }
+}
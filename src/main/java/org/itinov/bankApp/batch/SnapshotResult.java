@@ -0,0 +1,17 @@
+package org.itinov.bankApp.batch;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of writing a bank state snapshot.
+ *
+ * @param file   the written snapshot
+ * @param bytes  its size
+ * @param report throughput of the run (items and rows written are the saved rows)
+ */
+public record SnapshotResult(
+    Path file,
+    long bytes,
+    BatchReport report
+) {
+}
@@ -0,0 +1,92 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+
+import java.util.List;
+
+import static org.itinov.bankApp.batch.ColumnType.*;
+
+/**
+ * Tables saved in a bank state snapshot, in restore order (referenced tables first).
+ * <p>
+ * Besides customers, accounts and transactions, the snapshot holds what is derived from them and maintained by every
+ * operation (balance slots, daily balance snapshots, activity counters), so a restored database is immediately
+ * consistent. Standing orders and job checkpoints are operational state and are not saved.
+ */
+enum SnapshotTable {
+
+    CUSTOMERS("customer_entity", CustomerEntity.ID_SEQUENCE,
+        new Column("id", LONG), new Column("keycloak_id", STRING), new Column("name", STRING),
+        new Column("email", STRING)),
+    ACCOUNTS("account_entity", AccountEntity.ID_SEQUENCE,
+        new Column("id", LONG), new Column("version", LONG), new Column("number", STRING),
+        new Column("balance", DOUBLE), new Column("overdraft_limit", DOUBLE), new Column("balance_slots", INT),
+        new Column("currency", STRING), new Column("customer_id", LONG)),
+    BALANCE_SLOTS("account_balance_slot_entity", "account_balance_slot_entity_seq",
+        new Column("id", LONG), new Column("account_id", LONG), new Column("slot", INT),
+        new Column("balance", DOUBLE), new Column("transaction_count", LONG), new Column("total_deposits", DOUBLE),
+        new Column("total_transfers_in", DOUBLE), new Column("last_activity_at", TIMESTAMP)),
+    TRANSACTIONS("transaction_entity", TransactionEntity.ID_SEQUENCE,
+        new Column("id", LONG), new Column("date", TIMESTAMP), new Column("amount", DOUBLE),
+        new Column("type", STRING), new Column("currency", STRING), new Column("performed_by", STRING),
+        new Column("balance_after", DOUBLE), new Column("credit", BOOLEAN),
+        new Column("approximate_balance", BOOLEAN), new Column("account_id", LONG)),
+    BALANCE_SNAPSHOTS("balance_snapshot_entity", BalanceSnapshotEntity.ID_SEQUENCE,
+        new Column("id", LONG), new Column("account_id", LONG), new Column("snapshot_date", DATE),
+        new Column("closing_balance", DOUBLE)),
+    ACCOUNT_ACTIVITY("account_activity_entity", null,
+        new Column("account_id", LONG), new Column("transaction_count", LONG), new Column("total_deposits", DOUBLE),
+        new Column("total_withdrawals", DOUBLE), new Column("total_transfers_in", DOUBLE),
+        new Column("total_transfers_out", DOUBLE), new Column("last_activity_at", TIMESTAMP));
+
+    /** Allocation size of every id sequence of the schema (Hibernate's default). */
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    private final String tableName;
+    private final String sequence;
+    private final List<Column> columns;
+
+    SnapshotTable(String tableName, String sequence, Column... columns) {
+        this.tableName = tableName;
+        this.sequence = sequence;
+        this.columns = List.of(columns);
+    }
+
+    String tableName() {
+        return tableName;
+    }
+
+    /**
+     * @return the id sequence, to move past the restored ids, or {@code null} when ids are not generated
+     */
+    String sequence() {
+        return sequence;
+    }
+
+    List<Column> columns() {
+        return columns;
+    }
+
+    /**
+     * Reads the whole table in primary key order, the first column.
+     */
+    String selectSql() {
+        return "select " + String.join(", ", columns.stream().map(Column::name).toList())
+            + " from " + tableName + " order by " + columns.getFirst().name();
+    }
+
+    static SnapshotTable of(String tableName) {
+        for (SnapshotTable table : values()) {
+            if (table.tableName.equals(tableName)) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Unknown snapshot table: " + tableName);
+    }
+
+    record Column(String name, ColumnType type) {
+    }
+}
@@ -0,0 +1,271 @@
+package org.itinov.bankApp.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.batch.SnapshotFile.GroupIndex;
+import org.itinov.bankApp.batch.SnapshotFile.RowGroup;
+import org.itinov.bankApp.batch.SnapshotFile.TableIndex;
+import org.itinov.bankApp.batch.SnapshotTable.Column;
+import org.itinov.bankApp.config.StateSnapshotProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Saves the bank state to a {@link SnapshotFile} and bulk-loads it back, e.g. to start a test environment with a large
+ * data set in seconds instead of generating it again.
+ * <p>
+ * Saving reads every {@link SnapshotTable} in a single repeatable-read transaction, so the snapshot is consistent
+ * even while operations go on, and writes a temporary file renamed once complete. Restoring requires an empty
+ * database: tables are loaded in order, the row groups of a table in parallel, each one in its own transaction, then
+ * the id sequences are moved past the restored ids. A failed restore is not resumed and needs an empty database again.
+ * When {@code bank.snapshot.restore-from} is set the snapshot is restored at startup, before the demo data would be
+ * created.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StateSnapshotJob implements ApplicationRunner {
+
+    public static final String SAVE_JOB_NAME = "state-snapshot-save";
+    public static final String RESTORE_JOB_NAME = "state-snapshot-restore";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate groupTransaction;
+    private final StateSnapshotProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean saving = new AtomicBoolean();
+
+    public StateSnapshotJob(JdbcTemplate jdbc,
+                            PlatformTransactionManager transactionManager,
+                            StateSnapshotProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.groupTransaction = new TransactionTemplate(transactionManager);
+        this.groupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.restoreFrom() != null) {
+            restore(properties.restoreFrom());
+        }
+    }
+
+    /**
+     * Writes a snapshot in the snapshot directory.
+     *
+     * @param fileName the file name, relative to {@code bank.snapshot.directory}
+     * @return the written snapshot
+     */
+    public SnapshotResult save(String fileName) {
+        Path directory = properties.directory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("The snapshot must be inside the snapshot directory");
+        }
+        return save(file);
+    }
+
+    /**
+     * Writes a snapshot of the current bank state, replacing {@code file} once complete.
+     *
+     * @param file the snapshot to write
+     * @return the written snapshot
+     */
+    public SnapshotResult save(Path file) {
+        if (!saving.compareAndSet(false, true)) {
+            throw new IllegalStateException("A snapshot is already being written");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            long[] totals = readTransaction.execute(status -> {
+                try (SnapshotFile.Writer writer = new SnapshotFile.Writer(temporary)) {
+                    long rows = 0;
+                    long groups = 0;
+                    for (SnapshotTable table : SnapshotTable.values()) {
+                        long[] written = writeTable(writer, table);
+                        rows += written[0];
+                        groups += written[1];
+                    }
+                    return new long[]{rows, groups};
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            BatchReport report = new BatchReport(SAVE_JOB_NAME, file.getFileName().toString(), (int) totals[1],
+                totals[0], totals[0], Duration.ofNanos(System.nanoTime() - start));
+            meterRegistry.counter("bank.batch.items", "job", SAVE_JOB_NAME).increment(report.items());
+            SnapshotResult result = new SnapshotResult(file, Files.size(file), report);
+            log.info("Batch {}, {} bytes", report, result.bytes());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(temporary);
+            sample.stop(meterRegistry.timer("bank.batch.duration", "job", SAVE_JOB_NAME));
+            saving.set(false);
+        }
+    }
+
+    /**
+     * Loads a snapshot into the database, which must not hold any customer yet.
+     *
+     * @param file the snapshot to load
+     * @return the run report, partitions being the row groups
+     */
+    public BatchReport restore(Path file) {
+        Integer customers = jdbc.queryForObject("select count(*) from customer_entity", Integer.class);
+        if (customers != null && customers > 0) {
+            throw new IllegalStateException("A snapshot can only be restored into an empty database");
+        }
+        LongAdder rows = new LongAdder();
+        int groups = 0;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(properties.parallelism());
+        try (SnapshotFile.Reader reader = new SnapshotFile.Reader(file)) {
+            for (TableIndex table : reader.tables()) {
+                SnapshotTable target = SnapshotTable.of(table.tableName());
+                String sql = "insert into " + target.tableName() + " ("
+                    + String.join(", ", table.columns().stream().map(Column::name).toList()) + ") values ("
+                    + String.join(", ", Collections.nCopies(table.columns().size(), "?")) + ")";
+                pool.submit(() -> table.groups().parallelStream()
+                    .forEach(group -> rows.add(insertGroup(reader, table, group, sql)))).join();
+                restartSequence(target);
+                groups += table.groups().size();
+                log.info("Restored {} rows of {}", table.rows(), target.tableName());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.shutdown();
+            sample.stop(meterRegistry.timer("bank.batch.duration", "job", RESTORE_JOB_NAME));
+        }
+
+        BatchReport report = new BatchReport(RESTORE_JOB_NAME, file.getFileName().toString(), groups, rows.sum(),
+            rows.sum(), Duration.ofNanos(System.nanoTime() - start));
+        meterRegistry.counter("bank.batch.items", "job", RESTORE_JOB_NAME).increment(report.items());
+        log.info("Batch {}", report);
+        return report;
+    }
+
+    /**
+     * Streams a table into row groups.
+     *
+     * @return the rows and the row groups written
+     */
+    private long[] writeTable(SnapshotFile.Writer writer, SnapshotTable table) {
+        writer.beginTable(table.tableName(), table.columns());
+        List<Column> columns = table.columns();
+        int groupSize = properties.rowGroupSize();
+        Object[][] buffer = new Object[columns.size()][groupSize];
+        long[] written = new long[2];
+        int[] filled = new int[1];
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(table.selectSql());
+            statement.setFetchSize(groupSize);
+            return statement;
+        }, rs -> {
+            for (int c = 0; c < columns.size(); c++) {
+                buffer[c][filled[0]] = columns.get(c).type().read(rs, c + 1);
+            }
+            if (++filled[0] == groupSize) {
+                writeGroup(writer, buffer, filled, written);
+            }
+        });
+        if (filled[0] > 0) {
+            writeGroup(writer, buffer, filled, written);
+        }
+        return written;
+    }
+
+    private static void writeGroup(SnapshotFile.Writer writer, Object[][] buffer, int[] filled, long[] written) {
+        try {
+            writer.write(new RowGroup(filled[0], buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        written[0] += filled[0];
+        written[1]++;
+        filled[0] = 0;
+    }
+
+    private long insertGroup(SnapshotFile.Reader reader, TableIndex table, GroupIndex index, String sql) {
+        RowGroup group = reader.read(table, index);
+        int columnCount = group.columns().length;
+        groupTransaction.executeWithoutResult(status -> {
+            List<Object[]> batch = new ArrayList<>(properties.batchSize());
+            for (int row = 0; row < group.rows(); row++) {
+                Object[] values = new Object[columnCount];
+                for (int c = 0; c < columnCount; c++) {
+                    values[c] = group.columns()[c][row];
+                }
+                batch.add(values);
+                if (batch.size() == properties.batchSize()) {
+                    jdbc.batchUpdate(sql, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbc.batchUpdate(sql, batch);
+            }
+        });
+        return group.rows();
+    }
+
+    /**
+     * Moves a pooled sequence past the restored ids: the next value {@code hi} hands out {@code (hi - 50, hi]}.
+     */
+    private void restartSequence(SnapshotTable table) {
+        if (table.sequence() == null) {
+            return;
+        }
+        Long maxId = jdbc.queryForObject("select max(id) from " + table.tableName(), Long.class);
+        if (maxId != null) {
+            jdbc.execute("alter sequence " + table.sequence() + " restart with "
+                + (maxId + SnapshotTable.ID_ALLOCATION_SIZE));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+}
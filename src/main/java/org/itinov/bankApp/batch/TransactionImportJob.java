@@ -0,0 +1,437 @@
+package org.itinov.bankApp.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.batch.ImportResult.Rejection;
+import org.itinov.bankApp.batch.LedgerLineReader.Line;
+import org.itinov.bankApp.config.TransactionImportProperties;
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.itinov.bankApp.infrastructure.entity.JobCheckpointEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.JobCheckpointRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Imports historical transactions from CSV or NDJSON ledger files (see {@link LedgerFormat}).
+ * <p>
+ * The file is streamed through a {@link LedgerLineReader}, one chunk of lines at a time, so memory is bounded by the
+ * chunk size whatever the size of the file. The lines of a chunk are parsed and validated by parallel workers, then
+ * the chunk is written in a single transaction: its accounts are resolved by number and locked, the transactions,
+ * the daily balance snapshots and the activity counters are written as JDBC batches, and the byte offset after the
+ * chunk is saved as a {@link JobCheckpointEntity}. Importing the same file again therefore resumes after the last
+ * committed chunk and is a no-op once the file is completed.
+ * <p>
+ * Imported rows are history: they carry their own {@code balanceAfter} and do not change the balance of the
+ * accounts, which are expected to be migrated with their current balance. Invalid lines, unknown accounts and
+ * currency mismatches are rejected and reported without stopping the import.
+ */
+@Slf4j
+@Component
+public class TransactionImportJob {
+
+    public static final String JOB_NAME = "transaction-import";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate chunkTransaction;
+    private final JobCheckpointRepository checkpoints;
+    private final SequenceIdAllocator ids;
+    private final TransactionImportProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public TransactionImportJob(JdbcTemplate jdbc,
+                                PlatformTransactionManager transactionManager,
+                                JobCheckpointRepository checkpoints,
+                                SequenceIdAllocator ids,
+                                TransactionImportProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkpoints = checkpoints;
+        this.ids = ids;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Imports a file of the import directory, or finishes a previous attempt.
+     *
+     * @param fileName the name of the file, relative to {@code bank.transaction-import.directory}
+     * @return the run result
+     * @throws IllegalArgumentException if the file is outside the import directory, missing or of an unknown type
+     * @throws IllegalStateException    if the same file is already being imported
+     */
+    public ImportResult importFile(String fileName) {
+        Path directory = properties.directory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("The file must be inside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        }
+        return run(file);
+    }
+
+    /**
+     * Imports a ledger file, or finishes a previous attempt. A run is identified by the file name, size and
+     * modification time, so a file replaced by a new version is imported from the start.
+     *
+     * @param file the CSV ({@code .csv}) or NDJSON ({@code .ndjson}, {@code .jsonl}) file
+     * @return the run result
+     * @throws IllegalStateException if the same file is already being imported
+     */
+    public ImportResult run(Path file) {
+        LedgerFormat format = LedgerFormat.of(file);
+        String runKey = runKey(file);
+        if (!running.add(runKey)) {
+            throw new IllegalStateException("The file " + file.getFileName() + " is already being imported");
+        }
+        try {
+            return run(file, format, runKey);
+        } finally {
+            running.remove(runKey);
+        }
+    }
+
+    private ImportResult run(Path file, LedgerFormat format, String runKey) {
+        JobCheckpointEntity checkpoint = chunkTransaction.execute(status -> prepareCheckpoint(runKey));
+        List<Rejection> rejections = new ArrayList<>();
+        long lines = 0;
+        long written = 0;
+        long rejected = 0;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(properties.parallelism());
+        try (LedgerLineReader reader = new LedgerLineReader(file, checkpoint.getPosition())) {
+            long position = checkpoint.getPosition();
+            boolean last = checkpoint.isCompleted();
+            while (!last) {
+                List<Line> chunk = new ArrayList<>(properties.chunkSize());
+                Line line;
+                while (chunk.size() < properties.chunkSize() && (line = reader.next()) != null) {
+                    chunk.add(line);
+                }
+                last = chunk.size() < properties.chunkSize();
+                List<Parsed> parsed = parse(pool, format, chunk, position);
+                long end = chunk.isEmpty() ? position : chunk.getLast().endOffset();
+                boolean completed = last;
+                ChunkResult result = chunkTransaction.execute(status -> writeChunk(checkpoint, parsed, end, completed));
+                position = end;
+                lines += chunk.size();
+                written += result.written();
+                rejected += result.rejections().size();
+                for (Rejection rejection : result.rejections()) {
+                    log.debug("Import of {}: line at offset {} rejected: {}", file.getFileName(), rejection.offset(),
+                        rejection.reason());
+                    if (rejections.size() < properties.maxReportedRejections()) {
+                        rejections.add(rejection);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file.getFileName(), e);
+        } finally {
+            pool.shutdown();
+            sample.stop(meterRegistry.timer("bank.batch.duration", "job", JOB_NAME));
+        }
+
+        BatchReport report = new BatchReport(JOB_NAME, runKey, checkpoint.isCompleted() ? 0 : 1, lines, written,
+            Duration.ofNanos(System.nanoTime() - start));
+        meterRegistry.counter("bank.batch.items", "job", JOB_NAME).increment(report.items());
+        if (rejected > 0) {
+            log.warn("Import of {}: {} lines rejected", file.getFileName(), rejected);
+        }
+        log.info("Batch {}", report);
+        return new ImportResult(report, rejected, rejections);
+    }
+
+    private static String runKey(Path file) {
+        try {
+            return file.getFileName() + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file.getFileName(), e);
+        }
+    }
+
+    private JobCheckpointEntity prepareCheckpoint(String runKey) {
+        List<JobCheckpointEntity> existing = checkpoints.findByJobNameAndRunKeyOrderByPartitionStartAsc(JOB_NAME, runKey);
+        if (!existing.isEmpty()) {
+            return existing.getFirst();
+        }
+        // a single partition covering the whole file; the position is the byte offset after the last committed chunk
+        return checkpoints.save(JobCheckpointEntity.builder()
+            .jobName(JOB_NAME)
+            .runKey(runKey)
+            .partitionStart(0)
+            .partitionEnd(Long.MAX_VALUE)
+            .position(0)
+            .updatedAt(LocalDateTime.now())
+            .build());
+    }
+
+    /**
+     * Parses and validates the lines of a chunk on the worker pool, keeping their order.
+     */
+    private static List<Parsed> parse(ForkJoinPool pool, LedgerFormat format, List<Line> chunk, long position) {
+        try {
+            return pool.submit(() -> IntStream.range(0, chunk.size()).parallel()
+                .mapToObj(i -> parse(format, chunk.get(i), i == 0 ? position : chunk.get(i - 1).endOffset()))
+                .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import failed", e.getCause());
+        }
+    }
+
+    private static Parsed parse(LedgerFormat format, Line line, long offset) {
+        if (line.text().isBlank()) {
+            return new Parsed(offset, null, null);
+        }
+        try {
+            return new Parsed(offset, format.parse(line.text()), null);
+        } catch (IllegalArgumentException e) {
+            return new Parsed(offset, null, e.getMessage());
+        }
+    }
+
+    private ChunkResult writeChunk(JobCheckpointEntity checkpoint, List<Parsed> parsed, long end, boolean last) {
+        List<Rejection> rejections = new ArrayList<>();
+        List<Parsed> valid = new ArrayList<>(parsed.size());
+        for (Parsed line : parsed) {
+            if (line.error() != null) {
+                rejections.add(new Rejection(line.offset(), line.error()));
+            } else if (line.record() != null) {
+                valid.add(line);
+            }
+        }
+
+        Map<String, AccountRow> accounts = lockAccounts(valid);
+        List<Row> rows = new ArrayList<>(valid.size());
+        for (Parsed line : valid) {
+            LedgerRecord record = line.record();
+            AccountRow account = accounts.get(record.accountNumber());
+            if (account == null) {
+                rejections.add(new Rejection(line.offset(), "unknown account " + record.accountNumber()));
+            } else if (!account.currency().equals(record.currency().name())) {
+                rejections.add(new Rejection(line.offset(), "currency " + record.currency()
+                    + " does not match the account currency " + account.currency()));
+            } else {
+                rows.add(new Row(account.id(), record));
+            }
+        }
+        rejections.sort((a, b) -> Long.compare(a.offset(), b.offset()));
+        if (!rows.isEmpty()) {
+            write(rows);
+        }
+        checkpoints.advance(checkpoint.getId(), end, last, LocalDateTime.now());
+        return new ChunkResult(rows.size(), rejections);
+    }
+
+    /**
+     * Resolves the account numbers of a chunk with one query, locking the accounts in id order until the chunk is
+     * committed, so that snapshots and counters are not created concurrently by regular operations.
+     */
+    private Map<String, AccountRow> lockAccounts(List<Parsed> lines) {
+        Set<String> numbers = new HashSet<>();
+        lines.forEach(line -> numbers.add(line.record().accountNumber()));
+        if (numbers.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, AccountRow> accounts = new HashMap<>();
+        namedJdbc.query("""
+                select id, number, currency from account_entity
+                where number in (:numbers) order by id for update""",
+            Map.of("numbers", numbers),
+            rs -> {
+                accounts.put(rs.getString("number"), new AccountRow(rs.getLong("id"), rs.getString("currency")));
+            });
+        return accounts;
+    }
+
+    /**
+     * Writes the transactions, the closing balance of their days and the activity counters as JDBC batches.
+     */
+    private void write(List<Row> rows) {
+        long[] transactionIds = ids.allocate(TransactionEntity.ID_SEQUENCE, TransactionEntity.ID_ALLOCATION_SIZE,
+            rows.size());
+        List<Object[]> inserts = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            LedgerRecord record = rows.get(i).record();
+            inserts.add(new Object[]{transactionIds[i], Timestamp.valueOf(record.date()), Math.abs(record.amount()),
+                record.type().name(), record.currency().name(), record.performedBy(), record.balanceAfter(),
+                record.credit(), false, rows.get(i).accountId()});
+        }
+        jdbc.batchUpdate("""
+            insert into transaction_entity (id, date, amount, type, currency, performed_by, balance_after, credit,
+                                            approximate_balance, account_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", inserts);
+        writeSnapshots(rows);
+        writeCounters(rows);
+    }
+
+    /**
+     * Sets the closing balance of each (account, day) of the chunk to the balance after its latest imported
+     * transaction, unless the account already has a later transaction that day.
+     */
+    private void writeSnapshots(List<Row> rows) {
+        Map<DayKey, Row> latest = new LinkedHashMap<>();
+        for (Row row : rows) {
+            // à date égale, la dernière ligne du fichier l'emporte
+            latest.merge(new DayKey(row.accountId(), row.record().date().toLocalDate()), row,
+                (a, b) -> b.record().date().isBefore(a.record().date()) ? a : b);
+        }
+        List<Map.Entry<DayKey, Row>> days = new ArrayList<>(latest.entrySet());
+        int[] updated = jdbc.batchUpdate("""
+                update balance_snapshot_entity set closing_balance = ?
+                where account_id = ? and snapshot_date = ?
+                  and not exists (select 1 from transaction_entity t
+                                  where t.account_id = ? and t.date > ? and t.date < ?)""",
+            days.stream().map(day -> new Object[]{day.getValue().record().balanceAfter(), day.getKey().accountId(),
+                Date.valueOf(day.getKey().day()), day.getKey().accountId(),
+                Timestamp.valueOf(day.getValue().record().date()),
+                Timestamp.valueOf(day.getKey().day().plusDays(1).atStartOfDay())}).toList());
+        List<Map.Entry<DayKey, Row>> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(days.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        // not updated: either no snapshot yet for that day, or a later transaction already closed it
+        long[] snapshotIds = ids.allocate(BalanceSnapshotEntity.ID_SEQUENCE, BalanceSnapshotEntity.ID_ALLOCATION_SIZE,
+            missing.size());
+        List<Object[]> inserts = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            DayKey key = missing.get(i).getKey();
+            inserts.add(new Object[]{snapshotIds[i], key.accountId(), Date.valueOf(key.day()),
+                missing.get(i).getValue().record().balanceAfter(), key.accountId(), Date.valueOf(key.day())});
+        }
+        jdbc.batchUpdate("""
+            insert into balance_snapshot_entity (id, account_id, snapshot_date, closing_balance)
+            select ?, ?, ?, ? where not exists (select 1 from balance_snapshot_entity
+                                                where account_id = ? and snapshot_date = ?)""", inserts);
+    }
+
+    /**
+     * Adds the imported transactions to the activity counters, one update (or insert) per account.
+     */
+    private void writeCounters(List<Row> rows) {
+        Map<Long, Totals> byAccount = new LinkedHashMap<>();
+        rows.forEach(row -> byAccount.computeIfAbsent(row.accountId(), id -> new Totals()).add(row.record()));
+        List<Map.Entry<Long, Totals>> accounts = new ArrayList<>(byAccount.entrySet());
+        int[] updated = jdbc.batchUpdate("""
+                update account_activity_entity set transaction_count = transaction_count + ?,
+                    total_deposits = total_deposits + ?, total_withdrawals = total_withdrawals + ?,
+                    total_transfers_in = total_transfers_in + ?, total_transfers_out = total_transfers_out + ?,
+                    last_activity_at = case when last_activity_at is null or last_activity_at < ? then ?
+                                            else last_activity_at end
+                where account_id = ?""",
+            accounts.stream().map(entry -> {
+                Totals t = entry.getValue();
+                Timestamp last = Timestamp.valueOf(t.lastActivityAt);
+                return new Object[]{t.count, t.deposits, t.withdrawals, t.transfersIn, t.transfersOut, last, last,
+                    entry.getKey()};
+            }).toList());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Totals t = accounts.get(i).getValue();
+                inserts.add(new Object[]{accounts.get(i).getKey(), t.count, t.deposits, t.withdrawals, t.transfersIn,
+                    t.transfersOut, Timestamp.valueOf(t.lastActivityAt)});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbc.batchUpdate("""
+                insert into account_activity_entity (account_id, transaction_count, total_deposits, total_withdrawals,
+                    total_transfers_in, total_transfers_out, last_activity_at)
+                values (?, ?, ?, ?, ?, ?, ?)""", inserts);
+        }
+    }
+
+    /**
+     * Sums of the imported transactions of one account; interest and fees are only counted, as in the accrual job.
+     */
+    private static final class Totals {
+        long count;
+        double deposits;
+        double withdrawals;
+        double transfersIn;
+        double transfersOut;
+        LocalDateTime lastActivityAt;
+
+        void add(LedgerRecord record) {
+            count++;
+            double amount = Math.abs(record.amount());
+            switch (record.type()) {
+                case DEPOSIT -> deposits += amount;
+                case WITHDRAWAL -> withdrawals += amount;
+                case TRANSFER -> {
+                    if (record.credit()) {
+                        transfersIn += amount;
+                    } else {
+                        transfersOut += amount;
+                    }
+                }
+                default -> {
+                }
+            }
+            if (lastActivityAt == null || lastActivityAt.isBefore(record.date())) {
+                lastActivityAt = record.date();
+            }
+        }
+    }
+
+    /**
+     * A line of the file: its record when valid, the reason of its rejection otherwise, neither for a blank line
+     * or a header.
+     */
+    private record Parsed(long offset, LedgerRecord record, String error) {
+    }
+
+    private record AccountRow(long id, String currency) {
+    }
+
+    private record Row(long accountId, LedgerRecord record) {
+    }
+
+    private record DayKey(long accountId, LocalDate day) {
+    }
+
+    private record ChunkResult(int written, List<Rejection> rejections) {
+    }
+}
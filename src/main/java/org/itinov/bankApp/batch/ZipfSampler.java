@@ -0,0 +1,71 @@
+package org.itinov.bankApp.batch;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks {@code 1..n} following a Zipf distribution: rank {@code k} has a probability proportional to
+ * {@code 1 / k^exponent}.
+ * <p>
+ * Uses rejection-inversion sampling (Hörmann and Derflinger, 1996): constant time per sample and no table, so
+ * millions of ranks cost nothing to set up.
+ */
+final class ZipfSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("The number of ranks must be positive");
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("The exponent must be positive");
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * @return a rank between 1 (the most frequent) and {@code n}
+     */
+    int sample(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) Math.min(n, Math.max(1, (long) (x + 0.5)));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /** {@code h(x) = 1 / x^exponent} */
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    /** Antiderivative of {@code h}, continuous in {@code exponent = 1} where it becomes {@code log(x)}. */
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1, x * (1 - exponent));
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1 / 3.0 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3.0 * (1 + 0.25 * x));
+    }
+}
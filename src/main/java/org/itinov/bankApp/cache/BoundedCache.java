@@ -0,0 +1,65 @@
+package org.itinov.bankApp.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map holding at most a fixed number of entries, for caches whose values never go stale and whose hot keys come
+ * back right after being dropped: when full, adding an entry evicts an arbitrary one rather than the least recently
+ * used, so that reads stay lock-free and record nothing.
+ * <p>
+ * {@link #get} and {@link #remove} may run concurrently with anything; additions are serialized, so the bound holds
+ * under concurrent misses.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxSize the maximum number of entries, at least 1
+     */
+    public BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1, got " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the value of the key, or {@code null} if it is not cached
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches a value, evicting an arbitrary entry first if the cache is full.
+     */
+    public synchronized void put(K key, V value) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            Iterator<K> it = entries.keySet().iterator();
+            // une suppression concurrente a pu vider le cache entre-temps
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(key, value);
+    }
+
+    /**
+     * Removes the entry of the key if it still holds this value.
+     */
+    public void remove(K key, V value) {
+        entries.remove(key, value);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,28 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the account number resolver used by transfers addressed by account number.
+ *
+ * @param cacheSize         maximum number of number-to-id entries kept in memory
+ * @param expectedAccounts  number of accounts the Bloom filter of known numbers is sized for
+ * @param falsePositiveRate false positive rate of the Bloom filter at {@code expectedAccounts} numbers
+ * @param refreshInterval   delay between two loads of the accounts created since the previous one
+ * @param rebuildInterval   age after which the filter is reloaded from scratch, to pick up the accounts whose id
+ *                          was lower than one already loaded when they committed
+ * @param loadBatchSize     number of accounts read per database page
+ */
+@ConfigurationProperties(prefix = "bank.account-resolver")
+public record AccountResolverProperties(
+    @DefaultValue("100000") int cacheSize,
+    @DefaultValue("1000000") long expectedAccounts,
+    @DefaultValue("0.01") double falsePositiveRate,
+    @DefaultValue("30s") Duration refreshInterval,
+    @DefaultValue("10m") Duration rebuildInterval,
+    @DefaultValue("10000") int loadBatchSize
+) {
+}
@@ -0,0 +1,24 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory customer prefix index.
+ *
+ * @param prefixIndex     whether the index is loaded in this instance; without it searches go to the database
+ * @param refreshInterval delay between two loads of the customers created since the previous one
+ * @param rebuildInterval age after which the index is reloaded from scratch, to pick up the customers whose id was
+ *                        lower than one already indexed when they committed
+ * @param loadBatchSize   number of customers read per database page
+ */
+@ConfigurationProperties(prefix = "bank.customer-directory")
+public record CustomerDirectoryProperties(
+    @DefaultValue("true") boolean prefixIndex,
+    @DefaultValue("5s") Duration refreshInterval,
+    @DefaultValue("10m") Duration rebuildInterval,
+    @DefaultValue("10000") int loadBatchSize
+) {
+}
@@ -0,0 +1,30 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Volumes and shape of the synthetic data set generated by the {@code datagen} profile.
+ *
+ * @param customers      customers to create
+ * @param accounts       accounts to create, spread evenly over the customers
+ * @param transactions   transactions to create, spread over the accounts with a Zipf distribution
+ * @param zipfExponent   skew of the account activity: the account of rank {@code k} gets a share proportional to
+ *                       {@code 1 / k^zipfExponent}
+ * @param days           history length, transactions are dated within the last {@code days} days
+ * @param seed           seed of every random choice: the same settings always produce the same data
+ * @param parallelism    generating and writing threads
+ * @param batchSize      rows per JDBC batch and per database transaction
+ */
+@ConfigurationProperties(prefix = "bank.datagen")
+public record DataGenerationProperties(
+    @DefaultValue("1000000") int customers,
+    @DefaultValue("3000000") int accounts,
+    @DefaultValue("500000000") long transactions,
+    @DefaultValue("1.1") double zipfExponent,
+    @DefaultValue("730") int days,
+    @DefaultValue("42") long seed,
+    @DefaultValue("4") int parallelism,
+    @DefaultValue("5000") int batchSize
+) {
+}
@@ -2,15 +2,18 @@ package org.itinov.bankApp.config;
 
 import org.itinov.bankApp.domain.enums.Currency;
 import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountActivityEntity;
 import org.itinov.bankApp.infrastructure.entity.AccountEntity;
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
 import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountActivityRepository;
 import org.itinov.bankApp.infrastructure.repository.AccountRepository;
 import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
 import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,16 +25,25 @@ import java.util.stream.IntStream;
 /**
  * Initializes demo data for the banking application.
  * Creates customers, accounts, and generates random transactions.
+ * Replaced by the {@link org.itinov.bankApp.batch.DataGenerator} when the {@code datagen} profile is active, and skipped
+ * when the database already holds customers (e.g. restored from a snapshot).
  */
 @Configuration
+@Profile("!datagen")
 public class DataInitializer {
 
     @Bean
     CommandLineRunner initData(CustomerRepository customerRepo,
                                AccountRepository accountRepo,
-                               TransactionRepository transactionRepo) {
+                               TransactionRepository transactionRepo,
+                               AccountActivityRepository activityRepo) {
         return args -> {
+            // données de démo uniquement sur une base vide (base déjà initialisée ou instantané restauré)
+            if (customerRepo.count() > 0) {
+                return;
+            }
             Random random = new Random();
+            OperationType[] demoTypes = {OperationType.DEPOSIT, OperationType.WITHDRAWAL, OperationType.TRANSFER};
 
             // --- Customers ---
             CustomerEntity jane = CustomerEntity.builder()
@@ -80,7 +92,7 @@ public class DataInitializer {
                 .flatMap(account ->
                     IntStream.range(0, 10)
                         .mapToObj(i -> {
-                            OperationType type = OperationType.values()[random.nextInt(OperationType.values().length)];
+                            OperationType type = demoTypes[random.nextInt(demoTypes.length)];
                             double amount = 50 + random.nextInt(500); // 50 to 550
                             double newBalance = account.getBalance();
 
@@ -109,6 +121,7 @@ public class DataInitializer {
                                 .currency(account.getCurrency())
                                 .performedBy(account.getCustomer().getName())
                                 .balanceAfter(newBalance)
+                                .credit(type == OperationType.DEPOSIT)
                                 .account(account)
                                 .build();
                         })
@@ -120,8 +133,32 @@ public class DataInitializer {
             transactionRepo.saveAll(allTransactions);
             accountRepo.saveAll(accounts); // update balances
 
+            // --- Activity counters, normally maintained by each operation ---
+            activityRepo.saveAll(accounts.stream()
+                .map(account -> {
+                    List<TransactionEntity> txs = allTransactions.stream()
+                        .filter(tx -> tx.getAccount() == account)
+                        .toList();
+                    return AccountActivityEntity.builder()
+                        .accountId(account.getId())
+                        .transactionCount(txs.size())
+                        .totalDeposits(sum(txs, OperationType.DEPOSIT))
+                        .totalWithdrawals(sum(txs, OperationType.WITHDRAWAL))
+                        .totalTransfersOut(sum(txs, OperationType.TRANSFER))
+                        .lastActivityAt(txs.isEmpty() ? null : txs.getLast().getDate())
+                        .build();
+                })
+                .toList());
+
             System.out.println("Demo data initialized with random transactions");
         };
     }
+
+    private static double sum(List<TransactionEntity> transactions, OperationType type) {
+        return transactions.stream()
+            .filter(tx -> tx.getType() == type)
+            .mapToDouble(TransactionEntity::getAmount)
+            .sum();
+    }
 }
 
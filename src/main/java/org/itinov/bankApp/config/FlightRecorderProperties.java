@@ -0,0 +1,29 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Continuous JDK Flight Recorder recording, dumped on demand by {@code POST /actuator/flightrecording}.
+ *
+ * @param enabled            starts the recording with the application (profile {@code jfr})
+ * @param settings           JFR settings of the JDK events, {@code default} being the low-overhead continuous one
+ * @param maxAge             how far back the recording keeps events
+ * @param maxSize            disk space the recording may use before dropping its oldest events
+ * @param operationThreshold bank operations shorter than this are not recorded, 0 to record them all
+ * @param directory          the only directory dumps are written to
+ */
+@ConfigurationProperties(prefix = "bank.flight-recorder")
+public record FlightRecorderProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("default") String settings,
+    @DefaultValue("6h") Duration maxAge,
+    @DefaultValue("250MB") DataSize maxSize,
+    @DefaultValue("0ms") Duration operationThreshold,
+    @DefaultValue("recordings") Path directory
+) {
+}
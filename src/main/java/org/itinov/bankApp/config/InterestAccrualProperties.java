@@ -0,0 +1,25 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the end-of-day interest and overdraft-fee accrual job.
+ *
+ * @param cron          when the job runs for the current day, "-" to disable the schedule
+ * @param creditRate    yearly interest rate paid on positive balances (0.01 = 1%)
+ * @param overdraftRate yearly rate charged on negative balances
+ * @param partitionSize width of the account id ranges processed independently
+ * @param chunkSize     accounts handled per database transaction
+ * @param parallelism   partitions processed concurrently
+ */
+@ConfigurationProperties(prefix = "bank.interest-accrual")
+public record InterestAccrualProperties(
+    @DefaultValue("-") String cron,
+    @DefaultValue("0.01") double creditRate,
+    @DefaultValue("0.08") double overdraftRate,
+    @DefaultValue("10000") int partitionSize,
+    @DefaultValue("500") int chunkSize,
+    @DefaultValue("4") int parallelism
+) {
+}
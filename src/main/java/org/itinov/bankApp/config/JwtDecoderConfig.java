@@ -0,0 +1,50 @@
+package org.itinov.bankApp.config;
+
+import org.itinov.bankApp.infrastructure.security.CachingJwtDecoder;
+import org.itinov.bankApp.infrastructure.security.LocalJwkSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
+
+import java.net.URI;
+
+/**
+ * Decoder of the access tokens, replacing the one Spring Boot derives from {@code issuer-uri}.
+ * <p>
+ * The signatures are verified with the keys discovered from the issuer on the first request, or, with
+ * {@code bank.jwt.local-keys}, with a {@link LocalJwkSource} that needs no issuer to start. In both cases the
+ * verified tokens are remembered until they expire ({@code bank.jwt.token-cache-size}). The local keys are refreshed
+ * by {@link LocalJwkRefresh}.
+ */
+@Configuration
+public class JwtDecoderConfig {
+
+    private static final String ISSUER_URI = "${spring.security.oauth2.resourceserver.jwt.issuer-uri}";
+
+    @Bean(initMethod = "load")
+    @ConditionalOnProperty(prefix = "bank.jwt", name = "local-keys", havingValue = "true")
+    public LocalJwkSource localJwkSource(JwtValidationProperties properties, @Value(ISSUER_URI) String issuerUri) {
+        String jwksUri = properties.jwksUri().isBlank()
+            ? issuerUri + "/protocol/openid-connect/certs"
+            : properties.jwksUri();
+        return new LocalJwkSource(properties.jwksFile(), URI.create(jwksUri));
+    }
+
+    @Bean
+    public JwtDecoder cachingJwtDecoder(JwtValidationProperties properties, ObjectProvider<LocalJwkSource> localKeys,
+                                        @Value(ISSUER_URI) String issuerUri) {
+        LocalJwkSource keys = localKeys.getIfAvailable();
+        // sans clés locales, la découverte auprès de Keycloak est différée à la première requête
+        JwtDecoder verifying = keys != null
+            ? keys.decoder(issuerUri)
+            : new SupplierJwtDecoder(() -> JwtDecoders.fromIssuerLocation(issuerUri));
+        return properties.tokenCacheSize() > 0
+            ? new CachingJwtDecoder(verifying, properties.tokenCacheSize())
+            : verifying;
+    }
+}
@@ -0,0 +1,28 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the validation of the access tokens issued by Keycloak.
+ *
+ * @param localKeys       verify the signatures with keys kept locally, loaded from {@code jwksFile} at startup and
+ *                        refreshed in the background, instead of discovering them from the issuer on the first
+ *                        request
+ * @param jwksFile        local copy of the issuer's JSON Web Key Set, rewritten after each successful refresh
+ * @param jwksUri         where the key set is refreshed from; blank for the Keycloak endpoint of the issuer
+ * @param refreshInterval delay between two refreshes of the key set
+ * @param tokenCacheSize  maximum number of verified tokens kept until they expire, 0 to verify every request
+ */
+@ConfigurationProperties(prefix = "bank.jwt")
+public record JwtValidationProperties(
+    @DefaultValue("false") boolean localKeys,
+    @DefaultValue("keys/jwks.json") Path jwksFile,
+    @DefaultValue("") String jwksUri,
+    @DefaultValue("10m") Duration refreshInterval,
+    @DefaultValue("10000") int tokenCacheSize
+) {
+}
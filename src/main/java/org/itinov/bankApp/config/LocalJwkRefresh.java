@@ -0,0 +1,26 @@
+package org.itinov.bankApp.config;
+
+import org.itinov.bankApp.infrastructure.security.LocalJwkSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the signing keys kept locally ({@code bank.jwt.local-keys}) every {@code bank.jwt.refresh-interval},
+ * starting as soon as the application context is up.
+ */
+@Component
+@ConditionalOnProperty(prefix = "bank.jwt", name = "local-keys", havingValue = "true")
+class LocalJwkRefresh {
+
+    private final LocalJwkSource keys;
+
+    LocalJwkRefresh(LocalJwkSource keys) {
+        this.keys = keys;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.jwt.refresh-interval:10m}")
+    public void refresh() {
+        keys.refresh();
+    }
+}
@@ -0,0 +1,21 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the automatic retry applied to write operations that fail on an optimistic lock conflict.
+ *
+ * @param maxAttempts    total number of attempts, including the first one
+ * @param initialBackoff upper bound of the random delay before the first retry
+ * @param maxBackoff     cap of the exponential backoff between two attempts
+ */
+@ConfigurationProperties(prefix = "bank.retry")
+public record OptimisticRetryProperties(
+    @DefaultValue("5") int maxAttempts,
+    @DefaultValue("10ms") Duration initialBackoff,
+    @DefaultValue("200ms") Duration maxBackoff
+) {
+}
@@ -0,0 +1,30 @@
+package org.itinov.bankApp.config;
+
+import org.itinov.bankApp.infrastructure.jdbc.InspectingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source so that the statements of each request are counted
+ * (see {@link org.itinov.bankApp.web.SqlStatisticsFilter}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bank.query-inspection", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInspectionConfig {
+
+    @Bean
+    static BeanPostProcessor inspectingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof InspectingDataSource)
+                    ? new InspectingDataSource(dataSource)
+                    : bean;
+            }
+        };
+    }
+}
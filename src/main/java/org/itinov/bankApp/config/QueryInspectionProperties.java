@@ -0,0 +1,19 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Counting of the SQL statements, rows read and JDBC time of each HTTP request.
+ *
+ * @param enabled          wraps the data source and records the {@code bank.http.sql.*} metrics
+ * @param responseHeaders  also returns the figures of a request in {@code X-SQL-*} response headers (dev)
+ * @param repeatThreshold  executions of the same statement within one request above which a possible N+1 is logged
+ */
+@ConfigurationProperties(prefix = "bank.query-inspection")
+public record QueryInspectionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("false") boolean responseHeaders,
+    @DefaultValue("10") int repeatThreshold
+) {
+}
@@ -0,0 +1,49 @@
+package org.itinov.bankApp.config;
+
+import org.itinov.bankApp.cache.BoundedCache;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the realm roles of a Keycloak token ({@code realm_access.roles}) to {@code ROLE_*} authorities.
+ * <p>
+ * The users share a handful of role sets, so the authorities of each set are built once and the same immutable
+ * list is returned for every token carrying it, instead of new authorities on every request.
+ */
+class RealmRolesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    static final int MAX_ROLE_SETS = 256;
+
+    private final BoundedCache<List<?>, List<GrantedAuthority>> authorities = new BoundedCache<>(MAX_ROLE_SETS);
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        if (!(jwt.getClaims().get("realm_access") instanceof Map<?, ?> realmAccess)
+            || !(realmAccess.get("roles") instanceof Collection<?> roles)) {
+            return List.of();
+        }
+        // la liste du claim sert de clé telle quelle : pas de copie pour un jeu de rôles déjà vu
+        List<?> key = roles instanceof List<?> list ? list : List.copyOf(roles);
+        List<GrantedAuthority> cached = authorities.get(key);
+        return cached != null ? cached : remember(roles);
+    }
+
+    int roleSets() {
+        return authorities.size();
+    }
+
+    private List<GrantedAuthority> remember(Collection<?> roles) {
+        List<String> names = roles.stream().map(String::valueOf).toList();
+        List<GrantedAuthority> converted = names.stream()
+            .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .toList();
+        authorities.put(names, converted);
+        return converted;
+    }
+}
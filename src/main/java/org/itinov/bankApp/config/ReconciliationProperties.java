@@ -0,0 +1,25 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the balance-chain reconciliation job.
+ *
+ * @param cron               when the incremental reconciliation runs, "-" to disable the schedule
+ * @param accountPageSize    accounts read per page; at most one page is in flight at a time
+ * @param transactionPageSize transactions fetched per cursor page of an account
+ * @param parallelism        accounts verified concurrently
+ * @param tolerance          accepted difference between two amounts (floating-point rounding)
+ * @param maxReportedDrifts  drifts kept in the run result, all of them are counted and logged
+ */
+@ConfigurationProperties(prefix = "bank.reconciliation")
+public record ReconciliationProperties(
+    @DefaultValue("-") String cron,
+    @DefaultValue("1000") int accountPageSize,
+    @DefaultValue("500") int transactionPageSize,
+    @DefaultValue("4") int parallelism,
+    @DefaultValue("0.005") double tolerance,
+    @DefaultValue("100") int maxReportedDrifts
+) {
+}
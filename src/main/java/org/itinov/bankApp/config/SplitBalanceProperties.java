@@ -0,0 +1,21 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Accounts switched to "split balance" mode at startup.
+ *
+ * @param slots     number of sub-balance slots given to each listed account
+ * @param accounts  numbers of the hot accounts (e.g. collection accounts) to split
+ * @param closeCron when the closing balance of the previous day is written for the split accounts, "-" to disable
+ */
+@ConfigurationProperties(prefix = "bank.split-balance")
+public record SplitBalanceProperties(
+    @DefaultValue("16") int slots,
+    @DefaultValue List<String> accounts,
+    @DefaultValue("0 5 0 * * *") String closeCron
+) {
+}
@@ -0,0 +1,31 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the standing order scheduler.
+ *
+ * @param enabled      whether the scheduler runs in this instance
+ * @param tick         resolution of the timing wheel
+ * @param wheelSize    number of buckets of the timing wheel
+ * @param loadInterval delay between two loads of due orders from the database
+ * @param horizon      how far ahead of now due orders are loaded into the wheel
+ * @param batchSize    number of due orders read per database page
+ * @param maxPending   maximum number of orders held in memory; loading pauses above it
+ * @param workers      number of worker lanes executing transfers in parallel
+ */
+@ConfigurationProperties(prefix = "bank.standing-orders")
+public record StandingOrderProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1s") Duration tick,
+    @DefaultValue("512") int wheelSize,
+    @DefaultValue("30s") Duration loadInterval,
+    @DefaultValue("60s") Duration horizon,
+    @DefaultValue("1000") int batchSize,
+    @DefaultValue("100000") int maxPending,
+    @DefaultValue("4") int workers
+) {
+}
@@ -0,0 +1,25 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the binary snapshots of the bank state.
+ *
+ * @param directory    the only directory snapshots are written to
+ * @param restoreFrom  snapshot loaded at startup into the (empty) database instead of the demo data, none if unset
+ * @param rowGroupSize rows per independently compressed row group
+ * @param parallelism  row groups decoded and inserted in parallel on restore
+ * @param batchSize    rows per JDBC batch on restore
+ */
+@ConfigurationProperties(prefix = "bank.snapshot")
+public record StateSnapshotProperties(
+    @DefaultValue("snapshots") Path directory,
+    Path restoreFrom,
+    @DefaultValue("65536") int rowGroupSize,
+    @DefaultValue("4") int parallelism,
+    @DefaultValue("5000") int batchSize
+) {
+}
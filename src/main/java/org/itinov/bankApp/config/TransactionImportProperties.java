@@ -0,0 +1,23 @@
+package org.itinov.bankApp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the bulk import of ledger files.
+ *
+ * @param directory             the only directory files are imported from
+ * @param chunkSize             lines read, validated and written per database transaction (commit + checkpoint)
+ * @param parallelism           workers validating the lines of a chunk
+ * @param maxReportedRejections rejected lines kept in the import result, all of them are counted and logged
+ */
+@ConfigurationProperties(prefix = "bank.transaction-import")
+public record TransactionImportProperties(
+    @DefaultValue("imports") Path directory,
+    @DefaultValue("5000") int chunkSize,
+    @DefaultValue("4") int parallelism,
+    @DefaultValue("100") int maxReportedRejections
+) {
+}
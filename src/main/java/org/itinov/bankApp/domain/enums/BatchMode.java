@@ -0,0 +1,11 @@
+package org.itinov.bankApp.domain.enums;
+
+/**
+ * How a batch of operations reacts to an operation that cannot be applied.
+ */
+public enum BatchMode {
+    /** Nothing is applied unless every operation can be. */
+    ALL_OR_NOTHING,
+    /** The valid operations are applied, the others are rejected. */
+    BEST_EFFORT
+}
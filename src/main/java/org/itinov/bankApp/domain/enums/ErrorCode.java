@@ -0,0 +1,43 @@
+package org.itinov.bankApp.domain.enums;
+
+import org.itinov.bankApp.domain.exception.BusinessRejection;
+
+/**
+ * Catalog of the business rules an operation can be rejected by.
+ * <p>
+ * The last codes only reject an operation of a batch: elsewhere a missing or foreign account is a 404 or a 403.
+ * <p>
+ * The names are part of the API ({@code code} of the error body) and must not change. Each code owns one
+ * preallocated {@link BusinessRejection}, thrown as is: rejecting an operation then allocates nothing.
+ */
+public enum ErrorCode {
+    AMOUNT_NOT_POSITIVE("Amount must be positive"),
+    WITHDRAWAL_EXCEEDS_OVERDRAFT("Withdrawal would exceed overdraft limit"),
+    TRANSFER_EXCEEDS_OVERDRAFT("Transfer would exceed overdraft limit"),
+    SAME_ACCOUNT_TRANSFER("Cannot transfer to the same account"),
+    DESTINATION_REQUIRED("toAccountId is required"),
+    END_DATE_BEFORE_FIRST_EXECUTION("End date must not be before the first execution"),
+    UNSUPPORTED_OPERATION_TYPE("Unsupported operation type"),
+    ACCOUNT_NOT_FOUND("Account not found"),
+    ACCOUNT_NOT_OWNED("Account does not belong to the current customer"),
+    DESTINATION_NOT_FOUND("To account not found");
+
+    private final String message;
+    private final BusinessRejection rejection;
+
+    ErrorCode(String message) {
+        this.message = message;
+        this.rejection = new BusinessRejection(this, message);
+    }
+
+    public String message() {
+        return message;
+    }
+
+    /**
+     * @return the shared rejection of this code, to throw
+     */
+    public BusinessRejection rejection() {
+        return rejection;
+    }
+}
@@ -0,0 +1,28 @@
+package org.itinov.bankApp.domain.enums;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recurrence of a standing order.
+ */
+public enum Frequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Computes the n-th occurrence of a schedule, always from its first execution so that monthly
+     * orders starting on the 31st come back to the 31st when the month allows it.
+     *
+     * @param first the first execution
+     * @param n     the occurrence index (0 for the first execution)
+     * @return the date and time of the occurrence
+     */
+    public LocalDateTime occurrence(LocalDateTime first, long n) {
+        return switch (this) {
+            case DAILY -> first.plusDays(n);
+            case WEEKLY -> first.plusWeeks(n);
+            case MONTHLY -> first.plusMonths(n);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package org.itinov.bankApp.domain.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of the periods activity statistics are grouped by.
+ */
+public enum Granularity {
+    DAY,
+    /** ISO weeks, starting on Monday */
+    WEEK,
+    MONTH;
+
+    /**
+     * Returns the first day of the period containing a day.
+     *
+     * @param day any day
+     * @return the start of its period
+     */
+    public LocalDate periodStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
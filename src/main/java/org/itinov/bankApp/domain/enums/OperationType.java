@@ -3,5 +3,7 @@ package org.itinov.bankApp.domain.enums;
 public enum OperationType {
     DEPOSIT,
     WITHDRAWAL,
-    TRANSFER
+    TRANSFER,
+    INTEREST,
+    FEE
 }
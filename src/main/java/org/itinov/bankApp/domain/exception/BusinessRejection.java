@@ -0,0 +1,25 @@
+package org.itinov.bankApp.domain.exception;
+
+import org.itinov.bankApp.domain.enums.ErrorCode;
+
+/**
+ * An operation refused by a business rule (overdraft limit, invalid amount...), as opposed to a failure.
+ * <p>
+ * Rejections are expected and frequent, e.g. a card-testing attack mostly produces overdraft rejections, so they
+ * carry no stack trace and no suppressed exceptions: the instances are immutable and shared, one per
+ * {@link ErrorCode} ({@link ErrorCode#rejection()}), and throwing one costs no stack walk nor allocation.
+ * Mapped to a 400 response whose body holds the code and the message.
+ */
+public final class BusinessRejection extends RuntimeException {
+
+    private final ErrorCode code;
+
+    public BusinessRejection(ErrorCode code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+}
@@ -5,7 +5,7 @@ import org.itinov.bankApp.domain.enums.Currency;
 
 import java.util.List;
 
-@Builder
+@Builder(toBuilder = true)
 public record Account(
     Long id,
     String number,
@@ -13,6 +13,7 @@ public record Account(
     double overdraftLimit,
     Currency currency,
     Customer customer,
-    List<Transaction> transactions
+    List<Transaction> transactions,
+    AccountActivity activity
 ) {
 }
@@ -0,0 +1,15 @@
+package org.itinov.bankApp.domain.model;
+
+import java.time.LocalDateTime;
+
+public record AccountActivity(
+    long transactionCount,
+    double totalDeposits,
+    double totalWithdrawals,
+    double totalTransfersIn,
+    double totalTransfersOut,
+    LocalDateTime lastActivityAt
+) {
+    /** Counters of an account without any transaction. */
+    public static final AccountActivity NONE = new AccountActivity(0, 0, 0, 0, 0, null);
+}
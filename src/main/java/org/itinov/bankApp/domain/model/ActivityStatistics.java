@@ -0,0 +1,31 @@
+package org.itinov.bankApp.domain.model;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.Granularity;
+import org.itinov.bankApp.domain.enums.OperationType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Count and total amount of an account's transactions per operation type, direction and period.
+ * Periods without transactions of a type have no bucket; {@code credit} tells incoming transfers from outgoing ones.
+ */
+public record ActivityStatistics(
+    Long accountId,
+    Currency currency,
+    Granularity granularity,
+    LocalDate from,
+    LocalDate to,
+    List<Bucket> buckets
+) {
+
+    public record Bucket(
+        LocalDate periodStart,
+        OperationType type,
+        boolean credit,
+        long count,
+        double total
+    ) {
+    }
+}
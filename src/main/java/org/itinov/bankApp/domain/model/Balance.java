@@ -0,0 +1,13 @@
+package org.itinov.bankApp.domain.model;
+
+import org.itinov.bankApp.domain.enums.Currency;
+
+import java.time.LocalDateTime;
+
+public record Balance(
+    Long accountId,
+    LocalDateTime at,
+    double balance,
+    Currency currency
+) {
+}
@@ -0,0 +1,15 @@
+package org.itinov.bankApp.domain.model;
+
+import org.itinov.bankApp.domain.enums.Currency;
+
+/**
+ * Daily end-of-day balances of an account, in columnar form: {@code balances[i]} is the closing balance of the day
+ * {@code dates[i]}, expressed in epoch days. Days are consecutive.
+ */
+public record BalanceHistory(
+    Long accountId,
+    Currency currency,
+    long[] dates,
+    double[] balances
+) {
+}
@@ -0,0 +1,17 @@
+package org.itinov.bankApp.domain.model;
+
+import org.itinov.bankApp.domain.enums.OperationType;
+
+/**
+ * One deposit, withdrawal or transfer of a batch.
+ *
+ * @param accountId   the account to credit (deposit) or debit (withdrawal, transfer)
+ * @param toAccountId the account to credit, for transfers only
+ */
+public record BatchOperation(
+    OperationType type,
+    Long accountId,
+    Long toAccountId,
+    double amount
+) {
+}
@@ -0,0 +1,40 @@
+package org.itinov.bankApp.domain.model;
+
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of operations, with one item per operation in request order.
+ *
+ * @param committed whether the applied operations were committed; false when an all-or-nothing batch was rejected
+ */
+public record BatchResult(
+    BatchMode mode,
+    boolean committed,
+    List<Item> items
+) {
+
+    public enum Status {
+        /** The operation was applied; its transactions are returned. */
+        APPLIED,
+        /** The operation is invalid; the code tells why. */
+        REJECTED,
+        /** The operation is valid but was not applied because another operation of the batch was rejected. */
+        NOT_APPLIED
+    }
+
+    /**
+     * @param index        the position of the operation in the batch, from 0
+     * @param transactions the transactions recorded by the operation, two for a transfer
+     * @param code         the rule the operation was rejected by
+     */
+    public record Item(
+        int index,
+        Status status,
+        List<Transaction> transactions,
+        ErrorCode code
+    ) {
+    }
+}
@@ -0,0 +1,14 @@
+package org.itinov.bankApp.domain.model;
+
+import java.util.List;
+
+/**
+ * One page of the customer directory, in id order.
+ *
+ * @param nextAfterId the {@code afterId} of the following page, {@code null} on the last page
+ */
+public record CustomerPage(
+    List<Customer> items,
+    Long nextAfterId
+) {
+}
@@ -0,0 +1,13 @@
+package org.itinov.bankApp.domain.model;
+
+/**
+ * One destination of a payout.
+ *
+ * @param toAccountId the account to credit
+ * @param amount      the amount to credit
+ */
+public record PayoutLeg(
+    Long toAccountId,
+    double amount
+) {
+}
@@ -0,0 +1,23 @@
+package org.itinov.bankApp.domain.model;
+
+import lombok.Builder;
+import org.itinov.bankApp.domain.enums.Frequency;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Builder
+public record StandingOrder(
+    Long id,
+    Long fromAccountId,
+    Long toAccountId,
+    double amount,
+    Frequency frequency,
+    LocalDateTime firstExecution,
+    LocalDate endDate,
+    LocalDateTime nextExecution,
+    int executedCount,
+    LocalDateTime lastExecution,
+    String lastError
+) {
+}
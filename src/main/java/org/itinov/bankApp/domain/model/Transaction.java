@@ -15,6 +15,7 @@ public record Transaction(
     Currency currency,
     String performedBy,
     double balanceAfter,
+    boolean approximateBalance,
     Account account
 ){
 }
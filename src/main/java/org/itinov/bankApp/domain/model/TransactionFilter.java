@@ -0,0 +1,21 @@
+package org.itinov.bankApp.domain.model;
+
+import lombok.Builder;
+import org.itinov.bankApp.domain.enums.OperationType;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria of a transaction search; a {@code null} criterion does not filter.
+ */
+@Builder
+public record TransactionFilter(
+    Long accountId,
+    OperationType type,
+    Double minAmount,
+    Double maxAmount,
+    LocalDate from,
+    LocalDate to,
+    String performedBy
+) {
+}
@@ -0,0 +1,14 @@
+package org.itinov.bankApp.domain.model;
+
+import java.util.List;
+
+/**
+ * One page of a transaction search, newest first.
+ *
+ * @param nextCursor the cursor of the following page, {@code null} on the last page
+ */
+public record TransactionPage(
+    List<Transaction> items,
+    String nextCursor
+) {
+}
@@ -0,0 +1,16 @@
+package org.itinov.bankApp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object representing the lifetime activity counters of an account.
+ */
+public record AccountActivityDTO(
+    long transactionCount,
+    double totalDeposits,
+    double totalWithdrawals,
+    double totalTransfersIn,
+    double totalTransfersOut,
+    LocalDateTime lastActivityAt
+) {
+}
@@ -6,13 +6,14 @@ import java.util.List;
 
 /**
  * Data Transfer Object representing an Account.
- * Contains account details and a list of associated transactions.
+ * Contains account details, a list of associated transactions and the lifetime activity counters.
  */
 public record AccountDTO(
     Long id,
     String number,
     double balance,
     Currency currency,
-    List<TransactionDTO> transactions
+    List<TransactionDTO> transactions,
+    AccountActivityDTO activity
 ) {
 }
@@ -0,0 +1,32 @@
+package org.itinov.bankApp.dto;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.Granularity;
+import org.itinov.bankApp.domain.enums.OperationType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the transaction counts and sums of an account per operation type, direction and
+ * period, ordered by period, type, then credits before debits. TRANSFER buckets come as an incoming bucket
+ * ({@code credit} true) and an outgoing one.
+ */
+public record ActivityStatisticsDTO(
+    Long accountId,
+    Currency currency,
+    Granularity granularity,
+    LocalDate from,
+    LocalDate to,
+    List<BucketDTO> buckets
+) {
+
+    public record BucketDTO(
+        LocalDate periodStart,
+        OperationType type,
+        boolean credit,
+        long count,
+        double total
+    ) {
+    }
+}
@@ -0,0 +1,16 @@
+package org.itinov.bankApp.dto;
+
+import org.itinov.bankApp.domain.enums.Currency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object representing the balance of an account at a point in time.
+ */
+public record BalanceDTO(
+    Long accountId,
+    LocalDateTime at,
+    double balance,
+    Currency currency
+) {
+}
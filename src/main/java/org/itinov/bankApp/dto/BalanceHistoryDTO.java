@@ -0,0 +1,17 @@
+package org.itinov.bankApp.dto;
+
+import org.itinov.bankApp.domain.enums.Currency;
+
+/**
+ * Data Transfer Object representing a daily balance series, in columnar form.
+ * {@code dates} are epoch days (days since 1970-01-01) and {@code balances[i]} is the end-of-day balance of
+ * {@code dates[i]}. The series is dense, one entry per day; it starts after the requested date when the balance
+ * before the account's first transaction is unknown.
+ */
+public record BalanceHistoryDTO(
+    Long accountId,
+    Currency currency,
+    long[] dates,
+    double[] balances
+) {
+}
@@ -0,0 +1,35 @@
+package org.itinov.bankApp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.enums.OperationType;
+
+import java.util.List;
+
+/**
+ * Request body for a batch of deposits, withdrawals and transfers, applied in order.
+ */
+public record BatchRequest(
+    @NotNull(message = "mode is required")
+    BatchMode mode,
+    @NotEmpty(message = "operations are required")
+    @Size(max = 1000, message = "a batch holds at most 1000 operations")
+    List<@Valid @NotNull OperationRequest> operations
+) {
+
+    public record OperationRequest(
+        @NotNull(message = "type is required")
+        OperationType type,
+        @NotNull(message = "accountId is required")
+        Long accountId,
+        Long toAccountId,
+        @NotNull(message = "amount is required")
+        @Positive(message = "amount must be greater than 0")
+        Double amount
+    ) {
+    }
+}
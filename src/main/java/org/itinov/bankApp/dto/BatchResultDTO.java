@@ -0,0 +1,27 @@
+package org.itinov.bankApp.dto;
+
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.model.BatchResult.Status;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the outcome of a batch, one item per operation in request order.
+ * {@code committed} is false when an all-or-nothing batch was rejected, in which case nothing was applied.
+ * A rejected item carries the code and the message of the rule, as the body of a rejected operation.
+ */
+public record BatchResultDTO(
+    BatchMode mode,
+    boolean committed,
+    List<ItemDTO> items
+) {
+
+    public record ItemDTO(
+        int index,
+        Status status,
+        List<TransactionDTO> transactions,
+        String code,
+        String message
+    ) {
+    }
+}
@@ -0,0 +1,13 @@
+package org.itinov.bankApp.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing one page of the customer directory.
+ * {@code nextAfterId} is passed back as {@code after} to fetch the following page and is {@code null} on the last one.
+ */
+public record CustomerPageDTO(
+    List<CustomerDTO> items,
+    Long nextAfterId
+) {
+}
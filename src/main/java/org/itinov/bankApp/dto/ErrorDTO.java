@@ -0,0 +1,13 @@
+package org.itinov.bankApp.dto;
+
+/**
+ * Data Transfer Object of a rejected operation.
+ *
+ * @param code    stable identifier of the rule, from {@link org.itinov.bankApp.domain.enums.ErrorCode}
+ * @param message human-readable explanation
+ */
+public record ErrorDTO(
+    String code,
+    String message
+) {
+}
@@ -0,0 +1,10 @@
+package org.itinov.bankApp.dto;
+
+/**
+ * Data Transfer Object describing a written Flight Recorder dump.
+ */
+public record FlightRecordingDTO(
+    String file,
+    long bytes
+) {
+}
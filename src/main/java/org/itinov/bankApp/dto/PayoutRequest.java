@@ -0,0 +1,28 @@
+package org.itinov.bankApp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request body for a payout: one source account paying several destination accounts at once.
+ */
+public record PayoutRequest(
+    @NotEmpty(message = "legs are required")
+    @Size(max = 1000, message = "a payout has at most 1000 legs")
+    List<@Valid @NotNull Leg> legs
+) {
+
+    public record Leg(
+        @NotNull(message = "toAccountId is required")
+        Long toAccountId,
+        @NotNull(message = "amount is required")
+        @Positive(message = "amount must be greater than 0")
+        Double amount
+    ) {
+    }
+}
@@ -0,0 +1,25 @@
+package org.itinov.bankApp.dto;
+
+import org.itinov.bankApp.domain.enums.Frequency;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object representing a standing order (recurring transfer).
+ * A null nextExecution means the order is finished or cancelled.
+ */
+public record StandingOrderDTO(
+    Long id,
+    Long fromAccountId,
+    Long toAccountId,
+    double amount,
+    Frequency frequency,
+    LocalDateTime firstExecution,
+    LocalDate endDate,
+    LocalDateTime nextExecution,
+    int executedCount,
+    LocalDateTime lastExecution,
+    String lastError
+) {
+}
@@ -0,0 +1,26 @@
+package org.itinov.bankApp.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.itinov.bankApp.domain.enums.Frequency;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Request body for creating a standing order.
+ */
+public record StandingOrderRequest(
+    @NotNull(message = "toAccountId is required")
+    Long toAccountId,
+    @NotNull(message = "amount is required")
+    @Positive(message = "amount must be greater than 0")
+    Double amount,
+    @NotNull(message = "frequency is required")
+    Frequency frequency,
+    @NotNull(message = "firstExecution is required")
+    @FutureOrPresent(message = "firstExecution must not be in the past")
+    LocalDateTime firstExecution,
+    LocalDate endDate
+) {}
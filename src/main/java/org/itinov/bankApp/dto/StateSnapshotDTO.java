@@ -0,0 +1,12 @@
+package org.itinov.bankApp.dto;
+
+/**
+ * Data Transfer Object describing a written bank state snapshot.
+ */
+public record StateSnapshotDTO(
+    String file,
+    long rows,
+    long bytes,
+    long elapsedMillis
+) {
+}
@@ -8,6 +8,8 @@ import java.time.LocalDateTime;
 /**
  * Data Transfer Object representing a Transaction.
  * Contains transaction details including type, amount, date, and associated account.
+ * {@code approximateBalance} flags a {@code balanceAfter} taken on a split balance account, which may miss concurrent
+ * deposits.
  */
 public record TransactionDTO(
     Long id,
@@ -17,6 +19,7 @@ public record TransactionDTO(
     Currency currency,
     String performedBy,
     double balanceAfter,
+    boolean approximateBalance,
     AccountDTO account
 ) {
 }
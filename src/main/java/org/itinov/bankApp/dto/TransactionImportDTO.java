@@ -0,0 +1,24 @@
+package org.itinov.bankApp.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the outcome of a ledger import run.
+ * {@code lines} and {@code imported} only count the part of the file processed by this run: a run resuming a previous
+ * attempt starts after its last committed chunk.
+ */
+public record TransactionImportDTO(
+    String file,
+    long lines,
+    long imported,
+    long rejected,
+    List<RejectionDTO> rejections,
+    long elapsedMillis
+) {
+
+    public record RejectionDTO(
+        long offset,
+        String reason
+    ) {
+    }
+}
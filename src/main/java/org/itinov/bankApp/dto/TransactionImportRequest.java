@@ -0,0 +1,11 @@
+package org.itinov.bankApp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Request body for the import of a ledger file.
+ */
+public record TransactionImportRequest(
+    @NotBlank(message = "file is required")
+    String file
+) {}
@@ -0,0 +1,13 @@
+package org.itinov.bankApp.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing one page of a transaction search.
+ * {@code nextCursor} is passed back to fetch the following page and is {@code null} on the last one.
+ */
+public record TransactionPageDTO(
+    List<TransactionDTO> items,
+    String nextCursor
+) {
+}
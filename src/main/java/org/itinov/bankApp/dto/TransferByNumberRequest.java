@@ -0,0 +1,18 @@
+package org.itinov.bankApp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Request body for a transfer to an account designated by its number.
+ * An account created less than one account number refresh interval ago ({@code bank.account-resolver.refresh-interval},
+ * 30 s by default) may not be found yet: the transfer is then rejected with a 404 and can be retried.
+ */
+public record TransferByNumberRequest(
+    @NotBlank(message = "toAccountNumber is required")
+    String toAccountNumber,
+    @NotNull(message = "amount is required")
+    @Positive(message = "amount must be greater than 0")
+    Double amount
+) {}
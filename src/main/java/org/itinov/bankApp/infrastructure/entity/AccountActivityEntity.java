@@ -0,0 +1,31 @@
+package org.itinov.bankApp.infrastructure.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running activity counters of an account, kept up to date by every transaction posted on it
+ * so that account summaries never have to count the transaction table.
+ * Amounts are lifetime totals, in the currency of the account.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountActivityEntity {
+    @Id
+    private Long accountId;
+
+    private long transactionCount;
+    private double totalDeposits;
+    private double totalWithdrawals;
+    private double totalTransfersIn;
+    private double totalTransfersOut;
+
+    private LocalDateTime lastActivityAt;
+}
@@ -0,0 +1,37 @@
+package org.itinov.bankApp.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sub-balance of an account in "split balance" mode.
+ * Deposits on a hot account are spread over several slots so that concurrent writers
+ * update different rows instead of serializing on the single account balance.
+ * The slot also counts the credits it received, which would otherwise serialize on the activity counters row
+ * of the account; both are folded into the account when it is consolidated.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_balance_slot_account_slot", columnNames = {"account_id", "slot"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceSlotEntity {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private AccountEntity account;
+
+    private int slot;
+    private double balance;
+
+    private long transactionCount;
+    private double totalDeposits;
+    private double totalTransfersIn;
+    private LocalDateTime lastActivityAt;
+}
@@ -10,30 +10,62 @@ import java.util.List;
 /**
  * Represents a bank account with attributes such as account number, balance, overdraft limit, currency,
  * associated customer, and a list of transactions.
+ * The {@code version} column enables optimistic locking: concurrent writers of the same account
+ * are detected at flush time instead of silently overwriting each other's balance.
+ * <p>
+ * When {@code balanceSlots} is greater than zero the account is in "split balance" mode: deposits are
+ * credited to one of its {@link AccountBalanceSlotEntity} rows and {@code balance} only holds the
+ * consolidated part, so the logical balance is {@code balance} plus the sum of the slots.
+ * <p>
+ * Account numbers are unique; the unique index also resolves the numbers typed by users for transfers.
+ * Ids come from a pooled sequence so that the data generator can insert accounts over plain JDBC.
+ * The customer is loaded lazily; the named entity graphs are the fetch plans of the repository methods: the account
+ * alone, with its customer (to map it shallow), or with its customer and transactions (to map it in full).
  */
 @Entity
+@NamedEntityGraph(name = AccountEntity.GRAPH_ACCOUNT_ONLY)
+@NamedEntityGraph(name = AccountEntity.GRAPH_WITH_CUSTOMER, attributeNodes = @NamedAttributeNode("customer"))
+@NamedEntityGraph(name = AccountEntity.GRAPH_WITH_CUSTOMER_AND_TRANSACTIONS,
+    attributeNodes = {@NamedAttributeNode("customer"), @NamedAttributeNode("transactions")})
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_account_number", columnNames = "number"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class AccountEntity {
+    public static final String ID_SEQUENCE = "account_entity_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String GRAPH_ACCOUNT_ONLY = "AccountEntity.accountOnly";
+    public static final String GRAPH_WITH_CUSTOMER = "AccountEntity.withCustomer";
+    public static final String GRAPH_WITH_CUSTOMER_AND_TRANSACTIONS = "AccountEntity.withCustomerAndTransactions";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    private Long version;
+
     private String number;
     private double balance;
     private double overdraftLimit;
 
+    /** Number of sub-balance slots receiving deposits, 0 for a regular single-row balance. */
+    private int balanceSlots;
+
     @Enumerated(EnumType.STRING)
     private Currency currency;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private CustomerEntity customer;
 
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<TransactionEntity> transactions = new ArrayList<>();
 
+    public boolean isSplitBalance() {
+        return balanceSlots > 0;
+    }
 }
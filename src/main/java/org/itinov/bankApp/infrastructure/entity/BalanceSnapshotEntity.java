@@ -0,0 +1,34 @@
+package org.itinov.bankApp.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Closing balance of an account for one day, i.e. its balance after the last transaction of that day.
+ * Only days with at least one transaction have a snapshot; the row is rewritten by every transaction of the day.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_date",
+    columnNames = {"account_id", "snapshot_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshotEntity {
+    public static final String ID_SEQUENCE = "balance_snapshot_entity_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshot_seq")
+    @SequenceGenerator(name = "balance_snapshot_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private AccountEntity account;
+
+    private LocalDate snapshotDate;
+    private double closingBalance;
+}
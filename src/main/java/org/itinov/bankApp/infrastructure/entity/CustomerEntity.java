@@ -6,16 +6,26 @@ import lombok.*;
 /**
  * Entity representing a Customer in the banking application.
  * Each customer can have multiple accounts.
+ * Names and emails are indexed for the prefix search of the customer directory.
+ * Ids come from a pooled sequence so that the data generator can insert customers over plain JDBC.
  */
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_customer_name", columnList = "name"),
+    @Index(name = "idx_customer_email", columnList = "email")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class CustomerEntity {
+    public static final String ID_SEQUENCE = "customer_entity_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String keycloakId;
     private String name;
@@ -0,0 +1,36 @@
+package org.itinov.bankApp.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one partition of a batch job run.
+ * A run is identified by the job name and a run key (typically the business date); each partition covers the ids in
+ * {@code (partitionStart, partitionEnd]} and {@code position} is the last id whose work has been committed, so a
+ * crashed run restarts right after it.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_job_checkpoint_partition",
+    columnNames = {"job_name", "run_key", "partition_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobCheckpointEntity {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String jobName;
+    private String runKey;
+
+    private long partitionStart;
+    private long partitionEnd;
+    private long position;
+    private boolean completed;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package org.itinov.bankApp.infrastructure.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last transaction of an account whose balance chain has been verified.
+ * The incremental reconciliation resumes the account's (date, id) cursor right after it,
+ * using {@code lastBalanceAfter} as the opening balance.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationCheckpointEntity {
+    @Id
+    private Long accountId;
+
+    private Long lastTransactionId;
+    private LocalDateTime lastTransactionDate;
+    private double lastBalanceAfter;
+
+    private LocalDateTime checkedAt;
+}
@@ -0,0 +1,57 @@
+package org.itinov.bankApp.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.itinov.bankApp.domain.enums.Frequency;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a standing order: a transfer repeated at a fixed frequency.
+ * The next occurrence is always derived from the first execution and the number of executed occurrences.
+ * Orders that are finished or cancelled have no next execution and drop out of the due-date index.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_standing_order_next_execution", columnList = "next_execution, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StandingOrderEntity {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Version
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private AccountEntity fromAccount;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private AccountEntity toAccount;
+
+    private double amount;
+
+    @Enumerated(EnumType.STRING)
+    private Frequency frequency;
+
+    private LocalDateTime firstExecution;
+    private LocalDate endDate;
+    private LocalDateTime nextExecution;
+    private int executedCount;
+    private LocalDateTime lastExecution;
+    private String lastError;
+    private String performedBy;
+
+    /**
+     * Moves the order to its next occurrence, or ends it when the next occurrence is after the end date.
+     */
+    public void advance() {
+        executedCount++;
+        LocalDateTime next = frequency.occurrence(firstExecution, executedCount);
+        nextExecution = endDate != null && next.toLocalDate().isAfter(endDate) ? null : next;
+    }
+}
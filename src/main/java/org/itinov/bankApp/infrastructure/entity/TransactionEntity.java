@@ -10,17 +10,41 @@ import java.time.LocalDateTime;
 /**
  * Entity representing a Transaction in the banking application.
  * Each transaction is associated with an account and records details such as amount, type, currency,
- * and balance after the transaction.
+ * and balance after the transaction. {@code credit} tells whether it credits the account, which is what tells the two
+ * legs of a transfer apart.
+ * On a split balance account the balance after is only approximate, and {@code approximateBalance} says so: it is
+ * read from the slots without locking them, so it misses the deposits still in flight and those that commit later
+ * with a lower total. The amounts of these rows stay exact; only the consolidated balance plus the slots is
+ * authoritative.
+ * Ids come from a pooled sequence: each call reserves {@link #ID_ALLOCATION_SIZE} ids, which lets batch jobs
+ * inserting rows over plain JDBC draw from the same sequence as Hibernate.
+ * The (account, date, id) index serves the account history, the ordered scans of the reconciliation job and the
+ * transaction search; the search by type or by performer uses the variants with that column before the date.
+ * The account is loaded lazily; {@link #GRAPH_WITH_ACCOUNT} fetches it with its customer, all that the mapping of a
+ * transaction with its shallow account reads.
  */
 @Entity
+@NamedEntityGraph(name = TransactionEntity.GRAPH_WITH_ACCOUNT,
+    attributeNodes = @NamedAttributeNode(value = "account", subgraph = "account"),
+    subgraphs = @NamedSubgraph(name = "account", attributeNodes = @NamedAttributeNode("customer")))
+@Table(indexes = {
+    @Index(name = "idx_transaction_account_date_id", columnList = "account_id, date, id"),
+    @Index(name = "idx_transaction_account_type_date_id", columnList = "account_id, type, date, id"),
+    @Index(name = "idx_transaction_account_performer_date_id", columnList = "account_id, performed_by, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class TransactionEntity {
+    public static final String ID_SEQUENCE = "transaction_entity_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String GRAPH_WITH_ACCOUNT = "TransactionEntity.withAccount";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private LocalDateTime date;
@@ -34,7 +58,9 @@ public class TransactionEntity {
 
     private String performedBy;
     private double balanceAfter;
+    private boolean credit;
+    private boolean approximateBalance;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountEntity account;
 }
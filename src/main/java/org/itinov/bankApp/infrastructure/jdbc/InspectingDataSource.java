@@ -0,0 +1,137 @@
+package org.itinov.bankApp.infrastructure.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Data source reporting every statement executed and every row read or written to the {@link SqlStatistics} of the
+ * current thread.
+ * <p>
+ * Connections, statements and result sets are wrapped in JDK proxies that time the {@code execute*} and
+ * {@code next} calls and delegate everything else; obtaining a connection from the pool is timed apart. When no
+ * statistics are being collected the cost is a thread-local read per call; {@code unwrap} still reaches the pool, so
+ * pool metrics keep working.
+ */
+public class InspectingDataSource extends DelegatingDataSource {
+
+    public InspectingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+        } finally {
+            SqlStatistics.recordConnectionWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+        } finally {
+            SqlStatistics.recordConnectionWait(System.nanoTime() - start);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InspectingDataSource.class.getClassLoader(), new Class<?>[]{type},
+            handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InspectingDataSource.invoke(target, method, args);
+            return switch (result) {
+                // prepareStatement et prepareCall fixent la requête, createStatement la reçoit à l'exécution
+                case CallableStatement call -> proxy(CallableStatement.class, new StatementHandler(call, (String) args[0]));
+                case PreparedStatement prepared ->
+                    proxy(PreparedStatement.class, new StatementHandler(prepared, (String) args[0]));
+                case Statement statement -> proxy(Statement.class, new StatementHandler(statement, null));
+                case null, default -> result;
+            };
+        }
+    }
+
+    private record StatementHandler(Statement target, String preparedSql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = InspectingDataSource.invoke(target, method, args);
+                return result instanceof ResultSet rs && (name.equals("getResultSet") || name.equals("getGeneratedKeys"))
+                    ? proxy(ResultSet.class, new ResultSetHandler(rs))
+                    : result;
+            }
+            String sql = preparedSql != null ? preparedSql
+                : args != null && args.length > 0 && args[0] instanceof String s ? s : "<batch>";
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = InspectingDataSource.invoke(target, method, args);
+                return result instanceof ResultSet rs ? proxy(ResultSet.class, new ResultSetHandler(rs)) : result;
+            } finally {
+                SqlStatistics.recordExecution(sql, written(result), System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Rows written according to the value returned by an {@code execute*} method.
+         */
+        private static long written(Object result) {
+            return switch (result) {
+                case Integer count -> rows(count);
+                case Long count -> rows(count);
+                case int[] counts -> Arrays.stream(counts).mapToLong(StatementHandler::rows).sum();
+                case long[] counts -> Arrays.stream(counts).map(StatementHandler::rows).sum();
+                case null, default -> 0;
+            };
+        }
+
+        private static long rows(long count) {
+            // SUCCESS_NO_INFO (-2) : la ligne est écrite mais le pilote ne la compte pas
+            return count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("next")) {
+                return InspectingDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            boolean row = target.next();
+            SqlStatistics.recordFetch(row, System.nanoTime() - start);
+            return row;
+        }
+    }
+}
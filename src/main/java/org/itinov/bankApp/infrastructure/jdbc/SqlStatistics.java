@@ -0,0 +1,127 @@
+package org.itinov.bankApp.infrastructure.jdbc;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SQL statements executed, rows read and written and time spent in JDBC and waiting for connections by one unit of
+ * work, typically an HTTP request or a bank operation.
+ * <p>
+ * Collection is bound to the current thread between {@link #start()} and {@link #stop()}; statements run on other
+ * threads (batch jobs, schedulers) are not counted. Units of work nest: a statement counts for the innermost one and
+ * every enclosing one. The figures are only read once the unit of work is over, by the thread that ran it.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics enclosing;
+    private final Map<String, Integer> executions = new HashMap<>();
+    private long statements;
+    private long rows;
+    private long rowsWritten;
+    private long jdbcNanos;
+    private long connectionWaitNanos;
+
+    private SqlStatistics(SqlStatistics enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /**
+     * Starts collecting the statements of the current thread.
+     *
+     * @return the statistics being collected
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Ends the innermost unit of work of the current thread, its enclosing one going on.
+     */
+    public static void stop() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null && statistics.enclosing != null) {
+            CURRENT.set(statistics.enclosing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return the statistics being collected on the current thread, if any
+     */
+    public static Optional<SqlStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    static void recordExecution(String sql, long written, long nanos) {
+        for (SqlStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.enclosing) {
+            statistics.statements++;
+            statistics.rowsWritten += written;
+            statistics.jdbcNanos += nanos;
+            statistics.executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void recordConnectionWait(long nanos) {
+        for (SqlStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.enclosing) {
+            statistics.connectionWaitNanos += nanos;
+        }
+    }
+
+    static void recordFetch(boolean row, long nanos) {
+        for (SqlStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.enclosing) {
+            statistics.jdbcNanos += nanos;
+            if (row) {
+                statistics.rows++;
+            }
+        }
+    }
+
+    public long statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @return the rows inserted, updated or deleted, as reported by the driver
+     */
+    public long rowsWritten() {
+        return rowsWritten;
+    }
+
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    /**
+     * @return the time spent obtaining connections from the pool, not included in {@link #jdbcTime()}
+     */
+    public Duration connectionWait() {
+        return Duration.ofNanos(connectionWaitNanos);
+    }
+
+    /**
+     * Finds the statements executed more than {@code threshold} times, the usual sign of an N+1 query.
+     *
+     * @param threshold the number of executions of a statement considered normal
+     * @return the SQL of the repeated statements and their execution counts
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count > threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+}
@@ -0,0 +1,47 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import org.itinov.bankApp.infrastructure.entity.AccountActivityEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for the activity counters of accounts.
+ */
+public interface AccountActivityRepository extends JpaRepository<AccountActivityEntity, Long> {
+
+    /**
+     * Adds transactions to the counters of an account in a single statement, so that concurrent
+     * writers of the same account add up instead of overwriting each other.
+     *
+     * @param accountId    the ID of the account
+     * @param count        the number of transactions to add
+     * @param deposits     the amount to add to the deposits total
+     * @param withdrawals  the amount to add to the withdrawals total
+     * @param transfersIn  the amount to add to the incoming transfers total
+     * @param transfersOut the amount to add to the outgoing transfers total
+     * @param at           when the latest of the transactions happened
+     * @return the number of updated rows, 0 if the account has no counters yet
+     */
+    @Modifying
+    @Query("""
+        update AccountActivityEntity a set
+            a.transactionCount = a.transactionCount + :count,
+            a.totalDeposits = a.totalDeposits + :deposits,
+            a.totalWithdrawals = a.totalWithdrawals + :withdrawals,
+            a.totalTransfersIn = a.totalTransfersIn + :transfersIn,
+            a.totalTransfersOut = a.totalTransfersOut + :transfersOut,
+            a.lastActivityAt = case when a.lastActivityAt is null or a.lastActivityAt < :at then :at
+                                    else a.lastActivityAt end
+        where a.accountId = :accountId""")
+    int increment(@Param("accountId") Long accountId,
+                  @Param("count") long count,
+                  @Param("deposits") double deposits,
+                  @Param("withdrawals") double withdrawals,
+                  @Param("transfersIn") double transfersIn,
+                  @Param("transfersOut") double transfersOut,
+                  @Param("at") LocalDateTime at);
+}
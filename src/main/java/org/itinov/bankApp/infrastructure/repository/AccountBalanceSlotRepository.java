@@ -0,0 +1,94 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import jakarta.persistence.LockModeType;
+import org.itinov.bankApp.infrastructure.entity.AccountBalanceSlotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the sub-balance slots of split balance accounts.
+ */
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlotEntity, Long> {
+
+    /**
+     * Balance and credit counters of all the slots of one account.
+     */
+    record SlotTotals(Long accountId, double balance, long transactionCount, double totalDeposits,
+                      double totalTransfersIn, LocalDateTime lastActivityAt) {
+    }
+
+    /**
+     * Atomically credits one slot and counts the credit on it, without reading the account row.
+     *
+     * @param accountId  the ID of the account
+     * @param slot       the slot index
+     * @param deposit    the amount of a deposit, 0 for an incoming transfer
+     * @param transferIn the amount of an incoming transfer, 0 for a deposit
+     * @param at         the date of the transaction
+     * @return the number of updated rows (0 if the slot does not exist)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update AccountBalanceSlotEntity s set
+            s.balance = s.balance + :deposit + :transferIn,
+            s.transactionCount = s.transactionCount + 1,
+            s.totalDeposits = s.totalDeposits + :deposit,
+            s.totalTransfersIn = s.totalTransfersIn + :transferIn,
+            s.lastActivityAt = case when s.lastActivityAt is null or s.lastActivityAt < :at then :at
+                                    else s.lastActivityAt end
+        where s.account.id = :accountId and s.slot = :slot""")
+    int addToSlot(@Param("accountId") Long accountId,
+                  @Param("slot") int slot,
+                  @Param("deposit") double deposit,
+                  @Param("transferIn") double transferIn,
+                  @Param("at") LocalDateTime at);
+
+    /**
+     * Resets the balance and the counters of all the slots of an account to zero.
+     *
+     * @param accountId the ID of the account
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountBalanceSlotEntity s set s.balance = 0, s.transactionCount = 0, s.totalDeposits = 0, " +
+        "s.totalTransfersIn = 0, s.lastActivityAt = null where s.account.id = :accountId")
+    int resetByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Sums the balance and the counters of the slots of several accounts.
+     *
+     * @param accountIds the IDs of the accounts
+     * @return one row per account that has slots
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository$SlotTotals(" +
+        "s.account.id, sum(s.balance), sum(s.transactionCount), sum(s.totalDeposits), sum(s.totalTransfersIn), " +
+        "max(s.lastActivityAt)) from AccountBalanceSlotEntity s where s.account.id in :accountIds " +
+        "group by s.account.id")
+    List<SlotTotals> findTotals(@Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * Sums all the slots of an account.
+     *
+     * @param accountId the ID of the account
+     * @return the sum of the slot balances, 0 if the account has no slot
+     */
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceSlotEntity s where s.account.id = :accountId")
+    double sumByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Loads and write-locks all the slots of an account, blocking concurrent deposits until commit.
+     *
+     * @param accountId the ID of the account
+     * @return the slots of the account ordered by index
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlotEntity s where s.account.id = :accountId order by s.slot")
+    List<AccountBalanceSlotEntity> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+}
@@ -1,23 +1,75 @@
 package org.itinov.bankApp.infrastructure.repository;
 
 import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Account entities.
  * Extends JpaRepository to provide CRUD operations and more.
  */
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
+
+    /**
+     * Number of an account.
+     */
+    record AccountNumber(Long id, String number) {
+    }
+
     /**
      * Finds all accounts associated with a specific customer ID.
+     * Their customer and transactions, mapped with each account, are fetched in the same query.
      *
      * @param customerId the ID of the customer
      * @return a list of accounts belonging to the specified customer
      */
+    @EntityGraph(AccountEntity.GRAPH_WITH_CUSTOMER_AND_TRANSACTIONS)
     List<AccountEntity> findByCustomerId(Long customerId);
 
+    /**
+     * Finds an account without its associations, for reads of its own columns and of its customer id.
+     *
+     * @param accountId the ID of the account
+     * @return the account, or empty if it does not exist
+     */
+    @EntityGraph(AccountEntity.GRAPH_ACCOUNT_ONLY)
+    @Query("select a from AccountEntity a where a.id = :id")
+    Optional<AccountEntity> findAccountById(@Param("id") Long accountId);
+
+    /**
+     * Finds an account with its customer, for operations returning transactions mapped with their account.
+     *
+     * @param accountId the ID of the account
+     * @return the account, or empty if it does not exist
+     */
+    @EntityGraph(AccountEntity.GRAPH_WITH_CUSTOMER)
+    Optional<AccountEntity> findWithCustomerById(Long accountId);
+
+    /**
+     * Finds accounts with their customers in one query, for operations on several accounts.
+     *
+     * @param accountIds the IDs of the accounts
+     * @return the accounts that exist, in no particular order
+     */
+    @EntityGraph(AccountEntity.GRAPH_WITH_CUSTOMER)
+    List<AccountEntity> findWithCustomerByIdIn(Collection<Long> accountIds);
+
+    /**
+     * Lists the ids of the accounts of a customer, without loading the entities.
+     *
+     * @param customerId the ID of the customer
+     * @return the IDs of the accounts belonging to the specified customer
+     */
+    @Query("select a.id from AccountEntity a where a.customer.id = :customerId")
+    List<Long> findIdsByCustomerId(@Param("customerId") Long customerId);
+
     /**
      * Checks if an account exists with the given account ID and customer ID.
      *
@@ -26,4 +78,49 @@ public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
      * @return true if an account exists with the specified IDs, false otherwise
      */
     boolean existsByIdAndCustomerId(Long accountId, Long customerId);
+
+    /**
+     * Finds an account by its account number.
+     *
+     * @param number the account number
+     * @return the account, or empty if no account has this number
+     */
+    Optional<AccountEntity> findByNumber(String number);
+
+    /**
+     * Resolves an account number to the account id through the unique number index, without loading the entity.
+     *
+     * @param number the account number
+     * @return the ID, or empty if no account has this number
+     */
+    @Query("select a.id from AccountEntity a where a.number = :number")
+    Optional<Long> findIdByNumber(@Param("number") String number);
+
+    /**
+     * Reads one keyset page of account numbers in id order.
+     *
+     * @param afterId the last id of the previous page, 0 for the first page
+     * @param limit   the page size
+     * @return the numbers of the accounts with a greater id
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.AccountRepository$AccountNumber(a.id, a.number) " +
+        "from AccountEntity a where a.id > :afterId order by a.id")
+    List<AccountNumber> findNumbers(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Lists the accounts in split balance mode.
+     *
+     * @return their IDs in id order
+     */
+    @Query("select a.id from AccountEntity a where a.balanceSlots > 0 order by a.id")
+    List<Long> findSplitIds();
+
+    /**
+     * Takes a write lock on an account row until the end of the transaction, without loading the entity.
+     *
+     * @param accountId the ID of the account
+     * @return the ID, or empty if the account does not exist
+     */
+    @Query(value = "select id from account_entity where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long accountId);
 }
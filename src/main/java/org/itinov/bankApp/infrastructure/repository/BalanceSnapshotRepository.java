@@ -0,0 +1,32 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repository interface for the daily balance snapshots of accounts.
+ */
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshotEntity, Long> {
+
+    /**
+     * Finds the snapshot of an account for one day.
+     *
+     * @param accountId the ID of the account
+     * @param date      the day
+     * @return the snapshot, or empty if the account had no transaction that day yet
+     */
+    Optional<BalanceSnapshotEntity> findByAccountIdAndSnapshotDate(Long accountId, LocalDate date);
+
+    /**
+     * Finds the most recent snapshot strictly before a day.
+     *
+     * @param accountId the ID of the account
+     * @param date      the exclusive upper bound
+     * @return the latest earlier snapshot, or empty if there is none
+     */
+    Optional<BalanceSnapshotEntity> findFirstByAccountIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(Long accountId,
+                                                                                                   LocalDate date);
+}
@@ -1,8 +1,12 @@
 package org.itinov.bankApp.infrastructure.repository;
 
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,5 +14,43 @@ import java.util.Optional;
  * Extends JpaRepository to provide CRUD operations and more.
  */
 public interface CustomerRepository extends JpaRepository<CustomerEntity, Long> {
+
+    /**
+     * Searchable fields of a customer.
+     */
+    record DirectoryEntry(Long id, String name, String email) {
+    }
+
     Optional<CustomerEntity> findByKeycloakId(String keycloakId);
+
+    /**
+     * Reads one keyset page of customers in id order.
+     *
+     * @param afterId the last id of the previous page, 0 for the first page
+     * @param limit   the page size
+     * @return the customers with a greater id
+     */
+    List<CustomerEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Reads one keyset page of the searchable fields of customers in id order, without loading the entities.
+     *
+     * @param afterId the last id of the previous page, 0 for the first page
+     * @param limit   the page size
+     * @return the customers with a greater id
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.CustomerRepository$DirectoryEntry(" +
+        "c.id, c.name, c.email) from CustomerEntity c where c.id > :afterId order by c.id")
+    List<DirectoryEntry> findDirectoryEntries(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Finds the customers whose name starts with a prefix, ignoring case. Comparing {@code upper(name)} cannot use
+     * the name index, so the scan stops at the limit.
+     */
+    List<CustomerEntity> findByNameStartingWithIgnoreCaseOrderByName(String prefix, Limit limit);
+
+    /**
+     * Finds the customers whose email starts with a prefix, ignoring case; same cost as the name search.
+     */
+    List<CustomerEntity> findByEmailStartingWithIgnoreCaseOrderByEmail(String prefix, Limit limit);
 }
@@ -0,0 +1,27 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import org.itinov.bankApp.infrastructure.entity.JobCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpointEntity, Long> {
+
+    List<JobCheckpointEntity> findByJobNameAndRunKeyOrderByPartitionStartAsc(String jobName, String runKey);
+
+    /**
+     * Records the progress of a partition, in the same transaction as the work it acknowledges.
+     */
+    @Modifying
+    @Query("""
+        update JobCheckpointEntity c set c.position = :position, c.completed = :completed, c.updatedAt = :updatedAt
+        where c.id = :id""")
+    int advance(@Param("id") Long id,
+                @Param("position") long position,
+                @Param("completed") boolean completed,
+                @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,7 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import org.itinov.bankApp.infrastructure.entity.ReconciliationCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpointEntity, Long> {
+}
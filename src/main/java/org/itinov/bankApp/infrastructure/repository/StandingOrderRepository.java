@@ -0,0 +1,63 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import org.itinov.bankApp.infrastructure.entity.StandingOrderEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for StandingOrder entities.
+ * Due orders are read in (nextExecution, id) order with keyset pagination, which walks the
+ * due-date index instead of scanning the table.
+ */
+public interface StandingOrderRepository extends JpaRepository<StandingOrderEntity, Long> {
+
+    /**
+     * Lightweight view of a due order, enough to place it in the scheduler.
+     */
+    record DueOrder(Long id, Long fromAccountId, LocalDateTime nextExecution) {
+    }
+
+    /**
+     * Finds the first orders due before a horizon (overdue orders included).
+     *
+     * @param horizon exclusive upper bound of the next execution
+     * @param limit   maximum number of orders to return
+     * @return the due orders ordered by next execution then id
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.StandingOrderRepository$DueOrder(" +
+        "o.id, o.fromAccount.id, o.nextExecution) from StandingOrderEntity o " +
+        "where o.nextExecution < :horizon order by o.nextExecution, o.id")
+    List<DueOrder> findDue(@Param("horizon") LocalDateTime horizon, Limit limit);
+
+    /**
+     * Finds the next page of orders due before a horizon, after a given (nextExecution, id) position.
+     *
+     * @param horizon   exclusive upper bound of the next execution
+     * @param afterDate next execution of the last order of the previous page
+     * @param afterId   id of the last order of the previous page
+     * @param limit     maximum number of orders to return
+     * @return the due orders ordered by next execution then id
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.StandingOrderRepository$DueOrder(" +
+        "o.id, o.fromAccount.id, o.nextExecution) from StandingOrderEntity o " +
+        "where o.nextExecution < :horizon " +
+        "and (o.nextExecution > :afterDate or (o.nextExecution = :afterDate and o.id > :afterId)) " +
+        "order by o.nextExecution, o.id")
+    List<DueOrder> findDueAfter(@Param("horizon") LocalDateTime horizon,
+                                @Param("afterDate") LocalDateTime afterDate,
+                                @Param("afterId") Long afterId,
+                                Limit limit);
+
+    /**
+     * Finds all standing orders debiting an account.
+     *
+     * @param accountId the ID of the source account
+     * @return the orders of the account ordered by id
+     */
+    List<StandingOrderEntity> findByFromAccountIdOrderByIdAsc(Long accountId);
+}
@@ -1,22 +1,193 @@
 package org.itinov.bankApp.infrastructure.repository;
 
+import org.itinov.bankApp.domain.enums.OperationType;
 import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Transaction entities.
  * Extends JpaRepository to provide CRUD operations and more.
  */
-public interface TransactionRepository extends JpaRepository<TransactionEntity, Long> {
+public interface TransactionRepository extends JpaRepository<TransactionEntity, Long>,
+    JpaSpecificationExecutor<TransactionEntity> {
+
+    /**
+     * Balance of an account right after one transaction, with the amount that rebuilds it when it is approximate.
+     */
+    record BalancePoint(LocalDateTime date, double amount, boolean credit, double balanceAfter,
+                        boolean approximateBalance) {
+
+        public double signedAmount() {
+            return credit ? amount : -amount;
+        }
+    }
+
+    /**
+     * Count and sum of the transactions of one type and direction on one day.
+     */
+    record DailyActivity(OperationType type, boolean credit, LocalDate day, long count, double total) {
+    }
+
+    /**
+     * Count and sum of the transactions of one type and direction in one calendar month.
+     */
+    record MonthlyActivity(OperationType type, boolean credit, int year, int month, long count, double total) {
+    }
 
     /**
      * Finds all transactions associated with a specific account ID,
      * ordered by date in descending order.
+     * The account and its customer, mapped with each transaction, are fetched in the same query.
      *
      * @param accountId the ID of the account
      * @return a list of transactions for the specified account, ordered by date descending
      */
+    @EntityGraph(TransactionEntity.GRAPH_WITH_ACCOUNT)
     List<TransactionEntity> findByAccountIdOrderByDateDesc(Long accountId);
+
+    /**
+     * Finds the last transaction of an account within a time range, in (date, id) order.
+     *
+     * @param accountId the ID of the account
+     * @param from      the inclusive lower bound
+     * @param to        the inclusive upper bound
+     * @return the latest transaction in the range, or empty if there is none
+     */
+    Optional<TransactionEntity> findFirstByAccountIdAndDateBetweenOrderByDateDescIdDesc(Long accountId,
+                                                                                      LocalDateTime from,
+                                                                                      LocalDateTime to);
+
+    /**
+     * Finds the last transaction of an account at or before a point in time, in (date, id) order.
+     *
+     * @param accountId the ID of the account
+     * @param date      the inclusive upper bound
+     * @return the latest transaction, or empty if there is none
+     */
+    Optional<TransactionEntity> findFirstByAccountIdAndDateLessThanEqualOrderByDateDescIdDesc(Long accountId,
+                                                                                           LocalDateTime date);
+
+    boolean existsByAccountId(Long accountId);
+
+    /**
+     * Finds the first transaction of an account, in (date, id) order.
+     *
+     * @param accountId the ID of the account
+     * @return the earliest transaction, or empty if there is none
+     */
+    Optional<TransactionEntity> findFirstByAccountIdOrderByDateAscIdAsc(Long accountId);
+
+    /**
+     * Streams the balance after each transaction of an account within a time range, in (date, id) order.
+     * Only the two needed columns are read, along the (account_id, date, id) index.
+     * The stream must be consumed within a transaction and closed.
+     *
+     * @param accountId the ID of the account
+     * @param from      the inclusive lower bound
+     * @param to        the exclusive upper bound
+     * @return the balance points in chronological order
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.TransactionRepository$BalancePoint(" +
+        "t.date, t.amount, t.credit, t.balanceAfter, t.approximateBalance) from TransactionEntity t " +
+        "where t.account.id = :accountId and t.date >= :from and t.date < :to order by t.date, t.id")
+    Stream<BalancePoint> streamBalancePoints(@Param("accountId") Long accountId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    /**
+     * Finds the last transaction of an account at or before a point in time whose balance after is exact.
+     *
+     * @param accountId the ID of the account
+     * @param date      the inclusive upper bound
+     * @return the transaction, or empty if there is none
+     */
+    Optional<TransactionEntity> findFirstByAccountIdAndApproximateBalanceFalseAndDateLessThanEqualOrderByDateDescIdDesc(
+        Long accountId, LocalDateTime date);
+
+    /**
+     * Sums the amounts of the transactions of an account in a time range, credits positive and debits negative.
+     *
+     * @param accountId the ID of the account
+     * @param from      the inclusive lower bound
+     * @param to        the inclusive upper bound
+     * @return the net amount, 0 without transactions
+     */
+    @Query("select coalesce(sum(case when t.credit = true then t.amount else -t.amount end), 0.0) " +
+        "from TransactionEntity t where t.account.id = :accountId and t.date >= :from and t.date <= :to")
+    double sumSignedAmounts(@Param("accountId") Long accountId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+
+    /**
+     * Sums the amounts of the transactions of an account after a (date, id) position and up to a point in time,
+     * credits positive and debits negative.
+     *
+     * @param accountId the ID of the account
+     * @param afterDate the date of the exclusive starting position
+     * @param afterId   the ID of the exclusive starting position
+     * @param to        the inclusive upper bound
+     * @return the net amount, 0 without transactions
+     */
+    @Query("select coalesce(sum(case when t.credit = true then t.amount else -t.amount end), 0.0) " +
+        "from TransactionEntity t where t.account.id = :accountId and t.date <= :to " +
+        "and (t.date > :afterDate or (t.date = :afterDate and t.id > :afterId))")
+    double sumSignedAmountsAfter(@Param("accountId") Long accountId,
+                                 @Param("afterDate") LocalDateTime afterDate,
+                                 @Param("afterId") Long afterId,
+                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Sums the amounts of all the transactions of an account up to a point in time, credits positive and debits
+     * negative.
+     *
+     * @param accountId the ID of the account
+     * @param to        the inclusive upper bound
+     * @return the net amount, 0 without transactions
+     */
+    @Query("select coalesce(sum(case when t.credit = true then t.amount else -t.amount end), 0.0) " +
+        "from TransactionEntity t where t.account.id = :accountId and t.date <= :to")
+    double sumSignedAmountsUpTo(@Param("accountId") Long accountId, @Param("to") LocalDateTime to);
+
+    /**
+     * Aggregates the transactions of an account per type, direction and day, in the database. The direction keeps
+     * the incoming and outgoing legs of the transfers apart.
+     *
+     * @param accountId the ID of the account
+     * @param from      the inclusive lower bound
+     * @param to        the exclusive upper bound
+     * @return one row per type, direction and day with at least one transaction
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.TransactionRepository$DailyActivity(" +
+        "t.type, t.credit, cast(t.date as LocalDate), count(t), sum(t.amount)) from TransactionEntity t " +
+        "where t.account.id = :accountId and t.date >= :from and t.date < :to " +
+        "group by t.type, t.credit, cast(t.date as LocalDate)")
+    List<DailyActivity> aggregateByDay(@Param("accountId") Long accountId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    /**
+     * Aggregates the transactions of an account per type, direction and calendar month, in the database.
+     *
+     * @param accountId the ID of the account
+     * @param from      the inclusive lower bound
+     * @param to        the exclusive upper bound
+     * @return one row per type, direction and month with at least one transaction
+     */
+    @Query("select new org.itinov.bankApp.infrastructure.repository.TransactionRepository$MonthlyActivity(" +
+        "t.type, t.credit, year(t.date), month(t.date), count(t), sum(t.amount)) from TransactionEntity t " +
+        "where t.account.id = :accountId and t.date >= :from and t.date < :to " +
+        "group by t.type, t.credit, year(t.date), month(t.date)")
+    List<MonthlyActivity> aggregateByMonth(@Param("accountId") Long accountId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,69 @@
+package org.itinov.bankApp.infrastructure.repository;
+
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Building blocks of the transaction search, combined with {@link Specification#allOf}.
+ * <p>
+ * Every search is restricted to a set of accounts and ordered by {@link #NEWEST_FIRST}, so it always starts from
+ * the (account, date, id) index or one of its (account, type|performer, date, id) variants; the other criteria are
+ * evaluated on the index range instead of the whole table.
+ */
+public final class TransactionSpecifications {
+
+    /** Order of the search results, which the keyset cursor relies on. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "date", "id");
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<TransactionEntity> ofAccounts(Collection<Long> accountIds) {
+        return (root, query, cb) -> root.get("account").get("id").in(accountIds);
+    }
+
+    public static Specification<TransactionEntity> ofType(OperationType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<TransactionEntity> performedBy(String performedBy) {
+        return (root, query, cb) -> cb.equal(root.get("performedBy"), performedBy);
+    }
+
+    public static Specification<TransactionEntity> amountAtLeast(double min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<TransactionEntity> amountAtMost(double max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    /**
+     * @param from inclusive lower bound
+     */
+    public static Specification<TransactionEntity> dateFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    /**
+     * @param to exclusive upper bound
+     */
+    public static Specification<TransactionEntity> dateBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("date"), to);
+    }
+
+    /**
+     * Keeps the transactions after a keyset position in {@link #NEWEST_FIRST} order,
+     * i.e. older than {@code date} or as old with a smaller id.
+     */
+    public static Specification<TransactionEntity> after(LocalDateTime date, long id) {
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("date"), date),
+            cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,69 @@
+package org.itinov.bankApp.infrastructure.security;
+
+import org.itinov.bankApp.cache.BoundedCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Decoder remembering the tokens already verified by another decoder until they expire, so that the requests of a
+ * client reusing its access token skip the signature verification.
+ * <p>
+ * Tokens are keyed by their SHA-256 hash: the cache holds no usable token, and any altered token has another key and
+ * goes through the full verification. Only tokens with an expiry are cached, and a cached token is served strictly
+ * before it, without the clock skew tolerated by the verification. Failures are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final BoundedCache<String, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize) {
+        this(delegate, maxSize, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxSize, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verified = new BoundedCache<>(maxSize);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = verified.get(key);
+        Instant now = clock.instant();
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt())) {
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
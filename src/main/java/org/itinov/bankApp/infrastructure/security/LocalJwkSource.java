@@ -0,0 +1,199 @@
+package org.itinov.bankApp.infrastructure.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signing keys of the token issuer, kept in memory and in a local file so that tokens are verified without calling
+ * the issuer.
+ * <p>
+ * {@link #load()} reads the file left by the previous run, and the owner calls {@link #refresh()} at a fixed interval
+ * to fetch the keys from the issuer; each successful refresh rewrites the file. The application therefore starts and
+ * verifies tokens while the issuer is down, with the keys it last saw. A token signed with a key not known yet (key
+ * rotation, or no file at the first start) is rejected at once and triggers an asynchronous refresh, at most once per
+ * {@value #MIN_REFRESH_GAP_SECONDS} seconds so that forged key ids cannot flood the issuer: request threads never wait
+ * for the issuer, and the next tokens with that key are accepted once the refresh is done. A failed refresh keeps
+ * the known keys. The issuer is always called without holding a lock; only the swap of the keys and the file write
+ * are serialized.
+ */
+@Slf4j
+public class LocalJwkSource implements JWKSource<SecurityContext> {
+
+    static final long MIN_REFRESH_GAP_SECONDS = 30;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final Path file;
+    private final URI jwksUri;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+    private volatile JWKSet keys = new JWKSet();
+    private volatile CompletableFuture<Boolean> backgroundRefresh = CompletableFuture.completedFuture(false);
+    private final AtomicLong lastRefresh =
+        new AtomicLong(System.nanoTime() - TimeUnit.SECONDS.toNanos(MIN_REFRESH_GAP_SECONDS));
+
+    public LocalJwkSource(Path file, URI jwksUri) {
+        this.file = file;
+        this.jwksUri = jwksUri;
+    }
+
+    /**
+     * Loads the keys saved by a previous refresh, if any.
+     */
+    public void load() {
+        if (!Files.exists(file)) {
+            log.info("No signing keys saved in {}, waiting for the first refresh from {}", file, jwksUri);
+            return;
+        }
+        try {
+            keys = JWKSet.parse(Files.readString(file, StandardCharsets.UTF_8)).toPublicJWKSet();
+            log.info("{} signing keys loaded from {}", keys.size(), file);
+        } catch (IOException | ParseException e) {
+            log.warn("Could not load the signing keys saved in {}", file, e);
+        }
+    }
+
+    /**
+     * Builds a decoder verifying RS256 signatures with these keys, and the expiry and issuer of the tokens.
+     *
+     * @param issuer the expected {@code iss} claim
+     * @return the decoder
+     */
+    public JwtDecoder decoder(String issuer) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, this));
+        // les claims sont vérifiées par les validateurs de Spring, comme avec issuer-uri
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) {
+        List<JWK> found = selector.select(keys);
+        if (found.isEmpty()) {
+            // le jeton est rejeté sans attendre l'émetteur, les clés sont relues en arrière-plan
+            refreshInBackground();
+        }
+        return found;
+    }
+
+    JWKSet keys() {
+        return keys;
+    }
+
+    /**
+     * @return the last refresh triggered by an unknown key, completed with whether the keys were refreshed
+     */
+    CompletableFuture<Boolean> backgroundRefresh() {
+        return backgroundRefresh;
+    }
+
+    /**
+     * Replaces the keys with those published by the issuer and saves them; the known keys are kept on failure.
+     *
+     * @return whether the keys were refreshed
+     */
+    public boolean refresh() {
+        lastRefresh.set(System.nanoTime());
+        try {
+            return apply(httpClient.send(request(), HttpResponse.BodyHandlers.ofString()));
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Starts a refresh on the HTTP client's threads unless one was started less than the minimum gap ago.
+     */
+    private void refreshInBackground() {
+        long last = lastRefresh.get();
+        long now = System.nanoTime();
+        if (now - last < TimeUnit.SECONDS.toNanos(MIN_REFRESH_GAP_SECONDS) || !lastRefresh.compareAndSet(last, now)) {
+            return;
+        }
+        backgroundRefresh = httpClient.sendAsync(request(), HttpResponse.BodyHandlers.ofString())
+            .handle((response, error) -> {
+                if (error != null) {
+                    failed(error);
+                    return false;
+                }
+                return apply(response);
+            });
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(jwksUri).timeout(TIMEOUT).build();
+    }
+
+    private boolean apply(HttpResponse<String> response) {
+        try {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP status " + response.statusCode());
+            }
+            JWKSet fetched = JWKSet.parse(response.body()).toPublicJWKSet();
+            if (fetched.isEmpty()) {
+                throw new IOException("the key set is empty");
+            }
+            // une actualisation planifiée et une en arrière-plan peuvent se croiser : une seule écrit le fichier
+            synchronized (this) {
+                keys = fetched;
+                save(fetched);
+            }
+            log.debug("{} signing keys refreshed from {}", fetched.size(), jwksUri);
+            return true;
+        } catch (IOException | ParseException | RuntimeException e) {
+            failed(e);
+            return false;
+        }
+    }
+
+    private void failed(Throwable e) {
+        log.warn("Signing keys refresh from {} failed, keeping the {} known keys: {}", jwksUri, keys.size(),
+            e.toString());
+    }
+
+    private void save(JWKSet fetched) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            Files.writeString(temporary, fetched.toString(true), StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save the signing keys to {}", file, e);
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package org.itinov.bankApp.mapper;
 
 import org.itinov.bankApp.domain.model.Account;
+import org.itinov.bankApp.domain.model.ActivityStatistics;
+import org.itinov.bankApp.domain.model.Balance;
+import org.itinov.bankApp.domain.model.BatchResult;
+import org.itinov.bankApp.domain.model.BalanceHistory;
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.CustomerPage;
+import org.itinov.bankApp.domain.model.StandingOrder;
 import org.itinov.bankApp.domain.model.Transaction;
+import org.itinov.bankApp.domain.model.TransactionPage;
 import org.itinov.bankApp.dto.AccountDTO;
+import org.itinov.bankApp.dto.ActivityStatisticsDTO;
+import org.itinov.bankApp.dto.BalanceDTO;
+import org.itinov.bankApp.dto.BalanceHistoryDTO;
+import org.itinov.bankApp.dto.BatchResultDTO;
 import org.itinov.bankApp.dto.CustomerDTO;
+import org.itinov.bankApp.dto.CustomerPageDTO;
+import org.itinov.bankApp.dto.StandingOrderDTO;
 import org.itinov.bankApp.dto.TransactionDTO;
+import org.itinov.bankApp.dto.TransactionPageDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -23,6 +37,8 @@ public interface BankAPIMapper {
 
     List<CustomerDTO> toCustomerDTOs(List<Customer> customers);
 
+    CustomerPageDTO toDTO(CustomerPage page);
+
     // Mapping "complet" d'un compte: inclut ses transactions,
     // mais ces dernières utiliseront un mapping de transaction
     // qui ne remappe pas des comptes "complets" (voir plus bas).
@@ -33,6 +49,7 @@ public interface BankAPIMapper {
     // Mapping "léger" d'un compte: pas de transactions -> casse la récursion
     @Named("accountShallow")
     @Mapping(target = "transactions", ignore = true)
+    @Mapping(target = "activity", ignore = true)
     AccountDTO toShallow(Account account);
 
     // Lorsque l'on mappe une transaction,
@@ -43,4 +60,27 @@ public interface BankAPIMapper {
 
     List<TransactionDTO> toTransactionDTOs(List<Transaction> transactions);
 
+    StandingOrderDTO toDTO(StandingOrder order);
+
+    List<StandingOrderDTO> toStandingOrderDTOs(List<StandingOrder> orders);
+
+    BalanceDTO toDTO(Balance balance);
+
+    ActivityStatisticsDTO toDTO(ActivityStatistics statistics);
+
+    TransactionPageDTO toDTO(TransactionPage page);
+
+    BatchResultDTO toDTO(BatchResult result);
+
+    @Mapping(target = "message", expression = "java(item.code() != null ? item.code().message() : null)")
+    BatchResultDTO.ItemDTO toDTO(BatchResult.Item item);
+
+    // Les tableaux sont transmis tels quels : MapStruct en ferait une copie, coûteuse sur plusieurs années
+    default BalanceHistoryDTO toDTO(BalanceHistory history) {
+        if (history == null) {
+            return null;
+        }
+        return new BalanceHistoryDTO(history.accountId(), history.currency(), history.dates(), history.balances());
+    }
+
 }
@@ -1,10 +1,14 @@
 package org.itinov.bankApp.mapper;
 
 import org.itinov.bankApp.domain.model.Account;
+import org.itinov.bankApp.domain.model.AccountActivity;
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.StandingOrder;
 import org.itinov.bankApp.domain.model.Transaction;
+import org.itinov.bankApp.infrastructure.entity.AccountActivityEntity;
 import org.itinov.bankApp.infrastructure.entity.AccountEntity;
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.StandingOrderEntity;
 import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -26,6 +30,7 @@ public interface BankPersistenceMapper {
     // Mapping "complet" d'un compte: inclut ses transactions,
     // mais ces dernières utiliseront un mapping de transaction
     // qui ne remappe pas des comptes "complets" (voir plus bas).
+    @Mapping(target = "activity", ignore = true)
     Account toDomain(AccountEntity account);
 
     List<Account> toDomainAccounts(List<AccountEntity> accounts);
@@ -33,6 +38,7 @@ public interface BankPersistenceMapper {
     // Mapping "léger" d'un compte: pas de transactions -> casse la récursion
     @Named("accountShallow")
     @Mapping(target = "transactions", ignore = true)
+    @Mapping(target = "activity", ignore = true)
     Account toShallow(AccountEntity account);
 
     // Lorsque l'on mappe une transaction,
@@ -43,4 +49,11 @@ public interface BankPersistenceMapper {
 
     List<Transaction> toDomainTransactions(List<TransactionEntity> transactions);
 
+    // Un ordre permanent ne référence ses comptes que par leurs identifiants
+    @Mapping(target = "fromAccountId", source = "fromAccount.id")
+    @Mapping(target = "toAccountId", source = "toAccount.id")
+    StandingOrder toDomain(StandingOrderEntity order);
+
+    AccountActivity toDomain(AccountActivityEntity activity);
+
 }
@@ -0,0 +1,105 @@
+package org.itinov.bankApp.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel: a ring of buckets, each covering one tick, where a task lands in the bucket
+ * of its deadline tick modulo the wheel size. Scheduling is O(1) and advancing one tick only looks at one bucket,
+ * whatever the number of pending tasks.
+ * <p>
+ * {@link #schedule} may be called from any thread; {@link #advance} must always be called from the same thread,
+ * which is the only one touching the buckets. Tasks whose deadline is already past fire on the next tick.
+ *
+ * @param <T> the type of the scheduled tasks
+ */
+public class HashedTimingWheel<T> {
+
+    private record Entry<T>(T task, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Queue<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile long processedTick;
+
+    /**
+     * @param tickMillis  duration of one tick in milliseconds
+     * @param wheelSize   number of buckets, rounded up to a power of two
+     * @param startMillis time of tick 0, usually the current time
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = buckets - 1;
+        this.buckets = new Queue[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedules a task to fire at the first tick at or after its deadline.
+     *
+     * @param task           the task
+     * @param deadlineMillis the deadline in epoch milliseconds
+     */
+    public void schedule(T task, long deadlineMillis) {
+        long elapsed = Math.max(0, deadlineMillis - startMillis);
+        pending.add(new Entry<>(task, (elapsed + tickMillis - 1) / tickMillis));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Advances the wheel up to the given time and returns the tasks whose deadline has been reached,
+     * in no particular order.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the expired tasks
+     */
+    public List<T> advance(long nowMillis) {
+        long target = Math.max(processedTick, (nowMillis - startMillis) / tickMillis);
+        List<T> expired = new ArrayList<>();
+
+        for (Entry<T> entry; (entry = pending.poll()) != null; ) {
+            long tick = Math.max(entry.deadlineTick(), processedTick + 1);
+            buckets[(int) (tick & mask)].add(new Entry<>(entry.task(), tick));
+        }
+
+        // Each bucket is visited at most once even after a long pause: anything due by the target tick expires.
+        long last = Math.min(target, processedTick + buckets.length);
+        for (long tick = processedTick + 1; tick <= last; tick++) {
+            Iterator<Entry<T>> it = buckets[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Entry<T> entry = it.next();
+                if (entry.deadlineTick() <= target) {
+                    expired.add(entry.task());
+                    it.remove();
+                }
+            }
+        }
+        processedTick = target;
+        size.addAndGet(-expired.size());
+        return expired;
+    }
+
+    /**
+     * @return the number of tasks scheduled and not yet expired
+     */
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,185 @@
+package org.itinov.bankApp.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.StandingOrderProperties;
+import org.itinov.bankApp.domain.exception.BusinessRejection;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository.DueOrder;
+import org.itinov.bankApp.service.StandingOrderRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs standing orders when they fall due.
+ * <p>
+ * Orders due within the next {@code horizon} are read page by page from the due-date index and placed in a
+ * {@link HashedTimingWheel}, so the table is never scanned and only a bounded number of orders sits in memory.
+ * On each tick, the expired orders are grouped by source account and handed to worker lanes: all orders of an
+ * account go to the same single-threaded lane, which keeps them in due order while other accounts run in parallel.
+ * <p>
+ * After downtime the first load finds the overdue orders; each executed occurrence whose successor is still due
+ * goes straight back into the wheel, so every missed occurrence is caught up in order.
+ * <p>
+ * Only a business rejection (e.g. insufficient funds) or a missing account skips an occurrence. Any other failure
+ * leaves it due, and the next load retries it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bank.standing-orders", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class StandingOrderScheduler {
+
+    private record Due(Long orderId, Long fromAccountId, LocalDateTime occurrence) {
+    }
+
+    private final StandingOrderRepository orderRepo;
+    private final StandingOrderRunner runner;
+    private final StandingOrderProperties properties;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private HashedTimingWheel<Due> wheel;
+    private ScheduledExecutorService timer;
+    private ExecutorService[] lanes;
+
+    /**
+     * Starts the wheel once the application (and its demo data) is ready; the first load runs immediately.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long tickMillis = properties.tick().toMillis();
+        wheel = new HashedTimingWheel<>(tickMillis, properties.wheelSize(), System.currentTimeMillis());
+        timer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("standing-order-wheel-"));
+        lanes = new ExecutorService[Math.max(1, properties.workers())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("standing-order-lane-" + i + "-"));
+        }
+        timer.scheduleWithFixedDelay(this::load, 0, properties.loadInterval().toMillis(), TimeUnit.MILLISECONDS);
+        timer.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            for (ExecutorService lane : lanes) {
+                lane.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Loads the orders due before the horizon that are not already scheduled, using keyset pagination.
+     */
+    void load() {
+        try {
+            LocalDateTime horizon = LocalDateTime.now().plus(properties.horizon());
+            int batchSize = properties.batchSize();
+            List<DueOrder> page = orderRepo.findDue(horizon, Limit.of(batchSize));
+            int loaded = 0;
+            while (!page.isEmpty() && inFlight.size() < properties.maxPending()) {
+                for (DueOrder order : page) {
+                    if (inFlight.add(order.id())) {
+                        schedule(new Due(order.id(), order.fromAccountId(), order.nextExecution()));
+                        loaded++;
+                    }
+                }
+                if (page.size() < batchSize) {
+                    break;
+                }
+                DueOrder last = page.getLast();
+                page = orderRepo.findDueAfter(horizon, last.nextExecution(), last.id(), Limit.of(batchSize));
+            }
+            if (loaded > 0) {
+                log.info("Loaded {} due standing orders ({} in flight)", loaded, inFlight.size());
+            }
+        } catch (RuntimeException ex) {
+            // Un échec ne doit pas annuler le chargement périodique
+            log.error("Failed to load due standing orders", ex);
+        }
+    }
+
+    /**
+     * Fires the expired orders, one batch per worker lane.
+     */
+    void tick() {
+        try {
+            List<Due> expired = wheel.advance(System.currentTimeMillis());
+            if (expired.isEmpty()) {
+                return;
+            }
+            expired.sort(Comparator.comparing(Due::occurrence).thenComparing(Due::orderId));
+            Map<Integer, List<Due>> batches = new HashMap<>();
+            for (Due due : expired) {
+                batches.computeIfAbsent(laneOf(due.fromAccountId()), lane -> new ArrayList<>()).add(due);
+            }
+            batches.forEach((lane, batch) -> lanes[lane].execute(() -> batch.forEach(this::run)));
+        } catch (RuntimeException ex) {
+            log.error("Standing order tick failed", ex);
+        }
+    }
+
+    private void run(Due due) {
+        Optional<LocalDateTime> next;
+        try {
+            next = runner.execute(due.orderId(), LocalDateTime.now());
+        } catch (OptimisticLockingFailureException ex) {
+            // Another instance or a concurrent change won the race: a later load will pick the order up again.
+            inFlight.remove(due.orderId());
+            return;
+        } catch (BusinessRejection | EntityNotFoundException ex) {
+            log.info("Standing order {} occurrence {} rejected: {}", due.orderId(), due.occurrence(), ex.getMessage());
+            try {
+                next = runner.skip(due.orderId(), due.occurrence(), ex.getMessage());
+            } catch (RuntimeException skipEx) {
+                log.warn("Could not record rejection of standing order {}", due.orderId(), skipEx);
+                inFlight.remove(due.orderId());
+                return;
+            }
+        } catch (RuntimeException ex) {
+            // Panne technique (base indisponible, timeout...) : l'occurrence reste échue et le prochain chargement
+            // la relance, au lieu de la marquer comme rejetée
+            log.warn("Standing order {} occurrence {} failed, will retry", due.orderId(), due.occurrence(), ex);
+            inFlight.remove(due.orderId());
+            return;
+        }
+
+        LocalDateTime horizon = LocalDateTime.now().plus(properties.horizon());
+        if (next.isPresent() && next.get().isBefore(horizon)) {
+            schedule(new Due(due.orderId(), due.fromAccountId(), next.get()));
+        } else {
+            inFlight.remove(due.orderId());
+        }
+    }
+
+    private void schedule(Due due) {
+        wheel.schedule(due, due.occurrence().atZone(zone).toInstant().toEpochMilli());
+    }
+
+    private int laneOf(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), lanes.length);
+    }
+}
@@ -0,0 +1,139 @@
+package org.itinov.bankApp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.cache.BoundedCache;
+import org.itinov.bankApp.config.AccountResolverProperties;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository.AccountNumber;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves account numbers to account ids for transfers addressed by number.
+ * <p>
+ * Account numbers never change, so resolved ids are kept in a bounded read-through cache without expiry. Numbers
+ * missing from the cache are first checked against a Bloom filter of every known number: an unknown number is
+ * rejected without querying the database, and only the rare false positives reach the unique number index.
+ * The filter is loaded once the application is ready and then refreshed with the accounts created since the highest
+ * id already seen. Ids are not committed in order though: pooled sequences hand each instance blocks of 50 and the
+ * JDBC writers reserve whole ranges, so an account may commit after a higher id was already read. The filter is
+ * therefore rebuilt from scratch every {@code rebuild-interval}, which bounds how long such an account can be
+ * rejected; an account committed in id order is rejected for at most one refresh interval.
+ */
+@Slf4j
+@Component
+class AccountNumberResolver {
+
+    private final AccountRepository accountRepo;
+    private final AccountResolverProperties properties;
+    private final BoundedCache<String, Long> cache;
+    private final Counter cacheHits;
+    private final Counter rejected;
+    private final Counter databaseLookups;
+
+    private volatile BloomFilter knownNumbers;
+    private long lastId;
+    private long rebuiltAt;
+    private volatile boolean started;
+
+    AccountNumberResolver(AccountRepository accountRepo, AccountResolverProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.accountRepo = accountRepo;
+        this.properties = properties;
+        this.cache = new BoundedCache<>(properties.cacheSize());
+        this.cacheHits = meterRegistry.counter("bank.account.resolver.lookups", "result", "cache");
+        this.rejected = meterRegistry.counter("bank.account.resolver.lookups", "result", "rejected");
+        this.databaseLookups = meterRegistry.counter("bank.account.resolver.lookups", "result", "database");
+    }
+
+    /**
+     * Allows loading the known numbers once the application (and its demo data) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        started = true;
+    }
+
+    @Scheduled(fixedDelayString = "${bank.account-resolver.refresh-interval:30s}")
+    public void scheduledRefresh() {
+        if (started) {
+            refresh();
+        }
+    }
+
+    /**
+     * Resolves an account number.
+     *
+     * @param number the account number
+     * @return the account id, or empty if no account has this number
+     */
+    Optional<Long> resolve(String number) {
+        Long cached = cache.get(number);
+        if (cached != null) {
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+        BloomFilter filter = knownNumbers;
+        if (filter != null && !filter.mightContain(number)) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        databaseLookups.increment();
+        Optional<Long> id = accountRepo.findIdByNumber(number);
+        id.ifPresent(found -> cache.put(number, found));
+        return id;
+    }
+
+    /**
+     * Adds the numbers of the accounts created since the previous refresh to the filter, or rebuilds it when it is
+     * not loaded yet or older than the rebuild interval. The filter is only used for rejections once every existing
+     * account has been added.
+     */
+    void refresh() {
+        try {
+            BloomFilter filter = knownNumbers;
+            if (filter == null || System.nanoTime() - rebuiltAt >= properties.rebuildInterval().toNanos()) {
+                rebuild();
+            } else {
+                lastId = load(filter, lastId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Account number refresh failed", e);
+        }
+    }
+
+    /**
+     * Loads every number into a new filter, which replaces the current one only once complete.
+     */
+    private void rebuild() {
+        long start = System.nanoTime();
+        BloomFilter filter = new BloomFilter(properties.expectedAccounts(), properties.falsePositiveRate());
+        long loadedId = load(filter, 0);
+        knownNumbers = filter;
+        lastId = loadedId;
+        rebuiltAt = start;
+        log.debug("Account numbers loaded up to id {}", lastId);
+    }
+
+    private long load(BloomFilter filter, long afterId) {
+        List<AccountNumber> page;
+        do {
+            page = accountRepo.findNumbers(afterId, Limit.of(properties.loadBatchSize()));
+            for (AccountNumber account : page) {
+                if (account.number() != null) {
+                    filter.add(account.number());
+                }
+                afterId = account.id();
+            }
+        } while (page.size() == properties.loadBatchSize());
+        return afterId;
+    }
+}
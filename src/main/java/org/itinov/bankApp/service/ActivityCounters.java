@@ -0,0 +1,181 @@
+package org.itinov.bankApp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.domain.model.AccountActivity;
+import org.itinov.bankApp.infrastructure.entity.AccountActivityEntity;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountActivityRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository.SlotTotals;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.mapper.BankPersistenceMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the activity counters of accounts in the same database transaction as the transactions they count.
+ * <p>
+ * Each transaction adds itself with a single relative update of the counters row, which is atomic without
+ * re-reading the row; reading the counters of an account is a primary key lookup.
+ * <p>
+ * The credits of a split balance account are the exception: they would all queue on that one row, so they are
+ * counted on the balance slot they land on instead, and reading the counters of the account adds up its slots.
+ * Consolidating the account {@link #fold folds} the slot counters back into the row.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+class ActivityCounters {
+
+    private final AccountActivityRepository activityRepo;
+    private final AccountBalanceSlotRepository slotRepo;
+    private final AccountRepository accountRepo;
+    private final BankPersistenceMapper mapper;
+
+    /**
+     * Adds a posted transaction to the counters of its account.
+     *
+     * @param tx       the transaction
+     * @param incoming whether the transaction credits the account, which tells the two legs of a transfer apart
+     */
+    public void record(TransactionEntity tx, boolean incoming) {
+        record(List.of(tx), t -> incoming);
+    }
+
+    /**
+     * Adds posted transactions to the counters of their accounts, with one update per account,
+     * in account id order so that concurrent batches lock the rows in the same order.
+     * The credits of split balance accounts are skipped: their slot already counted them.
+     *
+     * @param transactions the transactions
+     * @param incoming     tells whether a transaction credits its account
+     */
+    public void record(List<TransactionEntity> transactions, Predicate<TransactionEntity> incoming) {
+        Map<Long, Totals> byAccount = new TreeMap<>();
+        for (TransactionEntity tx : transactions) {
+            boolean credit = incoming.test(tx);
+            if (!credit || !tx.getAccount().isSplitBalance()) {
+                byAccount.computeIfAbsent(tx.getAccount().getId(), id -> new Totals()).add(tx, credit);
+            }
+        }
+        byAccount.forEach(this::add);
+    }
+
+    /**
+     * Adds the credits counted on the slots of a split balance account to its counters row,
+     * once the slots are locked and about to be reset.
+     *
+     * @param slots the sums of the slots of the account
+     */
+    public void fold(SlotTotals slots) {
+        if (slots.transactionCount() == 0) {
+            return;
+        }
+        Totals totals = new Totals();
+        totals.count = slots.transactionCount();
+        totals.deposits = slots.totalDeposits();
+        totals.transfersIn = slots.totalTransfersIn();
+        totals.lastActivityAt = slots.lastActivityAt();
+        add(slots.accountId(), totals);
+    }
+
+    private void add(Long accountId, Totals totals) {
+        if (increment(accountId, totals) > 0) {
+            return;
+        }
+        // First transaction of the account: the row is created under the account lock, as for the balance snapshots
+        accountRepo.lockById(accountId);
+        if (increment(accountId, totals) == 0) {
+            activityRepo.save(AccountActivityEntity.builder()
+                .accountId(accountId)
+                .transactionCount(totals.count)
+                .totalDeposits(totals.deposits)
+                .totalWithdrawals(totals.withdrawals)
+                .totalTransfersIn(totals.transfersIn)
+                .totalTransfersOut(totals.transfersOut)
+                .lastActivityAt(totals.lastActivityAt)
+                .build());
+        }
+    }
+
+    private int increment(Long accountId, Totals totals) {
+        return activityRepo.increment(accountId, totals.count, totals.deposits, totals.withdrawals,
+            totals.transfersIn, totals.transfersOut, totals.lastActivityAt);
+    }
+
+    /**
+     * Reads the counters of several accounts with one query, and one more for their slots when some are split.
+     *
+     * @param accounts the accounts
+     * @return the counters by account ID; accounts without any transaction are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AccountActivity> findAll(Collection<AccountEntity> accounts) {
+        Map<Long, AccountActivity> activity = activityRepo.findAllById(
+                accounts.stream().map(AccountEntity::getId).toList()).stream()
+            .collect(Collectors.toMap(AccountActivityEntity::getAccountId, mapper::toDomain));
+        List<Long> split = accounts.stream().filter(AccountEntity::isSplitBalance).map(AccountEntity::getId).toList();
+        if (!split.isEmpty()) {
+            for (SlotTotals slots : slotRepo.findTotals(split)) {
+                if (slots.transactionCount() > 0) {
+                    activity.merge(slots.accountId(), new AccountActivity(slots.transactionCount(),
+                            slots.totalDeposits(), 0, slots.totalTransfersIn(), 0, slots.lastActivityAt()),
+                        ActivityCounters::plus);
+                }
+            }
+        }
+        return activity;
+    }
+
+    private static AccountActivity plus(AccountActivity a, AccountActivity b) {
+        LocalDateTime last = a.lastActivityAt() == null
+            || (b.lastActivityAt() != null && b.lastActivityAt().isAfter(a.lastActivityAt()))
+            ? b.lastActivityAt() : a.lastActivityAt();
+        return new AccountActivity(a.transactionCount() + b.transactionCount(),
+            a.totalDeposits() + b.totalDeposits(), a.totalWithdrawals() + b.totalWithdrawals(),
+            a.totalTransfersIn() + b.totalTransfersIn(), a.totalTransfersOut() + b.totalTransfersOut(), last);
+    }
+
+    /**
+     * Sums of the transactions of one account.
+     */
+    private static final class Totals {
+        long count;
+        double deposits;
+        double withdrawals;
+        double transfersIn;
+        double transfersOut;
+        LocalDateTime lastActivityAt;
+
+        void add(TransactionEntity tx, boolean incoming) {
+            count++;
+            double amount = tx.getAmount();
+            switch (tx.getType()) {
+                case DEPOSIT -> deposits += amount;
+                case WITHDRAWAL -> withdrawals += amount;
+                case TRANSFER -> {
+                    if (incoming) {
+                        transfersIn += amount;
+                    } else {
+                        transfersOut += amount;
+                    }
+                }
+                // interest and fees are only counted
+                default -> {
+                }
+            }
+            if (lastActivityAt == null || lastActivityAt.isBefore(tx.getDate())) {
+                lastActivityAt = tx.getDate();
+            }
+        }
+    }
+}
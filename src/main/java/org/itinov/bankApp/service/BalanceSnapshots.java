@@ -0,0 +1,195 @@
+package org.itinov.bankApp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.model.BalanceHistory;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.BalancePoint;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the daily closing balance of accounts and answers balance-at-date queries from it.
+ * <p>
+ * Every posted transaction rewrites the snapshot of its day in the same database transaction. Reading the balance at
+ * a point in time then costs a few indexed lookups, whatever the age of the account; a daily series costs that
+ * lookup plus one ordered scan of the transactions in the range.
+ * <p>
+ * Split balance accounts are the exception: their deposits would all queue on the row of the day, and their balance
+ * after is only approximate. Their snapshots are written by {@link #closeSplitAccounts()} once the day is over, and
+ * until then their balance is settled from the last exact balance plus the signed amounts of the later transactions.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+class BalanceSnapshots {
+
+    private final BalanceSnapshotRepository snapshotRepo;
+    private final TransactionRepository transactionRepo;
+    private final AccountRepository accountRepo;
+
+    /**
+     * Records the balance of an account after a transaction as the closing balance of the transaction's day.
+     *
+     * @param account the account
+     * @param date    when the transaction happened
+     * @param balance the logical balance after the transaction; ignored for a split balance account
+     */
+    public void record(AccountEntity account, LocalDateTime date, double balance) {
+        if (account.isSplitBalance()) {
+            return;
+        }
+        LocalDate day = date.toLocalDate();
+        Optional<BalanceSnapshotEntity> existing = snapshotRepo.findByAccountIdAndSnapshotDate(account.getId(), day);
+        if (existing.isEmpty()) {
+            // First transaction of the day: creating the row is serialized on the account row, so concurrent
+            // writers (split balance deposits do not update the account) do not both insert it.
+            accountRepo.lockById(account.getId());
+            existing = snapshotRepo.findByAccountIdAndSnapshotDate(account.getId(), day);
+        }
+        existing.ifPresentOrElse(
+            snapshot -> snapshot.setClosingBalance(balance),
+            () -> snapshotRepo.save(BalanceSnapshotEntity.builder()
+                .account(account)
+                .snapshotDate(day)
+                .closingBalance(balance)
+                .build()));
+    }
+
+    /**
+     * Writes the closing balance of yesterday for the split balance accounts, a few minutes after midnight so that
+     * the deposits of the day have committed.
+     */
+    @Scheduled(cron = "${bank.split-balance.close-cron:0 5 0 * * *}")
+    public void closeSplitAccounts() {
+        close(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Writes the closing balance of one day for every split balance account, settled from the previous closing
+     * balance or the last exact balance after plus the amounts posted since.
+     *
+     * @param day the day to close
+     */
+    public void close(LocalDate day) {
+        LocalDateTime end = day.plusDays(1).atStartOfDay().minusNanos(1);
+        for (Long accountId : accountRepo.findSplitIds()) {
+            OptionalDouble closing = balanceAt(accountId, end);
+            if (closing.isEmpty()) {
+                continue;
+            }
+            snapshotRepo.findByAccountIdAndSnapshotDate(accountId, day).ifPresentOrElse(
+                snapshot -> snapshot.setClosingBalance(closing.getAsDouble()),
+                () -> snapshotRepo.save(BalanceSnapshotEntity.builder()
+                    .account(accountRepo.getReferenceById(accountId))
+                    .snapshotDate(day)
+                    .closingBalance(closing.getAsDouble())
+                    .build()));
+        }
+    }
+
+    /**
+     * Computes the balance of an account right after its last transaction at or before a point in time:
+     * the last transaction of that day if any, otherwise the closing balance of the latest earlier day plus the
+     * transactions posted since, which only split balance accounts not closed yet have.
+     * Transactions recorded before snapshots existed are served by a direct lookup. An approximate balance after is
+     * never returned as is: the balance is settled from the latest exact one.
+     *
+     * @param accountId the ID of the account
+     * @param at        the point in time
+     * @return the balance, or empty if the account had no transaction yet at that time
+     */
+    @Transactional(readOnly = true)
+    public OptionalDouble balanceAt(Long accountId, LocalDateTime at) {
+        Optional<TransactionEntity> last = transactionRepo.findFirstByAccountIdAndDateBetweenOrderByDateDescIdDesc(
+            accountId, at.toLocalDate().atStartOfDay(), at);
+        if (last.isPresent() && !last.get().isApproximateBalance()) {
+            return OptionalDouble.of(last.get().getBalanceAfter());
+        }
+        Optional<BalanceSnapshotEntity> snapshot =
+            snapshotRepo.findFirstByAccountIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(accountId, at.toLocalDate());
+        if (snapshot.isPresent()) {
+            LocalDateTime since = snapshot.get().getSnapshotDate().plusDays(1).atStartOfDay();
+            return OptionalDouble.of(snapshot.get().getClosingBalance()
+                + transactionRepo.sumSignedAmounts(accountId, since, at));
+        }
+        if (last.isEmpty()) {
+            last = transactionRepo.findFirstByAccountIdAndDateLessThanEqualOrderByDateDescIdDesc(accountId, at);
+            if (last.isEmpty()) {
+                return OptionalDouble.empty();
+            }
+            if (!last.get().isApproximateBalance()) {
+                return OptionalDouble.of(last.get().getBalanceAfter());
+            }
+        }
+        // an account split since its first transaction opened at zero
+        return OptionalDouble.of(transactionRepo
+            .findFirstByAccountIdAndApproximateBalanceFalseAndDateLessThanEqualOrderByDateDescIdDesc(accountId, at)
+            .map(exact -> exact.getBalanceAfter()
+                + transactionRepo.sumSignedAmountsAfter(accountId, exact.getDate(), exact.getId(), at))
+            .orElseGet(() -> transactionRepo.sumSignedAmountsUpTo(accountId, at)));
+    }
+
+    /**
+     * Builds the dense end-of-day balance series of an account with a single ordered scan of its transactions
+     * in the range, keeping the balance after the last transaction of each day. Approximate balances after are
+     * replaced by the running balance moved by their amount.
+     *
+     * @param accountId the ID of the account
+     * @param currency  the currency of the account
+     * @param from      the first day, inclusive
+     * @param to        the last day, inclusive
+     * @param opening   the balance at the start of {@code from}; when unknown the series starts on the day of the
+     *                  first transaction in the range
+     * @return the series, empty if the opening balance is unknown and the range has no transaction
+     */
+    @Transactional(readOnly = true)
+    public BalanceHistory history(Long accountId, Currency currency, LocalDate from, LocalDate to,
+                                  OptionalDouble opening) {
+        long firstDay = from.toEpochDay();
+        int days = Math.toIntExact(to.toEpochDay() - firstDay + 1);
+        double[] balances = new double[days];
+        int start = opening.isPresent() ? 0 : -1;
+        int pending = 0;
+        double current = opening.orElse(0);
+
+        try (Stream<BalancePoint> points = transactionRepo.streamBalancePoints(accountId, from.atStartOfDay(),
+            to.plusDays(1).atStartOfDay())) {
+            Iterator<BalancePoint> it = points.iterator();
+            while (it.hasNext()) {
+                BalancePoint point = it.next();
+                int day = Math.toIntExact(point.date().toLocalDate().toEpochDay() - firstDay);
+                if (start < 0) {
+                    start = day;
+                    pending = day;
+                }
+                // the days since the previous transaction closed on the previous balance
+                Arrays.fill(balances, pending, day, current);
+                pending = day;
+                current = point.approximateBalance() ? current + point.signedAmount() : point.balanceAfter();
+            }
+        }
+        if (start < 0) {
+            return new BalanceHistory(accountId, currency, new long[0], new double[0]);
+        }
+        Arrays.fill(balances, pending, days, current);
+        return new BalanceHistory(accountId, currency,
+            LongStream.range(firstDay + start, firstDay + days).toArray(),
+            start == 0 ? balances : Arrays.copyOfRange(balances, start, days));
+    }
+}
@@ -0,0 +1,59 @@
+package org.itinov.bankApp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event of one {@link BankService} operation, including its optimistic lock retries.
+ * <p>
+ * Its duration sits on the same timeline as the GC, safepoint and socket events of the recording, so a slow deposit
+ * can be matched with a pause or a wait on the database. Enabled by the continuous recording
+ * ({@code bank.flight-recorder}) or by any recording enabling {@value #NAME}.
+ */
+@Name(BankOperationEvent.NAME)
+@Label("Bank Operation")
+@Category({"Bank", "Operations"})
+@Description("An operation of the bank service, with the SQL work it did")
+@StackTrace(false)
+final class BankOperationEvent extends jdk.jfr.Event {
+
+    static final String NAME = "org.itinov.bankApp.BankOperation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Account Id")
+    @Description("Account the operation is on (source account of a transfer), 0 if none")
+    long accountId;
+
+    @Label("Amount Bucket")
+    @Description("Order of magnitude of the amount, empty if the operation has none")
+    String amountBucket;
+
+    @Label("Outcome")
+    @Description("OK, or the simple name of the exception thrown")
+    String outcome;
+
+    @Label("SQL Statements")
+    long statements;
+
+    @Label("Rows Read")
+    long rowsRead;
+
+    @Label("Rows Written")
+    long rowsWritten;
+
+    @Label("JDBC Time")
+    @Description("Time spent in JDBC calls, including row lock waits in the database")
+    @Timespan(Timespan.NANOSECONDS)
+    long jdbcTime;
+
+    @Label("Connection Wait")
+    @Description("Time spent waiting for a pooled connection")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectionWait;
+}
@@ -0,0 +1,84 @@
+package org.itinov.bankApp.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.itinov.bankApp.infrastructure.jdbc.SqlStatistics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a {@link BankOperationEvent} for every {@link BankService} call while a Flight Recorder recording enables it.
+ * <p>
+ * The aspect is ordered before the optimistic retry, so that one event covers all the attempts of an operation, and
+ * therefore before the transaction, so that the wait for a connection is measured. The SQL figures come from a
+ * {@link SqlStatistics} unit of work nested in the one of the HTTP request, if any.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+class BankOperationRecorder {
+
+    private static final String[] AMOUNT_BUCKETS = {"<10", "10-100", "100-1k", "1k-10k", "10k-100k"};
+
+    @Around("execution(* org.itinov.bankApp.service.BankService.*(..))")
+    Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        BankOperationEvent event = new BankOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        String outcome = "OK";
+        SqlStatistics statistics = SqlStatistics.start();
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            SqlStatistics.stop();
+            if (event.shouldCommit()) {
+                describe(event, joinPoint);
+                event.outcome = outcome;
+                event.statements = statistics.statements();
+                event.rowsRead = statistics.rows();
+                event.rowsWritten = statistics.rowsWritten();
+                event.jdbcTime = statistics.jdbcTime().toNanos();
+                event.connectionWait = statistics.connectionWait().toNanos();
+                event.commit();
+            }
+        }
+    }
+
+    private static void describe(BankOperationEvent event, ProceedingJoinPoint joinPoint) {
+        event.operation = joinPoint.getSignature().getName();
+        event.amountBucket = "";
+        String[] names = ((CodeSignature) joinPoint.getSignature()).getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < names.length; i++) {
+            switch (names[i]) {
+                case "accountId", "fromAccountId" -> event.accountId = args[i] instanceof Long id ? id : 0;
+                case "amount" -> event.amountBucket = args[i] instanceof Double amount ? amountBucket(amount) : "";
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Order of magnitude of an amount: the events must not carry exact amounts.
+     */
+    static String amountBucket(double amount) {
+        double bound = 10;
+        for (String bucket : AMOUNT_BUCKETS) {
+            if (amount < bound) {
+                return bucket;
+            }
+            bound *= 10;
+        }
+        return ">=100k";
+    }
+}
@@ -1,8 +1,20 @@
 package org.itinov.bankApp.service;
 
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.enums.Granularity;
 import org.itinov.bankApp.domain.model.Account;
+import org.itinov.bankApp.domain.model.ActivityStatistics;
+import org.itinov.bankApp.domain.model.Balance;
+import org.itinov.bankApp.domain.model.BalanceHistory;
+import org.itinov.bankApp.domain.model.BatchOperation;
+import org.itinov.bankApp.domain.model.BatchResult;
+import org.itinov.bankApp.domain.model.PayoutLeg;
 import org.itinov.bankApp.domain.model.Transaction;
+import org.itinov.bankApp.domain.model.TransactionFilter;
+import org.itinov.bankApp.domain.model.TransactionPage;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -11,6 +23,15 @@ import java.util.List;
  */
 public interface BankService {
 
+    /** Largest page size of {@link #searchTransactions}. */
+    int MAX_SEARCH_LIMIT = 500;
+
+    /** Largest number of operations of {@link #executeBatch}. */
+    int MAX_BATCH_SIZE = 1000;
+
+    /** Largest number of destinations of {@link #payout}. */
+    int MAX_PAYOUT_LEGS = 1000;
+
     /**
      * Retrieves all accounts associated with a specific customer.
      *
@@ -28,6 +49,62 @@ public interface BankService {
      */
     List<Transaction> getTransactionsByAccount(Long accountId);
 
+    /**
+     * Retrieves the balance of an account at a point in time, i.e. right after its last transaction at or before it.
+     * Served from the daily balance snapshots, so the cost does not depend on the length of the history.
+     * Before the first transaction of the account, this is its opening balance.
+     *
+     * @param accountId the ID of the account
+     * @param at        the point in time
+     * @return the balance of the account at that time
+     * @throws jakarta.persistence.EntityNotFoundException if the account does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the account does not belong to the current customer
+     */
+    Balance getBalanceAt(Long accountId, LocalDateTime at);
+
+    /**
+     * Retrieves the end-of-day balance of an account for every day of a range, as parallel arrays.
+     *
+     * @param accountId the ID of the account
+     * @param from      the first day, inclusive
+     * @param to        the last day, inclusive
+     * @return the daily balance series
+     * @throws IllegalArgumentException if the range is inverted or longer than twenty years
+     * @throws jakarta.persistence.EntityNotFoundException if the account does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the account does not belong to the current customer
+     */
+    BalanceHistory getBalanceHistory(Long accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Counts and sums the transactions of an account per operation type and period.
+     * The aggregation runs in the database: transaction rows are never loaded.
+     *
+     * @param accountId   the ID of the account
+     * @param from        the first day, inclusive
+     * @param to          the last day, inclusive
+     * @param granularity the width of the periods
+     * @return the statistics, ordered by period then operation type
+     * @throws IllegalArgumentException if the range is inverted or longer than twenty years
+     * @throws jakarta.persistence.EntityNotFoundException if the account does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the account does not belong to the current customer
+     */
+    ActivityStatistics getActivityStatistics(Long accountId, LocalDate from, LocalDate to, Granularity granularity);
+
+    /**
+     * Searches the transactions of a customer's accounts, newest first, one page at a time.
+     * Pages are delimited by a keyset cursor, so fetching a deep page costs the same as fetching the first one.
+     *
+     * @param customerId the ID of the customer
+     * @param filter     the search criteria
+     * @param cursor     the {@code nextCursor} of the previous page, {@code null} for the first page
+     * @param limit      the maximum number of transactions of the page, at most {@value #MAX_SEARCH_LIMIT}
+     * @return the page of matching transactions
+     * @throws IllegalArgumentException if the limit, the amount or date range or the cursor is invalid
+     * @throws org.springframework.security.access.AccessDeniedException if the customer is not the current one
+     *                                                                   or the filtered account is not theirs
+     */
+    TransactionPage searchTransactions(Long customerId, TransactionFilter filter, String cursor, int limit);
+
     /**
      * Deposits a specified amount into an account.
      *
@@ -49,7 +126,7 @@ public interface BankService {
      * @return a Transaction representing the withdrawal transaction in the domain model
      * @throws IllegalArgumentException if the account does not exist
      * @throws IllegalArgumentException if the account does not belong to the current customer
-     * @throws IllegalArgumentException if there are insufficient funds in the account
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if there are insufficient funds in the account
      */
     Transaction withdraw(Long accountId, double amount, String performedBy);
 
@@ -63,8 +140,70 @@ public interface BankService {
      * @return a list of Transactions representing the transfer transactions in the domain model
      * @throws IllegalArgumentException if either account does not exist
      * @throws IllegalArgumentException if the fromAccount does not belong to the current customer
-     * @throws IllegalArgumentException if fromAccountId is the same as toAccountId
-     * @throws IllegalArgumentException if there are insufficient funds in the fromAccount
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if fromAccountId is the same as toAccountId
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if there are insufficient funds in the fromAccount
      */
     List<Transaction> transfer(Long fromAccountId, Long toAccountId, double amount, String performedBy);
+
+    /**
+     * Transfers a specified amount from one account to another designated by its account number.
+     *
+     * @param fromAccountId   the ID of the account to transfer from
+     * @param toAccountNumber the number of the account to transfer to
+     * @param amount          the amount to transfer
+     * @param performedBy     the identifier of who performed the transaction
+     * @return a list of Transactions representing the transfer transactions in the domain model
+     * @throws jakarta.persistence.EntityNotFoundException if either account does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the fromAccount does not belong to the current customer
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if both accounts are the same or there are insufficient funds in the fromAccount
+     */
+    List<Transaction> transferToNumber(Long fromAccountId, String toAccountNumber, double amount, String performedBy);
+
+    /**
+     * Pays several destination accounts from one source account as a single atomic transfer, e.g. a payroll.
+     * The overdraft limit is checked once against the total and the source is debited once: one debit transaction
+     * for the total and one credit transaction per leg are inserted in a single JDBC batch.
+     *
+     * @param fromAccountId the ID of the account to pay from
+     * @param legs          the destinations and amounts, at most {@value #MAX_PAYOUT_LEGS}; an account may appear
+     *                      several times
+     * @param performedBy   the identifier of who performed the transaction
+     * @return the debit transaction of the source followed by the credit transaction of each leg, in leg order
+     * @throws jakarta.persistence.EntityNotFoundException if the source or a destination account does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the source account does not belong to the current customer
+     * @throws IllegalArgumentException if there are no or too many legs
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if an amount is not positive, a destination is
+     *                                  the source account or the total exceeds the overdraft limit
+     */
+    List<Transaction> payout(Long fromAccountId, List<PayoutLeg> legs, String performedBy);
+
+    /**
+     * Applies a batch of deposits, withdrawals and transfers in one database transaction.
+     * All accounts are loaded and checked for ownership with a single query, operations are validated in order
+     * against the running balances (so an operation may rely on the funds credited by an earlier one), and the
+     * transactions of all applied operations are inserted in JDBC batches.
+     *
+     * @param operations  the operations, applied in order, at most {@value #MAX_BATCH_SIZE}
+     * @param mode        whether a rejected operation cancels the whole batch or only itself
+     * @param performedBy the identifier of who performed the transactions
+     * @return the outcome of each operation, in request order
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    BatchResult executeBatch(List<BatchOperation> operations, BatchMode mode, String performedBy);
+
+    /**
+     * Executes a system-initiated transfer, such as an occurrence of a standing order.
+     * Same rules as {@link #transfer} except ownership, which was checked when the instruction was created.
+     * The caller owns the transaction and is responsible for retrying optimistic lock conflicts.
+     *
+     * @param fromAccountId the ID of the account to transfer from
+     * @param toAccountId   the ID of the account to transfer to
+     * @param amount        the amount to transfer
+     * @param performedBy   the identifier of who created the instruction
+     * @return a list of Transactions representing the transfer transactions in the domain model
+     * @throws jakarta.persistence.EntityNotFoundException if either account does not exist
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if fromAccountId is the same as toAccountId
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if there are insufficient funds in the fromAccount
+     */
+    List<Transaction> executeScheduledTransfer(Long fromAccountId, Long toAccountId, double amount, String performedBy);
 }
@@ -2,22 +2,55 @@ package org.itinov.bankApp.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+import org.itinov.bankApp.domain.enums.Granularity;
 import org.itinov.bankApp.domain.model.Account;
+import org.itinov.bankApp.domain.model.AccountActivity;
+import org.itinov.bankApp.domain.model.ActivityStatistics;
+import org.itinov.bankApp.domain.model.ActivityStatistics.Bucket;
+import org.itinov.bankApp.domain.model.Balance;
+import org.itinov.bankApp.domain.model.BalanceHistory;
+import org.itinov.bankApp.domain.model.BatchOperation;
+import org.itinov.bankApp.domain.model.BatchResult;
+import org.itinov.bankApp.domain.model.BatchResult.Item;
+import org.itinov.bankApp.domain.model.BatchResult.Status;
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.PayoutLeg;
 import org.itinov.bankApp.domain.model.Transaction;
+import org.itinov.bankApp.domain.model.TransactionFilter;
+import org.itinov.bankApp.domain.model.TransactionPage;
 import org.itinov.bankApp.domain.enums.OperationType;
 import org.itinov.bankApp.infrastructure.entity.AccountEntity;
 import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
 import org.itinov.bankApp.infrastructure.repository.AccountRepository;
 import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.DailyActivity;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.MonthlyActivity;
+import org.itinov.bankApp.infrastructure.repository.TransactionSpecifications;
 import org.itinov.bankApp.mapper.BankPersistenceMapper;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * {@inheritDoc}
@@ -27,10 +60,17 @@ import java.util.Objects;
 @Transactional
 class BankServiceImpl implements BankService {
 
+    /** longest date range served by the history and statistics queries, about twenty years of days */
+    static final int MAX_HISTORY_DAYS = 20 * 366;
+
     private final CustomerService customerService;
     private final AccountRepository accountRepo;
     private final TransactionRepository transactionRepo;
     private final BankPersistenceMapper mapper;
+    private final SplitBalanceManager splitBalances;
+    private final BalanceSnapshots snapshots;
+    private final ActivityCounters counters;
+    private final AccountNumberResolver accountNumbers;
 
     /**
      * {@inheritDoc}
@@ -41,8 +81,10 @@ class BankServiceImpl implements BankService {
         if (!Objects.equals(currentCustomer.id(), customerId)) {
             throw new AccessDeniedException("You are not allowed to access accounts of another customer");
         }
-        return accountRepo.findByCustomerId(customerId).stream()
-            .map(mapper::toDomain)
+        List<AccountEntity> accounts = accountRepo.findByCustomerId(customerId);
+        Map<Long, AccountActivity> activity = counters.findAll(accounts);
+        return accounts.stream()
+            .map(account -> toDomainAccount(account, activity.getOrDefault(account.getId(), AccountActivity.NONE)))
             .toList();
     }
 
@@ -65,24 +107,170 @@ class BankServiceImpl implements BankService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional(readOnly = true)
+    public Balance getBalanceAt(Long accountId, LocalDateTime at) {
+        AccountEntity account = loadReadableAccount(accountId);
+        OptionalDouble balance = snapshots.balanceAt(accountId, at);
+        if (balance.isPresent()) {
+            return new Balance(accountId, at, balance.getAsDouble(), account.getCurrency());
+        }
+        // Aucune opération à cette date : c'est le solde d'ouverture
+        return new Balance(accountId, at, openingBalance(account), account.getCurrency());
+    }
+
+    /**
+     * Balance of an account before its first transaction: the balance after that transaction minus its amount,
+     * zero when it is approximate (split accounts open at zero), and the current balance if it never moved.
+     */
+    private double openingBalance(AccountEntity account) {
+        return transactionRepo.findFirstByAccountIdOrderByDateAscIdAsc(account.getId())
+            .map(first -> first.isApproximateBalance() ? 0.0
+                : first.getBalanceAfter() - (first.isCredit() ? first.getAmount() : -first.getAmount()))
+            .orElseGet(() -> balanceOf(account));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceHistory getBalanceHistory(Long accountId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        AccountEntity account = loadReadableAccount(accountId);
+        OptionalDouble opening = snapshots.balanceAt(accountId, from.atStartOfDay().minusNanos(1));
+        if (opening.isEmpty() && !transactionRepo.existsByAccountId(accountId)) {
+            opening = OptionalDouble.of(balanceOf(account));
+        }
+        return snapshots.history(accountId, account.getCurrency(), from, to, opening);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ActivityStatistics getActivityStatistics(Long accountId, LocalDate from, LocalDate to,
+                                                    Granularity granularity) {
+        validateRange(from, to);
+        AccountEntity account = loadReadableAccount(accountId);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        Map<ActivityKey, Bucket> buckets = new HashMap<>();
+        if (granularity == Granularity.MONTH) {
+            for (MonthlyActivity row : transactionRepo.aggregateByMonth(accountId, start, end)) {
+                LocalDate month = LocalDate.of(row.year(), row.month(), 1);
+                buckets.put(new ActivityKey(month, row.type(), row.credit()),
+                    new Bucket(month, row.type(), row.credit(), row.count(), row.total()));
+            }
+        } else {
+            // les semaines ISO sont regroupées à partir des agrégats journaliers (au plus 7 lignes par semaine et par type)
+            for (DailyActivity row : transactionRepo.aggregateByDay(accountId, start, end)) {
+                LocalDate period = granularity.periodStart(row.day());
+                buckets.merge(new ActivityKey(period, row.type(), row.credit()),
+                    new Bucket(period, row.type(), row.credit(), row.count(), row.total()),
+                    (a, b) -> new Bucket(period, a.type(), a.credit(), a.count() + b.count(), a.total() + b.total()));
+            }
+        }
+        List<Bucket> ordered = buckets.values().stream()
+            .sorted(Comparator.comparing(Bucket::periodStart).thenComparing(Bucket::type)
+                .thenComparing(Bucket::credit, Comparator.reverseOrder()))
+            .toList();
+        return new ActivityStatistics(accountId, account.getCurrency(), granularity, from, to, ordered);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPage searchTransactions(Long customerId, TransactionFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null && filter.minAmount() > filter.maxAmount()) {
+            throw new IllegalArgumentException("The minimum amount must not be greater than the maximum amount");
+        }
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new IllegalArgumentException("The start of the range must not be after its end");
+        }
+        Customer currentCustomer = customerService.getCurrentCustomer();
+        if (!Objects.equals(currentCustomer.id(), customerId)) {
+            throw new AccessDeniedException("You are not allowed to access accounts of another customer");
+        }
+        List<Long> accountIds = accountRepo.findIdsByCustomerId(customerId);
+        if (filter.accountId() != null) {
+            if (!accountIds.contains(filter.accountId())) {
+                throw new AccessDeniedException("You are not allowed to access this account's transactions");
+            }
+            accountIds = List.of(filter.accountId());
+        }
+        if (accountIds.isEmpty()) {
+            return new TransactionPage(List.of(), null);
+        }
+
+        List<Specification<TransactionEntity>> criteria = new ArrayList<>();
+        criteria.add(TransactionSpecifications.ofAccounts(accountIds));
+        if (filter.type() != null) {
+            criteria.add(TransactionSpecifications.ofType(filter.type()));
+        }
+        if (filter.performedBy() != null) {
+            criteria.add(TransactionSpecifications.performedBy(filter.performedBy()));
+        }
+        if (filter.minAmount() != null) {
+            criteria.add(TransactionSpecifications.amountAtLeast(filter.minAmount()));
+        }
+        if (filter.maxAmount() != null) {
+            criteria.add(TransactionSpecifications.amountAtMost(filter.maxAmount()));
+        }
+        if (filter.from() != null) {
+            criteria.add(TransactionSpecifications.dateFrom(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            criteria.add(TransactionSpecifications.dateBefore(filter.to().plusDays(1).atStartOfDay()));
+        }
+        if (cursor != null) {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            criteria.add(TransactionSpecifications.after(position.date(), position.id()));
+        }
+
+        // une ligne de plus que la page indique s'il existe une page suivante, sans requête de comptage
+        List<TransactionEntity> rows = transactionRepo.findBy(Specification.allOf(criteria),
+            query -> query.sortBy(TransactionSpecifications.NEWEST_FIRST).limit(limit + 1).all());
+        boolean hasNext = rows.size() > limit;
+        List<TransactionEntity> page = hasNext ? rows.subList(0, limit) : rows;
+        return new TransactionPage(page.stream().map(mapper::toDomain).toList(),
+            hasNext ? TransactionCursor.of(page.getLast()).encode() : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @OptimisticRetry
     public Transaction deposit(Long accountId, double amount, String performedBy) {
 
         AccountEntity account = loadAndValidateOwnedAccount(accountId, amount);
 
-        account.setBalance(account.getBalance() + amount);
+        LocalDateTime now = LocalDateTime.now();
+        double balanceAfter = credit(account, OperationType.DEPOSIT, amount, now, performedBy);
 
         TransactionEntity tx = org.itinov.bankApp.infrastructure.entity.TransactionEntity.builder()
-            .date(LocalDateTime.now())
+            .date(now)
             .amount(amount)
             .type(OperationType.DEPOSIT)
             .currency(account.getCurrency())
             .performedBy(performedBy)
-            .balanceAfter(account.getBalance())
+            .balanceAfter(balanceAfter)
+            .credit(true)
+            .approximateBalance(account.isSplitBalance())
             .account(account)
             .build();
 
         transactionRepo.save(tx);
         accountRepo.save(account);
+        snapshots.record(account, tx.getDate(), tx.getBalanceAfter());
+        counters.record(tx, true);
 
         return mapper.toDomain(tx);
     }
@@ -91,12 +279,16 @@ class BankServiceImpl implements BankService {
      * {@inheritDoc}
      */
     @Override
+    @OptimisticRetry
     public Transaction withdraw(Long accountId, double amount, String performedBy) {
 
         AccountEntity account = loadAndValidateOwnedAccount(accountId, amount);
 
+        if (account.isSplitBalance()) {
+            splitBalances.prepareDebit(account, amount);
+        }
         if ((account.getBalance() - amount) < account.getOverdraftLimit()) {
-            throw new IllegalArgumentException("Withdrawal would exceed overdraft limit");
+            throw ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT.rejection();
         }
 
         account.setBalance(account.getBalance() - amount);
@@ -107,12 +299,16 @@ class BankServiceImpl implements BankService {
             .type(OperationType.WITHDRAWAL)
             .currency(account.getCurrency())
             .performedBy(performedBy)
-            .balanceAfter(account.getBalance())
+            .balanceAfter(balanceOf(account))
+            .credit(false)
+            .approximateBalance(account.isSplitBalance())
             .account(account)
             .build();
 
         transactionRepo.save(tx);
         accountRepo.save(account);
+        snapshots.record(account, tx.getDate(), tx.getBalanceAfter());
+        counters.record(tx, false);
 
         return mapper.toDomain(tx);
     }
@@ -121,49 +317,389 @@ class BankServiceImpl implements BankService {
      * {@inheritDoc}
      */
     @Override
+    @OptimisticRetry
     public List<Transaction> transfer(Long fromAccountId, Long toAccountId, double amount, String performedBy) {
         AccountEntity from = loadAndValidateOwnedAccount(fromAccountId, amount);
+        return postTransfer(from, toAccountId, amount, performedBy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @OptimisticRetry
+    public List<Transaction> transferToNumber(Long fromAccountId, String toAccountNumber, double amount,
+                                              String performedBy) {
+        AccountEntity from = loadAndValidateOwnedAccount(fromAccountId, amount);
+        Long toAccountId = accountNumbers.resolve(toAccountNumber)
+            .orElseThrow(() -> new EntityNotFoundException("To account not found"));
+        return postTransfer(from, toAccountId, amount, performedBy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @OptimisticRetry
+    public List<Transaction> payout(Long fromAccountId, List<PayoutLeg> legs, String performedBy) {
+        if (legs.isEmpty() || legs.size() > MAX_PAYOUT_LEGS) {
+            throw new IllegalArgumentException("A payout must have between 1 and " + MAX_PAYOUT_LEGS + " legs");
+        }
+        double total = 0;
+        Set<Long> toAccountIds = new HashSet<>();
+        for (PayoutLeg leg : legs) {
+            validateAmount(leg.amount());
+            if (leg.toAccountId() == null) {
+                throw ErrorCode.DESTINATION_REQUIRED.rejection();
+            }
+            if (fromAccountId.equals(leg.toAccountId())) {
+                throw ErrorCode.SAME_ACCOUNT_TRANSFER.rejection();
+            }
+            toAccountIds.add(leg.toAccountId());
+            total += leg.amount();
+        }
+        AccountEntity from = loadAndValidateOwnedAccount(fromAccountId, total);
+        Map<Long, AccountEntity> destinations = accountRepo.findWithCustomerByIdIn(toAccountIds).stream()
+            .collect(Collectors.toMap(AccountEntity::getId, Function.identity()));
+        if (destinations.size() != toAccountIds.size()) {
+            throw new EntityNotFoundException("To account not found");
+        }
+
+        // un seul contrôle de découvert et un seul débit, pour le total
+        if (balanceOf(from) - total < from.getOverdraftLimit()) {
+            throw ErrorCode.TRANSFER_EXCEEDS_OVERDRAFT.rejection();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionEntity> transactions = new ArrayList<>(legs.size() + 1);
+        TransactionEntity txFrom = newTransaction(from, OperationType.TRANSFER, total, now, false,
+            debit(from, total), performedBy);
+        transactions.add(txFrom);
+        for (PayoutLeg leg : legs) {
+            AccountEntity to = destinations.get(leg.toAccountId());
+            TransactionEntity txTo = newTransaction(to, OperationType.TRANSFER, leg.amount(), now, true,
+                credit(to, OperationType.TRANSFER, leg.amount(), now, performedBy), performedBy);
+            txTo.setCurrency(from.getCurrency());
+            transactions.add(txTo);
+        }
+        saveAll(transactions, tx -> tx != txFrom);
+        return transactions.stream().map(mapper::toDomain).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @OptimisticRetry
+    public BatchResult executeBatch(List<BatchOperation> operations, BatchMode mode, String performedBy) {
+        if (operations.isEmpty() || operations.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must hold between 1 and " + MAX_BATCH_SIZE + " operations");
+        }
+        Customer customer = customerService.getCurrentCustomer();
+        Set<Long> accountIds = new HashSet<>();
+        for (BatchOperation op : operations) {
+            accountIds.add(op.accountId());
+            if (op.toAccountId() != null) {
+                accountIds.add(op.toAccountId());
+            }
+        }
+        accountIds.remove(null);
+        // un seul SELECT pour tous les comptes : la propriété se vérifie sur la clé étrangère du client déjà chargée
+        Map<Long, AccountEntity> accounts = accountRepo.findWithCustomerByIdIn(accountIds).stream()
+            .collect(Collectors.toMap(AccountEntity::getId, Function.identity()));
+
+        // 1. validation dans l'ordre, sur les soldes courants simulés : aucune écriture tant que le lot n'est pas accepté
+        Map<Long, Double> balances = new HashMap<>();
+        ErrorCode[] errors = new ErrorCode[operations.size()];
+        boolean rejected = false;
+        for (int i = 0; i < operations.size(); i++) {
+            errors[i] = checkBatchOperation(operations.get(i), customer, accounts, balances);
+            rejected |= errors[i] != null;
+        }
+        if (rejected && mode == BatchMode.ALL_OR_NOTHING) {
+            List<Item> items = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                items.add(errors[i] != null
+                    ? new Item(i, Status.REJECTED, List.of(), errors[i])
+                    : new Item(i, Status.NOT_APPLIED, List.of(), null));
+            }
+            return new BatchResult(mode, false, items);
+        }
+
+        // 2. application des opérations acceptées, puis insertions groupées
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionEntity> transactions = new ArrayList<>();
+        Set<TransactionEntity> credits = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<List<TransactionEntity>> posted = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            if (errors[i] != null) {
+                posted.add(List.of());
+                continue;
+            }
+            BatchOperation op = operations.get(i);
+            AccountEntity account = accounts.get(op.accountId());
+            List<TransactionEntity> legs = switch (op.type()) {
+                case DEPOSIT -> List.of(newTransaction(account, OperationType.DEPOSIT, op.amount(), now, true,
+                    credit(account, OperationType.DEPOSIT, op.amount(), now, performedBy), performedBy));
+                case WITHDRAWAL -> List.of(newTransaction(account, OperationType.WITHDRAWAL, op.amount(), now, false,
+                    debit(account, op.amount()), performedBy));
+                case TRANSFER -> {
+                    AccountEntity to = accounts.get(op.toAccountId());
+                    TransactionEntity txFrom = newTransaction(account, OperationType.TRANSFER, op.amount(), now, false,
+                        debit(account, op.amount()), performedBy);
+                    TransactionEntity txTo = newTransaction(to, OperationType.TRANSFER, op.amount(), now, true,
+                        credit(to, OperationType.TRANSFER, op.amount(), now, performedBy), performedBy);
+                    // comme pour un virement unitaire, les deux jambes sont dans la devise du compte débité
+                    txTo.setCurrency(account.getCurrency());
+                    yield List.of(txFrom, txTo);
+                }
+                default -> throw new IllegalStateException("Unsupported operation type " + op.type());
+            };
+            if (op.type() != OperationType.WITHDRAWAL) {
+                credits.add(legs.getLast());
+            }
+            transactions.addAll(legs);
+            posted.add(legs);
+        }
+        saveAll(transactions, credits::contains);
 
-        AccountEntity to = accountRepo.findById(toAccountId)
+        List<Item> items = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            items.add(errors[i] != null
+                ? new Item(i, Status.REJECTED, List.of(), errors[i])
+                : new Item(i, Status.APPLIED, posted.get(i).stream().map(mapper::toDomain).toList(), null));
+        }
+        return new BatchResult(mode, true, items);
+    }
+
+    /**
+     * Validates one operation of a batch against the running balances, and applies it to them when valid.
+     *
+     * @return the rule rejecting the operation, or {@code null} if it is valid
+     */
+    private ErrorCode checkBatchOperation(BatchOperation op, Customer customer, Map<Long, AccountEntity> accounts,
+                                          Map<Long, Double> balances) {
+        if (op.type() != OperationType.DEPOSIT && op.type() != OperationType.WITHDRAWAL
+            && op.type() != OperationType.TRANSFER) {
+            return ErrorCode.UNSUPPORTED_OPERATION_TYPE;
+        }
+        if (op.amount() <= 0) {
+            return ErrorCode.AMOUNT_NOT_POSITIVE;
+        }
+        AccountEntity account = accounts.get(op.accountId());
+        if (account == null) {
+            return ErrorCode.ACCOUNT_NOT_FOUND;
+        }
+        if (!account.getCustomer().getId().equals(customer.id())) {
+            return ErrorCode.ACCOUNT_NOT_OWNED;
+        }
+        if (op.type() == OperationType.DEPOSIT) {
+            balances.put(account.getId(), runningBalance(balances, account) + op.amount());
+            return null;
+        }
+        AccountEntity to = null;
+        if (op.type() == OperationType.TRANSFER) {
+            if (op.toAccountId() == null) {
+                return ErrorCode.DESTINATION_REQUIRED;
+            }
+            to = accounts.get(op.toAccountId());
+            if (to == null) {
+                return ErrorCode.DESTINATION_NOT_FOUND;
+            }
+            if (to == account) {
+                return ErrorCode.SAME_ACCOUNT_TRANSFER;
+            }
+        }
+        double balance = runningBalance(balances, account);
+        if (balance - op.amount() < account.getOverdraftLimit()) {
+            return op.type() == OperationType.TRANSFER
+                ? ErrorCode.TRANSFER_EXCEEDS_OVERDRAFT
+                : ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT;
+        }
+        balances.put(account.getId(), balance - op.amount());
+        if (to != null) {
+            balances.put(to.getId(), runningBalance(balances, to) + op.amount());
+        }
+        return null;
+    }
+
+    private double runningBalance(Map<Long, Double> balances, AccountEntity account) {
+        return balances.computeIfAbsent(account.getId(), id -> balanceOf(account));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Transaction> executeScheduledTransfer(Long fromAccountId, Long toAccountId, double amount,
+                                                      String performedBy) {
+        AccountEntity from = accountRepo.findWithCustomerById(fromAccountId)
+            .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        validateAmount(amount);
+        return postTransfer(from, toAccountId, amount, performedBy);
+    }
+
+    /**
+     * Moves funds from an already validated source account and records both transactions.
+     */
+    private List<Transaction> postTransfer(AccountEntity from, Long toAccountId, double amount, String performedBy) {
+        Long fromAccountId = from.getId();
+
+        AccountEntity to = accountRepo.findWithCustomerById(toAccountId)
             .orElseThrow(() -> new EntityNotFoundException("To account not found"));
 
         if (fromAccountId.equals(toAccountId)) {
-            throw new IllegalArgumentException("Cannot transfer to the same account");
+            throw ErrorCode.SAME_ACCOUNT_TRANSFER.rejection();
         }
 
+        if (from.isSplitBalance()) {
+            splitBalances.prepareDebit(from, amount);
+        }
         if ((from.getBalance() - amount) < from.getOverdraftLimit()) {
-            throw new IllegalArgumentException("Transfer would exceed overdraft limit");
+            throw ErrorCode.TRANSFER_EXCEEDS_OVERDRAFT.rejection();
         }
 
         from.setBalance(from.getBalance() - amount);
-        to.setBalance(to.getBalance() + amount);
+        LocalDateTime now = LocalDateTime.now();
+        double toBalanceAfter = credit(to, OperationType.TRANSFER, amount, now, performedBy);
 
         TransactionEntity txFrom = org.itinov.bankApp.infrastructure.entity.TransactionEntity.builder()
-            .date(LocalDateTime.now())
+            .date(now)
             .amount(amount)
             .type(OperationType.TRANSFER)
             .currency(from.getCurrency())
             .performedBy(performedBy)
-            .balanceAfter(from.getBalance())
+            .balanceAfter(balanceOf(from))
+            .credit(false)
+            .approximateBalance(from.isSplitBalance())
             .account(from)
             .build();
 
         TransactionEntity txTo = org.itinov.bankApp.infrastructure.entity.TransactionEntity.builder()
-            .date(LocalDateTime.now())
+            .date(now)
             .amount(amount)
             .type(OperationType.TRANSFER)
             .currency(from.getCurrency())
             .performedBy(performedBy)
-            .balanceAfter(to.getBalance())
+            .balanceAfter(toBalanceAfter)
+            .credit(true)
+            .approximateBalance(to.isSplitBalance())
             .account(to)
             .build();
 
         transactionRepo.saveAll(List.of(txFrom, txTo));
         accountRepo.saveAll(List.of(from, to));
+        // dans l'ordre des identifiants, pour que deux virements croisés verrouillent les comptes dans le même ordre
+        for (TransactionEntity tx : from.getId() < to.getId() ? List.of(txFrom, txTo) : List.of(txTo, txFrom)) {
+            snapshots.record(tx.getAccount(), tx.getDate(), tx.getBalanceAfter());
+            counters.record(tx, tx == txTo);
+        }
 
         return List.of(mapper.toDomain(txFrom), mapper.toDomain(txTo));
     }
 
+    /**
+     * Credits an account, on one of its slots when it is in split balance mode.
+     *
+     * @param account     the account to credit
+     * @param type        DEPOSIT or TRANSFER, counted on the slot of a split account
+     * @param amount      the amount to add
+     * @param date        the date of the transaction
+     * @param performedBy who performed the operation
+     * @return the logical balance of the account after the credit
+     */
+    private double credit(AccountEntity account, OperationType type, double amount, LocalDateTime date,
+                          String performedBy) {
+        if (account.isSplitBalance()) {
+            return splitBalances.deposit(account, type, amount, date, performedBy);
+        }
+        account.setBalance(account.getBalance() + amount);
+        return account.getBalance();
+    }
+
+    /**
+     * Inserts transactions in one JDBC batch, then records the balance snapshot and the activity counters of each
+     * account once, in account id order so that concurrent writers lock the rows in the same order.
+     *
+     * @param transactions the transactions, in the order they were applied
+     * @param incoming     tells whether a transaction credits its account
+     */
+    private void saveAll(List<TransactionEntity> transactions, Predicate<TransactionEntity> incoming) {
+        transactionRepo.saveAll(transactions);
+        Map<Long, TransactionEntity> lastByAccount = new TreeMap<>();
+        transactions.forEach(tx -> lastByAccount.put(tx.getAccount().getId(), tx));
+        lastByAccount.values().forEach(tx -> snapshots.record(tx.getAccount(), tx.getDate(), tx.getBalanceAfter()));
+        counters.record(transactions, incoming);
+    }
+
+    /**
+     * Debits an account whose balance was already checked against its overdraft limit,
+     * consolidating its slots first when it is in split balance mode.
+     *
+     * @return the logical balance of the account after the debit
+     */
+    private double debit(AccountEntity account, double amount) {
+        if (account.isSplitBalance()) {
+            splitBalances.prepareDebit(account, amount);
+        }
+        account.setBalance(account.getBalance() - amount);
+        return balanceOf(account);
+    }
+
+    private TransactionEntity newTransaction(AccountEntity account, OperationType type, double amount,
+                                             LocalDateTime date, boolean credit, double balanceAfter,
+                                             String performedBy) {
+        return TransactionEntity.builder()
+            .date(date)
+            .amount(amount)
+            .type(type)
+            .currency(account.getCurrency())
+            .performedBy(performedBy)
+            .balanceAfter(balanceAfter)
+            .credit(credit)
+            .approximateBalance(account.isSplitBalance())
+            .account(account)
+            .build();
+    }
+
+    /**
+     * Returns the logical balance of an account, summing its slots when it is in split balance mode.
+     */
+    private double balanceOf(AccountEntity account) {
+        return account.isSplitBalance() ? splitBalances.total(account) : account.getBalance();
+    }
+
+    /**
+     * Maps an account to the domain model with its activity counters,
+     * exposing the logical balance of split balance accounts.
+     */
+    private Account toDomainAccount(AccountEntity entity, AccountActivity activity) {
+        Account account = mapper.toDomain(entity);
+        if (account == null) {
+            return null;
+        }
+        Account.AccountBuilder builder = account.toBuilder().activity(activity);
+        if (entity.isSplitBalance()) {
+            builder.balance(splitBalances.total(entity));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads an account by ID for a read and validates that it belongs to the current customer.
+     *
+     * @throws EntityNotFoundException if the account does not exist
+     * @throws AccessDeniedException   if the account does not belong to the current customer
+     */
+    private AccountEntity loadReadableAccount(Long accountId) {
+        AccountEntity account = accountRepo.findAccountById(accountId)
+            .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        Customer currentCustomer = customerService.getCurrentCustomer();
+        if (!account.getCustomer().getId().equals(currentCustomer.id())) {
+            throw new AccessDeniedException("You are not allowed to access this account");
+        }
+        return account;
+    }
+
     /**
      * Loads an account by ID and validates that it belongs to the current customer
      * and that the amount is positive.
@@ -176,7 +712,7 @@ class BankServiceImpl implements BankService {
      * @throws IllegalArgumentException if the amount is not positive
      */
     private AccountEntity loadAndValidateOwnedAccount(Long accountId, double amount) {
-        AccountEntity account = accountRepo.findById(accountId)
+        AccountEntity account = accountRepo.findWithCustomerById(accountId)
             .orElseThrow(() -> new EntityNotFoundException("Account not found"));
 
         Customer customer = customerService.getCurrentCustomer();
@@ -185,9 +721,25 @@ class BankServiceImpl implements BankService {
             throw new AccessDeniedException("Account does not belong to the current customer");
         }
 
+        validateAmount(amount);
+        return account;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The start of the range must not be after its end");
+        }
+        if (to.toEpochDay() - from.toEpochDay() >= MAX_HISTORY_DAYS) {
+            throw new IllegalArgumentException("The range must not exceed " + MAX_HISTORY_DAYS + " days");
+        }
+    }
+
+    private record ActivityKey(LocalDate periodStart, OperationType type, boolean credit) {
+    }
+
+    private void validateAmount(double amount) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("Deposit amount must be positive");
+            throw ErrorCode.AMOUNT_NOT_POSITIVE.rejection();
         }
-        return account;
     }
 }
@@ -0,0 +1,113 @@
+package org.itinov.bankApp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.CustomerDirectoryProperties;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository.DirectoryEntry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a {@link PrefixIndex} of the customers' names and emails for typeahead lookups.
+ * <p>
+ * The first load reads every customer by id pages; each refresh then only reads the customers created since the
+ * highest id already indexed, so it costs one indexed range read. Customers are never renamed by the application,
+ * so new customers are the only changes to pick up. Their ids are not committed in order though (pooled sequence
+ * blocks), so a customer may commit after a higher id was already indexed: the index is rebuilt from scratch every
+ * {@code rebuild-interval} to catch them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CustomerDirectory {
+
+    private final CustomerRepository customerRepo;
+    private final CustomerDirectoryProperties properties;
+
+    private volatile PrefixIndex index = PrefixIndex.EMPTY;
+    private volatile boolean ready;
+    private volatile boolean started;
+    private long lastId;
+    private long rebuiltAt;
+
+    /**
+     * Allows the refreshes once the application (and its demo data) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        started = properties.prefixIndex();
+    }
+
+    /**
+     * Indexes the customers created since the previous refresh, the first time every customer.
+     */
+    @Scheduled(fixedDelayString = "${bank.customer-directory.refresh-interval:5s}")
+    public void scheduledRefresh() {
+        if (started) {
+            refresh();
+        }
+    }
+
+    /**
+     * @return whether the first load is complete, i.e. {@link #find} sees every customer created before it
+     */
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the customers whose name, one of the following words of their name or email starts with a prefix.
+     *
+     * @param prefix the prefix, as typed
+     * @param limit  the maximum number of customers
+     * @return the customer ids, in key order
+     */
+    List<Long> find(String prefix, int limit) {
+        return index.find(PrefixIndex.normalize(prefix), limit);
+    }
+
+    /**
+     * Indexes the customers created since the previous refresh, or reloads every customer into a new index when
+     * the current one is older than the rebuild interval.
+     */
+    void refresh() {
+        try {
+            long start = System.nanoTime();
+            boolean rebuild = !ready || start - rebuiltAt >= properties.rebuildInterval().toNanos();
+            PrefixIndex next = rebuild ? PrefixIndex.EMPTY : index;
+            long afterId = rebuild ? 0 : lastId;
+            int loaded = 0;
+            List<DirectoryEntry> page;
+            do {
+                page = customerRepo.findDirectoryEntries(afterId, Limit.of(properties.loadBatchSize()));
+                List<PrefixIndex.Entry> entries = new ArrayList<>();
+                for (DirectoryEntry customer : page) {
+                    entries.addAll(PrefixIndex.entriesOf(customer.id(), customer.name(), customer.email()));
+                    afterId = customer.id();
+                }
+                next = next.plus(entries);
+                loaded += page.size();
+            } while (page.size() == properties.loadBatchSize());
+            // searches keep the previous index until the new one is complete
+            index = next;
+            lastId = afterId;
+            if (rebuild) {
+                rebuiltAt = start;
+            }
+            if (loaded > 0 || !ready) {
+                log.debug("Customer directory: {} customers {}, {} keys indexed", loaded, rebuild ? "loaded" : "added",
+                    index.size());
+            }
+            ready = true;
+        } catch (RuntimeException e) {
+            log.warn("Customer directory refresh failed", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.itinov.bankApp.service;
 
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.CustomerPage;
 
 import java.util.List;
 
@@ -8,12 +9,33 @@ import java.util.List;
  * Service interface for managing customers in the banking application.
  */
 public interface CustomerService {
+
+    /** Largest page size of {@link #findCustomers}. */
+    int MAX_PAGE_SIZE = 1000;
+
+    /** Largest number of results of {@link #searchCustomers}. */
+    int MAX_SUGGESTIONS = 50;
+
+    /**
+     * Retrieves one page of customers in id order, using keyset pagination.
+     *
+     * @param afterId the {@code nextAfterId} of the previous page, {@code null} for the first page
+     * @param limit   the maximum number of customers, at most {@value #MAX_PAGE_SIZE}
+     * @return the page of customers
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    CustomerPage findCustomers(Long afterId, int limit);
+
     /**
-     * Retrieves a list of all customers.
+     * Finds customers whose name, a word of their name or email starts with a prefix, ignoring case and accents.
+     * Served from an in-memory index; until it is loaded, from the database, ignoring case but not accents.
      *
-     * @return a list of CustomerDTOs representing all customers in the domain model
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of customers, at most {@value #MAX_SUGGESTIONS}
+     * @return the matching customers, in alphabetical order of the matched key
+     * @throws IllegalArgumentException if the prefix is blank or the limit is out of range
      */
-    List<Customer> findAllCustomers();
+    List<Customer> searchCustomers(String prefix, int limit);
 
     /**
      * Retrieves a customer by their ID.
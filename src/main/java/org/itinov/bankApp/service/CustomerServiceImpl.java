@@ -2,15 +2,24 @@ package org.itinov.bankApp.service;
 
 import lombok.RequiredArgsConstructor;
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.CustomerPage;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
 import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
 import org.itinov.bankApp.mapper.BankPersistenceMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * {@inheritDoc}
@@ -22,13 +31,58 @@ class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepo;
     private final BankPersistenceMapper mapper;
+    private final CustomerDirectory directory;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<Customer> findAllCustomers() {
-        return customerRepo.findAll().stream()
+    @Transactional(readOnly = true)
+    public CustomerPage findCustomers(Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<CustomerEntity> page = customerRepo.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L,
+            Limit.of(limit));
+        Long next = page.size() == limit ? page.getLast().getId() : null;
+        return new CustomerPage(page.stream().map(mapper::toDomain).toList(), next);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Customer> searchCustomers(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("The search prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (!directory.isReady()) {
+            return searchInDatabase(prefix.strip(), limit);
+        }
+        List<Long> ids = directory.find(prefix, limit);
+        Map<Long, CustomerEntity> byId = customerRepo.findAllById(ids).stream()
+            .collect(Collectors.toMap(CustomerEntity::getId, Function.identity()));
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(mapper::toDomain)
+            .toList();
+    }
+
+    /**
+     * Case-insensitive prefix search on the name and email columns, used until the in-memory index is loaded.
+     */
+    private List<Customer> searchInDatabase(String prefix, int limit) {
+        Map<Long, CustomerEntity> matches = new LinkedHashMap<>();
+        Stream.concat(customerRepo.findByNameStartingWithIgnoreCaseOrderByName(prefix, Limit.of(limit)).stream(),
+                customerRepo.findByEmailStartingWithIgnoreCaseOrderByEmail(prefix, Limit.of(limit)).stream())
+            .forEach(customer -> matches.putIfAbsent(customer.getId(), customer));
+        return matches.values().stream()
+            .limit(limit)
             .map(mapper::toDomain)
             .toList();
     }
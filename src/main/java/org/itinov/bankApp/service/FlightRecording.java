@@ -0,0 +1,87 @@
+package org.itinov.bankApp.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.FlightRecorderProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+
+/**
+ * Continuous Flight Recorder recording of the JVM and of the {@link BankOperationEvent bank operations}.
+ * <p>
+ * The recording runs from startup with the JDK settings named by {@code bank.flight-recorder.settings} (about 1 %
+ * overhead for {@code default}), keeping the last {@code max-age} of events on disk within {@code max-size}.
+ * {@link #dump(String)} copies what it holds to a file, e.g. right after a latency spike.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bank.flight-recorder", name = "enabled", havingValue = "true")
+public class FlightRecording {
+
+    /**
+     * A written dump.
+     */
+    public record Dump(Path file, long bytes) {
+    }
+
+    private final FlightRecorderProperties properties;
+    private final Recording recording;
+
+    public FlightRecording(FlightRecorderProperties properties) throws IOException, ParseException {
+        this.properties = properties;
+        this.recording = new Recording(Configuration.getConfiguration(properties.settings()));
+        recording.setName("bank-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.maxAge());
+        recording.setMaxSize(properties.maxSize().toBytes());
+        recording.enable(BankOperationEvent.NAME).withThreshold(properties.operationThreshold());
+        recording.start();
+        log.info("Flight recording started with the {} settings, keeping {} within {}", properties.settings(),
+            properties.maxAge(), properties.maxSize());
+    }
+
+    /**
+     * Writes the events currently held by the recording in the recordings directory; the recording goes on.
+     *
+     * @param fileName the file name, relative to {@code bank.flight-recorder.directory}
+     * @return the written dump
+     */
+    public Dump dump(String fileName) {
+        Path directory = properties.directory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("The recording must be inside the recordings directory");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            recording.dump(temporary);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Dump dump = new Dump(file, Files.size(file));
+            log.info("Flight recording dumped to {}, {} bytes", file, dump.bytes());
+            return dump;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", temporary, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        recording.close();
+    }
+}
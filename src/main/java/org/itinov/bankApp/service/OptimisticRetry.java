@@ -0,0 +1,19 @@
+package org.itinov.bankApp.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional write operation that is re-executed when it loses an optimistic lock race.
+ * Each attempt runs in its own transaction, so the accounts are re-read with their latest version.
+ *
+ * @see OptimisticRetryAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+}
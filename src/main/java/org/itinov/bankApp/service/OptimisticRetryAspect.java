@@ -0,0 +1,77 @@
+package org.itinov.bankApp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.itinov.bankApp.config.OptimisticRetryProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries methods annotated with {@link OptimisticRetry} when they fail with an optimistic lock conflict.
+ * <p>
+ * The aspect is ordered before the transaction interceptor so that every attempt gets a fresh transaction.
+ * Delays use "full jitter" (a random value between 0 and a capped exponential bound) to spread competing
+ * writers apart. Attempts, conflicts, retries and exhausted retries are counted per operation, which gives
+ * the conflict rate as {@code bank.optimistic.conflicts / bank.optimistic.attempts}.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+class OptimisticRetryAspect {
+
+    static final String ATTEMPTS = "bank.optimistic.attempts";
+    static final String CONFLICTS = "bank.optimistic.conflicts";
+    static final String RETRIES = "bank.optimistic.retries";
+    static final String EXHAUSTED = "bank.optimistic.exhausted";
+
+    private final OptimisticRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(org.itinov.bankApp.service.OptimisticRetry)")
+    Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        int maxAttempts = Math.max(1, properties.maxAttempts());
+
+        for (int attempt = 1; ; attempt++) {
+            count(ATTEMPTS, operation);
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                count(CONFLICTS, operation);
+                if (attempt >= maxAttempts) {
+                    count(EXHAUSTED, operation);
+                    log.warn("Optimistic lock conflict on {} not resolved after {} attempts", operation, attempt);
+                    throw ex;
+                }
+                count(RETRIES, operation);
+                pause(attempt);
+            }
+        }
+    }
+
+    /**
+     * Sleeps for a random delay in [0, min(maxBackoff, initialBackoff * 2^(attempt - 1))].
+     */
+    private void pause(int attempt) throws InterruptedException {
+        long initial = properties.initialBackoff().toMillis();
+        long cap = properties.maxBackoff().toMillis();
+        long bound = Math.min(cap, initial << Math.min(attempt - 1, 20));
+        if (bound > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        }
+    }
+
+    private void count(String name, String operation) {
+        meterRegistry.counter(name, "operation", operation).increment();
+    }
+}
@@ -0,0 +1,166 @@
+package org.itinov.bankApp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory index answering "which ids have a key starting with this prefix", in key order.
+ * <p>
+ * Keys live in two sorted parallel arrays: a large base level and a small delta level receiving the additions.
+ * Adding entries only rebuilds the delta, which is folded into the base once it exceeds an eighth of it, so the
+ * amortized cost of an addition stays low while a lookup remains two binary searches followed by a sequential read
+ * of the matching range. Instances are replaced, never modified, so readers need no locking.
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = new PrefixIndex(Level.EMPTY, Level.EMPTY);
+
+    private static final int MIN_DELTA = 1024;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /** One indexed key of an id. */
+    record Entry(String key, long id) {
+        private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+    }
+
+    private record Level(String[] keys, long[] ids) {
+        private static final Level EMPTY = new Level(new String[0], new long[0]);
+
+        int size() {
+            return keys.length;
+        }
+
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** Merges two sorted levels in linear time. */
+        static Level merge(Level a, Level b) {
+            String[] keys = new String[a.size() + b.size()];
+            long[] ids = new long[keys.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < keys.length; k++) {
+                boolean takeA = j >= b.size() || (i < a.size() && compare(a, i, b, j) <= 0);
+                Level from = takeA ? a : b;
+                int index = takeA ? i++ : j++;
+                keys[k] = from.keys[index];
+                ids[k] = from.ids[index];
+            }
+            return new Level(keys, ids);
+        }
+
+        private static int compare(Level a, int i, Level b, int j) {
+            int byKey = a.keys[i].compareTo(b.keys[j]);
+            return byKey != 0 ? byKey : Long.compare(a.ids[i], b.ids[j]);
+        }
+    }
+
+    private final Level base;
+    private final Level delta;
+
+    private PrefixIndex(Level base, Level delta) {
+        this.base = base;
+        this.delta = delta;
+    }
+
+    /**
+     * @return the number of indexed keys
+     */
+    int size() {
+        return base.size() + delta.size();
+    }
+
+    /**
+     * Returns a new index holding these entries in addition to the current ones.
+     *
+     * @param entries the entries to add, with normalized keys
+     * @return the new index
+     */
+    PrefixIndex plus(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return this;
+        }
+        Entry[] sorted = entries.toArray(Entry[]::new);
+        Arrays.sort(sorted, Entry.ORDER);
+        Level added = new Level(Arrays.stream(sorted).map(Entry::key).toArray(String[]::new),
+            Arrays.stream(sorted).mapToLong(Entry::id).toArray());
+        Level newDelta = Level.merge(delta, added);
+        if (newDelta.size() > Math.max(MIN_DELTA, base.size() / 8)) {
+            return new PrefixIndex(Level.merge(base, newDelta), Level.EMPTY);
+        }
+        return new PrefixIndex(base, newDelta);
+    }
+
+    /**
+     * Finds the ids having a key that starts with a prefix.
+     *
+     * @param prefix the prefix, normalized with {@link #normalize}
+     * @param limit  the maximum number of ids
+     * @return distinct ids, in the order of their first matching key
+     */
+    List<Long> find(String prefix, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        int i = base.lowerBound(prefix);
+        int j = delta.lowerBound(prefix);
+        while (ids.size() < limit) {
+            boolean inBase = i < base.size() && base.keys[i].startsWith(prefix);
+            boolean inDelta = j < delta.size() && delta.keys[j].startsWith(prefix);
+            if (!inBase && !inDelta) {
+                break;
+            }
+            if (inBase && (!inDelta || Level.compare(base, i, delta, j) <= 0)) {
+                ids.add(base.ids[i++]);
+            } else {
+                ids.add(delta.ids[j++]);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Lower-cases a text and strips its accents, so that "Élodie" is found with "elo".
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds the keys of a customer: the full name, the name from each of its following words
+     * (so that "smith" finds "Jane Smith") and the email address.
+     */
+    static List<Entry> entriesOf(long id, String name, String email) {
+        List<Entry> entries = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            String normalized = normalize(name);
+            entries.add(new Entry(normalized, id));
+            for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                if (i + 1 < normalized.length() && normalized.charAt(i + 1) != ' ') {
+                    entries.add(new Entry(normalized.substring(i + 1), id));
+                }
+            }
+        }
+        if (email != null && !email.isBlank()) {
+            entries.add(new Entry(normalize(email), id));
+        }
+        return entries;
+    }
+}
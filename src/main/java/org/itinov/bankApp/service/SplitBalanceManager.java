@@ -0,0 +1,153 @@
+package org.itinov.bankApp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.SplitBalanceProperties;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountBalanceSlotEntity;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository.SlotTotals;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Manages the sub-balance slots of accounts in "split balance" mode.
+ * <p>
+ * Deposits are added to one slot with a single atomic UPDATE, which also counts them on the slot, so concurrent
+ * deposits on the same hot account touch different rows and neither bump the account version nor queue on its
+ * activity counters. Reads sum the slots. Withdrawals only consolidate the
+ * slots into the account balance when the consolidated part alone does not satisfy the overdraft limit; slots only
+ * ever receive deposits, so they never make the check fail.
+ * <p>
+ * The logical balance read after a write is only a best effort: other deposits may be in flight or commit after it,
+ * so the balance after of the transactions of a split account is flagged as approximate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional
+class SplitBalanceManager {
+
+    private final AccountRepository accountRepo;
+    private final AccountBalanceSlotRepository slotRepo;
+    private final BalanceSnapshotRepository snapshotRepo;
+    private final ActivityCounters counters;
+    private final SplitBalanceProperties properties;
+
+    /**
+     * Switches the configured accounts to split balance mode once demo data is loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableConfiguredAccounts() {
+        for (String number : properties.accounts()) {
+            accountRepo.findByNumber(number).ifPresentOrElse(
+                account -> enable(account, properties.slots()),
+                () -> log.warn("Split balance requested for unknown account {}", number));
+        }
+    }
+
+    /**
+     * Puts an account in split balance mode with the given number of slots (0 reverts to a single balance).
+     * Existing slots are consolidated first, so the logical balance is unchanged. Splitting drops the snapshot of
+     * the day, which the deposits to come would not update; the day is closed once over.
+     *
+     * @param account the account to split
+     * @param slots   the number of slots
+     */
+    public void enable(AccountEntity account, int slots) {
+        if (slots < 0) {
+            throw new IllegalArgumentException("Slot count must not be negative");
+        }
+        if (account.getBalanceSlots() == slots) {
+            return;
+        }
+        if (account.isSplitBalance()) {
+            consolidate(account);
+            slotRepo.deleteAll(slotRepo.findByAccountIdForUpdate(account.getId()));
+        } else {
+            snapshotRepo.findByAccountIdAndSnapshotDate(account.getId(), LocalDate.now())
+                .ifPresent(snapshotRepo::delete);
+        }
+        slotRepo.saveAll(IntStream.range(0, slots)
+            .mapToObj(slot -> AccountBalanceSlotEntity.builder().account(account).slot(slot).build())
+            .toList());
+        account.setBalanceSlots(slots);
+        accountRepo.save(account);
+    }
+
+    /**
+     * Credits one slot of a split account, chosen by hashing the request.
+     *
+     * @param account     the split account
+     * @param type        DEPOSIT, or TRANSFER for an incoming transfer
+     * @param amount      the amount to deposit
+     * @param date        the date of the transaction, for the activity counters
+     * @param performedBy who performed the deposit
+     * @return the logical balance right after the deposit, approximate: it misses the deposits not committed yet on
+     * the other slots, and the total can be older than one a concurrent consolidation commits in between
+     */
+    public double deposit(AccountEntity account, OperationType type, double amount, LocalDateTime date,
+                          String performedBy) {
+        int slot = Math.floorMod(
+            Objects.hash(performedBy, amount, Thread.currentThread().threadId(), System.nanoTime()),
+            account.getBalanceSlots());
+        double deposit = type == OperationType.DEPOSIT ? amount : 0;
+        if (slotRepo.addToSlot(account.getId(), slot, deposit, amount - deposit, date) == 0) {
+            throw new IllegalStateException("Missing balance slot " + slot + " for account " + account.getId());
+        }
+        return total(account);
+    }
+
+    /**
+     * Makes sure the consolidated balance of a split account can cover a debit,
+     * folding the slots into it only when needed.
+     *
+     * @param account the split account
+     * @param amount  the amount about to be debited
+     */
+    public void prepareDebit(AccountEntity account, double amount) {
+        if (account.getBalance() - amount < account.getOverdraftLimit()) {
+            consolidate(account);
+        }
+    }
+
+    /**
+     * Moves the content of all slots into the account balance and their counters into the activity counters of the
+     * account, under a write lock on the slots.
+     *
+     * @param account the split account
+     */
+    public void consolidate(AccountEntity account) {
+        // The lock keeps deposits out until commit; amounts are then read and reset in the database
+        // because slot entities already in the persistence context do not see the atomic updates.
+        slotRepo.findByAccountIdForUpdate(account.getId());
+        for (SlotTotals totals : slotRepo.findTotals(List.of(account.getId()))) {
+            slotRepo.resetByAccountId(account.getId());
+            account.setBalance(account.getBalance() + totals.balance());
+            counters.fold(totals);
+        }
+    }
+
+    /**
+     * Computes the logical balance of an account: the consolidated balance plus all slots.
+     *
+     * @param account the account
+     * @return the logical balance
+     */
+    public double total(AccountEntity account) {
+        return account.isSplitBalance()
+            ? account.getBalance() + slotRepo.sumByAccountId(account.getId())
+            : account.getBalance();
+    }
+}
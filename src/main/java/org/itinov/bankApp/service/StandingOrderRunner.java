@@ -0,0 +1,76 @@
+package org.itinov.bankApp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.infrastructure.entity.StandingOrderEntity;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Executes one occurrence of a standing order at a time, each in its own transaction.
+ * <p>
+ * The transfer and the move to the next occurrence commit together, so an occurrence is never executed twice,
+ * and the order version prevents two scheduler instances from running the same occurrence.
+ */
+@Component
+@RequiredArgsConstructor
+public class StandingOrderRunner {
+
+    private final StandingOrderRepository orderRepo;
+    private final BankService bankService;
+
+    /**
+     * Executes the current occurrence of an order if it is due.
+     *
+     * @param orderId the ID of the order
+     * @param now     the current date and time
+     * @return the next execution of the order, or empty when the order is finished, cancelled or deleted
+     */
+    @OptimisticRetry
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<LocalDateTime> execute(Long orderId, LocalDateTime now) {
+        StandingOrderEntity order = orderRepo.findById(orderId).orElse(null);
+        if (order == null || order.getNextExecution() == null) {
+            return Optional.empty();
+        }
+        if (order.getNextExecution().isAfter(now)) {
+            return Optional.of(order.getNextExecution());
+        }
+
+        bankService.executeScheduledTransfer(order.getFromAccount().getId(), order.getToAccount().getId(),
+            order.getAmount(), order.getPerformedBy());
+
+        order.setLastExecution(order.getNextExecution());
+        order.setLastError(null);
+        order.advance();
+        return Optional.ofNullable(order.getNextExecution());
+    }
+
+    /**
+     * Records a rejected occurrence (e.g. insufficient funds) and moves the order to its next occurrence.
+     *
+     * @param orderId    the ID of the order
+     * @param occurrence the occurrence that was rejected; nothing is done if the order has moved on since
+     * @param error      the reason of the rejection
+     * @return the next execution of the order, or empty when the order is finished, cancelled or deleted
+     */
+    @OptimisticRetry
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<LocalDateTime> skip(Long orderId, LocalDateTime occurrence, String error) {
+        StandingOrderEntity order = orderRepo.findById(orderId).orElse(null);
+        if (order == null || order.getNextExecution() == null) {
+            return Optional.empty();
+        }
+        if (!order.getNextExecution().equals(occurrence)) {
+            return Optional.of(order.getNextExecution());
+        }
+        order.setLastExecution(order.getNextExecution());
+        order.setLastError(error);
+        order.advance();
+        return Optional.ofNullable(order.getNextExecution());
+    }
+}
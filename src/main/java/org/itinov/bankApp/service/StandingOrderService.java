@@ -0,0 +1,51 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.domain.enums.Frequency;
+import org.itinov.bankApp.domain.model.StandingOrder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for standing orders: transfers repeated at a fixed frequency and executed by the scheduler.
+ */
+public interface StandingOrderService {
+
+    /**
+     * Creates a standing order debiting an account of the current customer.
+     *
+     * @param fromAccountId  the ID of the account to transfer from
+     * @param toAccountId    the ID of the account to transfer to
+     * @param amount         the amount of each transfer
+     * @param frequency      the recurrence of the order
+     * @param firstExecution the date and time of the first transfer
+     * @param endDate        the last day an occurrence may run, or null for an open-ended order
+     * @param performedBy    the identifier of who created the order
+     * @return the created StandingOrder in the domain model
+     * @throws jakarta.persistence.EntityNotFoundException if either account does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the fromAccount does not belong to the current customer
+     * @throws org.itinov.bankApp.domain.exception.BusinessRejection if the amount is not positive, the accounts are the same or the end date is before the first execution
+     */
+    StandingOrder create(Long fromAccountId, Long toAccountId, double amount, Frequency frequency,
+                         LocalDateTime firstExecution, LocalDate endDate, String performedBy);
+
+    /**
+     * Retrieves the standing orders debiting an account of the current customer.
+     *
+     * @param accountId the ID of the account
+     * @return the standing orders of the account in the domain model
+     * @throws org.springframework.security.access.AccessDeniedException if the account does not belong to the current customer
+     */
+    List<StandingOrder> getByAccount(Long accountId);
+
+    /**
+     * Cancels a standing order of the current customer; occurrences already executed are kept.
+     *
+     * @param accountId the ID of the account debited by the order
+     * @param orderId   the ID of the order
+     * @throws jakarta.persistence.EntityNotFoundException if the order does not exist for this account
+     * @throws org.springframework.security.access.AccessDeniedException if the account does not belong to the current customer
+     */
+    void cancel(Long accountId, Long orderId);
+}
@@ -0,0 +1,103 @@
+package org.itinov.bankApp.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+import org.itinov.bankApp.domain.enums.Frequency;
+import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.StandingOrder;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.StandingOrderEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository;
+import org.itinov.bankApp.mapper.BankPersistenceMapper;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@inheritDoc}
+ */
+@RequiredArgsConstructor
+@Service
+@Transactional
+class StandingOrderServiceImpl implements StandingOrderService {
+
+    private final CustomerService customerService;
+    private final AccountRepository accountRepo;
+    private final StandingOrderRepository orderRepo;
+    private final BankPersistenceMapper mapper;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StandingOrder create(Long fromAccountId, Long toAccountId, double amount, Frequency frequency,
+                                LocalDateTime firstExecution, LocalDate endDate, String performedBy) {
+        AccountEntity from = accountRepo.findById(fromAccountId)
+            .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        checkOwnership(fromAccountId);
+
+        AccountEntity to = accountRepo.findById(toAccountId)
+            .orElseThrow(() -> new EntityNotFoundException("To account not found"));
+
+        if (amount <= 0) {
+            throw ErrorCode.AMOUNT_NOT_POSITIVE.rejection();
+        }
+        if (Objects.equals(fromAccountId, toAccountId)) {
+            throw ErrorCode.SAME_ACCOUNT_TRANSFER.rejection();
+        }
+        if (endDate != null && endDate.isBefore(firstExecution.toLocalDate())) {
+            throw ErrorCode.END_DATE_BEFORE_FIRST_EXECUTION.rejection();
+        }
+
+        StandingOrderEntity order = StandingOrderEntity.builder()
+            .fromAccount(from)
+            .toAccount(to)
+            .amount(amount)
+            .frequency(frequency)
+            .firstExecution(firstExecution)
+            .endDate(endDate)
+            .nextExecution(firstExecution)
+            .performedBy(performedBy)
+            .build();
+
+        return mapper.toDomain(orderRepo.save(order));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<StandingOrder> getByAccount(Long accountId) {
+        checkOwnership(accountId);
+        return orderRepo.findByFromAccountIdOrderByIdAsc(accountId).stream()
+            .map(mapper::toDomain)
+            .toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancel(Long accountId, Long orderId) {
+        checkOwnership(accountId);
+        StandingOrderEntity order = orderRepo.findById(orderId)
+            .filter(o -> Objects.equals(o.getFromAccount().getId(), accountId))
+            .orElseThrow(() -> new EntityNotFoundException("Standing order not found"));
+        order.setNextExecution(null);
+    }
+
+    private void checkOwnership(Long accountId) {
+        Customer currentCustomer = customerService.getCurrentCustomer();
+        if (!accountRepo.existsByIdAndCustomerId(accountId, currentCustomer.id())) {
+            throw new AccessDeniedException("Account does not belong to the current customer");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a transaction search: the (date, id) of the last transaction of the previous page,
+ * exchanged with clients as an opaque URL-safe string.
+ */
+record TransactionCursor(LocalDateTime date, long id) {
+
+    static TransactionCursor of(TransactionEntity tx) {
+        return new TransactionCursor(tx.getDate(), tx.getId());
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    static TransactionCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -5,24 +5,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.domain.enums.Granularity;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.domain.model.BatchOperation;
+import org.itinov.bankApp.domain.model.BatchResult;
+import org.itinov.bankApp.domain.model.PayoutLeg;
+import org.itinov.bankApp.domain.model.TransactionFilter;
 import org.itinov.bankApp.dto.*;
 import org.itinov.bankApp.dto.TransferRequest;
 import org.itinov.bankApp.mapper.BankAPIMapper;
 import org.itinov.bankApp.service.BankService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Controller for bank account operations.
- * All endpoints require the user to be authenticated and have a keycloak 'customer' role.
+ * All endpoints require the user to be authenticated and have a keycloak 'customer' role (URL rule of
+ * {@link org.itinov.bankApp.config.SecurityConfig}).
  */
-@PreAuthorize("isAuthenticated() and hasRole('customer')")
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/accounts")
@@ -43,6 +49,36 @@ public class BankController {
         return ResponseEntity.ok(accounts);
     }
 
+    @GetMapping("/customer/{customerId}/transactions")
+    @Operation(summary = "Search the transactions of a customer's accounts, newest first, with keyset pagination")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of transactions returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid criteria, limit or cursor"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account")
+    })
+    public ResponseEntity<TransactionPageDTO> searchTransactions(
+        @PathVariable Long customerId,
+        @RequestParam(required = false) Long accountId,
+        @RequestParam(required = false) OperationType type,
+        @RequestParam(required = false) Double minAmount,
+        @RequestParam(required = false) Double maxAmount,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String performedBy,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit) {
+        TransactionFilter filter = TransactionFilter.builder()
+            .accountId(accountId)
+            .type(type)
+            .minAmount(minAmount)
+            .maxAmount(maxAmount)
+            .from(from)
+            .to(to)
+            .performedBy(performedBy)
+            .build();
+        return ResponseEntity.ok(mapper.toDTO(bankService.searchTransactions(customerId, filter, cursor, limit)));
+    }
+
     @GetMapping("/{accountId}/transactions")
     @Operation(summary = "Get all transactions for an account")
     @ApiResponses({
@@ -54,6 +90,60 @@ public class BankController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/{accountId}/balance")
+    @Operation(summary = "Get the balance of an account at a point in time (now by default)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Balance returned, the opening one before any transaction"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    public ResponseEntity<BalanceDTO> getBalance(@PathVariable Long accountId,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        return ResponseEntity.ok(mapper.toDTO(bankService.getBalanceAt(accountId, pointInTime)));
+    }
+
+    @GetMapping("/{accountId}/balance-history")
+    @Operation(summary = "Get the end-of-day balances of an account over a date range (until today by default)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Columnar daily series returned (dates in epoch days)"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long date range"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    public ResponseEntity<BalanceHistoryDTO> getBalanceHistory(@PathVariable Long accountId,
+                                                               @RequestParam
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                               LocalDate from,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                               LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return ResponseEntity.ok(mapper.toDTO(bankService.getBalanceHistory(accountId, from, end)));
+    }
+
+    @GetMapping("/{accountId}/statistics")
+    @Operation(summary = "Get transaction counts and sums per operation type and day, week or month")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long date range"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    public ResponseEntity<ActivityStatisticsDTO> getStatistics(@PathVariable Long accountId,
+                                                               @RequestParam
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                               LocalDate from,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                               LocalDate to,
+                                                               @RequestParam(defaultValue = "MONTH")
+                                                               Granularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        return ResponseEntity.ok(mapper.toDTO(bankService.getActivityStatistics(accountId, from, end, granularity)));
+    }
+
     @PostMapping("/{accountId}/deposit")
     @Operation(summary = "Deposit money into an account")
     @ApiResponses({
@@ -64,7 +154,7 @@ public class BankController {
     })
     public ResponseEntity<TransactionDTO> deposit(@PathVariable Long accountId,
                                                   @Valid @RequestBody DepositRequest request) {
-        String performedBy = resolvePerformedBy();
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
         TransactionDTO tx = mapper.toDTO(bankService.deposit(accountId, request.amount(), performedBy));
         return ResponseEntity.status(HttpStatus.CREATED).body(tx);
     }
@@ -79,7 +169,7 @@ public class BankController {
     })
     public ResponseEntity<TransactionDTO> withdraw(@PathVariable Long accountId,
                                                    @Valid @RequestBody WithdrawRequest request) {
-        String performedBy = resolvePerformedBy();
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
         TransactionDTO tx = mapper.toDTO(bankService.withdraw(accountId, request.amount(), performedBy));
         return ResponseEntity.status(HttpStatus.CREATED).body(tx);
     }
@@ -94,27 +184,66 @@ public class BankController {
     })
     public ResponseEntity<List<TransactionDTO>> transfer(@PathVariable Long accountId,
                                                          @Valid @RequestBody TransferRequest request) {
-        String performedBy = resolvePerformedBy();
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
         List<TransactionDTO> tx = mapper
             .toTransactionDTOs(bankService.transfer(accountId, request.toAccountId(), request.amount(), performedBy)
             );
         return ResponseEntity.status(HttpStatus.CREATED).body(tx);
     }
 
-    /**
-     * Resolve the username of the authenticated user from the security context.
-     * If the authentication is a JWT, it tries to get the 'preferred_username' claim.
-     * Otherwise, it falls back to the principal name.
-     *
-     * @return the username of the authenticated user, or "unknown" if not available
-     */
-    private String resolvePerformedBy() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            String preferred = jwtAuth.getToken().getClaimAsString("preferred_username");
-            return preferred != null ? preferred : jwtAuth.getName();
-        }
-        return authentication != null ? authentication.getName() : "unknown";
+    @PostMapping("/{accountId}/transfer-by-number")
+    @Operation(summary = "Transfer money to an account designated by its number",
+        description = "Account numbers are checked against the known numbers, refreshed every " +
+            "bank.account-resolver.refresh-interval (30 s by default): an account created within the last " +
+            "refresh interval may be reported as not found; retry later.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Transfer successful"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "Source account or account number not found, or " +
+            "destination account created within the last refresh interval"),
+        @ApiResponse(responseCode = "400", description = "Invalid transfer request")
+    })
+    public ResponseEntity<List<TransactionDTO>> transferByNumber(@PathVariable Long accountId,
+                                                                 @Valid @RequestBody TransferByNumberRequest request) {
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
+        List<TransactionDTO> tx = mapper.toTransactionDTOs(
+            bankService.transferToNumber(accountId, request.toAccountNumber(), request.amount(), performedBy));
+        return ResponseEntity.status(HttpStatus.CREATED).body(tx);
+    }
+
+    @PostMapping("/{accountId}/payout")
+    @Operation(summary = "Pay several accounts from one account in a single atomic transfer")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Payout successful: the debit then one credit per leg"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "Source or destination account not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid payout request")
+    })
+    public ResponseEntity<List<TransactionDTO>> payout(@PathVariable Long accountId,
+                                                       @Valid @RequestBody PayoutRequest request) {
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
+        List<PayoutLeg> legs = request.legs().stream()
+            .map(leg -> new PayoutLeg(leg.toAccountId(), leg.amount()))
+            .toList();
+        List<TransactionDTO> tx = mapper.toTransactionDTOs(bankService.payout(accountId, legs, performedBy));
+        return ResponseEntity.status(HttpStatus.CREATED).body(tx);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Apply a batch of deposits, withdrawals and transfers in one transaction")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Batch committed, see the status of each operation"),
+        @ApiResponse(responseCode = "422", description = "All-or-nothing batch rejected, nothing was applied"),
+        @ApiResponse(responseCode = "400", description = "Invalid batch request")
+    })
+    public ResponseEntity<BatchResultDTO> batch(@Valid @RequestBody BatchRequest request) {
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
+        List<BatchOperation> operations = request.operations().stream()
+            .map(op -> new BatchOperation(op.type(), op.accountId(), op.toAccountId(), op.amount()))
+            .toList();
+        BatchResult result = bankService.executeBatch(operations, request.mode(), performedBy);
+        return ResponseEntity.status(result.committed() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY)
+            .body(mapper.toDTO(result));
     }
 
 }
@@ -6,19 +6,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.itinov.bankApp.domain.model.Customer;
 import org.itinov.bankApp.dto.CustomerDTO;
+import org.itinov.bankApp.dto.CustomerPageDTO;
 import org.itinov.bankApp.mapper.BankAPIMapper;
 import org.itinov.bankApp.service.CustomerService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
 
 /**
  * Controller for customer-related operations.
- * Some endpoints are public, others require the user to be authenticated and have a keycloak 'customer' role.
+ * Some endpoints are public, others require the user to be authenticated and have a keycloak 'customer' role (URL
+ * rules of {@link org.itinov.bankApp.config.SecurityConfig}).
  */
 @RequiredArgsConstructor
 @RestController
@@ -29,19 +31,33 @@ public class CustomerController {
     private final BankAPIMapper mapper;
 
     /**
-     * Returns all customers with their accounts and transactions
+     * Returns one page of customers, in id order
      */
     @GetMapping("/public/customers")
-    @Operation(summary = "Get all customers with their accounts and transactions")
+    @Operation(summary = "Get a page of customers, in id order (pass nextAfterId as 'after' for the next page)")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "List of customers returned")
+        @ApiResponse(responseCode = "200", description = "Page of customers returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
     })
-    public ResponseEntity<List<CustomerDTO>> getAllCustomersFull() {
-        List<Customer> customers = customerService.findAllCustomers();
-        return ResponseEntity.ok(mapper.toCustomerDTOs(customers));
+    public ResponseEntity<CustomerPageDTO> getCustomers(@RequestParam(required = false) Long after,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(mapper.toDTO(customerService.findCustomers(after, limit)));
+    }
+
+    /**
+     * Typeahead search of customers by name or email prefix
+     */
+    @GetMapping("/public/customers/search")
+    @Operation(summary = "Find customers whose name, a word of their name or email starts with a prefix")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching customers returned"),
+        @ApiResponse(responseCode = "400", description = "Blank prefix or invalid limit")
+    })
+    public ResponseEntity<List<CustomerDTO>> searchCustomers(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(mapper.toCustomerDTOs(customerService.searchCustomers(q, limit)));
     }
 
-    @PreAuthorize("isAuthenticated() and hasRole('customer')")
     @GetMapping("/customer")
     @Operation(summary = "Get authenticated customer's id")
     @ApiResponses({
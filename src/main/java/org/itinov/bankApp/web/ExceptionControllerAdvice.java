@@ -1,7 +1,11 @@
 package org.itinov.bankApp.web;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.itinov.bankApp.domain.exception.BusinessRejection;
+import org.itinov.bankApp.dto.ErrorDTO;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -23,6 +27,21 @@ public class ExceptionControllerAdvice {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException ex) {
+        // Conflit de version persistant malgré les nouvelles tentatives : le client peut rejouer la requête
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body("The account was modified concurrently, please retry");
+    }
+
+    @ExceptionHandler(BusinessRejection.class)
+    public ResponseEntity<ErrorDTO> handleRejection(BusinessRejection ex) {
+        // refus métier attendu : corps structuré avec un code stable, que le front peut interpréter
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new ErrorDTO(ex.code().name(), ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleException(IllegalArgumentException ex) {
         // ex.getMessage() sera envoyé au front
@@ -0,0 +1,38 @@
+package org.itinov.bankApp.web;
+
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.dto.FlightRecordingDTO;
+import org.itinov.bankApp.service.FlightRecording;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Actuator endpoint dumping the continuous Flight Recorder recording ({@code POST /actuator/flightrecording}, admin
+ * role), available when {@code bank.flight-recorder.enabled} is set. The dump opens in JDK Mission Control.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bank.flight-recorder", name = "enabled", havingValue = "true")
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final FlightRecording flightRecording;
+
+    /**
+     * @param file the dump name in the recordings directory, {@code bank-<date>.jfr} by default
+     */
+    @WriteOperation
+    public FlightRecordingDTO dump(@Nullable String file) {
+        String fileName = file != null && !file.isBlank() ? file : "bank-" + FILE_DATE.format(LocalDateTime.now()) + ".jfr";
+        FlightRecording.Dump dump = flightRecording.dump(fileName);
+        return new FlightRecordingDTO(dump.file().getFileName().toString(), dump.bytes());
+    }
+}
@@ -0,0 +1,49 @@
+package org.itinov.bankApp.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.batch.ImportResult;
+import org.itinov.bankApp.batch.TransactionImportJob;
+import org.itinov.bankApp.dto.TransactionImportDTO;
+import org.itinov.bankApp.dto.TransactionImportDTO.RejectionDTO;
+import org.itinov.bankApp.dto.TransactionImportRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for bulk data migration.
+ * All endpoints require the user to be authenticated and have a keycloak 'admin' role (URL rule of
+ * {@link org.itinov.bankApp.config.SecurityConfig}).
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/admin/imports")
+public class ImportController {
+
+    private final TransactionImportJob transactionImport;
+
+    @PostMapping("/transactions")
+    @Operation(summary = "Import historical transactions from a CSV or NDJSON file of the import directory, "
+        + "resuming after the last committed chunk of a previous attempt")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "File imported, rejected lines reported"),
+        @ApiResponse(responseCode = "400", description = "Unknown file, file type or file already being imported"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - admin role required")
+    })
+    public ResponseEntity<TransactionImportDTO> importTransactions(@Valid @RequestBody TransactionImportRequest request) {
+        ImportResult result = transactionImport.importFile(request.file());
+        return ResponseEntity.ok(new TransactionImportDTO(
+            request.file(),
+            result.report().items(),
+            result.report().written(),
+            result.rejectedCount(),
+            result.rejections().stream().map(r -> new RejectionDTO(r.offset(), r.reason())).toList(),
+            result.report().elapsed().toMillis()));
+    }
+}
@@ -0,0 +1,29 @@
+package org.itinov.bankApp.web;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * Helpers shared by the controllers to read the authenticated user.
+ */
+final class SecurityContextUtils {
+
+    private SecurityContextUtils() {
+    }
+
+    /**
+     * Resolve the username of the authenticated user from the security context.
+     * If the authentication is a JWT, it tries to get the 'preferred_username' claim.
+     * Otherwise, it falls back to the principal name.
+     *
+     * @return the username of the authenticated user, or "unknown" if not available
+     */
+    static String resolvePerformedBy() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
+            String preferred = jwtAuth.getToken().getClaimAsString("preferred_username");
+            return preferred != null ? preferred : jwtAuth.getName();
+        }
+        return authentication != null ? authentication.getName() : "unknown";
+    }
+}
@@ -0,0 +1,86 @@
+package org.itinov.bankApp.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.itinov.bankApp.config.QueryInspectionProperties;
+import org.itinov.bankApp.infrastructure.jdbc.SqlStatistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements, rows read and JDBC time of each HTTP request.
+ * <p>
+ * The figures are recorded in the {@code bank.http.sql.statements}, {@code bank.http.sql.rows} and
+ * {@code bank.http.sql.time} metrics, tagged with the method and the route, and returned in the
+ * {@code X-SQL-Statements}, {@code X-SQL-Rows} and {@code X-SQL-Time-Ms} headers when
+ * {@code bank.query-inspection.response-headers} is set; the body is then buffered so that the headers can be added
+ * once the request is over. A statement executed more than {@code repeat-threshold} times in one request is logged
+ * as a possible N+1.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "bank.query-inspection", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final QueryInspectionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatisticsFilter(QueryInspectionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = properties.responseHeaders()
+            ? new ContentCachingResponseWrapper(response) : null;
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            SqlStatistics.stop();
+            record(request, statistics);
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, Long.toString(statistics.statements()));
+                buffered.setHeader(ROWS_HEADER, Long.toString(statistics.rows()));
+                buffered.setHeader(TIME_HEADER, Long.toString(statistics.jdbcTime().toMillis()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", route);
+        DistributionSummary.builder("bank.http.sql.statements").tags(tags).register(meterRegistry)
+            .record(statistics.statements());
+        DistributionSummary.builder("bank.http.sql.rows").tags(tags).register(meterRegistry)
+            .record(statistics.rows());
+        meterRegistry.timer("bank.http.sql.time", tags).record(statistics.jdbcTime());
+
+        Map<String, Integer> repeated = statistics.repeatedStatements(properties.repeatThreshold());
+        repeated.forEach((sql, count) ->
+            log.warn("Possible N+1 on {} {}: statement executed {} times: {}", request.getMethod(), route, count, sql));
+    }
+}
@@ -0,0 +1,68 @@
+package org.itinov.bankApp.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.dto.StandingOrderDTO;
+import org.itinov.bankApp.dto.StandingOrderRequest;
+import org.itinov.bankApp.mapper.BankAPIMapper;
+import org.itinov.bankApp.service.StandingOrderService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller for standing orders (recurring transfers) of an account.
+ * All endpoints require the user to be authenticated and have a keycloak 'customer' role (URL rule of
+ * {@link org.itinov.bankApp.config.SecurityConfig}).
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/accounts/{accountId}/standing-orders")
+public class StandingOrderController {
+
+    private final StandingOrderService standingOrderService;
+    private final BankAPIMapper mapper;
+
+    @PostMapping
+    @Operation(summary = "Create a standing order debiting an account")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Standing order created"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "One of the accounts not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid standing order request")
+    })
+    public ResponseEntity<StandingOrderDTO> create(@PathVariable Long accountId,
+                                                   @Valid @RequestBody StandingOrderRequest request) {
+        String performedBy = SecurityContextUtils.resolvePerformedBy();
+        StandingOrderDTO order = mapper.toDTO(standingOrderService.create(accountId, request.toAccountId(),
+            request.amount(), request.frequency(), request.firstExecution(), request.endDate(), performedBy));
+        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get the standing orders of an account")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "List of standing orders returned"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account")
+    })
+    public ResponseEntity<List<StandingOrderDTO>> list(@PathVariable Long accountId) {
+        return ResponseEntity.ok(mapper.toStandingOrderDTOs(standingOrderService.getByAccount(accountId)));
+    }
+
+    @DeleteMapping("/{orderId}")
+    @Operation(summary = "Cancel a standing order")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Standing order cancelled"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - not your account"),
+        @ApiResponse(responseCode = "404", description = "Standing order not found")
+    })
+    public ResponseEntity<Void> cancel(@PathVariable Long accountId, @PathVariable Long orderId) {
+        standingOrderService.cancel(accountId, orderId);
+        return ResponseEntity.noContent().build();
+    }
+}
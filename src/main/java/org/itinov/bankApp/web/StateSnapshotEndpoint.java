@@ -0,0 +1,41 @@
+package org.itinov.bankApp.web;
+
+import lombok.RequiredArgsConstructor;
+import org.itinov.bankApp.batch.SnapshotResult;
+import org.itinov.bankApp.batch.StateSnapshotJob;
+import org.itinov.bankApp.dto.StateSnapshotDTO;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Actuator endpoint writing a binary snapshot of the bank state ({@code POST /actuator/snapshot}, admin role),
+ * restored at startup with {@code bank.snapshot.restore-from}.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "snapshot")
+public class StateSnapshotEndpoint {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final StateSnapshotJob stateSnapshot;
+
+    /**
+     * @param file the snapshot name in the snapshot directory, {@code bank-<date>.bsnap} by default
+     */
+    @WriteOperation
+    public StateSnapshotDTO save(@Nullable String file) {
+        String fileName = file != null && !file.isBlank() ? file : "bank-" + FILE_DATE.format(LocalDateTime.now()) + ".bsnap";
+        SnapshotResult result = stateSnapshot.save(fileName);
+        return new StateSnapshotDTO(
+            result.file().getFileName().toString(),
+            result.report().items(),
+            result.bytes(),
+            result.report().elapsed().toMillis());
+    }
+}
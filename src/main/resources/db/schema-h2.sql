@@ -0,0 +1,131 @@
+-- Schéma explicite du profil "durable" (base H2 sur disque), validé au démarrage par Hibernate (ddl-auto: validate).
+-- Rejoué à chaque démarrage : toutes les instructions sont idempotentes.
+-- Toute évolution d'une entité doit être reportée ici.
+
+create sequence if not exists customer_entity_seq start with 1 increment by 50;
+create sequence if not exists account_entity_seq start with 1 increment by 50;
+create sequence if not exists account_balance_slot_entity_seq start with 1 increment by 50;
+create sequence if not exists transaction_entity_seq start with 1 increment by 50;
+create sequence if not exists balance_snapshot_entity_seq start with 1 increment by 50;
+create sequence if not exists standing_order_entity_seq start with 1 increment by 50;
+create sequence if not exists job_checkpoint_entity_seq start with 1 increment by 50;
+
+create table if not exists customer_entity (
+    id bigint not null,
+    keycloak_id varchar(255),
+    name varchar(255),
+    email varchar(255),
+    primary key (id)
+);
+create index if not exists idx_customer_name on customer_entity (name);
+create index if not exists idx_customer_email on customer_entity (email);
+
+create table if not exists account_entity (
+    id bigint not null,
+    version bigint,
+    number varchar(255),
+    balance float(53) not null,
+    overdraft_limit float(53) not null,
+    balance_slots integer not null,
+    currency enum ('EUR','GBP','USD'),
+    customer_id bigint,
+    primary key (id),
+    constraint uk_account_number unique (number),
+    constraint fk_account_customer foreign key (customer_id) references customer_entity (id)
+);
+
+create table if not exists account_balance_slot_entity (
+    id bigint not null,
+    account_id bigint not null,
+    slot integer not null,
+    balance float(53) not null,
+    transaction_count bigint not null,
+    total_deposits float(53) not null,
+    total_transfers_in float(53) not null,
+    last_activity_at timestamp(6),
+    primary key (id),
+    constraint uk_balance_slot_account_slot unique (account_id, slot),
+    constraint fk_balance_slot_account foreign key (account_id) references account_entity (id)
+);
+
+create table if not exists transaction_entity (
+    id bigint not null,
+    date timestamp(6),
+    amount float(53) not null,
+    type enum ('DEPOSIT','FEE','INTEREST','TRANSFER','WITHDRAWAL'),
+    currency enum ('EUR','GBP','USD'),
+    performed_by varchar(255),
+    balance_after float(53) not null,
+    credit boolean not null,
+    approximate_balance boolean not null,
+    account_id bigint,
+    primary key (id),
+    constraint fk_transaction_account foreign key (account_id) references account_entity (id)
+);
+create index if not exists idx_transaction_account_date_id on transaction_entity (account_id, date, id);
+create index if not exists idx_transaction_account_type_date_id on transaction_entity (account_id, type, date, id);
+create index if not exists idx_transaction_account_performer_date_id
+    on transaction_entity (account_id, performed_by, date, id);
+
+create table if not exists balance_snapshot_entity (
+    id bigint not null,
+    account_id bigint not null,
+    snapshot_date date,
+    closing_balance float(53) not null,
+    primary key (id),
+    constraint uk_balance_snapshot_account_date unique (account_id, snapshot_date),
+    constraint fk_balance_snapshot_account foreign key (account_id) references account_entity (id)
+);
+
+create table if not exists account_activity_entity (
+    account_id bigint not null,
+    transaction_count bigint not null,
+    total_deposits float(53) not null,
+    total_withdrawals float(53) not null,
+    total_transfers_in float(53) not null,
+    total_transfers_out float(53) not null,
+    last_activity_at timestamp(6),
+    primary key (account_id)
+);
+
+create table if not exists standing_order_entity (
+    id bigint not null,
+    version bigint,
+    from_account_id bigint not null,
+    to_account_id bigint not null,
+    amount float(53) not null,
+    frequency enum ('DAILY','MONTHLY','WEEKLY'),
+    first_execution timestamp(6),
+    end_date date,
+    next_execution timestamp(6),
+    executed_count integer not null,
+    last_execution timestamp(6),
+    last_error varchar(255),
+    performed_by varchar(255),
+    primary key (id),
+    constraint fk_standing_order_from_account foreign key (from_account_id) references account_entity (id),
+    constraint fk_standing_order_to_account foreign key (to_account_id) references account_entity (id)
+);
+create index if not exists idx_standing_order_next_execution on standing_order_entity (next_execution, id);
+
+create table if not exists job_checkpoint_entity (
+    id bigint not null,
+    job_name varchar(255),
+    run_key varchar(255),
+    partition_start bigint not null,
+    partition_end bigint not null,
+    position bigint not null,
+    completed boolean not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_job_checkpoint_partition unique (job_name, run_key, partition_start)
+);
+
+create table if not exists reconciliation_checkpoint_entity (
+    account_id bigint not null,
+    last_transaction_date timestamp(6),
+    last_transaction_id bigint,
+    last_balance_after float(53) not null,
+    checked_at timestamp(6),
+    primary key (account_id)
+);
@@ -0,0 +1,90 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the generator at startup on its own in-memory database, so the other tests keep the demo data.
+ */
+@Import(JwtTestConfig.class)
+@ActiveProfiles("datagen")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:datagen;DB_CLOSE_DELAY=-1",
+    "bank.standing-orders.enabled=false",
+    "bank.datagen.customers=40",
+    "bank.datagen.accounts=120",
+    "bank.datagen.transactions=30000",
+    "bank.datagen.days=60",
+    "bank.datagen.parallelism=3",
+    "bank.datagen.batch-size=700"
+})
+class DataGeneratorIT {
+
+    @Autowired
+    DataGenerator generator;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("Generates the requested volumes instead of the demo data")
+    void shouldGenerateTheRequestedVolumes() {
+        assertThat(count("select count(*) from customer_entity")).isEqualTo(40);
+        assertThat(count("select count(*) from account_entity")).isEqualTo(120);
+        assertThat(count("select count(*) from transaction_entity")).isEqualTo(30000);
+        assertThat(count("select count(*) from account_entity where number like 'ACC-JANE%'")).isZero();
+        assertThat(count("select count(distinct customer_id) from account_entity")).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Balances, snapshots and counters agree with the generated histories")
+    void shouldKeepDerivedDataConsistent() {
+        assertThat(count("""
+            select count(*) from account_entity a
+            where a.balance <> coalesce((select t.balance_after from transaction_entity t where t.account_id = a.id
+                                         order by t.date desc, t.id desc limit 1), 0)""")).isZero();
+        assertThat(count("""
+            select count(*) from account_activity_entity c
+            where c.transaction_count <> (select count(*) from transaction_entity t where t.account_id = c.account_id)
+            """)).isZero();
+        assertThat(count("""
+            select count(*) from balance_snapshot_entity s
+            where s.closing_balance <> (select t.balance_after from transaction_entity t
+                                        where t.account_id = s.account_id and cast(t.date as date) = s.snapshot_date
+                                        order by t.date desc, t.id desc limit 1)""")).isZero();
+        assertThat(count("select count(*) from account_entity where balance < overdraft_limit")).isZero();
+    }
+
+    @Test
+    @DisplayName("Account activity is skewed: a few accounts carry most transactions")
+    void shouldSkewTheActivity() {
+        List<Long> perAccount = jdbc.queryForList(
+            "select transaction_count from account_activity_entity order by transaction_count desc", Long.class);
+        long busiest = perAccount.stream().limit(12).mapToLong(Long::longValue).sum();
+        assertThat(busiest).isGreaterThan(30000 / 2);
+        assertThat(perAccount.getFirst()).isGreaterThan(20 * perAccount.get(perAccount.size() / 2));
+    }
+
+    @Test
+    @DisplayName("A second run on the same data set does nothing")
+    void generate_shouldSkipAnExistingDataSet() {
+        BatchReport report = generator.generate();
+
+        assertThat(report.partitions()).isZero();
+        assertThat(report.written()).isZero();
+        assertThat(count("select count(*) from transaction_entity")).isEqualTo(30000);
+    }
+
+    private long count(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,179 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.JobCheckpointEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountActivityRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.JobCheckpointRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.interest-accrual.credit-rate=0.01",
+    "bank.interest-accrual.overdraft-rate=0.10",
+    "bank.interest-accrual.partition-size=2",
+    "bank.interest-accrual.chunk-size=1"
+})
+class InterestAccrualJobIT {
+
+    @Autowired
+    InterestAccrualJob job;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    JobCheckpointRepository checkpointRepository;
+    @Autowired
+    BalanceSnapshotRepository snapshotRepository;
+    @Autowired
+    AccountActivityRepository activityRepository;
+
+    AccountEntity saver;
+    AccountEntity overdrawn;
+    AccountEntity empty;
+
+    @BeforeEach
+    void setUp() {
+        CustomerEntity customer = customerRepository.save(CustomerEntity.builder()
+            .name("Batch").email("batch@example.com").keycloakId("kc-batch-" + System.nanoTime()).build());
+        saver = createAccount(customer, 3650);
+        overdrawn = createAccount(customer, -365);
+        empty = createAccount(customer, 0);
+    }
+
+    private AccountEntity createAccount(CustomerEntity customer, double balance) {
+        return accountRepository.save(AccountEntity.builder()
+            .number("ACC-BATCH-" + System.nanoTime()).balance(balance).overdraftLimit(-1000)
+            .currency(Currency.EUR).customer(customer).build());
+    }
+
+    private List<TransactionEntity> accruals(AccountEntity account) {
+        return transactionRepository.findByAccountIdOrderByDateDesc(account.getId()).stream()
+            .filter(tx -> tx.getType() == OperationType.INTEREST || tx.getType() == OperationType.FEE)
+            .toList();
+    }
+
+    @Test
+    @DisplayName("Credits interest on positive balances and charges a fee on negative ones")
+    void run_shouldAccrueInterestAndFees() {
+        LocalDateTime before = LocalDateTime.now();
+        BatchReport report = job.run(LocalDate.of(2030, 1, 1));
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(report.partitions()).isGreaterThan(1);
+        assertThat(report.items()).isGreaterThanOrEqualTo(3);
+        assertThat(accountRepository.findById(saver.getId()).orElseThrow().getBalance()).isCloseTo(3650.10, within(0.001));
+        assertThat(accountRepository.findById(overdrawn.getId()).orElseThrow().getBalance()).isCloseTo(-365.10, within(0.001));
+        assertThat(accountRepository.findById(empty.getId()).orElseThrow().getBalance()).isZero();
+
+        assertThat(accruals(saver)).singleElement().satisfies(tx -> {
+            assertThat(tx.getType()).isEqualTo(OperationType.INTEREST);
+            assertThat(tx.getAmount()).isEqualTo(0.10);
+            assertThat(tx.getBalanceAfter()).isCloseTo(3650.10, within(0.001));
+            // dated when posted, since the balance after is the balance at that moment
+            assertThat(tx.getDate()).isBetween(before, after);
+        });
+        assertThat(accruals(overdrawn)).singleElement()
+            .satisfies(tx -> assertThat(tx.getType()).isEqualTo(OperationType.FEE));
+        assertThat(accruals(empty)).isEmpty();
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(saver.getId(), before.toLocalDate()))
+            .hasValueSatisfying(snapshot -> assertThat(snapshot.getClosingBalance()).isCloseTo(3650.10, within(0.001)));
+        assertThat(activityRepository.findById(overdrawn.getId())).hasValueSatisfying(activity -> {
+            assertThat(activity.getTransactionCount()).isEqualTo(1);
+            assertThat(activity.getTotalWithdrawals()).isZero();
+            assertThat(activity.getLastActivityAt()).isBetween(before, after);
+        });
+        assertThat(activityRepository.findById(empty.getId())).isEmpty();
+
+        // ids drawn by the job do not collide with those Hibernate hands out afterwards
+        transactionRepository.save(TransactionEntity.builder().account(saver).amount(1).type(OperationType.DEPOSIT)
+            .date(LocalDateTime.now()).build());
+    }
+
+    @Test
+    @DisplayName("Split accounts are accrued with an approximate balance and no snapshot")
+    void run_shouldLeaveTheSnapshotOfSplitAccountsToTheirClose() {
+        saver.setBalanceSlots(2);
+        accountRepository.save(saver);
+
+        job.run(LocalDate.of(2030, 4, 1));
+
+        assertThat(accruals(saver)).singleElement().satisfies(tx -> {
+            assertThat(tx.getBalanceAfter()).isCloseTo(3650.10, within(0.001));
+            assertThat(tx.isApproximateBalance()).isTrue();
+        });
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(saver.getId(), LocalDate.now())).isEmpty();
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(overdrawn.getId(), LocalDate.now())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Running the same business date twice does not accrue twice")
+    void run_shouldBeIdempotentPerBusinessDate() {
+        LocalDate day = LocalDate.of(2030, 2, 1);
+        job.run(day);
+
+        BatchReport second = job.run(day);
+
+        assertThat(second.partitions()).isZero();
+        assertThat(second.written()).isZero();
+        assertThat(accountRepository.findById(saver.getId()).orElseThrow().getBalance()).isCloseTo(3650.10, within(0.001));
+    }
+
+    @Test
+    @DisplayName("A crashed run resumes after the last committed checkpoint")
+    void run_shouldResumeFromCheckpoint() {
+        LocalDate day = LocalDate.of(2030, 3, 1);
+        // a previous attempt committed the saver account and the whole range before it, then stopped
+        checkpointRepository.saveAll(List.of(
+            checkpoint(day, 0, saver.getId(), saver.getId(), true),
+            checkpoint(day, saver.getId(), empty.getId(), saver.getId(), false)));
+
+        BatchReport report = job.run(day);
+
+        assertThat(report.partitions()).isEqualTo(1);
+        assertThat(report.items()).isEqualTo(2);
+        assertThat(accruals(saver)).isEmpty();
+        assertThat(accruals(overdrawn)).hasSize(1);
+        assertThat(checkpointRepository.findByJobNameAndRunKeyOrderByPartitionStartAsc(
+            InterestAccrualJob.JOB_NAME, day.toString())).allMatch(JobCheckpointEntity::isCompleted);
+    }
+
+    private JobCheckpointEntity checkpoint(LocalDate day, long start, long end, long position, boolean completed) {
+        return JobCheckpointEntity.builder()
+            .jobName(InterestAccrualJob.JOB_NAME).runKey(day.toString())
+            .partitionStart(start).partitionEnd(end).position(position).completed(completed)
+            .updatedAt(LocalDateTime.now())
+            .build();
+    }
+
+    @Test
+    void dailyAccrual_shouldRoundToTheCent() {
+        assertThat(InterestAccrualJob.dailyAccrual(1000, 0.01, 0.1)).isEqualTo(0.03);
+        assertThat(InterestAccrualJob.dailyAccrual(-1000, 0.01, 0.1)).isEqualTo(-0.27);
+        assertThat(InterestAccrualJob.dailyAccrual(1, 0.01, 0.1)).isZero();
+    }
+}
@@ -0,0 +1,59 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LedgerFormatTest {
+
+    @Test
+    void csv_shouldParseQuotedFieldsAndSkipTheHeader() {
+        assertThat(LedgerFormat.CSV.parse("accountNumber,date,type,amount,currency,balanceAfter,performedBy")).isNull();
+
+        LedgerRecord record = LedgerFormat.CSV.parse(
+            "ACC-1,2019-03-04T10:15:00,transfer,-25.5,EUR,74.5,\"Smith, \"\"Jane\"\"\"");
+
+        assertThat(record).isEqualTo(new LedgerRecord("ACC-1", LocalDateTime.of(2019, 3, 4, 10, 15),
+            OperationType.TRANSFER, -25.5, Currency.EUR, 74.5, "Smith, \"Jane\""));
+        assertThat(record.credit()).isFalse();
+        assertThat(LedgerFormat.CSV.parse("ACC-1,2019-03-04T10:15:00,DEPOSIT,10,EUR,84.5").performedBy())
+            .isEqualTo(LedgerRecord.DEFAULT_PERFORMER);
+    }
+
+    @Test
+    void ndjson_shouldParseOneObjectPerLine() {
+        LedgerRecord record = LedgerFormat.NDJSON.parse("""
+            {"accountNumber":"ACC-2","date":"2020-01-01T00:00:00","type":"FEE","amount":-1.2,\
+            "currency":"USD","balanceAfter":-51.2}""");
+
+        assertThat(record).isEqualTo(new LedgerRecord("ACC-2", LocalDateTime.of(2020, 1, 1, 0, 0),
+            OperationType.FEE, -1.2, Currency.USD, -51.2, LedgerRecord.DEFAULT_PERFORMER));
+    }
+
+    @Test
+    void parse_shouldRejectInvalidRecordsWithTheirReason() {
+        assertThatThrownBy(() -> LedgerFormat.CSV.parse("ACC-1,2019-03-04,DEPOSIT,10,EUR,10"))
+            .hasMessageContaining("invalid date");
+        assertThatThrownBy(() -> LedgerFormat.CSV.parse("ACC-1,2019-03-04T10:15:00,DEPOSIT,-10,EUR,10"))
+            .hasMessage("DEPOSIT amount must be positive");
+        assertThatThrownBy(() -> LedgerFormat.CSV.parse("ACC-1,2019-03-04T10:15:00,REFUND,10,EUR,10"))
+            .hasMessageContaining("invalid type");
+        assertThatThrownBy(() -> LedgerFormat.CSV.parse("ACC-1,\"2019"))
+            .hasMessage("unterminated quoted field");
+        assertThatThrownBy(() -> LedgerFormat.NDJSON.parse("{\"accountNumber\":"))
+            .hasMessageStartingWith("invalid JSON");
+    }
+
+    @Test
+    void of_shouldChooseTheFormatFromTheExtension() {
+        assertThat(LedgerFormat.of(Path.of("ledger.CSV"))).isEqualTo(LedgerFormat.CSV);
+        assertThat(LedgerFormat.of(Path.of("ledger.jsonl"))).isEqualTo(LedgerFormat.NDJSON);
+        assertThatThrownBy(() -> LedgerFormat.of(Path.of("ledger.xlsx"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,40 @@
+package org.itinov.bankApp.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerLineReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void next_shouldReturnEachLineWithTheOffsetAfterIt() throws Exception {
+        String longLine = "x".repeat(200_000);
+        Path file = Files.writeString(dir.resolve("ledger.csv"), "é1\r\n" + longLine + "\n\nlast", StandardCharsets.UTF_8);
+
+        try (LedgerLineReader reader = new LedgerLineReader(file, 0)) {
+            assertThat(reader.next()).isEqualTo(new LedgerLineReader.Line("é1", 5));
+            assertThat(reader.next()).isEqualTo(new LedgerLineReader.Line(longLine, 200_006));
+            assertThat(reader.next()).isEqualTo(new LedgerLineReader.Line("", 200_007));
+            assertThat(reader.next()).isEqualTo(new LedgerLineReader.Line("last", 200_011));
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void reader_shouldResumeFromAnOffset() throws Exception {
+        Path file = Files.writeString(dir.resolve("ledger.csv"), "first\nsecond\n");
+
+        try (LedgerLineReader reader = new LedgerLineReader(file, 6)) {
+            assertThat(reader.next()).isEqualTo(new LedgerLineReader.Line("second", 13));
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.batch.ReconciliationJob.Mode;
+import org.itinov.bankApp.batch.ReconciliationResult.Drift;
+import org.itinov.bankApp.batch.ReconciliationResult.DriftKind;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.ReconciliationCheckpointRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.service.BankService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.reconciliation.account-page-size=2",
+    "bank.reconciliation.transaction-page-size=1",
+    "bank.reconciliation.max-reported-drifts=100000",
+    "bank.split-balance.accounts=ACC-JANE-001"
+})
+class ReconciliationJobIT {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Autowired
+    ReconciliationJob job;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    ReconciliationCheckpointRepository checkpointRepository;
+    @Autowired
+    AccountBalanceSlotRepository slotRepository;
+    @Autowired
+    BankService bankService;
+    @Autowired
+    JwtDecoder jwtDecoder;
+
+    CustomerEntity customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(CustomerEntity.builder()
+            .name("Recon").email("recon@example.com").keycloakId("kc-recon-" + System.nanoTime()).build());
+    }
+
+    private AccountEntity account(double balance) {
+        return accountRepository.save(AccountEntity.builder()
+            .number("ACC-RECON-" + System.nanoTime()).balance(balance).overdraftLimit(0)
+            .currency(Currency.EUR).customer(customer).build());
+    }
+
+    private TransactionEntity tx(AccountEntity account, int day, OperationType type, double amount, double after) {
+        return tx(account, day, type, type == OperationType.DEPOSIT || type == OperationType.INTEREST, amount, after);
+    }
+
+    private TransactionEntity tx(AccountEntity account, int day, OperationType type, boolean credit, double amount,
+                                 double after) {
+        return transactionRepository.save(TransactionEntity.builder()
+            .account(account).date(DAY.plusDays(day)).type(type).credit(credit).amount(amount).balanceAfter(after)
+            .currency(Currency.EUR).performedBy("it").build());
+    }
+
+    private List<Drift> driftsOf(ReconciliationResult result, AccountEntity account) {
+        return result.drifts().stream().filter(d -> d.accountId() == account.getId()).toList();
+    }
+
+    @Test
+    @DisplayName("Full run reports broken chains and balance mismatches, and checkpoints consistent accounts")
+    void fullRun_shouldReportDrifts() {
+        AccountEntity consistent = account(130);
+        tx(consistent, 0, OperationType.DEPOSIT, 100, 100);
+        tx(consistent, 1, OperationType.WITHDRAWAL, 20, 80);
+        TransactionEntity last = tx(consistent, 2, OperationType.TRANSFER, true, 50, 130);
+
+        AccountEntity brokenChain = account(70);
+        tx(brokenChain, 0, OperationType.DEPOSIT, 100, 100);
+        TransactionEntity broken = tx(brokenChain, 1, OperationType.WITHDRAWAL, 20, 90);
+        tx(brokenChain, 2, OperationType.WITHDRAWAL, 20, 70);
+
+        AccountEntity wrongBalance = account(60);
+        TransactionEntity only = tx(wrongBalance, 0, OperationType.DEPOSIT, 50, 50);
+
+        ReconciliationResult result = job.run(Mode.FULL);
+
+        assertThat(result.report().items()).isGreaterThanOrEqualTo(7);
+        assertThat(driftsOf(result, consistent)).isEmpty();
+        assertThat(driftsOf(result, brokenChain)).containsExactly(
+            new Drift(brokenChain.getId(), broken.getId(), DriftKind.CHAIN, 80, 90));
+        assertThat(driftsOf(result, wrongBalance)).containsExactly(
+            new Drift(wrongBalance.getId(), only.getId(), DriftKind.BALANCE, 50, 60));
+        assertThat(checkpointRepository.findById(consistent.getId())).hasValueSatisfying(
+            checkpoint -> assertThat(checkpoint.getLastTransactionId()).isEqualTo(last.getId()));
+        assertThat(checkpointRepository.findById(brokenChain.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Incremental run only walks transactions after the checkpoint")
+    void incrementalRun_shouldResumeFromCheckpoint() {
+        AccountEntity account = account(80);
+        TransactionEntity first = tx(account, 0, OperationType.DEPOSIT, 100, 100);
+        TransactionEntity fee = tx(account, 1, OperationType.FEE, 20, 80);
+        job.run(Mode.FULL);
+
+        // an old row altered after it was verified is out of the incremental window
+        first.setBalanceAfter(999);
+        transactionRepository.save(first);
+        TransactionEntity interest = tx(account, 2, OperationType.INTEREST, 10, 90);
+        account = accountRepository.findById(account.getId()).orElseThrow();
+        account.setBalance(90);
+        accountRepository.save(account);
+
+        ReconciliationResult incremental = job.run(Mode.INCREMENTAL);
+
+        assertThat(driftsOf(incremental, account)).isEmpty();
+        assertThat(checkpointRepository.findById(account.getId())).hasValueSatisfying(
+            checkpoint -> {
+                assertThat(checkpoint.getLastTransactionId()).isEqualTo(interest.getId());
+                assertThat(checkpoint.getLastBalanceAfter()).isEqualTo(90);
+            });
+
+        // a full run walks the whole chain again: the fee no longer follows the altered deposit
+        assertThat(driftsOf(job.run(Mode.FULL), account)).containsExactly(
+            new Drift(account.getId(), fee.getId(), DriftKind.CHAIN, 979, 80));
+    }
+
+    @Test
+    @DisplayName("Concurrent deposits on a split account reconcile against its balance plus slots")
+    void concurrentSplitDeposits_shouldNotDrift() throws Exception {
+        AccountEntity hot = accountRepository.findByNumber("ACC-JANE-001").orElseThrow();
+        assertThat(hot.isSplitBalance()).isTrue();
+        double opening = hot.getBalance() + slotRepository.sumByAccountId(hot.getId());
+        int deposits = 40;
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < deposits; i++) {
+                futures.add(pool.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                        new JwtAuthenticationToken(jwtDecoder.decode("jane-token")));
+                    try {
+                        return bankService.deposit(hot.getId(), 5, "collector");
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        ReconciliationResult result = job.run(Mode.FULL);
+
+        assertThat(driftsOf(result, hot)).isEmpty();
+        assertThat(checkpointRepository.findById(hot.getId())).hasValueSatisfying(
+            checkpoint -> assertThat(checkpoint.getLastBalanceAfter()).isEqualTo(opening + deposits * 5));
+    }
+}
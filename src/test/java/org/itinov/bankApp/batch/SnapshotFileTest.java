@@ -0,0 +1,106 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.batch.SnapshotFile.RowGroup;
+import org.itinov.bankApp.batch.SnapshotFile.TableIndex;
+import org.itinov.bankApp.batch.SnapshotTable.Column;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    static final List<Column> COLUMNS = List.of(
+        new Column("id", ColumnType.LONG), new Column("slot", ColumnType.INT), new Column("amount", ColumnType.DOUBLE),
+        new Column("label", ColumnType.STRING), new Column("at", ColumnType.TIMESTAMP),
+        new Column("day", ColumnType.DATE));
+
+    @Test
+    void shouldReadBackEveryColumnTypeWithNulls() throws Exception {
+        Object[][] first = {
+            {5L, null, Long.MIN_VALUE + 1, Long.MAX_VALUE},
+            {0, -7, null, Integer.MAX_VALUE},
+            {0.1, -250.75, Double.MAX_VALUE, 0.0},
+            {"EUR", null, "Jérôme 💶", "EUR"},
+            {LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_789), null,
+                LocalDateTime.of(1969, 12, 31, 0, 0), LocalDateTime.of(2100, 1, 1, 12, 0)},
+            {LocalDate.of(2024, 1, 1), LocalDate.of(1900, 6, 15), null, LocalDate.of(2024, 1, 2)}
+        };
+        Object[][] second = {{42L}, {1}, {3.5}, {""}, {null}, {null}};
+        Path file = dir.resolve("state.bsnap");
+
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file)) {
+            writer.beginTable("values", COLUMNS);
+            writer.write(new RowGroup(4, first));
+            writer.write(new RowGroup(1, second));
+            writer.beginTable("empty", COLUMNS.subList(0, 1));
+        }
+
+        try (SnapshotFile.Reader reader = new SnapshotFile.Reader(file)) {
+            assertThat(reader.tables()).extracting(TableIndex::tableName).containsExactly("values", "empty");
+            TableIndex values = reader.tables().getFirst();
+            assertThat(values.columns()).isEqualTo(COLUMNS);
+            assertThat(values.rows()).isEqualTo(5);
+            // les groupes se relisent dans n'importe quel ordre
+            assertThat(reader.read(values, values.groups().get(1)).columns()).isDeepEqualTo(second);
+            assertThat(reader.read(values, values.groups().get(0)).columns()).isDeepEqualTo(first);
+            assertThat(reader.tables().get(1).groups()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldCompressRepetitiveColumns() throws Exception {
+        int rows = 10_000;
+        Object[][] columns = new Object[COLUMNS.size()][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = 1_000_000L + i;
+            columns[1][i] = i % 16;
+            columns[2][i] = (double) (i % 100);
+            columns[3][i] = i % 3 == 0 ? "DEPOSIT" : "WITHDRAWAL";
+            columns[4][i] = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i);
+            columns[5][i] = LocalDate.of(2025, 1, 1).plusDays(i / 100);
+        }
+        Path file = dir.resolve("large.bsnap");
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file)) {
+            writer.beginTable("values", COLUMNS);
+            writer.write(new RowGroup(rows, columns));
+        }
+
+        // 6 colonnes de 10 000 lignes : plus de 300 Ko en lignes brutes
+        assertThat(Files.size(file)).isLessThan(40_000);
+        try (SnapshotFile.Reader reader = new SnapshotFile.Reader(file)) {
+            TableIndex table = reader.tables().getFirst();
+            assertThat(reader.read(table, table.groups().getFirst()).columns()).isDeepEqualTo(columns);
+        }
+    }
+
+    @Test
+    void shouldRejectOtherFiles() throws Exception {
+        Path notASnapshot = Files.writeString(dir.resolve("ledger.csv"), "accountNumber,date,type,amount\n");
+        assertThatThrownBy(() -> new SnapshotFile.Reader(notASnapshot))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Not a bank snapshot: ledger.csv");
+
+        Path file = dir.resolve("truncated.bsnap");
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file)) {
+            writer.beginTable("values", COLUMNS.subList(0, 1));
+            writer.write(new RowGroup(1, new Object[][]{{1L}}));
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThatThrownBy(() -> new SnapshotFile.Reader(file))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Truncated bank snapshot: truncated.bsnap");
+    }
+}
@@ -0,0 +1,105 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Saves and restores the demo data of its own in-memory database, emptied between the two.
+ */
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:statesnapshot;DB_CLOSE_DELAY=-1",
+    "bank.standing-orders.enabled=false",
+    "bank.snapshot.row-group-size=7",
+    "bank.snapshot.batch-size=4",
+    "bank.snapshot.parallelism=3"
+})
+class StateSnapshotJobIT {
+
+    @Autowired
+    StateSnapshotJob job;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("A saved snapshot restores every row into an empty database and moves the sequences past them")
+    void saveThenRestore_shouldRecreateTheSameState() {
+        long accountId = jdbc.queryForObject("select min(id) from account_entity", Long.class);
+        jdbc.update("""
+            insert into account_balance_slot_entity (id, account_id, slot, balance, transaction_count, total_deposits,
+                                                     total_transfers_in, last_activity_at)
+            values (1000, ?, 0, 0, 0, 0, 0, null)""", accountId);
+        Map<SnapshotTable, List<Map<String, Object>>> before = readAll();
+        long rows = before.values().stream().mapToLong(List::size).sum();
+
+        SnapshotResult saved = job.save(dir.resolve("state.bsnap"));
+
+        assertThat(saved.report().items()).isEqualTo(rows);
+        assertThat(saved.report().partitions()).isGreaterThan(SnapshotTable.values().length);
+        assertThat(saved.bytes()).isEqualTo(fileSize(saved.file()));
+        assertThat(dir.resolve("state.bsnap.tmp")).doesNotExist();
+        assertThatThrownBy(() -> job.restore(saved.file()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("A snapshot can only be restored into an empty database");
+
+        List<SnapshotTable> tables = Arrays.asList(SnapshotTable.values());
+        tables.reversed().forEach(table -> jdbc.update("delete from " + table.tableName()));
+        BatchReport restored = job.restore(saved.file());
+
+        assertThat(restored.items()).isEqualTo(rows);
+        assertThat(readAll()).isEqualTo(before);
+        long maxTransactionId = jdbc.queryForObject("select max(id) from transaction_entity", Long.class);
+        assertThat(jdbc.queryForObject("select next value for transaction_entity_seq", Long.class))
+            .isEqualTo(maxTransactionId + 50);
+        assertThat(jdbc.queryForObject("select next value for account_balance_slot_entity_seq", Long.class))
+            .isEqualTo(1050);
+        CustomerEntity created = customerRepository.save(CustomerEntity.builder().name("After restore").build());
+        assertThat(created.getId()).isGreaterThan(jdbc.queryForObject(
+            "select max(id) from customer_entity where id <> ?", Long.class, created.getId()));
+    }
+
+    @Test
+    void save_shouldStayInsideTheSnapshotDirectory() {
+        assertThatThrownBy(() -> job.save("../state.bsnap"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("The snapshot must be inside the snapshot directory");
+    }
+
+    private Map<SnapshotTable, List<Map<String, Object>>> readAll() {
+        return Arrays.stream(SnapshotTable.values())
+            .collect(Collectors.toMap(table -> table, table -> jdbc.queryForList(table.selectSql())));
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.itinov.bankApp.batch;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.JobCheckpointEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountActivityRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.JobCheckpointRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.transaction-import.chunk-size=2",
+    "bank.transaction-import.parallelism=2"
+})
+class TransactionImportJobIT {
+
+    @Autowired
+    TransactionImportJob job;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    JobCheckpointRepository checkpointRepository;
+    @Autowired
+    BalanceSnapshotRepository snapshotRepository;
+    @Autowired
+    AccountActivityRepository activityRepository;
+
+    @TempDir
+    Path dir;
+
+    AccountEntity account;
+
+    @BeforeEach
+    void setUp() {
+        CustomerEntity customer = customerRepository.save(CustomerEntity.builder()
+            .name("Import").email("import@example.com").keycloakId("kc-import-" + System.nanoTime()).build());
+        account = accountRepository.save(AccountEntity.builder()
+            .number("ACC-IMPORT-" + System.nanoTime()).balance(500).overdraftLimit(-100)
+            .currency(Currency.EUR).customer(customer).build());
+    }
+
+    private String ledger() {
+        String n = account.getNumber();
+        return String.join("\n",
+            "accountNumber,date,type,amount,currency,balanceAfter,performedBy",
+            n + ",2015-06-01T09:00:00,DEPOSIT,300,EUR,300,legacy",
+            n + ",2015-06-01T17:00:00,TRANSFER,-50,EUR,250,legacy",
+            "ACC-UNKNOWN,2015-06-01T18:00:00,DEPOSIT,10,EUR,10,legacy",
+            n + ",2015-06-02T08:00:00,WITHDRAWAL,abc,EUR,200,legacy",
+            "",
+            n + ",2015-06-02T10:00:00,TRANSFER,20,EUR,270,legacy",
+            n + ",2015-06-02T11:00:00,DEPOSIT,5,USD,275,legacy") + "\n";
+    }
+
+    @Test
+    @DisplayName("Imports valid lines chunk by chunk with snapshots and counters, and reports the rejected ones")
+    void run_shouldImportValidLinesAndRejectTheOthers() throws Exception {
+        Path file = Files.writeString(dir.resolve("ledger.csv"), ledger());
+
+        ImportResult result = job.run(file);
+
+        assertThat(result.report().items()).isEqualTo(8);
+        assertThat(result.report().written()).isEqualTo(3);
+        assertThat(result.rejectedCount()).isEqualTo(3);
+        assertThat(result.rejections()).extracting(ImportResult.Rejection::reason).containsExactly(
+            "unknown account ACC-UNKNOWN", "invalid amount 'abc'", "currency USD does not match the account currency EUR");
+
+        assertThat(transactionRepository.findByAccountIdOrderByDateDesc(account.getId()))
+            .extracting(TransactionEntity::getType, TransactionEntity::getAmount, TransactionEntity::getPerformedBy)
+            .containsExactly(
+                org.assertj.core.groups.Tuple.tuple(OperationType.TRANSFER, 20.0, "legacy"),
+                org.assertj.core.groups.Tuple.tuple(OperationType.TRANSFER, 50.0, "legacy"),
+                org.assertj.core.groups.Tuple.tuple(OperationType.DEPOSIT, 300.0, "legacy"));
+        // imported history does not move the current balance
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(500);
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(account.getId(), LocalDate.of(2015, 6, 1)))
+            .hasValueSatisfying(snapshot -> assertThat(snapshot.getClosingBalance()).isEqualTo(250));
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(account.getId(), LocalDate.of(2015, 6, 2)))
+            .hasValueSatisfying(snapshot -> assertThat(snapshot.getClosingBalance()).isEqualTo(270));
+        assertThat(activityRepository.findById(account.getId())).hasValueSatisfying(activity -> {
+            assertThat(activity.getTransactionCount()).isEqualTo(3);
+            assertThat(activity.getTotalDeposits()).isEqualTo(300);
+            assertThat(activity.getTotalTransfersOut()).isEqualTo(50);
+            assertThat(activity.getTotalTransfersIn()).isEqualTo(20);
+            assertThat(activity.getLastActivityAt()).isEqualTo(LocalDateTime.of(2015, 6, 2, 10, 0));
+        });
+
+        // the file is completed: importing it again writes nothing
+        ImportResult again = job.run(file);
+        assertThat(again.report().partitions()).isZero();
+        assertThat(again.report().written()).isZero();
+        assertThat(transactionRepository.findByAccountIdOrderByDateDesc(account.getId())).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("An interrupted import resumes after the last committed chunk")
+    void run_shouldResumeFromCheckpoint() throws Exception {
+        String content = ledger();
+        Path file = Files.writeString(dir.resolve("resumed.csv"), content);
+        // a previous attempt committed the header and the first deposit, then stopped
+        long offset = content.indexOf("\n", content.indexOf("\n") + 1) + 1;
+        checkpointRepository.save(JobCheckpointEntity.builder()
+            .jobName(TransactionImportJob.JOB_NAME)
+            .runKey("resumed.csv:" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis())
+            .partitionStart(0).partitionEnd(Long.MAX_VALUE).position(offset)
+            .updatedAt(LocalDateTime.now())
+            .build());
+
+        ImportResult result = job.run(file);
+
+        assertThat(result.report().items()).isEqualTo(6);
+        assertThat(transactionRepository.findByAccountIdOrderByDateDesc(account.getId()))
+            .extracting(TransactionEntity::getAmount).containsExactly(20.0, 50.0);
+        assertThat(checkpointRepository.findByJobNameAndRunKeyOrderByPartitionStartAsc(TransactionImportJob.JOB_NAME,
+            result.report().runKey())).allMatch(JobCheckpointEntity::isCompleted);
+    }
+
+    @Test
+    void importFile_shouldOnlyReadTheImportDirectory() {
+        assertThatThrownBy(() -> job.importFile("../pom.xml")).isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("The file must be inside the import directory");
+        assertThatThrownBy(() -> job.importFile("missing.csv")).isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Import file not found: missing.csv");
+    }
+}
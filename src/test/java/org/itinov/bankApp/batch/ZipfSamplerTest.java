@@ -0,0 +1,56 @@
+package org.itinov.bankApp.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfSamplerTest {
+
+    @Test
+    void sample_shouldFollowTheZipfLaw() {
+        int n = 1000;
+        double exponent = 1.1;
+        ZipfSampler sampler = new ZipfSampler(n, exponent);
+        SplittableRandom random = new SplittableRandom(7);
+        int draws = 1_000_000;
+        long[] counts = new long[n + 1];
+        for (int i = 0; i < draws; i++) {
+            int rank = sampler.sample(random);
+            assertThat(rank).isBetween(1, n);
+            counts[rank]++;
+        }
+
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += Math.pow(k, -exponent);
+        }
+        for (int k : new int[]{1, 2, 10, 100}) {
+            double expected = Math.pow(k, -exponent) / harmonic;
+            assertThat((double) counts[k] / draws).isCloseTo(expected, within(expected * 0.05));
+        }
+    }
+
+    @Test
+    void sample_shouldBeReproducibleWithTheSameSeed() {
+        ZipfSampler sampler = new ZipfSampler(3_000_000, 1.0);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sampler.sample(first)).isEqualTo(sampler.sample(second));
+        }
+    }
+
+    @Test
+    void coprimeStride_shouldPermuteTheAccounts() {
+        int n = 3000;
+        long stride = DataGenerator.coprimeStride(n);
+        boolean[] seen = new boolean[n];
+        for (long rank = 0; rank < n; rank++) {
+            seen[(int) (rank * stride % n)] = true;
+        }
+        assertThat(seen).doesNotContain(false);
+    }
+}
@@ -0,0 +1,45 @@
+package org.itinov.bankApp.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Child process of {@link DurableStorageBenchmark}: posts deposits of 1 on a single account of a durable database,
+ * one transaction each, and prints the number of committed deposits after every commit until it gets killed.
+ */
+class CrashingWriter {
+
+    public static void main(String[] args) throws Exception {
+        try (Connection connection = DriverManager.getConnection(args[0], "sa", "password")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("runscript from 'classpath:/db/schema-h2.sql'");
+                statement.execute("insert into customer_entity (id, keycloak_id, name, email) "
+                    + "values (1, 'kc-crash', 'Crash', 'crash@example.com')");
+                statement.execute("insert into account_entity (id, version, number, balance, overdraft_limit, "
+                    + "balance_slots, currency, customer_id) values (1, 0, 'ACC-CRASH', 0, 0, 0, 'EUR', 1)");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("""
+                     insert into transaction_entity (id, date, amount, type, currency, performed_by, balance_after,
+                                                     credit, approximate_balance, account_id)
+                     values (?, ?, 1, 'DEPOSIT', 'EUR', 'crash', ?, true, false, 1)""");
+                 PreparedStatement update = connection.prepareStatement(
+                     "update account_entity set balance = ?, version = version + 1 where id = 1")) {
+                for (long committed = 1; ; committed++) {
+                    insert.setLong(1, committed);
+                    insert.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    insert.setDouble(3, committed);
+                    insert.executeUpdate();
+                    update.setDouble(1, committed);
+                    update.executeUpdate();
+                    connection.commit();
+                    System.out.println(committed);
+                }
+            }
+        }
+    }
+}
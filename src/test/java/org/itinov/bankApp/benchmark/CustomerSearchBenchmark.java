@@ -0,0 +1,94 @@
+package org.itinov.bankApp.benchmark;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.service.CustomerService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the customer typeahead search served by the in-memory prefix index.
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ * The number of customers can be changed with {@code -Dbenchmark.customers=...}.
+ */
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.customer-directory.refresh-interval=100ms"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerSearchBenchmark {
+
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 1_000_000);
+    private static final int ITERATIONS = 2_000;
+    private static final String[] FIRST_NAMES = {"Jane", "John", "Élodie", "Marc", "Amina", "Lucas", "Chloé", "Noah"};
+    private static final String[] LAST_NAMES = {"Smith", "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Petit"};
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    CustomerService customerService;
+
+    @BeforeAll
+    void loadDataset() throws InterruptedException {
+        // ids far above the sequence: nothing else inserts customers in the benchmark JVM
+        long firstId = 1_000_000_000L;
+        Random random = new Random(7);
+        List<Object[]> batch = new ArrayList<>();
+        String lastName = null;
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + i;
+            lastName = last;
+            batch.add(new Object[]{firstId + i, "kc-bench-" + i, first + " " + last,
+                (first + "." + last + "@example.com").toLowerCase()});
+            if (batch.size() == 10_000 || i == CUSTOMERS - 1) {
+                jdbc.batchUpdate("insert into customer_entity (id, keycloak_id, name, email) values (?, ?, ?, ?)",
+                    batch);
+                batch.clear();
+            }
+        }
+        // the directory picks the new customers up on its next refresh
+        while (customerService.searchCustomers(lastName, 1).isEmpty()) {
+            Thread.sleep(200);
+        }
+    }
+
+    @Test
+    void typeahead() {
+        measure("1 char", "j");
+        measure("3 chars", "elo");
+        measure("word", "smith12");
+        measure("email", "jane.martin4");
+    }
+
+    private void measure(String name, String prefix) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            customerService.searchCustomers(prefix, 10);
+        }
+        long[] nanos = new long[ITERATIONS];
+        List<Customer> result = List.of();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            result = customerService.searchCustomers(prefix, 10);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        assertThat(result).as("results of '%s'", prefix).isNotEmpty();
+        System.out.printf("%-8s '%s' results=%2d p50=%6.3f ms p95=%6.3f ms p99=%6.3f ms (%d customers)%n", name,
+            prefix, result.size(), nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 95 / 100] / 1e6,
+            nanos[ITERATIONS * 99 / 100] / 1e6, CUSTOMERS);
+    }
+}
@@ -0,0 +1,199 @@
+package org.itinov.bankApp.benchmark;
+
+import org.itinov.bankApp.BankApplication;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.service.BankService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Durable write throughput of deposits and transfers with the {@code durable} profile (H2 on disk), and recovery
+ * after the writing process is killed with SIGKILL.
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ * The number of operations per thread can be changed with {@code -Dbenchmark.operations=...}.
+ */
+@Import(JwtTestConfig.class)
+@ActiveProfiles("durable")
+@SpringBootTest(properties = "bank.standing-orders.enabled=false")
+class DurableStorageBenchmark {
+
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 2_000);
+    private static final int THREADS = 4;
+    private static final int KILL_AFTER = 2_000;
+    private static final Path DATA = createTempDirectory("bank-durable");
+
+    @Autowired
+    BankService bankService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    JwtDecoder jwtDecoder;
+    @Autowired
+    Environment environment;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("bank.storage.directory", DATA::toString);
+    }
+
+    @Test
+    void durableWrites() throws Exception {
+        // the test token authenticates Jane, who must own the accounts
+        CustomerEntity jane = customerRepository.findByKeycloakId("11111111-1111-1111-1111-111111111111")
+            .orElseThrow();
+        List<AccountEntity> accounts = accountRepository.saveAll(IntStream.range(0, 2 * THREADS)
+            .mapToObj(i -> AccountEntity.builder().number("ACC-DURABLE-" + i).currency(Currency.EUR)
+                .balance(1_000_000).customer(jane).build())
+            .toList());
+
+        measure("deposit", 1, i -> bankService.deposit(accounts.get(0).getId(), 10, "bench"));
+        measure("transfer", 1, i -> bankService.transfer(accounts.get(0).getId(), accounts.get(1).getId(), 1,
+            "bench"));
+        measure("deposit", THREADS, i -> bankService.deposit(accounts.get((int) (i % THREADS)).getId(), 10, "bench"));
+        measure("transfer", THREADS, i -> {
+            int pair = (int) (i % THREADS);
+            bankService.transfer(accounts.get(2 * pair).getId(), accounts.get(2 * pair + 1).getId(), 1, "bench");
+        });
+    }
+
+    @Test
+    void recoveryAfterKill() throws Exception {
+        Path crashed = Files.createTempDirectory("bank-crash");
+        String url = environment.getRequiredProperty("spring.datasource.url").replace(DATA.toString(),
+            crashed.toString());
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process writer = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            CrashingWriter.class.getName(), url)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        long acknowledged = 0;
+        try (BufferedReader out = new BufferedReader(
+            new InputStreamReader(writer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (acknowledged < KILL_AFTER && (line = out.readLine()) != null) {
+                acknowledged = Long.parseLong(line);
+            }
+            // kill -9 : aucun arrêt propre de la base
+            writer.destroyForcibly().waitFor();
+        }
+        assertThat(acknowledged).isEqualTo(KILL_AFTER);
+
+        long start = System.nanoTime();
+        long transactions;
+        double balance;
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select (select count(*) from transaction_entity), "
+                 + "(select balance from account_entity where id = 1)")) {
+            rs.next();
+            transactions = rs.getLong(1);
+            balance = rs.getDouble(2);
+        }
+        long databaseNanos = System.nanoTime() - start;
+        // every acknowledged commit survived, with the balance matching its transactions
+        assertThat(transactions).isGreaterThanOrEqualTo(acknowledged);
+        assertThat(balance).isEqualTo(transactions);
+
+        start = System.nanoTime();
+        try (ConfigurableApplicationContext restarted = new SpringApplicationBuilder(BankApplication.class,
+            JwtTestConfig.class)
+            .profiles("durable")
+            .properties("bank.storage.directory=" + crashed, "server.port=0", "bank.standing-orders.enabled=false")
+            .run()) {
+            assertThat(restarted.getBean(AccountRepository.class).findById(1L)).isPresent();
+        }
+        System.out.printf("recovery after kill -9: %d acknowledged, %d recovered, database open %.1f ms, "
+                + "application ready %.0f ms%n", acknowledged, transactions, databaseNanos / 1e6,
+            (System.nanoTime() - start) / 1e6);
+    }
+
+    private void measure(String name, int threads, LongConsumer operation) throws Exception {
+        int warmup = OPERATIONS / 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runOn(executor, threads, warmup, operation, new long[threads * warmup]);
+            long[] nanos = new long[threads * OPERATIONS];
+            long start = System.nanoTime();
+            runOn(executor, threads, OPERATIONS, operation, nanos);
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(nanos);
+            System.out.printf("%-8s threads=%d %7.0f ops/s p50=%6.3f ms p99=%6.3f ms (%d operations)%n", name,
+                threads, nanos.length / (elapsed / 1e9), nanos[nanos.length / 2] / 1e6,
+                nanos[nanos.length * 99 / 100] / 1e6, nanos.length);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void runOn(ExecutorService executor, int threads, int operations, LongConsumer operation, long[] nanos)
+        throws Exception {
+        JwtAuthenticationToken authentication = new JwtAuthenticationToken(jwtDecoder.decode("bench"));
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                try {
+                    for (int i = 0; i < operations; i++) {
+                        long start = System.nanoTime();
+                        operation.accept(thread + (long) i * threads);
+                        nanos[thread * operations + i] = System.nanoTime() - start;
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    private static Path createTempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
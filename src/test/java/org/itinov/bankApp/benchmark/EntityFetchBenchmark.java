@@ -0,0 +1,162 @@
+package org.itinov.bankApp.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.stat.Statistics;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.service.BankService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statements and entity loads per operation, and cost of a flush with many managed entities: the figures that
+ * Hibernate's bytecode enhancement (dirty tracking, lazy associations) improves.
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ * The number of managed entities can be changed with {@code -Dbenchmark.managed=...}.
+ */
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EntityFetchBenchmark {
+
+    private static final int MANAGED = Integer.getInteger("benchmark.managed", 20_000);
+    private static final int HISTORY = 200;
+    private static final int ITERATIONS = 200;
+    private static final int FLUSHES = 100;
+
+    @Autowired
+    BankService bankService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JwtDecoder jwtDecoder;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    EntityManager entityManager;
+
+    Statistics statistics;
+    AccountEntity from;
+    AccountEntity to;
+    AccountEntity large;
+
+    @BeforeAll
+    void loadDataset() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // the test token authenticates Jane, who must own the accounts
+        CustomerEntity jane = customerRepository.findByKeycloakId("11111111-1111-1111-1111-111111111111")
+            .orElseThrow();
+        from = accountRepository.save(AccountEntity.builder().number("ACC-FETCH-1").currency(Currency.EUR)
+            .balance(1_000_000).customer(jane).build());
+        to = accountRepository.save(AccountEntity.builder().number("ACC-FETCH-2").currency(Currency.EUR)
+            .customer(jane).build());
+        large = accountRepository.save(AccountEntity.builder().number("ACC-FETCH-LARGE").currency(Currency.EUR)
+            .customer(jane).build());
+        insertTransactions(from, 1_000_000_000L, HISTORY);
+        insertTransactions(large, 1_100_000_000L, MANAGED);
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwtDecoder.decode("bench")));
+    }
+
+    @AfterAll
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statementsPerOperation() {
+        System.out.printf("bytecode enhancement: %s%n", from instanceof ManagedEntity);
+        measure("deposit", () -> bankService.deposit(from.getId(), 1, "bench"));
+        measure("transfer", () -> bankService.transfer(from.getId(), to.getId(), 1, "bench"));
+        measure("history", () -> bankService.getTransactionsByAccount(to.getId()));
+        measure("accounts", () -> bankService.getAccountsByCustomer(from.getCustomer().getId()));
+    }
+
+    @Test
+    void flushWithManyManagedEntities() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<TransactionEntity> managed = entityManager.createQuery(
+                    "select t from TransactionEntity t where t.account.id = :id", TransactionEntity.class)
+                .setParameter("id", large.getId())
+                .getResultList();
+            AccountEntity account = entityManager.find(AccountEntity.class, large.getId());
+            for (int i = 0; i < FLUSHES / 10; i++) {
+                account.setBalance(account.getBalance() + 1);
+                entityManager.flush();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < FLUSHES; i++) {
+                account.setBalance(account.getBalance() + 1);
+                entityManager.flush();
+            }
+            System.out.printf("flush    %6.3f ms per flush with %d managed entities, one of them dirty%n",
+                (System.nanoTime() - start) / 1e6 / FLUSHES, managed.size() + 1);
+            status.setRollbackOnly();
+        });
+    }
+
+    private void measure(String name, Runnable operation) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            operation.run();
+        }
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-8s %5.1f statements %5.1f entity loads %5.1f flushed entities %6.3f ms per operation%n",
+            name, (double) statistics.getPrepareStatementCount() / ITERATIONS,
+            (double) statistics.getEntityLoadCount() / ITERATIONS,
+            (double) statistics.getEntityUpdateCount() / ITERATIONS, elapsed / 1e6 / ITERATIONS);
+    }
+
+    private void insertTransactions(AccountEntity account, long firstId, int count) {
+        // ids far above the sequence: nothing else inserts transactions in the benchmark JVM
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[]{firstId + i, Timestamp.valueOf(start.plusMinutes(i)), 1.0, "DEPOSIT", "EUR",
+                "bench", (double) i + 1, true, false, account.getId()});
+            if (batch.size() == 5_000 || i == count - 1) {
+                jdbc.batchUpdate("""
+                    insert into transaction_entity (id, date, amount, type, currency, performed_by, balance_after,
+                        credit, approximate_balance, account_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.itinov.bankApp.benchmark;
+
+import org.itinov.bankApp.infrastructure.security.CachingJwtDecoder;
+import org.itinov.bankApp.infrastructure.security.LocalJwkSource;
+import org.itinov.bankApp.infrastructure.security.StubIssuer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost per request of the access token validation: RS256 signature verification with the keys of a local stub
+ * issuer, against the cache of verified tokens, for clients each reusing their token over many requests.
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JwtVerificationBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    StubIssuer issuer;
+    LocalJwkSource keys;
+    List<String> tokens = new ArrayList<>();
+
+    @BeforeAll
+    void startIssuer(@TempDir Path directory) throws Exception {
+        issuer = new StubIssuer();
+        keys = new LocalJwkSource(directory.resolve("jwks.json"), issuer.jwksUri());
+        keys.refresh();
+        for (int i = 0; i < CLIENTS; i++) {
+            tokens.add(issuer.token(Duration.ofMinutes(30)));
+        }
+    }
+
+    @AfterAll
+    void stopIssuer() {
+        issuer.close();
+    }
+
+    @Test
+    void validationPerRequest() {
+        JwtDecoder verifying = keys.decoder(StubIssuer.ISSUER);
+        measure("signature verified on every request", verifying);
+        measure("verified tokens cached until expiry", new CachingJwtDecoder(verifying, CLIENTS * 2));
+    }
+
+    private void measure(String label, JwtDecoder decoder) {
+        // chauffe : le JIT compile la vérification RSA
+        for (int i = 0; i < 2_000; i++) {
+            decoder.decode(tokens.get(i % CLIENTS));
+        }
+        long start = System.nanoTime();
+        for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+            for (String token : tokens) {
+                decoder.decode(token);
+            }
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / (CLIENTS * REQUESTS_PER_CLIENT);
+        System.out.printf("%-40s %7.1f µs per request%n", label, micros);
+    }
+}
@@ -0,0 +1,119 @@
+package org.itinov.bankApp.benchmark;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+import org.itinov.bankApp.domain.exception.BusinessRejection;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.service.BankService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.function.Supplier;
+
+/**
+ * Cost of rejecting an operation: a new exception filling its stack trace against the shared, stackless
+ * {@link BusinessRejection}, thrown from a stack as deep as a request's, then the overdraft rejection of a withdrawal
+ * through the whole service (proxies, aspects, transaction).
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ */
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = "bank.standing-orders.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RejectionBenchmark {
+
+    // profondeur typique d'une requête : filtres, DispatcherServlet, proxys et aspects
+    private static final int STACK_DEPTH = 150;
+    private static final int THROWS = 200_000;
+    private static final int WITHDRAWALS = 5_000;
+
+    @Autowired
+    BankService bankService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    JwtDecoder jwtDecoder;
+
+    AccountEntity account;
+
+    @BeforeAll
+    void createAccount() {
+        // the test token authenticates Jane, who must own the account
+        CustomerEntity jane = customerRepository.findByKeycloakId("11111111-1111-1111-1111-111111111111")
+            .orElseThrow();
+        account = accountRepository.save(AccountEntity.builder().number("ACC-REJECT-1").currency(Currency.EUR)
+            .balance(10).customer(jane).build());
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwtDecoder.decode("bench")));
+    }
+
+    @AfterAll
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void throwFromADeepStack() {
+        measureThrows("new IllegalArgumentException",
+            () -> new IllegalArgumentException(ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT.message()));
+        measureThrows("shared BusinessRejection", ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT::rejection);
+    }
+
+    @Test
+    void overdraftRejectionThroughTheService() {
+        for (int i = 0; i < WITHDRAWALS / 5; i++) {
+            rejectWithdrawal();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < WITHDRAWALS; i++) {
+            rejectWithdrawal();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / WITHDRAWALS;
+        System.out.printf("overdraft rejection through the service: %.1f µs per withdrawal%n", micros);
+    }
+
+    private void rejectWithdrawal() {
+        try {
+            bankService.withdraw(account.getId(), 1_000, "bench");
+            throw new IllegalStateException("The withdrawal should have been rejected");
+        } catch (BusinessRejection expected) {
+            // rejet attendu
+        }
+    }
+
+    private static void measureThrows(String label, Supplier<RuntimeException> exception) {
+        for (int i = 0; i < THROWS / 5; i++) {
+            throwAt(STACK_DEPTH, exception);
+        }
+        long start = System.nanoTime();
+        long frames = 0;
+        for (int i = 0; i < THROWS; i++) {
+            frames += throwAt(STACK_DEPTH, exception);
+        }
+        double nanos = (double) (System.nanoTime() - start) / THROWS;
+        System.out.printf("%-30s %8.0f ns per throw, %4d frames captured%n", label, nanos, frames / THROWS);
+    }
+
+    private static int throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth > 0) {
+            return throwAt(depth - 1, exception);
+        }
+        try {
+            throw exception.get();
+        } catch (RuntimeException e) {
+            return e.getStackTrace().length;
+        }
+    }
+}
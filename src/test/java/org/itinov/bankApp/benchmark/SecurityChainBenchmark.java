@@ -0,0 +1,134 @@
+package org.itinov.bankApp.benchmark;
+
+import jakarta.servlet.Filter;
+import org.aopalliance.intercept.MethodInvocation;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Overhead of the security filter chain per authenticated request, and of the two steps it used to repeat on every
+ * request: building the authorities from the realm roles, and evaluating the {@code @PreAuthorize} SpEL expression of
+ * the controllers, against the shared authorities and the URL rule.
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ */
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = "bank.standing-orders.enabled=false")
+class SecurityChainBenchmark {
+
+    private static final int REQUESTS = 200_000;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    Filter springSecurityFilterChain;
+    @Autowired
+    JwtAuthenticationConverter jwtAuthenticationConverter;
+    @Autowired
+    JwtDecoder jwtDecoder;
+
+    @Test
+    void filterChainPerRequest() throws Exception {
+        int[] reached = new int[1];
+        // un seul contexte de servlet, comme dans un vrai conteneur
+        MockServletContext servletContext = new MockServletContext();
+        Runnable request = () -> {
+            MockHttpServletRequest servletRequest =
+                new MockHttpServletRequest(servletContext, "GET", "/api/accounts/1/balance");
+            servletRequest.addHeader("Authorization", "Bearer bench-token");
+            try {
+                springSecurityFilterChain.doFilter(servletRequest, new MockHttpServletResponse(),
+                    (req, res) -> reached[0]++);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        measure("security filter chain", request);
+        if (reached[0] == 0) {
+            throw new IllegalStateException("The requests were not authorized");
+        }
+    }
+
+    @Test
+    void authoritiesPerRequest() {
+        Jwt jwt = jwtDecoder.decode("bench-token");
+        JwtAuthenticationConverter legacy = new JwtAuthenticationConverter();
+        legacy.setJwtGrantedAuthoritiesConverter(SecurityChainBenchmark::legacyAuthorities);
+        measure("authentication, authorities per request", () -> legacy.convert(jwt));
+        measure("authentication, shared authorities", () -> jwtAuthenticationConverter.convert(jwt));
+    }
+
+    @Test
+    void authorizationDecisionPerRequest() throws NoSuchMethodException {
+        Authentication authentication = jwtAuthenticationConverter.convert(jwtDecoder.decode("bench-token"));
+        Supplier<Authentication> supplier = () -> authentication;
+        MethodInvocation invocation = new SimpleMethodInvocation(new Guarded(), Guarded.class.getMethod("balance"));
+        PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+        AuthorityAuthorizationManager<Object> role = AuthorityAuthorizationManager.hasRole("customer");
+        measure("@PreAuthorize SpEL expression", () -> check(spel.authorize(supplier, invocation).isGranted()));
+        measure("URL rule, authority manager", () -> check(role.authorize(supplier, invocation).isGranted()));
+    }
+
+    private static void measure(String label, Runnable request) {
+        for (int i = 0; i < REQUESTS / 5; i++) {
+            request.run();
+            SecurityContextHolder.clearContext();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request.run();
+            SecurityContextHolder.clearContext();
+        }
+        double nanos = (double) (System.nanoTime() - start) / REQUESTS;
+        System.out.printf("%-40s %8.0f ns per request%n", label, nanos);
+    }
+
+    private static void check(boolean granted) {
+        if (!granted) {
+            throw new IllegalStateException("Access should have been granted");
+        }
+    }
+
+    /**
+     * The converter the security configuration used before the authorities were shared.
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<GrantedAuthority> legacyAuthorities(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaim("realm_access");
+        if (realmAccess == null || !realmAccess.containsKey("roles")) {
+            return Collections.emptyList();
+        }
+        Collection<String> roles = (Collection<String>) realmAccess.get("roles");
+        return roles.stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .collect(Collectors.toList());
+    }
+
+    static class Guarded {
+        @PreAuthorize("isAuthenticated() and hasRole('customer')")
+        public void balance() {
+        }
+    }
+}
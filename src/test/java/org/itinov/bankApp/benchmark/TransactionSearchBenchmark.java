@@ -0,0 +1,151 @@
+package org.itinov.bankApp.benchmark;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.jdbc.SqlStatistics;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionSpecifications;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the transaction search on a large table, for the filter combinations used by the support screens.
+ * Only run with the {@code benchmark} Maven profile: {@code mvn test -Pbenchmark}.
+ * The table size can be changed with {@code -Dbenchmark.transactions=...}.
+ */
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = "bank.standing-orders.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionSearchBenchmark {
+
+    private static final int TRANSACTIONS = Integer.getInteger("benchmark.transactions", 500_000);
+    private static final int ACCOUNTS = 200;
+    private static final int CUSTOMER_ACCOUNTS = 5;
+    private static final int PAGE = 50;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 300;
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final String[] PERFORMERS = {"Jane Smith", "John Doe", "system:standing-order", "support"};
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    CustomerRepository customerRepository;
+
+    List<Long> customerAccounts;
+
+    @BeforeAll
+    void loadDataset() {
+        CustomerEntity customer = customerRepository.save(CustomerEntity.builder()
+            .name("Bench").email("bench@example.com").keycloakId("kc-bench").build());
+        List<AccountEntity> accounts = accountRepository.saveAll(IntStream.range(0, ACCOUNTS)
+            .mapToObj(i -> AccountEntity.builder().number("ACC-BENCH-" + i).currency(Currency.EUR)
+                .customer(customer).build())
+            .toList());
+        customerAccounts = accounts.subList(0, CUSTOMER_ACCOUNTS).stream().map(AccountEntity::getId).toList();
+
+        // ids far above the sequence: nothing else inserts transactions in the benchmark JVM
+        long firstId = 1_000_000_000L;
+        Random random = new Random(42);
+        OperationType[] types = OperationType.values();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            batch.add(new Object[]{firstId + i,
+                Timestamp.valueOf(START.plusMinutes(random.nextInt(5 * 365 * 24 * 60))),
+                1 + random.nextInt(2000), types[random.nextInt(types.length)].name(), Currency.EUR.name(),
+                PERFORMERS[random.nextInt(PERFORMERS.length)], 0.0, random.nextBoolean(), false,
+                accounts.get(random.nextInt(ACCOUNTS)).getId()});
+            if (batch.size() == 5_000 || i == TRANSACTIONS - 1) {
+                jdbc.batchUpdate("""
+                    insert into transaction_entity (id, date, amount, type, currency, performed_by, balance_after,
+                        credit, approximate_balance, account_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", batch);
+                batch.clear();
+            }
+        }
+        jdbc.execute("analyze table transaction_entity");
+    }
+
+    @Test
+    void search() {
+        report("accounts only", TransactionSpecifications.ofAccounts(customerAccounts));
+        report("type", Specification.allOf(TransactionSpecifications.ofAccounts(customerAccounts),
+            TransactionSpecifications.ofType(OperationType.TRANSFER)));
+        report("performer", Specification.allOf(TransactionSpecifications.ofAccounts(customerAccounts),
+            TransactionSpecifications.performedBy("support")));
+        report("amount range", Specification.allOf(TransactionSpecifications.ofAccounts(customerAccounts),
+            TransactionSpecifications.amountAtLeast(1500), TransactionSpecifications.amountAtMost(1600)));
+        LocalDateTime from = START.plusYears(2);
+        report("date range", Specification.allOf(TransactionSpecifications.ofAccounts(customerAccounts),
+            TransactionSpecifications.dateFrom(from), TransactionSpecifications.dateBefore(from.plusMonths(1))));
+        report("deep page", Specification.allOf(TransactionSpecifications.ofAccounts(customerAccounts),
+            TransactionSpecifications.after(START.plusYears(1), Long.MAX_VALUE)));
+    }
+
+    private void report(String name, Specification<TransactionEntity> spec) {
+        String plan = jdbc.queryForObject("explain " + generatedSql(spec), String.class);
+        assertThat(plan).as("plan of '%s'", name).doesNotContainIgnoringCase("tableScan");
+
+        for (int i = 0; i < WARMUP; i++) {
+            search(spec);
+        }
+        long[] nanos = new long[ITERATIONS];
+        int rows = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            rows = search(spec).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-14s rows=%3d p50=%7.3f ms p95=%7.3f ms p99=%7.3f ms (%d transactions)%n", name, rows,
+            nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 95 / 100] / 1e6, nanos[ITERATIONS * 99 / 100] / 1e6,
+            TRANSACTIONS);
+    }
+
+    /**
+     * Runs the search once while the inspecting data source records the statements of this thread, and returns the
+     * SQL Hibernate generated for it. H2 explains it with its parameters unbound: the plan does not depend on them.
+     */
+    private String generatedSql(Specification<TransactionEntity> spec) {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            search(spec);
+        } finally {
+            SqlStatistics.stop();
+        }
+        Map<String, Integer> statements = statistics.repeatedStatements(0);
+        assertThat(statements).hasSize(1);
+        return statements.keySet().iterator().next();
+    }
+
+    private List<TransactionEntity> search(Specification<TransactionEntity> spec) {
+        return transactionRepository.findBy(spec,
+            q -> q.sortBy(TransactionSpecifications.NEWEST_FIRST).limit(PAGE + 1).all());
+    }
+}
@@ -0,0 +1,72 @@
+package org.itinov.bankApp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedCacheTest {
+
+    @Test
+    void put_shouldEvictAnEntryOnlyWhenAddingAKeyToAFullCache() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("b", 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isEqualTo(3);
+
+        cache.put("c", 4);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("c")).isEqualTo(4);
+    }
+
+    @Test
+    void remove_shouldOnlyRemoveTheExpectedValue() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+
+        cache.remove("a", 2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        cache.remove("a", 1);
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void put_shouldKeepTheBoundUnderConcurrentAdditions() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> largestSizes = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread * 10_000;
+            largestSizes.add(executor.submit(() -> {
+                int largest = 0;
+                for (int i = 0; i < 10_000; i++) {
+                    cache.put(offset + i, i);
+                    largest = Math.max(largest, cache.size());
+                }
+                return largest;
+            }));
+        }
+        executor.shutdown();
+
+        for (Future<Integer> largest : largestSizes) {
+            assertThat(largest.get(30, TimeUnit.SECONDS)).isLessThanOrEqualTo(100);
+        }
+        assertThat(cache.size()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldRejectAnEmptyBound() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    }
+}
@@ -0,0 +1,67 @@
+package org.itinov.bankApp.config;
+
+import org.itinov.bankApp.BankApplication;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.service.BankService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application twice on the same database files with the {@code durable} profile.
+ */
+class DurableStorageIT {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("The durable profile validates the explicit schema and keeps the data across restarts")
+    void dataShouldSurviveARestart() {
+        long accountId;
+        double balance;
+        try (ConfigurableApplicationContext context = start()) {
+            AccountEntity account = context.getBean(AccountRepository.class).findAll().stream()
+                .filter(a -> a.getNumber().equals("ACC-JANE-001"))
+                .findFirst()
+                .orElseThrow();
+            accountId = account.getId();
+            SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(context.getBean(JwtDecoder.class).decode("jane-token")));
+            balance = context.getBean(BankService.class).deposit(accountId, 42, "durable-test").balanceAfter();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertThat(context.getBean(AccountRepository.class).findById(accountId))
+                .hasValueSatisfying(account -> assertThat(account.getBalance()).isEqualTo(balance));
+            assertThat(context.getBean(TransactionRepository.class).findByAccountIdOrderByDateDesc(accountId).getFirst()
+                .getPerformedBy()).isEqualTo("durable-test");
+            // the demo data is only created on the first start
+            assertThat(context.getBean(CustomerRepository.class).count()).isEqualTo(2);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BankApplication.class, JwtTestConfig.class)
+            .profiles("durable")
+            .properties(
+                "bank.storage.directory=" + dir,
+                "server.port=0",
+                "bank.standing-orders.enabled=false")
+            .run();
+    }
+}
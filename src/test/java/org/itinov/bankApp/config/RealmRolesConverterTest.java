@@ -0,0 +1,60 @@
+package org.itinov.bankApp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RealmRolesConverterTest {
+
+    private final RealmRolesConverter converter = new RealmRolesConverter();
+
+    @Test
+    void convert_shouldPrefixTheRealmRoles() {
+        Collection<GrantedAuthority> authorities = converter.convert(jwt(Map.of("roles", List.of("customer", "admin"))));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_customer", "ROLE_admin");
+    }
+
+    @Test
+    void convert_shouldShareTheAuthoritiesOfARoleSet() {
+        // two tokens carrying equal, but distinct, role lists
+        Collection<GrantedAuthority> first = converter.convert(jwt(Map.of("roles", new ArrayList<>(List.of("customer")))));
+        Collection<GrantedAuthority> second = converter.convert(jwt(Map.of("roles", new ArrayList<>(List.of("customer")))));
+        Collection<GrantedAuthority> admin = converter.convert(jwt(Map.of("roles", List.of("admin"))));
+
+        assertThat(second).isSameAs(first);
+        assertThat(admin).isNotSameAs(first);
+        assertThat(converter.roleSets()).isEqualTo(2);
+    }
+
+    @Test
+    void convert_shouldGrantNothingWithoutRealmRoles() {
+        assertThat(converter.convert(jwt(null))).isEmpty();
+        assertThat(converter.convert(jwt(Map.of("other", List.of("customer"))))).isEmpty();
+    }
+
+    @Test
+    void convert_shouldKeepABoundedNumberOfRoleSets() {
+        for (int i = 0; i < RealmRolesConverter.MAX_ROLE_SETS + 10; i++) {
+            converter.convert(jwt(Map.of("roles", List.of("role-" + i))));
+        }
+        assertThat(converter.roleSets()).isEqualTo(RealmRolesConverter.MAX_ROLE_SETS);
+    }
+
+    private static Jwt jwt(Map<String, Object> realmAccess) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .claim("sub", "11111111-1111-1111-1111-111111111111")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(300));
+        return realmAccess != null ? builder.claim("realm_access", realmAccess).build() : builder.build();
+    }
+}
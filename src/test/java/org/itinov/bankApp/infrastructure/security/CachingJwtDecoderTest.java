@@ -0,0 +1,90 @@
+package org.itinov.bankApp.infrastructure.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    private JwtDecoder delegate;
+    private AtomicReference<Instant> now;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setup() {
+        delegate = mock(JwtDecoder.class);
+        now = new AtomicReference<>(NOW);
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(invocation -> now.get());
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        decoder = new CachingJwtDecoder(delegate, 2, clock);
+    }
+
+    @Test
+    void decode_shouldVerifyEachTokenOnlyOnceUntilItExpires() {
+        Jwt jwt = jwt("token-1", NOW.plusSeconds(300));
+        when(delegate.decode("token-1")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-1")).isSameAs(jwt);
+        assertThat(decoder.decode("token-1")).isSameAs(jwt);
+        verify(delegate, times(1)).decode("token-1");
+
+        // served strictly before the expiry, then verified again (and rejected by the delegate)
+        now.set(NOW.plusSeconds(300));
+        when(delegate.decode("token-1")).thenThrow(new BadJwtException("Jwt expired"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("token-1"));
+        verify(delegate, times(2)).decode("token-1");
+    }
+
+    @Test
+    void decode_shouldVerifyAlteredTokensAndNeverCacheFailures() {
+        when(delegate.decode("token-1")).thenReturn(jwt("token-1", NOW.plusSeconds(300)));
+        when(delegate.decode("token-1x")).thenThrow(new BadJwtException("Invalid signature"));
+        decoder.decode("token-1");
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token-1x"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("token-1x"));
+        verify(delegate, times(2)).decode("token-1x");
+        assertThat(decoder.size()).isEqualTo(1);
+    }
+
+    @Test
+    void decode_shouldNotCacheTokensWithoutExpiry() {
+        when(delegate.decode("token-1")).thenReturn(jwt("token-1", null));
+
+        decoder.decode("token-1");
+        decoder.decode("token-1");
+        verify(delegate, times(2)).decode("token-1");
+    }
+
+    @Test
+    void decode_shouldKeepTheCacheBounded() {
+        for (int i = 0; i < 5; i++) {
+            String token = "token-" + i;
+            when(delegate.decode(token)).thenReturn(jwt(token, NOW.plusSeconds(300)));
+            decoder.decode(token);
+        }
+        assertThat(decoder.size()).isEqualTo(2);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+            .header("alg", "RS256")
+            .claim("sub", "11111111-1111-1111-1111-111111111111")
+            .issuedAt(NOW.minusSeconds(10));
+        return expiresAt != null ? builder.expiresAt(expiresAt).build() : builder.build();
+    }
+}
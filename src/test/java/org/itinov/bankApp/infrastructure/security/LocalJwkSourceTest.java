@@ -0,0 +1,115 @@
+package org.itinov.bankApp.infrastructure.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalJwkSourceTest {
+
+    @TempDir
+    Path directory;
+
+    private StubIssuer issuer;
+    private Path file;
+    private LocalJwkSource keys;
+
+    @BeforeEach
+    void setup() throws Exception {
+        issuer = new StubIssuer();
+        file = directory.resolve("keys/jwks.json");
+        keys = new LocalJwkSource(file, issuer.jwksUri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuer.close();
+    }
+
+    @Test
+    void refresh_shouldFetchTheKeysAndSaveThem() throws Exception {
+        assertThat(keys.refresh()).isTrue();
+
+        Jwt jwt = keys.decoder(StubIssuer.ISSUER).decode(issuer.token(Duration.ofMinutes(5)));
+        assertThat(jwt.getSubject()).isEqualTo("11111111-1111-1111-1111-111111111111");
+        assertThat(Files.readString(file)).contains(keys.keys().getKeys().getFirst().getKeyID())
+            .doesNotContain("\"d\"");
+    }
+
+    @Test
+    void load_shouldVerifyTokensWithTheSavedKeysWhileTheIssuerIsDown() throws Exception {
+        keys.refresh();
+        issuer.setAvailable(false);
+
+        LocalJwkSource restarted = new LocalJwkSource(file, issuer.jwksUri());
+        restarted.load();
+        Jwt jwt = restarted.decoder(StubIssuer.ISSUER).decode(issuer.token(Duration.ofMinutes(5)));
+        assertThat(jwt.getClaimAsString("preferred_username")).isEqualTo("jane");
+        assertThat(issuer.keyRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_shouldKeepTheKnownKeysWhenTheIssuerIsDown() throws Exception {
+        keys.refresh();
+        issuer.setAvailable(false);
+
+        assertThat(keys.refresh()).isFalse();
+        assertThat(keys.keys().size()).isEqualTo(1);
+        keys.decoder(StubIssuer.ISSUER).decode(issuer.token(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void get_shouldRefreshOnAnUnknownKeyAtMostOncePerGap() throws Exception {
+        JwtDecoder decoder = keys.decoder(StubIssuer.ISSUER);
+        issuer.setAvailable(false);
+        String token = issuer.token(Duration.ofMinutes(5));
+
+        // the unknown key triggers a refresh, which fails
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        assertThat(keys.backgroundRefresh().get(10, TimeUnit.SECONDS)).isFalse();
+        assertThat(issuer.keyRequests()).isEqualTo(1);
+
+        // the key is still unknown, but the issuer is not called again before the gap is over
+        issuer.setAvailable(true);
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        assertThat(issuer.keyRequests()).isEqualTo(1);
+
+        keys.refresh();
+        decoder.decode(token);
+    }
+
+    @Test
+    void get_shouldRejectAnUnknownKeyWithoutWaitingForTheIssuer() throws Exception {
+        JwtDecoder decoder = keys.decoder(StubIssuer.ISSUER);
+        String token = issuer.token(Duration.ofMinutes(5));
+
+        // the token is rejected at once, and accepted once the refresh it triggered is done
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        assertThat(keys.backgroundRefresh().get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(decoder.decode(token).getSubject()).isEqualTo("11111111-1111-1111-1111-111111111111");
+        assertThat(Files.exists(file)).isTrue();
+    }
+
+    @Test
+    void decoder_shouldRejectTokensOfAnotherIssuerKey() throws Exception {
+        keys.refresh();
+        String token = issuer.token(Duration.ofMinutes(5));
+        issuer.rotateKey();
+        String forged = issuer.token(Duration.ofMinutes(5));
+        JwtDecoder decoder = keys.decoder(StubIssuer.ISSUER);
+
+        decoder.decode(token);
+        assertThrows(JwtException.class, () -> decoder.decode(forged));
+    }
+}
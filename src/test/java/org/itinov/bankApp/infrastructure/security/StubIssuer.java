@@ -0,0 +1,104 @@
+package org.itinov.bankApp.infrastructure.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token issuer publishing its RSA key set over HTTP on a local port, as Keycloak does, and signing tokens for it.
+ */
+public final class StubIssuer implements AutoCloseable {
+
+    public static final String ISSUER = "http://localhost:8081/realms/bank-realm";
+
+    private final HttpServer server;
+    private final AtomicInteger keyRequests = new AtomicInteger();
+    private volatile RSAKey key;
+    private volatile boolean available = true;
+
+    public StubIssuer() throws IOException, JOSEException {
+        rotateKey();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/certs", exchange -> {
+            keyRequests.incrementAndGet();
+            byte[] body = new JWKSet(key).toString(true).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(available ? 200 : 503, available ? body.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (available) {
+                    out.write(body);
+                }
+            }
+        });
+        server.start();
+    }
+
+    public URI jwksUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/certs");
+    }
+
+    /**
+     * @return the number of times the key set was requested
+     */
+    public int keyRequests() {
+        return keyRequests.get();
+    }
+
+    /**
+     * Replaces the signing key by a new one, with another key id.
+     */
+    public void rotateKey() throws JOSEException {
+        key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+    }
+
+    /**
+     * Makes the key set endpoint answer 503, as an issuer that is down.
+     */
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    /**
+     * Signs a token of Jane, a customer, with the current key.
+     */
+    public String token(Duration validity) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer(ISSUER)
+            .subject("11111111-1111-1111-1111-111111111111")
+            .claim("preferred_username", "jane")
+            .claim("realm_access", Map.of("roles", List.of("customer")))
+            .jwtID(UUID.randomUUID().toString())
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plus(validity)))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
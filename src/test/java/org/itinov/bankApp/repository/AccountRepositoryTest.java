@@ -4,15 +4,23 @@ import org.itinov.bankApp.infrastructure.entity.AccountEntity;
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
 import org.itinov.bankApp.domain.enums.Currency;
 import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository.AccountNumber;
 import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.engine.spi.ManagedEntity;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 class AccountRepositoryTest {
@@ -23,6 +31,9 @@ class AccountRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private CustomerEntity createCustomer(String keycloakId) {
         CustomerEntity c = CustomerEntity.builder().name("John Doe").email("john@example.com").keycloakId(keycloakId).build();
         return customerRepository.save(c);
@@ -80,4 +91,70 @@ class AccountRepositoryTest {
         assertThat(found.get().getBalance()).isEqualTo(123.45);
         assertThat(found.get().getCustomer().getId()).isEqualTo(c1.getId());
     }
+
+    @Test
+    void save_shouldRejectStaleVersion() {
+        CustomerEntity c1 = createCustomer("kc-v");
+        AccountEntity created = accountRepository.saveAndFlush(AccountEntity.builder()
+                .number("ACC-V").balance(10).overdraftLimit(0).currency(Currency.EUR).customer(c1).build());
+        Long staleVersion = created.getVersion();
+
+        created.setBalance(20);
+        accountRepository.saveAndFlush(created);
+        assertThat(created.getVersion()).isGreaterThan(staleVersion);
+
+        AccountEntity stale = AccountEntity.builder()
+                .id(created.getId()).version(staleVersion)
+                .number("ACC-V").balance(30).overdraftLimit(0).currency(Currency.EUR).customer(c1).build();
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> accountRepository.saveAndFlush(stale));
+    }
+
+    @Test
+    void findIdByNumber_shouldResolveTheNumber_andNumbersShouldBeUnique() {
+        CustomerEntity c = createCustomer("kc-number");
+        AccountEntity a = createAccount(c, "ACC-UNIQUE", 0);
+
+        assertThat(accountRepository.findIdByNumber("ACC-UNIQUE")).contains(a.getId());
+        assertThat(accountRepository.findIdByNumber("ACC-MISSING")).isEmpty();
+        assertThat(accountRepository.findNumbers(a.getId() - 1, Limit.of(10)))
+            .extracting(AccountNumber::number).contains("ACC-UNIQUE");
+        assertThrows(DataIntegrityViolationException.class,
+            () -> accountRepository.saveAndFlush(AccountEntity.builder().number("ACC-UNIQUE").currency(Currency.EUR)
+                .customer(c).build()));
+    }
+
+    @Test
+    void customer_shouldBeLoadedLazily_unlessTheFetchPlanAsksForIt() {
+        CustomerEntity c = createCustomer("kc-lazy");
+        AccountEntity a = createAccount(c, "ACC-LAZY", 10);
+        entityManager.flush();
+        entityManager.clear();
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        AccountEntity found = accountRepository.findById(a.getId()).orElseThrow();
+        assertThat(found).isInstanceOf(ManagedEntity.class);
+        assertThat(found.getCustomer().getId()).isEqualTo(c.getId());
+        assertThat(util.isLoaded(found.getCustomer())).isFalse();
+        entityManager.clear();
+
+        AccountEntity accountOnly = accountRepository.findAccountById(a.getId()).orElseThrow();
+        assertThat(accountOnly.getCustomer().getId()).isEqualTo(c.getId());
+        assertThat(util.isLoaded(accountOnly.getCustomer())).isFalse();
+        assertThat(util.isLoaded(accountOnly, "transactions")).isFalse();
+        entityManager.clear();
+
+        AccountEntity withCustomer = accountRepository.findWithCustomerById(a.getId()).orElseThrow();
+        assertThat(util.isLoaded(withCustomer.getCustomer())).isTrue();
+        assertThat(util.isLoaded(withCustomer, "transactions")).isFalse();
+        entityManager.clear();
+
+        AccountEntity inList = accountRepository.findWithCustomerByIdIn(List.of(a.getId(), 9999L)).getFirst();
+        assertThat(util.isLoaded(inList.getCustomer())).isTrue();
+        entityManager.clear();
+
+        AccountEntity withGraph = accountRepository.findByCustomerId(c.getId()).getFirst();
+        assertThat(util.isLoaded(withGraph.getCustomer())).isTrue();
+        assertThat(util.isLoaded(withGraph, "transactions")).isTrue();
+        assertThat(accountRepository.findIdsByCustomerId(c.getId())).containsExactly(a.getId());
+    }
 }
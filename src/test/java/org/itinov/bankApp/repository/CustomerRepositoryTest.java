@@ -2,10 +2,13 @@ package org.itinov.bankApp.repository;
 
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
 import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository.DirectoryEntry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,4 +34,30 @@ class CustomerRepositoryTest {
         Optional<CustomerEntity> notFound = customerRepository.findByKeycloakId("unknown-id");
         assertThat(notFound).isNotPresent();
     }
+
+    @Test
+    void keysetQueries_shouldReturnTheCustomersAfterAnIdInIdOrder() {
+        List<CustomerEntity> saved = customerRepository.saveAll(List.of(
+            CustomerEntity.builder().name("Ada").email("ada@example.com").keycloakId("kid-1").build(),
+            CustomerEntity.builder().name("Bob").email("bob@example.com").keycloakId("kid-2").build(),
+            CustomerEntity.builder().name("Cy").email("cy@example.com").keycloakId("kid-3").build()));
+        long first = saved.getFirst().getId();
+
+        assertThat(customerRepository.findByIdGreaterThanOrderByIdAsc(first, Limit.of(1)))
+            .extracting(CustomerEntity::getName).containsExactly("Bob");
+        assertThat(customerRepository.findDirectoryEntries(first - 1, Limit.of(10)))
+            .extracting(DirectoryEntry::name).containsSubsequence("Ada", "Bob", "Cy");
+    }
+
+    @Test
+    void prefixQueries_shouldMatchTheStartOfNameOrEmailIgnoringCase() {
+        customerRepository.saveAll(List.of(
+            CustomerEntity.builder().name("Martin Dupont").email("m.dupont@example.com").keycloakId("kid-4").build(),
+            CustomerEntity.builder().name("Marie Curie").email("curie@example.com").keycloakId("kid-5").build()));
+
+        assertThat(customerRepository.findByNameStartingWithIgnoreCaseOrderByName("mar", Limit.of(10)))
+            .extracting(CustomerEntity::getName).containsExactly("Marie Curie", "Martin Dupont");
+        assertThat(customerRepository.findByEmailStartingWithIgnoreCaseOrderByEmail("M.D", Limit.of(10)))
+            .extracting(CustomerEntity::getName).containsExactly("Martin Dupont");
+    }
 }
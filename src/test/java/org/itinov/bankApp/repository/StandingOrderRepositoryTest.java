@@ -0,0 +1,80 @@
+package org.itinov.bankApp.repository;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.Frequency;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.StandingOrderEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository.DueOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class StandingOrderRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 30, 12, 0);
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private AccountEntity createAccount(String number) {
+        CustomerEntity c = customerRepository.save(
+            CustomerEntity.builder().name("Jane").email("jane@example.com").keycloakId("kc-" + number).build());
+        return accountRepository.save(AccountEntity.builder()
+            .number(number).balance(100).overdraftLimit(0).currency(Currency.EUR).customer(c).build());
+    }
+
+    private StandingOrderEntity createOrder(AccountEntity from, AccountEntity to, LocalDateTime next) {
+        return standingOrderRepository.save(StandingOrderEntity.builder()
+            .fromAccount(from).toAccount(to).amount(10).frequency(Frequency.MONTHLY)
+            .firstExecution(next).nextExecution(next).performedBy("jane").build());
+    }
+
+    @Test
+    void findDue_shouldPageThroughDueOrdersInDueOrder() {
+        AccountEntity a = createAccount("ACC-SO-1");
+        AccountEntity b = createAccount("ACC-SO-2");
+        StandingOrderEntity overdue = createOrder(a, b, NOW.minusDays(3));
+        StandingOrderEntity dueSoon1 = createOrder(a, b, NOW.plusSeconds(10));
+        StandingOrderEntity dueSoon2 = createOrder(b, a, NOW.plusSeconds(10));
+        createOrder(a, b, NOW.plusDays(1));
+        StandingOrderEntity cancelled = createOrder(b, a, NOW.minusDays(1));
+        cancelled.setNextExecution(null);
+
+        LocalDateTime horizon = NOW.plusMinutes(1);
+        List<DueOrder> first = standingOrderRepository.findDue(horizon, Limit.of(2));
+        DueOrder last = first.getLast();
+        List<DueOrder> second = standingOrderRepository.findDueAfter(horizon, last.nextExecution(), last.id(), Limit.of(2));
+
+        assertThat(first).extracting(DueOrder::id).containsExactly(overdue.getId(), dueSoon1.getId());
+        assertThat(first.getFirst().fromAccountId()).isEqualTo(a.getId());
+        assertThat(second).extracting(DueOrder::id).containsExactly(dueSoon2.getId());
+    }
+
+    @Test
+    void findByFromAccountId_shouldReturnOnlyOrdersOfTheAccount() {
+        AccountEntity a = createAccount("ACC-SO-3");
+        AccountEntity b = createAccount("ACC-SO-4");
+        StandingOrderEntity fromA = createOrder(a, b, NOW);
+        createOrder(b, a, NOW);
+
+        assertThat(standingOrderRepository.findByFromAccountIdOrderByIdAsc(a.getId()))
+            .extracting(StandingOrderEntity::getId).containsExactly(fromA.getId());
+    }
+}
@@ -8,10 +8,17 @@ import org.itinov.bankApp.domain.enums.OperationType;
 import org.itinov.bankApp.infrastructure.repository.AccountRepository;
 import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
 import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.DailyActivity;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.MonthlyActivity;
+import org.itinov.bankApp.infrastructure.repository.TransactionSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,6 +36,9 @@ class TransactionRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private CustomerEntity createCustomer(String keycloakId) {
         CustomerEntity c = CustomerEntity.builder().name("Jane").email("jane@example.com").keycloakId(keycloakId).build();
         return customerRepository.save(c);
@@ -46,6 +56,11 @@ class TransactionRepositoryTest {
     }
 
     private TransactionEntity createTx(AccountEntity account, double amount, OperationType type, LocalDateTime date, double balanceAfter) {
+        return createTx(account, amount, type, type == OperationType.DEPOSIT, date, balanceAfter);
+    }
+
+    private TransactionEntity createTx(AccountEntity account, double amount, OperationType type, boolean credit,
+                                       LocalDateTime date, double balanceAfter) {
         TransactionEntity t = TransactionEntity.builder()
                 .account(account)
                 .amount(amount)
@@ -54,6 +69,7 @@ class TransactionRepositoryTest {
                 .performedBy("tester")
                 .date(date)
                 .balanceAfter(balanceAfter)
+                .credit(credit)
                 .build();
         return transactionRepository.save(t);
     }
@@ -90,6 +106,22 @@ class TransactionRepositoryTest {
         assertThat(fetched.getCurrency()).isEqualTo(Currency.EUR);
     }
 
+    @Test
+    void findByAccountIdOrderByDateDesc_shouldFetchTheAccountAndItsCustomer() {
+        CustomerEntity c = createCustomer("kc-tx-graph");
+        AccountEntity a = createAccount(c, "ACC-T-GRAPH");
+        createTx(a, 42, OperationType.DEPOSIT, LocalDateTime.now(), 42);
+        entityManager.flush();
+        entityManager.clear();
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        TransactionEntity fetched = transactionRepository.findByAccountIdOrderByDateDesc(a.getId()).getFirst();
+
+        assertThat(util.isLoaded(fetched.getAccount())).isTrue();
+        assertThat(util.isLoaded(fetched.getAccount().getCustomer())).isTrue();
+        assertThat(util.isLoaded(fetched.getAccount(), "transactions")).isFalse();
+    }
+
     @Test
     void findByAccountIdOrderByDateDesc_shouldReturnEmptyWhenNoTransactions() {
         CustomerEntity c = createCustomer("kc-empty");
@@ -118,4 +150,78 @@ class TransactionRepositoryTest {
         assertThat(forA2).extracting(TransactionEntity::getId)
                 .containsExactly(t2.getId());
     }
+
+    @Test
+    void aggregate_shouldGroupByTypeAndPeriodInTheDatabase() {
+        CustomerEntity c = createCustomer("kc-stats");
+        AccountEntity a = createAccount(c, "ACC-S");
+        LocalDateTime jan = LocalDateTime.of(2025, 1, 10, 9, 0);
+        createTx(a, 10, OperationType.DEPOSIT, jan, 10);
+        createTx(a, 15, OperationType.DEPOSIT, jan.plusHours(5), 25);
+        createTx(a, 5, OperationType.WITHDRAWAL, jan.plusDays(1), 20);
+        createTx(a, 30, OperationType.DEPOSIT, jan.plusMonths(1), 50);
+        createTx(a, 99, OperationType.DEPOSIT, jan.plusMonths(2), 149);
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 1, 0, 0);
+        assertThat(transactionRepository.aggregateByDay(a.getId(), from, to)).containsExactlyInAnyOrder(
+            new DailyActivity(OperationType.DEPOSIT, true, LocalDate.of(2025, 1, 10), 2, 25),
+            new DailyActivity(OperationType.WITHDRAWAL, false, LocalDate.of(2025, 1, 11), 1, 5),
+            new DailyActivity(OperationType.DEPOSIT, true, LocalDate.of(2025, 2, 10), 1, 30));
+        assertThat(transactionRepository.aggregateByMonth(a.getId(), from, to)).containsExactlyInAnyOrder(
+            new MonthlyActivity(OperationType.DEPOSIT, true, 2025, 1, 2, 25),
+            new MonthlyActivity(OperationType.WITHDRAWAL, false, 2025, 1, 1, 5),
+            new MonthlyActivity(OperationType.DEPOSIT, true, 2025, 2, 1, 30));
+    }
+
+    @Test
+    void aggregate_shouldSplitTransfersByDirection() {
+        AccountEntity a = createAccount(createCustomer("kc-stats-transfers"), "ACC-ST");
+        LocalDateTime day = LocalDateTime.of(2025, 4, 3, 9, 0);
+        createTx(a, 100, OperationType.TRANSFER, true, day, 100);
+        createTx(a, 40, OperationType.TRANSFER, false, day.plusHours(1), 60);
+        createTx(a, 25, OperationType.TRANSFER, true, day.plusHours(2), 85);
+
+        LocalDateTime from = LocalDateTime.of(2025, 4, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 5, 1, 0, 0);
+        assertThat(transactionRepository.aggregateByDay(a.getId(), from, to)).containsExactlyInAnyOrder(
+            new DailyActivity(OperationType.TRANSFER, true, LocalDate.of(2025, 4, 3), 2, 125),
+            new DailyActivity(OperationType.TRANSFER, false, LocalDate.of(2025, 4, 3), 1, 40));
+        assertThat(transactionRepository.aggregateByMonth(a.getId(), from, to)).containsExactlyInAnyOrder(
+            new MonthlyActivity(OperationType.TRANSFER, true, 2025, 4, 2, 125),
+            new MonthlyActivity(OperationType.TRANSFER, false, 2025, 4, 1, 40));
+    }
+
+    @Test
+    void findBy_shouldCombineSpecificationsAndPageWithTheKeysetCursor() {
+        CustomerEntity c = createCustomer("kc-search");
+        AccountEntity a1 = createAccount(c, "ACC-Q1");
+        AccountEntity a2 = createAccount(c, "ACC-Q2");
+        AccountEntity other = createAccount(createCustomer("kc-search-other"), "ACC-Q3");
+        LocalDateTime t0 = LocalDateTime.of(2025, 5, 1, 8, 0);
+        TransactionEntity d1 = createTx(a1, 100, OperationType.DEPOSIT, t0, 100);
+        TransactionEntity d2 = createTx(a2, 200, OperationType.DEPOSIT, t0, 200);
+        TransactionEntity d3 = createTx(a1, 300, OperationType.DEPOSIT, t0.plusDays(1), 400);
+        createTx(a1, 500, OperationType.DEPOSIT, t0.plusDays(2), 900);
+        createTx(a1, 150, OperationType.WITHDRAWAL, t0.plusDays(3), 750);
+        createTx(other, 250, OperationType.DEPOSIT, t0, 250);
+
+        Specification<TransactionEntity> deposits = Specification.allOf(
+            TransactionSpecifications.ofAccounts(List.of(a1.getId(), a2.getId())),
+            TransactionSpecifications.ofType(OperationType.DEPOSIT),
+            TransactionSpecifications.amountAtMost(400),
+            TransactionSpecifications.dateFrom(t0));
+        List<TransactionEntity> first = transactionRepository.findBy(deposits,
+            q -> q.sortBy(TransactionSpecifications.NEWEST_FIRST).limit(2).all());
+        TransactionEntity last = first.getLast();
+        List<TransactionEntity> second = transactionRepository.findBy(
+            deposits.and(TransactionSpecifications.after(last.getDate(), last.getId())),
+            q -> q.sortBy(TransactionSpecifications.NEWEST_FIRST).limit(2).all());
+
+        // the two deposits at t0 share the same date and are ordered by id
+        TransactionEntity newerAtT0 = d2.getId() > d1.getId() ? d2 : d1;
+        TransactionEntity olderAtT0 = newerAtT0 == d2 ? d1 : d2;
+        assertThat(first).extracting(TransactionEntity::getId).containsExactly(d3.getId(), newerAtT0.getId());
+        assertThat(second).extracting(TransactionEntity::getId).containsExactly(olderAtT0.getId());
+    }
 }
@@ -0,0 +1,56 @@
+package org.itinov.bankApp.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void shouldFireTasksOnlyOnceTheirDeadlineIsReached() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, START);
+        wheel.schedule("a", START + 250);
+        wheel.schedule("b", START + 520);
+
+        assertThat(wheel.advance(START + 200)).isEmpty();
+        assertThat(wheel.advance(START + 300)).containsExactly("a");
+        assertThat(wheel.advance(START + 500)).isEmpty();
+        assertThat(wheel.advance(START + 600)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepTasksScheduledSeveralRotationsAhead() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, START);
+        // same bucket as tick 1, but three rotations later
+        wheel.schedule("later", START + 1300);
+        wheel.schedule("soon", START + 100);
+
+        assertThat(wheel.advance(START + 100)).containsExactly("soon");
+        assertThat(wheel.advance(START + 500)).isEmpty();
+        assertThat(wheel.advance(START + 1300)).containsExactly("later");
+    }
+
+    @Test
+    void shouldFireOverdueTasksOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, START);
+        wheel.advance(START + 1000);
+        wheel.schedule("overdue", START - 5000);
+
+        assertThat(wheel.advance(START + 1000)).isEmpty();
+        assertThat(wheel.advance(START + 1100)).containsExactly("overdue");
+    }
+
+    @Test
+    void shouldExpireEverythingDueAfterALongPause() {
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(10, 4, START);
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(i, START + i * 10L);
+        }
+
+        assertThat(wheel.advance(START + 10_000)).hasSize(100);
+        assertThat(wheel.size()).isZero();
+    }
+}
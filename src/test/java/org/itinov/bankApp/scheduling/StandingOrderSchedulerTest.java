@@ -0,0 +1,65 @@
+package org.itinov.bankApp.scheduling;
+
+import org.itinov.bankApp.config.StandingOrderProperties;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository.DueOrder;
+import org.itinov.bankApp.service.StandingOrderRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class StandingOrderSchedulerTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.now().minusMinutes(1);
+
+    private StandingOrderRepository orderRepository;
+    private StandingOrderRunner runner;
+    private StandingOrderScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(StandingOrderRepository.class);
+        runner = mock(StandingOrderRunner.class);
+        when(orderRepository.findDue(any(), any())).thenReturn(List.of(new DueOrder(5L, 1L, DUE)));
+        scheduler = new StandingOrderScheduler(orderRepository, runner, new StandingOrderProperties(
+            true, Duration.ofMillis(10), 64, Duration.ofMillis(100), Duration.ofSeconds(60), 10, 100, 1));
+    }
+
+    @AfterEach
+    void teardown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void run_shouldSkipARejectedOccurrence() {
+        when(runner.execute(eq(5L), any())).thenThrow(ErrorCode.TRANSFER_EXCEEDS_OVERDRAFT.rejection());
+        when(runner.skip(eq(5L), eq(DUE), any())).thenReturn(Optional.empty());
+
+        scheduler.start();
+
+        verify(runner, timeout(2000)).skip(5L, DUE, ErrorCode.TRANSFER_EXCEEDS_OVERDRAFT.message());
+    }
+
+    @Test
+    void run_shouldLeaveTheOccurrenceDueAfterATechnicalFailure() {
+        when(runner.execute(eq(5L), any()))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"))
+            .thenReturn(Optional.empty());
+
+        scheduler.start();
+
+        // the next load finds the order still due and runs it again
+        verify(runner, timeout(2000).times(2)).execute(eq(5L), any());
+        verify(runner, never()).skip(any(), any(), any());
+    }
+}
@@ -0,0 +1,86 @@
+package org.itinov.bankApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.itinov.bankApp.config.AccountResolverProperties;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository.AccountNumber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AccountNumberResolverTest {
+
+    private AccountRepository accountRepository;
+    private AccountNumberResolver resolver;
+
+    @BeforeEach
+    void setup() {
+        accountRepository = mock(AccountRepository.class);
+        resolver = new AccountNumberResolver(accountRepository,
+            new AccountResolverProperties(2, 1000, 0.001, Duration.ofSeconds(30), Duration.ofMinutes(10), 2),
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    void resolve_shouldQueryTheDatabaseOnlyOncePerNumber() {
+        when(accountRepository.findIdByNumber("ACC-1")).thenReturn(Optional.of(1L));
+
+        assertThat(resolver.resolve("ACC-1")).contains(1L);
+        assertThat(resolver.resolve("ACC-1")).contains(1L);
+        verify(accountRepository, times(1)).findIdByNumber("ACC-1");
+    }
+
+    @Test
+    void resolve_shouldRejectUnknownNumbersWithoutTheDatabaseOnceLoaded() {
+        // before the first load, unknown numbers still go to the database
+        assertThat(resolver.resolve("ACC-X")).isEmpty();
+        verify(accountRepository).findIdByNumber("ACC-X");
+
+        when(accountRepository.findNumbers(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(new AccountNumber(1L, "ACC-1"), new AccountNumber(2L, "ACC-2")));
+        when(accountRepository.findNumbers(eq(2L), any(Limit.class)))
+            .thenReturn(List.of(new AccountNumber(3L, "ACC-3")));
+        resolver.refresh();
+        when(accountRepository.findIdByNumber("ACC-3")).thenReturn(Optional.of(3L));
+
+        assertThat(resolver.resolve("ACC-Y")).isEmpty();
+        assertThat(resolver.resolve("ACC-3")).contains(3L);
+        verify(accountRepository, never()).findIdByNumber("ACC-Y");
+
+        // the next refresh only reads the accounts created since the last loaded id
+        resolver.refresh();
+        verify(accountRepository, times(1)).findNumbers(eq(3L), any(Limit.class));
+        verify(accountRepository, times(1)).findNumbers(eq(0L), any(Limit.class));
+        verify(accountRepository, times(2)).findIdByNumber(anyString());
+    }
+
+    @Test
+    void refresh_shouldRebuildTheFilterToCatchAccountsCommittedOutOfIdOrder() {
+        resolver = new AccountNumberResolver(accountRepository,
+            new AccountResolverProperties(2, 1000, 0.001, Duration.ofSeconds(30), Duration.ZERO, 2),
+            new SimpleMeterRegistry());
+        when(accountRepository.findNumbers(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(new AccountNumber(51L, "ACC-51")));
+        resolver.refresh();
+        assertThat(resolver.resolve("ACC-2")).isEmpty();
+
+        // account 2 was drawn from an older sequence block and commits after account 51 was loaded
+        when(accountRepository.findNumbers(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(new AccountNumber(2L, "ACC-2"), new AccountNumber(51L, "ACC-51")));
+        when(accountRepository.findNumbers(eq(51L), any(Limit.class))).thenReturn(List.of());
+        when(accountRepository.findIdByNumber("ACC-2")).thenReturn(Optional.of(2L));
+        resolver.refresh();
+
+        assertThat(resolver.resolve("ACC-2")).contains(2L);
+    }
+}
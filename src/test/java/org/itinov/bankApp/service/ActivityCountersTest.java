@@ -0,0 +1,116 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.domain.model.AccountActivity;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountActivityRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.mapper.BankPersistenceMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ActivityCountersTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 2, 9, 0);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountActivityRepository activityRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private ActivityCounters counters;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setup() {
+        counters = new ActivityCounters(activityRepository, slotRepository, accountRepository,
+            Mappers.getMapper(BankPersistenceMapper.class));
+        CustomerEntity customer = customerRepository.save(
+            CustomerEntity.builder().name("Counter").email("counter@example.com").keycloakId("kc-counter").build());
+        account = accountRepository.save(AccountEntity.builder()
+            .number("ACC-COUNT").balance(0).overdraftLimit(0).currency(Currency.EUR).customer(customer).build());
+    }
+
+    private void post(OperationType type, double amount, LocalDateTime date, boolean incoming) {
+        counters.record(TransactionEntity.builder().account(account).type(type).amount(amount).date(date).build(),
+            incoming);
+    }
+
+    @Test
+    void record_shouldAccumulateTotalsPerKindOfOperation() {
+        post(OperationType.DEPOSIT, 100, T0, true);
+        post(OperationType.WITHDRAWAL, 30, T0.plusHours(1), false);
+        post(OperationType.TRANSFER, 20, T0.plusHours(2), false);
+        post(OperationType.TRANSFER, 5, T0.plusHours(3), true);
+        post(OperationType.INTEREST, 1, T0.plusDays(1), true);
+        // an operation dated in the past does not move the last activity back
+        post(OperationType.DEPOSIT, 10, T0.minusDays(1), true);
+        entityManager.clear();
+
+        AccountActivity activity = counters.findAll(List.of(account)).get(account.getId());
+
+        assertThat(activity).isEqualTo(new AccountActivity(6, 110, 30, 5, 20, T0.plusDays(1)));
+    }
+
+    @Test
+    void record_shouldAddSeveralTransactionsWithOneUpdatePerAccount() {
+        TransactionEntity deposit = TransactionEntity.builder()
+            .account(account).type(OperationType.DEPOSIT).amount(40).date(T0).build();
+        TransactionEntity transferIn = TransactionEntity.builder()
+            .account(account).type(OperationType.TRANSFER).amount(15).date(T0.plusHours(2)).build();
+        TransactionEntity transferOut = TransactionEntity.builder()
+            .account(account).type(OperationType.TRANSFER).amount(5).date(T0.plusHours(1)).build();
+
+        counters.record(List.of(deposit, transferIn, transferOut), tx -> tx != transferOut);
+        counters.record(List.of(deposit), tx -> true);
+        entityManager.clear();
+
+        assertThat(counters.findAll(List.of(account)).get(account.getId()))
+            .isEqualTo(new AccountActivity(4, 80, 0, 15, 5, T0.plusHours(2)));
+    }
+
+    @Test
+    void record_shouldSkipTheCreditsOfSplitAccounts() {
+        account.setBalanceSlots(4);
+        post(OperationType.DEPOSIT, 100, T0, true);
+        post(OperationType.TRANSFER, 20, T0.plusHours(1), false);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(activityRepository.findById(account.getId())).hasValueSatisfying(row -> {
+            assertThat(row.getTransactionCount()).isEqualTo(1);
+            assertThat(row.getTotalDeposits()).isZero();
+            assertThat(row.getTotalTransfersOut()).isEqualTo(20);
+        });
+    }
+
+    @Test
+    void findAll_shouldOmitAccountsWithoutTransactions() {
+        assertThat(counters.findAll(List.of(account))).isEmpty();
+    }
+}
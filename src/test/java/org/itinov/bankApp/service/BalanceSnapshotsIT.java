@@ -0,0 +1,82 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.split-balance.accounts=ACC-JANE-001"
+})
+class BalanceSnapshotsIT {
+
+    @Autowired
+    BankService bankService;
+    @Autowired
+    BalanceSnapshots snapshots;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    AccountBalanceSlotRepository slotRepository;
+    @Autowired
+    BalanceSnapshotRepository snapshotRepository;
+    @Autowired
+    JwtDecoder jwtDecoder;
+
+    @Test
+    @DisplayName("Concurrent deposits on a split account leave the snapshots alone and close the day on its balance")
+    void concurrentSplitDeposits_shouldCloseOnTheLogicalBalance() throws Exception {
+        AccountEntity hot = accountRepository.findByNumber("ACC-JANE-001").orElseThrow();
+        assertThat(hot.isSplitBalance()).isTrue();
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 40; i++) {
+                futures.add(pool.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                        new JwtAuthenticationToken(jwtDecoder.decode("jane-token")));
+                    try {
+                        return bankService.deposit(hot.getId(), 5, "collector");
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        AccountEntity after = accountRepository.findById(hot.getId()).orElseThrow();
+        double balance = after.getBalance() + slotRepository.sumByAccountId(hot.getId());
+        LocalDate today = LocalDate.now();
+
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(hot.getId(), today)).isEmpty();
+        assertThat(snapshots.balanceAt(hot.getId(), LocalDateTime.now())).hasValue(balance);
+
+        snapshots.close(today);
+
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(hot.getId(), today))
+            .hasValueSatisfying(snapshot -> assertThat(snapshot.getClosingBalance()).isEqualTo(balance));
+    }
+}
@@ -0,0 +1,149 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.domain.model.BalanceHistory;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.BalanceSnapshotEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.OptionalDouble;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class BalanceSnapshotsTest {
+
+    private static final LocalDateTime DAY1 = LocalDateTime.of(2025, 4, 1, 10, 0);
+    private static final LocalDateTime DAY3 = LocalDateTime.of(2025, 4, 3, 10, 0);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private BalanceSnapshots snapshots;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setup() {
+        snapshots = new BalanceSnapshots(snapshotRepository, transactionRepository, accountRepository);
+        CustomerEntity customer = customerRepository.save(
+            CustomerEntity.builder().name("Audit").email("audit@example.com").keycloakId("kc-audit").build());
+        account = accountRepository.save(AccountEntity.builder()
+            .number("ACC-AUDIT").balance(0).overdraftLimit(0).currency(Currency.EUR).customer(customer).build());
+    }
+
+    private void post(LocalDateTime date, double amount, double balanceAfter) {
+        transactionRepository.save(TransactionEntity.builder().account(account).date(date)
+            .type(OperationType.DEPOSIT).credit(true).amount(amount).balanceAfter(balanceAfter)
+            .approximateBalance(account.isSplitBalance()).build());
+        snapshots.record(account, date, balanceAfter);
+    }
+
+    @Test
+    void record_shouldKeepOneSnapshotPerDayWithTheLastBalance() {
+        post(DAY1, 100, 100);
+        post(DAY1.plusHours(2), 50, 150);
+        post(DAY3, 10, 160);
+
+        assertThat(snapshotRepository.findAll())
+            .extracting(BalanceSnapshotEntity::getSnapshotDate, BalanceSnapshotEntity::getClosingBalance)
+            .containsExactlyInAnyOrder(
+                tuple(LocalDate.of(2025, 4, 1), 150.0),
+                tuple(LocalDate.of(2025, 4, 3), 160.0));
+    }
+
+    @Test
+    void balanceAt_shouldCombineSnapshotsAndTheSameDayTransactions() {
+        post(DAY1, 100, 100);
+        post(DAY1.plusHours(2), 50, 150);
+        post(DAY3, 10, 160);
+
+        assertThat(snapshots.balanceAt(account.getId(), DAY1.minusDays(1))).isEmpty();
+        assertThat(snapshots.balanceAt(account.getId(), DAY1.plusHours(1))).hasValue(100);
+        assertThat(snapshots.balanceAt(account.getId(), DAY1.plusDays(1))).hasValue(150);
+        // day 3 before its first transaction: closing balance of day 1
+        assertThat(snapshots.balanceAt(account.getId(), DAY3.minusHours(1))).hasValue(150);
+        assertThat(snapshots.balanceAt(account.getId(), DAY3.plusYears(1))).hasValue(160);
+    }
+
+    @Test
+    void balanceAt_shouldFallBackToTransactions_whenHistoryPredatesSnapshots() {
+        transactionRepository.save(TransactionEntity.builder().account(account).date(DAY1)
+            .type(OperationType.DEPOSIT).amount(70).balanceAfter(70).build());
+
+        assertThat(snapshots.balanceAt(account.getId(), DAY3)).hasValue(70);
+    }
+
+    @Test
+    void splitAccount_shouldSettleItsBalanceAndOnlySnapshotItWhenTheDayIsClosed() {
+        post(DAY1, 100, 100);
+        account.setBalanceSlots(4);
+        accountRepository.save(account);
+        // concurrent deposits: each balance after misses the others
+        post(DAY3, 10, 110);
+        post(DAY3.plusMinutes(1), 20, 120);
+        post(DAY3.plusMinutes(2), 30, 130);
+
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(account.getId(), DAY3.toLocalDate())).isEmpty();
+        assertThat(snapshots.balanceAt(account.getId(), DAY3.plusMinutes(1))).hasValue(130);
+        assertThat(snapshots.history(account.getId(), Currency.EUR, DAY3.toLocalDate(), DAY3.toLocalDate(),
+            OptionalDouble.of(100)).balances()).containsExactly(160);
+
+        snapshots.close(DAY3.toLocalDate());
+
+        assertThat(snapshotRepository.findByAccountIdAndSnapshotDate(account.getId(), DAY3.toLocalDate()))
+            .hasValueSatisfying(snapshot -> assertThat(snapshot.getClosingBalance()).isEqualTo(160));
+        assertThat(snapshots.balanceAt(account.getId(), DAY3.plusDays(1))).hasValue(160);
+    }
+
+    @Test
+    void history_shouldBuildADenseSeriesFromOneScan() {
+        post(DAY1, 100, 100);
+        post(DAY1.plusHours(2), 50, 150);
+        post(DAY3, 10, 160);
+        LocalDate from = LocalDate.of(2025, 3, 31);
+
+        BalanceHistory history = snapshots.history(account.getId(), Currency.EUR, from, LocalDate.of(2025, 4, 4),
+            OptionalDouble.of(0));
+
+        assertThat(history.dates()).containsExactly(LongStream.rangeClosed(0, 4).map(i -> from.toEpochDay() + i)
+            .toArray());
+        assertThat(history.balances()).containsExactly(0, 150, 150, 160, 160);
+    }
+
+    @Test
+    void history_shouldStartOnTheFirstTransaction_whenOpeningBalanceIsUnknown() {
+        post(DAY3, 10, 160);
+
+        BalanceHistory history = snapshots.history(account.getId(), Currency.EUR, LocalDate.of(2025, 4, 1),
+            LocalDate.of(2025, 4, 4), OptionalDouble.empty());
+
+        assertThat(history.dates()).containsExactly(LocalDate.of(2025, 4, 3).toEpochDay(),
+            LocalDate.of(2025, 4, 4).toEpochDay());
+        assertThat(history.balances()).containsExactly(160, 160);
+        assertThat(snapshots.history(account.getId(), Currency.EUR, LocalDate.of(2025, 5, 1),
+            LocalDate.of(2025, 5, 2), OptionalDouble.empty()).dates()).isEmpty();
+    }
+}
@@ -0,0 +1,18 @@
+package org.itinov.bankApp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BankOperationRecorderTest {
+
+    @Test
+    void amountBucket_shouldGiveTheOrderOfMagnitude() {
+        assertThat(BankOperationRecorder.amountBucket(0.5)).isEqualTo("<10");
+        assertThat(BankOperationRecorder.amountBucket(10)).isEqualTo("10-100");
+        assertThat(BankOperationRecorder.amountBucket(999.99)).isEqualTo("100-1k");
+        assertThat(BankOperationRecorder.amountBucket(5_000)).isEqualTo("1k-10k");
+        assertThat(BankOperationRecorder.amountBucket(99_999)).isEqualTo("10k-100k");
+        assertThat(BankOperationRecorder.amountBucket(100_000)).isEqualTo(">=100k");
+    }
+}
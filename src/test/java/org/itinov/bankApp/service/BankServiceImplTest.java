@@ -1,8 +1,22 @@
 package org.itinov.bankApp.service;
 
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+import org.itinov.bankApp.domain.enums.Granularity;
+import org.itinov.bankApp.domain.exception.BusinessRejection;
 import org.itinov.bankApp.domain.model.Account;
+import org.itinov.bankApp.domain.model.AccountActivity;
+import org.itinov.bankApp.domain.model.ActivityStatistics;
+import org.itinov.bankApp.domain.model.ActivityStatistics.Bucket;
+import org.itinov.bankApp.domain.model.Balance;
+import org.itinov.bankApp.domain.model.BatchOperation;
+import org.itinov.bankApp.domain.model.BatchResult;
+import org.itinov.bankApp.domain.model.BatchResult.Item;
+import org.itinov.bankApp.domain.model.BatchResult.Status;
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.PayoutLeg;
 import org.itinov.bankApp.domain.model.Transaction;
+import org.itinov.bankApp.domain.model.TransactionFilter;
 import org.itinov.bankApp.infrastructure.entity.AccountEntity;
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
 import org.itinov.bankApp.infrastructure.entity.TransactionEntity;
@@ -10,15 +24,23 @@ import org.itinov.bankApp.domain.enums.Currency;
 import org.itinov.bankApp.domain.enums.OperationType;
 import org.itinov.bankApp.infrastructure.repository.AccountRepository;
 import org.itinov.bankApp.infrastructure.repository.TransactionRepository;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.DailyActivity;
+import org.itinov.bankApp.infrastructure.repository.TransactionRepository.MonthlyActivity;
 import org.itinov.bankApp.mapper.BankPersistenceMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import jakarta.persistence.EntityNotFoundException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -31,6 +53,10 @@ public class BankServiceImplTest {
     private AccountRepository accountRepository;
     private TransactionRepository transactionRepository;
     private BankPersistenceMapper mapper;
+    private SplitBalanceManager splitBalances;
+    private BalanceSnapshots snapshots;
+    private ActivityCounters counters;
+    private AccountNumberResolver accountNumbers;
     private BankServiceImpl service;
 
     @BeforeEach
@@ -39,7 +65,12 @@ public class BankServiceImplTest {
         accountRepository = mock(AccountRepository.class);
         transactionRepository = mock(TransactionRepository.class);
         mapper = mock(BankPersistenceMapper.class);
-        service = new BankServiceImpl(customerService, accountRepository, transactionRepository, mapper);
+        splitBalances = mock(SplitBalanceManager.class);
+        snapshots = mock(BalanceSnapshots.class);
+        counters = mock(ActivityCounters.class);
+        accountNumbers = mock(AccountNumberResolver.class);
+        service = new BankServiceImpl(customerService, accountRepository, transactionRepository, mapper, splitBalances,
+            snapshots, counters, accountNumbers);
     }
 
     @Test
@@ -51,7 +82,7 @@ public class BankServiceImplTest {
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
         when(mapper.toDomain(any(TransactionEntity.class)))
             .thenReturn(
-                new Transaction(1L, null, 0, OperationType.DEPOSIT, Currency.EUR, null, 0, null)
+                new Transaction(1L, null, 0, OperationType.DEPOSIT, Currency.EUR, null, 0, false, null)
             );
 
         List<Transaction> list = service.getTransactionsByAccount(1L);
@@ -71,13 +102,66 @@ public class BankServiceImplTest {
         var acc1 = AccountEntity.builder().id(1L).number("ACC-1").build();
         var acc2 = AccountEntity.builder().id(2L).number("ACC-2").build();
         when(accountRepository.findByCustomerId(99L)).thenReturn(List.of(acc1, acc2));
-        when(mapper.toShallow(acc1)).thenReturn(new Account(1L, "ACC-1", 0.0, 150, Currency.EUR, createCustomer(), List.of()));
-        when(mapper.toShallow(acc2)).thenReturn(new Account(2L, "ACC-2", 0.0, 200, Currency.EUR, createCustomer(), List.of()));
+        when(mapper.toShallow(acc1)).thenReturn(new Account(1L, "ACC-1", 0.0, 150, Currency.EUR, createCustomer(), List.of(), null));
+        when(mapper.toShallow(acc2)).thenReturn(new Account(2L, "ACC-2", 0.0, 200, Currency.EUR, createCustomer(), List.of(), null));
 
         List<Account> result = service.getAccountsByCustomer(99L);
         assertThat(result).hasSize(2);
     }
 
+    @Test
+    void getAccountsByCustomer_shouldExposeActivityCounters() {
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        var acc1 = AccountEntity.builder().id(1L).number("ACC-1").build();
+        var acc2 = AccountEntity.builder().id(2L).number("ACC-2").build();
+        when(accountRepository.findByCustomerId(99L)).thenReturn(List.of(acc1, acc2));
+        when(mapper.toDomain(any(AccountEntity.class))).thenAnswer(inv -> {
+            AccountEntity a = inv.getArgument(0);
+            return Account.builder().id(a.getId()).number(a.getNumber()).build();
+        });
+        AccountActivity activity = new AccountActivity(3, 100, 20, 0, 10, LocalDateTime.of(2025, 5, 1, 12, 0));
+        when(counters.findAll(List.of(acc1, acc2))).thenReturn(Map.of(1L, activity));
+
+        List<Account> result = service.getAccountsByCustomer(99L);
+
+        assertThat(result).extracting(Account::activity).containsExactly(activity, AccountActivity.NONE);
+        verify(transactionRepository, never()).findByAccountIdOrderByDateDesc(any());
+    }
+
+    @Test
+    void searchTransactions_shouldRejectAnAccountOfAnotherCustomer() {
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findIdsByCustomerId(99L)).thenReturn(List.of(1L));
+        TransactionFilter filter = TransactionFilter.builder().accountId(7L).build();
+
+        assertThrows(AccessDeniedException.class, () -> service.searchTransactions(99L, filter, null, 10));
+        assertThrows(AccessDeniedException.class,
+            () -> service.searchTransactions(11L, TransactionFilter.builder().build(), null, 10));
+        verify(transactionRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void searchTransactions_shouldValidateLimitRangesAndCursor() {
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findIdsByCustomerId(99L)).thenReturn(List.of(1L));
+        TransactionFilter none = TransactionFilter.builder().build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.searchTransactions(99L, none, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.searchTransactions(99L, none, null, BankService.MAX_SEARCH_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class, () -> service.searchTransactions(99L,
+            TransactionFilter.builder().minAmount(10.0).maxAmount(5.0).build(), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.searchTransactions(99L,
+            TransactionFilter.builder().from(LocalDate.of(2025, 2, 1)).to(LocalDate.of(2025, 1, 1)).build(), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.searchTransactions(99L, none, "not-a-cursor", 10));
+    }
+
+    @Test
+    void transactionCursor_shouldRoundTrip() {
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2025, 3, 4, 5, 6, 7, 890), 1234L);
+        assertThat(TransactionCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
     @Test
     void getAccountsByCustomer_shouldFail_whenRequestingAnotherCustomer() {
         // current logged customer is 99, but we request for 11
@@ -92,11 +176,11 @@ public class BankServiceImplTest {
         AccountEntity account = AccountEntity.builder()
             .id(accId).balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).overdraftLimit(-200).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
 
-        IllegalArgumentException ex1 = assertThrows(IllegalArgumentException.class, () -> service.deposit(accId, 0.0, "me"));
+        BusinessRejection ex1 = assertThrows(BusinessRejection.class, () -> service.deposit(accId, 0.0, "me"));
         assertThat(ex1.getMessage()).contains("positive");
-        IllegalArgumentException ex2 = assertThrows(IllegalArgumentException.class, () -> service.deposit(accId, -5.0, "me"));
+        BusinessRejection ex2 = assertThrows(BusinessRejection.class, () -> service.deposit(accId, -5.0, "me"));
         assertThat(ex2.getMessage()).contains("positive");
         verify(transactionRepository, never()).save(any());
         verify(accountRepository, never()).save(any());
@@ -109,11 +193,11 @@ public class BankServiceImplTest {
             .id(accId).number("ACC-1").balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).overdraftLimit(-200).build();
 
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
         when(transactionRepository.save(any(TransactionEntity.class))).thenAnswer(inv -> inv.getArgument(0));
         when(mapper.toDomain(any(TransactionEntity.class)))
             .thenReturn(
-                new Transaction(10L, null, 50.0, OperationType.DEPOSIT, Currency.EUR, "me", 150.0, null)
+                new Transaction(10L, null, 50.0, OperationType.DEPOSIT, Currency.EUR, "me", 150.0, false, null)
             );
 
         Transaction dto = service.deposit(accId, 50.0, "me");
@@ -130,6 +214,7 @@ public class BankServiceImplTest {
         assertThat(saved.getAccount()).isEqualTo(account);
 
         verify(accountRepository).save(account);
+        verify(snapshots).record(account, saved.getDate(), 150.0);
     }
 
     @Test
@@ -138,7 +223,7 @@ public class BankServiceImplTest {
         AccountEntity account = AccountEntity.builder()
             .id(accId).balance(100.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
 
         AccessDeniedException ex = assertThrows(AccessDeniedException.class, () -> service.deposit(accId, 10.0, "me"));
         assertThat(ex.getMessage()).contains("does not belong");
@@ -148,7 +233,7 @@ public class BankServiceImplTest {
     @Test
     void deposit_shouldFail_whenAccountNotFound() {
         Long accId = 1L;
-        when(accountRepository.findById(accId)).thenReturn(Optional.empty());
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.empty());
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> service.deposit(accId, 10.0, "me"));
         assertThat(ex.getMessage()).contains("Account not found");
         verify(transactionRepository, never()).save(any());
@@ -161,10 +246,10 @@ public class BankServiceImplTest {
         AccountEntity account = AccountEntity.builder()
             .id(accId).balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).overdraftLimit(-200).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
-        IllegalArgumentException ex1 = assertThrows(IllegalArgumentException.class, () -> service.withdraw(accId, 0.0, "me"));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
+        BusinessRejection ex1 = assertThrows(BusinessRejection.class, () -> service.withdraw(accId, 0.0, "me"));
         assertThat(ex1.getMessage()).contains("positive");
-        IllegalArgumentException ex2 = assertThrows(IllegalArgumentException.class, () -> service.withdraw(accId, -1.0, "me"));
+        BusinessRejection ex2 = assertThrows(BusinessRejection.class, () -> service.withdraw(accId, -1.0, "me"));
         assertThat(ex2.getMessage()).contains("positive");
         verify(transactionRepository, never()).save(any());
         verify(accountRepository, never()).save(any());
@@ -177,11 +262,11 @@ public class BankServiceImplTest {
             .id(accId).number("ACC-1").balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).overdraftLimit(-200)
             .build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
         when(transactionRepository.save(any(TransactionEntity.class))).thenAnswer(inv -> inv.getArgument(0));
         when(mapper.toDomain(any(TransactionEntity.class)))
             .thenReturn(
-                new Transaction(10L, null, 50.0, OperationType.WITHDRAWAL, Currency.EUR, "me", 50.0, null)
+                new Transaction(10L, null, 50.0, OperationType.WITHDRAWAL, Currency.EUR, "me", 50.0, false, null)
             );
 
         Transaction transaction = service.withdraw(accId, 50.0, "me");
@@ -198,10 +283,14 @@ public class BankServiceImplTest {
         AccountEntity account = AccountEntity.builder()
             .id(accId).balance(-150.0).overdraftLimit(-200.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.withdraw(accId, 60.0, "me"));
+        BusinessRejection ex = assertThrows(BusinessRejection.class, () -> service.withdraw(accId, 60.0, "me"));
         assertThat(ex.getMessage()).contains("overdraft");
+        assertThat(ex.code()).isEqualTo(ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT);
+        // shared and stackless: rejecting an operation neither allocates nor walks the stack
+        assertThat(ex).isSameAs(ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT.rejection());
+        assertThat(ex.getStackTrace()).isEmpty();
         verify(transactionRepository, never()).save(any());
         verify(accountRepository, never()).save(any());
     }
@@ -209,7 +298,7 @@ public class BankServiceImplTest {
     @Test
     void withdraw_shouldFail_whenAccountNotFound() {
         Long accId = 1L;
-        when(accountRepository.findById(accId)).thenReturn(Optional.empty());
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.empty());
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> service.withdraw(accId, 10.0, "me"));
         assertThat(ex.getMessage()).contains("Account not found");
         verify(transactionRepository, never()).save(any());
@@ -222,7 +311,7 @@ public class BankServiceImplTest {
         AccountEntity account = AccountEntity.builder()
             .id(accId).balance(100.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).overdraftLimit(-200).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(accId)).thenReturn(Optional.of(account));
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
 
         AccessDeniedException ex = assertThrows(AccessDeniedException.class, () -> service.withdraw(accId, 10.0, "me"));
         assertThat(ex.getMessage()).contains("does not belong");
@@ -238,12 +327,12 @@ public class BankServiceImplTest {
         AccountEntity to = AccountEntity.builder()
             .id(toId).balance(50.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
 
-        when(accountRepository.findById(fromId)).thenReturn(Optional.of(from));
-        when(accountRepository.findById(toId)).thenReturn(Optional.of(to));
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(toId)).thenReturn(Optional.of(to));
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
         when(mapper.toDomain(any(TransactionEntity.class))).thenAnswer(inv -> {
             TransactionEntity t = inv.getArgument(0);
-            return new Transaction(null, t.getDate(), t.getAmount(), t.getType(), t.getCurrency(), t.getPerformedBy(), t.getBalanceAfter(), null);
+            return new Transaction(null, t.getDate(), t.getAmount(), t.getType(), t.getCurrency(), t.getPerformedBy(), t.getBalanceAfter(), t.isApproximateBalance(), null);
         });
 
         List<Transaction> result = service.transfer(fromId, toId, 70.0, "me");
@@ -253,6 +342,167 @@ public class BankServiceImplTest {
         assertThat(result).hasSize(2);
         verify(transactionRepository).saveAll(anyList());
         verify(accountRepository).saveAll(anyList());
+        verify(counters).record(argThat(tx -> tx.getAccount() == from), eq(false));
+        verify(counters).record(argThat(tx -> tx.getAccount() == to), eq(true));
+    }
+
+    @Test
+    void transferToNumber_shouldResolveTheNumberBeforeMovingFunds() {
+        AccountEntity from = AccountEntity.builder()
+            .id(1L).balance(200.0).overdraftLimit(-200.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        AccountEntity to = AccountEntity.builder()
+            .id(2L).number("ACC-2").balance(50.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
+        when(accountRepository.findWithCustomerById(1L)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(2L)).thenReturn(Optional.of(to));
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountNumbers.resolve("ACC-2")).thenReturn(Optional.of(2L));
+        when(mapper.toDomain(any(TransactionEntity.class))).thenReturn(Transaction.builder().build());
+
+        assertThat(service.transferToNumber(1L, "ACC-2", 70.0, "me")).hasSize(2);
+        assertThat(from.getBalance()).isEqualTo(130.0);
+        assertThat(to.getBalance()).isEqualTo(120.0);
+    }
+
+    @Test
+    void transferToNumber_shouldFail_whenNumberUnknown() {
+        AccountEntity from = AccountEntity.builder()
+            .id(1L).balance(200.0).overdraftLimit(-200.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(accountRepository.findWithCustomerById(1L)).thenReturn(Optional.of(from));
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountNumbers.resolve("ACC-404")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.transferToNumber(1L, "ACC-404", 70.0, "me"));
+        assertThat(from.getBalance()).isEqualTo(200.0);
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void payout_shouldDebitTheSourceOnceAndCreditEveryLeg() {
+        AccountEntity from = AccountEntity.builder()
+            .id(1L).balance(1000.0).overdraftLimit(-100.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        AccountEntity alice = AccountEntity.builder()
+            .id(2L).balance(0.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
+        AccountEntity bob = AccountEntity.builder()
+            .id(3L).balance(10.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
+        when(accountRepository.findWithCustomerById(1L)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerByIdIn(Set.of(2L, 3L))).thenReturn(List.of(alice, bob));
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(mapper.toDomain(any(TransactionEntity.class))).thenReturn(Transaction.builder().build());
+
+        List<Transaction> result = service.payout(1L, List.of(
+            new PayoutLeg(2L, 300.0), new PayoutLeg(3L, 500.0), new PayoutLeg(2L, 250.0)), "me");
+
+        assertThat(result).hasSize(4);
+        assertThat(from.getBalance()).isEqualTo(-50.0);
+        assertThat(alice.getBalance()).isEqualTo(550.0);
+        assertThat(bob.getBalance()).isEqualTo(510.0);
+        ArgumentCaptor<List<TransactionEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(TransactionEntity::getAmount).containsExactly(1050.0, 300.0, 500.0, 250.0);
+        assertThat(saved.getValue()).extracting(TransactionEntity::getBalanceAfter)
+            .containsExactly(-50.0, 300.0, 510.0, 550.0);
+        verify(accountRepository, times(1)).findWithCustomerById(1L);
+        verify(snapshots, times(3)).record(any(), any(), anyDouble());
+    }
+
+    @Test
+    void payout_shouldFail_whenTheTotalExceedsTheOverdraftLimit() {
+        AccountEntity from = AccountEntity.builder()
+            .id(1L).balance(100.0).overdraftLimit(0.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        AccountEntity to = AccountEntity.builder()
+            .id(2L).balance(0.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
+        when(accountRepository.findWithCustomerById(1L)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerByIdIn(Set.of(2L))).thenReturn(List.of(to));
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+
+        // each leg alone would be covered, not their total
+        assertThrows(BusinessRejection.class,
+            () -> service.payout(1L, List.of(new PayoutLeg(2L, 60.0), new PayoutLeg(2L, 60.0)), "me"));
+        assertThat(from.getBalance()).isEqualTo(100.0);
+        assertThat(to.getBalance()).isEqualTo(0.0);
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void payout_shouldFail_whenADestinationIsMissingOrTheSource() {
+        AccountEntity from = AccountEntity.builder()
+            .id(1L).balance(100.0).overdraftLimit(0.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(accountRepository.findWithCustomerById(1L)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerByIdIn(Set.of(2L))).thenReturn(List.of());
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+
+        assertThrows(EntityNotFoundException.class,
+            () -> service.payout(1L, List.of(new PayoutLeg(2L, 10.0)), "me"));
+        assertThrows(BusinessRejection.class,
+            () -> service.payout(1L, List.of(new PayoutLeg(1L, 10.0)), "me"));
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void executeBatch_bestEffort_shouldApplyValidOperationsInOrderAndRejectTheOthers() {
+        AccountEntity mine = AccountEntity.builder()
+            .id(1L).balance(100.0).overdraftLimit(0.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        AccountEntity other = AccountEntity.builder()
+            .id(2L).balance(0.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findWithCustomerByIdIn(anyCollection())).thenReturn(List.of(mine, other));
+        when(mapper.toDomain(any(TransactionEntity.class))).thenReturn(Transaction.builder().build());
+
+        BatchResult result = service.executeBatch(List.of(
+            new BatchOperation(OperationType.WITHDRAWAL, 1L, null, 150.0),  // not yet covered
+            new BatchOperation(OperationType.DEPOSIT, 1L, null, 100.0),
+            new BatchOperation(OperationType.TRANSFER, 1L, 2L, 150.0),     // covered by the deposit
+            new BatchOperation(OperationType.DEPOSIT, 2L, null, 10.0),      // not the customer's account
+            new BatchOperation(OperationType.TRANSFER, 1L, 3L, 10.0)       // unknown target
+        ), BatchMode.BEST_EFFORT, "me");
+
+        assertThat(result.committed()).isTrue();
+        assertThat(result.items()).extracting(Item::status).containsExactly(
+            Status.REJECTED, Status.APPLIED, Status.APPLIED, Status.REJECTED, Status.REJECTED);
+        assertThat(result.items()).extracting(Item::code).containsExactly(
+            ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT, null, null,
+            ErrorCode.ACCOUNT_NOT_OWNED, ErrorCode.DESTINATION_NOT_FOUND);
+        assertThat(result.items().get(2).transactions()).hasSize(2);
+        assertThat(mine.getBalance()).isEqualTo(50.0);
+        assertThat(other.getBalance()).isEqualTo(150.0);
+
+        // one query for all the accounts, one batched insert, one snapshot per account
+        verify(accountRepository, times(1)).findWithCustomerByIdIn(anyCollection());
+        verify(accountRepository, never()).findWithCustomerById(any());
+        ArgumentCaptor<List<TransactionEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(TransactionEntity::getBalanceAfter).containsExactly(200.0, 50.0, 150.0);
+        verify(snapshots, times(2)).record(any(), any(), anyDouble());
+        verify(counters).record(eq(saved.getValue()), any());
+    }
+
+    @Test
+    void executeBatch_allOrNothing_shouldApplyNothingWhenAnOperationIsRejected() {
+        AccountEntity mine = AccountEntity.builder()
+            .id(1L).balance(100.0).overdraftLimit(0.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findWithCustomerByIdIn(anyCollection())).thenReturn(List.of(mine));
+
+        BatchResult result = service.executeBatch(List.of(
+            new BatchOperation(OperationType.DEPOSIT, 1L, null, 10.0),
+            new BatchOperation(OperationType.WITHDRAWAL, 1L, null, 500.0)
+        ), BatchMode.ALL_OR_NOTHING, "me");
+
+        assertThat(result.committed()).isFalse();
+        assertThat(result.items()).extracting(Item::status).containsExactly(Status.NOT_APPLIED, Status.REJECTED);
+        assertThat(mine.getBalance()).isEqualTo(100.0);
+        verify(transactionRepository, never()).saveAll(anyList());
+        verifyNoInteractions(snapshots, counters);
+    }
+
+    @Test
+    void executeBatch_shouldFail_whenEmptyOrTooLarge() {
+        assertThrows(IllegalArgumentException.class,
+            () -> service.executeBatch(List.of(), BatchMode.BEST_EFFORT, "me"));
+        List<BatchOperation> tooMany = java.util.Collections.nCopies(BankService.MAX_BATCH_SIZE + 1,
+            new BatchOperation(OperationType.DEPOSIT, 1L, null, 1.0));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.executeBatch(tooMany, BatchMode.BEST_EFFORT, "me"));
     }
 
     @Test
@@ -262,12 +512,12 @@ public class BankServiceImplTest {
             .id(fromId).balance(100.0).overdraftLimit(-200.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
         AccountEntity to = AccountEntity.builder().id(toId).balance(50.0).overdraftLimit(-200.0).currency(Currency.EUR).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(fromId)).thenReturn(Optional.of(from));
-        when(accountRepository.findById(toId)).thenReturn(Optional.of(to));
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(toId)).thenReturn(Optional.of(to));
 
-        IllegalArgumentException ex1 = assertThrows(IllegalArgumentException.class, () -> service.transfer(fromId, toId, 0.0, "me"));
+        BusinessRejection ex1 = assertThrows(BusinessRejection.class, () -> service.transfer(fromId, toId, 0.0, "me"));
         assertThat(ex1.getMessage()).contains("positive");
-        IllegalArgumentException ex2 = assertThrows(IllegalArgumentException.class, () -> service.transfer(fromId, toId, -10.0, "me"));
+        BusinessRejection ex2 = assertThrows(BusinessRejection.class, () -> service.transfer(fromId, toId, -10.0, "me"));
         assertThat(ex2.getMessage()).contains("positive");
         verify(transactionRepository, never()).saveAll(anyList());
         verify(accountRepository, never()).saveAll(anyList());
@@ -277,18 +527,19 @@ public class BankServiceImplTest {
     void transfer_shouldFail_forSameAccount() {
         Long fromId = 1L, toId = 1L;
         AccountEntity from = AccountEntity.builder().id(fromId).customer(createCustomerEntity()).build();
-        when(accountRepository.findById(fromId)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.of(from));
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        IllegalArgumentException ex = assertThrows(
-            IllegalArgumentException.class,
+        BusinessRejection ex = assertThrows(
+            BusinessRejection.class,
             () -> service.transfer(fromId, toId, 10.0, "me"));
         assertThat(ex.getMessage()).contains("Cannot transfer to the same account");
+        assertThat(ex.code()).isEqualTo(ErrorCode.SAME_ACCOUNT_TRANSFER);
     }
 
     @Test
     void transfer_shouldFail_whenFromAccountNotFound() {
         Long fromId = 1L, toId = 2L;
-        when(accountRepository.findById(fromId)).thenReturn(Optional.empty());
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.empty());
 
         EntityNotFoundException ex = assertThrows(
             EntityNotFoundException.class, () -> service.transfer(fromId, toId, 10.0, "me")
@@ -304,8 +555,8 @@ public class BankServiceImplTest {
         AccountEntity from = AccountEntity.builder()
             .id(fromId).balance(100.0).overdraftLimit(-200.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(fromId)).thenReturn(Optional.of(from));
-        when(accountRepository.findById(toId)).thenReturn(Optional.empty());
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(toId)).thenReturn(Optional.empty());
 
         EntityNotFoundException ex = assertThrows(
             EntityNotFoundException.class, () -> service.transfer(fromId, toId, 10.0, "me")
@@ -322,8 +573,8 @@ public class BankServiceImplTest {
             .id(fromId).balance(100.0).overdraftLimit(-200.0).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
         AccountEntity to = AccountEntity.builder().id(toId).balance(50.0).overdraftLimit(-200.0).currency(Currency.EUR).build();
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(fromId)).thenReturn(Optional.of(from));
-        when(accountRepository.findById(toId)).thenReturn(Optional.of(to));
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(toId)).thenReturn(Optional.of(to));
 
         AccessDeniedException ex = assertThrows(AccessDeniedException.class, () -> service.transfer(fromId, toId, 10.0, "me"));
         assertThat(ex.getMessage()).contains("does not belong");
@@ -340,15 +591,172 @@ public class BankServiceImplTest {
         AccountEntity to = AccountEntity.builder().id(toId).balance(0.0).overdraftLimit(-100.0).currency(Currency.EUR).build();
 
         when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
-        when(accountRepository.findById(fromId)).thenReturn(Optional.of(from));
-        when(accountRepository.findById(toId)).thenReturn(Optional.of(to));
+        when(accountRepository.findWithCustomerById(fromId)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithCustomerById(toId)).thenReturn(Optional.of(to));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.transfer(fromId, toId, 150.0, "me"));
+        BusinessRejection ex = assertThrows(BusinessRejection.class, () -> service.transfer(fromId, toId, 150.0, "me"));
         assertThat(ex.getMessage()).contains("overdraft");
         verify(transactionRepository, never()).saveAll(anyList());
         verify(accountRepository, never()).saveAll(anyList());
     }
 
+    @Test
+    void deposit_onSplitAccount_shouldCreditASlotWithoutTouchingBalance() {
+        Long accId = 1L;
+        AccountEntity account = AccountEntity.builder()
+            .id(accId).balance(100.0).balanceSlots(4).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
+        when(splitBalances.deposit(eq(account), eq(OperationType.DEPOSIT), eq(50.0), any(), eq("me")))
+            .thenReturn(175.0);
+
+        service.deposit(accId, 50.0, "me");
+
+        assertThat(account.getBalance()).isEqualTo(100.0);
+        ArgumentCaptor<TransactionEntity> txCaptor = ArgumentCaptor.forClass(TransactionEntity.class);
+        verify(transactionRepository).save(txCaptor.capture());
+        assertThat(txCaptor.getValue().getBalanceAfter()).isEqualTo(175.0);
+        assertThat(txCaptor.getValue().isApproximateBalance()).isTrue();
+    }
+
+    @Test
+    void withdraw_onSplitAccount_shouldPrepareDebitBeforeOverdraftCheck() {
+        Long accId = 1L;
+        AccountEntity account = AccountEntity.builder()
+            .id(accId).balance(10.0).overdraftLimit(0).balanceSlots(4).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findWithCustomerById(accId)).thenReturn(Optional.of(account));
+        // consolidation folds 90 from the slots into the account balance
+        doAnswer(inv -> {
+            account.setBalance(100.0);
+            return null;
+        }).when(splitBalances).prepareDebit(account, 60.0);
+        when(splitBalances.total(account)).thenAnswer(inv -> account.getBalance());
+
+        service.withdraw(accId, 60.0, "me");
+
+        assertThat(account.getBalance()).isEqualTo(40.0);
+        verify(accountRepository).save(account);
+    }
+
+    @Test
+    void getBalanceAt_shouldAnswerFromSnapshots() {
+        LocalDateTime at = LocalDateTime.of(2025, 3, 1, 12, 0);
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+        when(snapshots.balanceAt(1L, at)).thenReturn(OptionalDouble.of(42.0));
+
+        Balance balance = service.getBalanceAt(1L, at);
+
+        assertThat(balance).isEqualTo(new Balance(1L, at, 42.0, Currency.EUR));
+    }
+
+    @Test
+    void getBalanceAt_shouldReturnCurrentBalance_whenAccountNeverMoved() {
+        LocalDateTime at = LocalDateTime.of(2025, 3, 1, 12, 0);
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+        when(snapshots.balanceAt(1L, at)).thenReturn(OptionalDouble.empty());
+
+        assertThat(service.getBalanceAt(1L, at).balance()).isEqualTo(100.0);
+    }
+
+    @Test
+    void getBalanceAt_shouldReturnTheOpeningBalance_beforeTheFirstTransaction() {
+        LocalDateTime at = LocalDateTime.of(2025, 3, 1, 12, 0);
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+        when(snapshots.balanceAt(1L, at)).thenReturn(OptionalDouble.empty());
+        when(transactionRepository.findFirstByAccountIdOrderByDateAscIdAsc(1L)).thenReturn(Optional.of(
+            TransactionEntity.builder().account(account).type(OperationType.WITHDRAWAL).amount(30)
+                .balanceAfter(70.0).date(at.plusDays(1)).build()));
+
+        assertThat(service.getBalanceAt(1L, at)).isEqualTo(new Balance(1L, at, 100.0, Currency.EUR));
+    }
+
+    @Test
+    void getBalanceAt_shouldFail_ifAccountNotOwned() {
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).customer(createOtherCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+
+        assertThrows(AccessDeniedException.class, () -> service.getBalanceAt(1L, LocalDateTime.now()));
+        verifyNoInteractions(snapshots);
+    }
+
+    @Test
+    void getBalanceHistory_shouldRejectInvalidRanges() {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> service.getBalanceHistory(1L, day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getBalanceHistory(1L, day, day.plusDays(BankServiceImpl.MAX_HISTORY_DAYS)));
+        verifyNoInteractions(accountRepository, snapshots);
+    }
+
+    @Test
+    void getBalanceHistory_shouldUseCurrentBalance_whenAccountNeverMoved() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).balance(100.0).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+        when(snapshots.balanceAt(1L, from.atStartOfDay().minusNanos(1))).thenReturn(OptionalDouble.empty());
+
+        service.getBalanceHistory(1L, from, from.plusDays(9));
+
+        verify(snapshots).history(1L, Currency.EUR, from, from.plusDays(9), OptionalDouble.of(100.0));
+    }
+
+    @Test
+    void getActivityStatistics_shouldFoldDailyAggregatesIntoIsoWeeks() {
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+        when(transactionRepository.aggregateByDay(1L, monday.atStartOfDay(), monday.plusDays(14).atStartOfDay()))
+            .thenReturn(List.of(
+                new DailyActivity(OperationType.DEPOSIT, true, monday.plusDays(8), 1, 5),
+                new DailyActivity(OperationType.DEPOSIT, true, monday, 2, 20),
+                new DailyActivity(OperationType.DEPOSIT, true, monday.plusDays(6), 1, 10),
+                new DailyActivity(OperationType.WITHDRAWAL, false, monday.plusDays(2), 1, 7)));
+
+        ActivityStatistics statistics = service.getActivityStatistics(1L, monday, monday.plusDays(13), Granularity.WEEK);
+
+        assertThat(statistics.buckets()).containsExactly(
+            new Bucket(monday, OperationType.DEPOSIT, true, 3, 30),
+            new Bucket(monday, OperationType.WITHDRAWAL, false, 1, 7),
+            new Bucket(monday.plusDays(7), OperationType.DEPOSIT, true, 1, 5));
+        verify(transactionRepository, never()).findByAccountIdOrderByDateDesc(any());
+    }
+
+    @Test
+    void getActivityStatistics_shouldKeepIncomingAndOutgoingTransfersApart() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        AccountEntity account = AccountEntity.builder()
+            .id(1L).customer(createCustomerEntity()).currency(Currency.EUR).build();
+        when(customerService.getCurrentCustomer()).thenReturn(createCustomer());
+        when(accountRepository.findAccountById(1L)).thenReturn(Optional.of(account));
+        when(transactionRepository.aggregateByMonth(1L, from.atStartOfDay(), from.plusMonths(1).atStartOfDay()))
+            .thenReturn(List.of(
+                new MonthlyActivity(OperationType.TRANSFER, false, 2025, 1, 1, 40),
+                new MonthlyActivity(OperationType.TRANSFER, true, 2025, 1, 2, 100)));
+
+        ActivityStatistics statistics = service.getActivityStatistics(1L, from, from.plusMonths(1).minusDays(1),
+            Granularity.MONTH);
+
+        assertThat(statistics.buckets()).containsExactly(
+            new Bucket(from, OperationType.TRANSFER, true, 2, 100),
+            new Bucket(from, OperationType.TRANSFER, false, 1, 40));
+    }
+
     private CustomerEntity createCustomerEntity() {
         return new CustomerEntity(99L, "11111111-1111-1111-1111-111111111111", "Test", "t@test");
     }
@@ -0,0 +1,20 @@
+package org.itinov.bankApp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldNeverMissAnAddedKeyAndRarelyMatchAnUnknownOne() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("ACC-" + i));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("ACC-" + i));
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("UNKNOWN-" + i)).count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
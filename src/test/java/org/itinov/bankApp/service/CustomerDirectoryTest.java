@@ -0,0 +1,61 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.config.CustomerDirectoryProperties;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository.DirectoryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CustomerDirectoryTest {
+
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setup() {
+        customerRepository = mock(CustomerRepository.class);
+        when(customerRepository.findDirectoryEntries(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(new DirectoryEntry(51L, "John Smith", "john@example.com")));
+    }
+
+    private CustomerDirectory directory(Duration rebuildInterval) {
+        return new CustomerDirectory(customerRepository,
+            new CustomerDirectoryProperties(true, Duration.ofSeconds(5), rebuildInterval, 10));
+    }
+
+    @Test
+    void refresh_shouldOnlyReadTheCustomersCreatedSinceTheLastIndexedId() {
+        CustomerDirectory directory = directory(Duration.ofMinutes(10));
+        directory.refresh();
+        when(customerRepository.findDirectoryEntries(eq(51L), any(Limit.class)))
+            .thenReturn(List.of(new DirectoryEntry(52L, "Jane Smithers", "jane@example.com")));
+
+        directory.refresh();
+
+        assertThat(directory.isReady()).isTrue();
+        assertThat(directory.find("smi", 5)).containsExactlyInAnyOrder(51L, 52L);
+        verify(customerRepository, times(1)).findDirectoryEntries(eq(0L), any(Limit.class));
+    }
+
+    @Test
+    void refresh_shouldRebuildTheIndexToCatchCustomersCommittedOutOfIdOrder() {
+        CustomerDirectory directory = directory(Duration.ZERO);
+        directory.refresh();
+
+        // customer 2 was drawn from an older sequence block and commits after customer 51 was indexed
+        when(customerRepository.findDirectoryEntries(eq(0L), any(Limit.class))).thenReturn(List.of(
+            new DirectoryEntry(2L, "Jane Smithers", "jane@example.com"),
+            new DirectoryEntry(51L, "John Smith", "john@example.com")));
+        directory.refresh();
+
+        assertThat(directory.find("smi", 5)).containsExactlyInAnyOrder(2L, 51L);
+    }
+}
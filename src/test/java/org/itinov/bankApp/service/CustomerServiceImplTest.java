@@ -1,6 +1,7 @@
 package org.itinov.bankApp.service;
 
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.CustomerPage;
 import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
 import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
 import org.itinov.bankApp.mapper.BankPersistenceMapper;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,19 +22,22 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 public class CustomerServiceImplTest {
 
     private CustomerRepository customerRepository;
     private BankPersistenceMapper mapper;
+    private CustomerDirectory directory;
     private CustomerServiceImpl service;
 
     @BeforeEach
     void setup() {
         customerRepository = mock(CustomerRepository.class);
         mapper = mock(BankPersistenceMapper.class);
-        service = new CustomerServiceImpl(customerRepository, mapper);
+        directory = mock(CustomerDirectory.class);
+        service = new CustomerServiceImpl(customerRepository, mapper, directory);
     }
 
     @AfterEach
@@ -41,12 +46,53 @@ public class CustomerServiceImplTest {
     }
 
     @Test
-    void findAllCustomers_shouldMapEntities() {
-        when(customerRepository.findAll()).thenReturn(List.of(new CustomerEntity(), new CustomerEntity()));
+    void findCustomers_shouldMapEntitiesAndReturnTheNextKey() {
+        CustomerEntity c1 = CustomerEntity.builder().id(3L).build();
+        CustomerEntity c2 = CustomerEntity.builder().id(8L).build();
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(c1, c2));
         when(mapper.toDomain(any(CustomerEntity.class))).thenReturn(new Customer(1L, "111-111-111-111", "n", "e"));
 
-        List<Customer> list = service.findAllCustomers();
-        assertThat(list).hasSize(2);
+        CustomerPage page = service.findCustomers(null, 2);
+        assertThat(page.items()).hasSize(2);
+        assertThat(page.nextAfterId()).isEqualTo(8L);
+        verify(customerRepository, never()).findAll();
+    }
+
+    @Test
+    void findCustomers_shouldEndOnAShortPage() {
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(8L, Limit.of(2)))
+            .thenReturn(List.of(CustomerEntity.builder().id(9L).build()));
+
+        assertThat(service.findCustomers(8L, 2).nextAfterId()).isNull();
+        assertThrows(IllegalArgumentException.class, () -> service.findCustomers(null, CustomerService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void searchCustomers_shouldKeepTheOrderOfTheInMemoryIndex() {
+        CustomerEntity smith = CustomerEntity.builder().id(1L).name("Jane Smith").build();
+        CustomerEntity smithers = CustomerEntity.builder().id(2L).name("Smithers").build();
+        when(directory.isReady()).thenReturn(true);
+        when(directory.find("smi", 5)).thenReturn(List.of(1L, 2L));
+        when(customerRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(smithers, smith));
+        when(mapper.toDomain(any(CustomerEntity.class))).thenAnswer(inv -> {
+            CustomerEntity c = inv.getArgument(0);
+            return new Customer(c.getId(), null, c.getName(), null);
+        });
+
+        assertThat(service.searchCustomers("smi", 5)).extracting(Customer::id).containsExactly(1L, 2L);
+        verify(customerRepository, never()).findByNameStartingWithIgnoreCaseOrderByName(any(), any());
+    }
+
+    @Test
+    void searchCustomers_shouldUseTheDatabaseUntilTheDirectoryIsLoaded() {
+        CustomerEntity jane = CustomerEntity.builder().id(1L).name("Jane").email("jane@example.com").build();
+        when(customerRepository.findByNameStartingWithIgnoreCaseOrderByName("ja", Limit.of(5))).thenReturn(List.of(jane));
+        when(customerRepository.findByEmailStartingWithIgnoreCaseOrderByEmail("ja", Limit.of(5))).thenReturn(List.of(jane));
+        when(mapper.toDomain(jane)).thenReturn(new Customer(1L, null, "Jane", "jane@example.com"));
+
+        assertThat(service.searchCustomers(" ja ", 5)).hasSize(1);
+        assertThrows(IllegalArgumentException.class, () -> service.searchCustomers(" ", 5));
+        verify(directory, never()).find(any(), anyInt());
     }
 
     @Test
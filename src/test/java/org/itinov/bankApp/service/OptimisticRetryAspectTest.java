@@ -0,0 +1,85 @@
+package org.itinov.bankApp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.itinov.bankApp.config.OptimisticRetryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+public class OptimisticRetryAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetryAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new OptimisticRetryAspect(
+            new OptimisticRetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(2)), meterRegistry);
+        joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn("deposit");
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void shouldReturnImmediately_whenNoConflict() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        assertThat(aspect.retryOnConflict(joinPoint)).isEqualTo("ok");
+        verify(joinPoint, times(1)).proceed();
+        assertThat(count(OptimisticRetryAspect.ATTEMPTS)).isEqualTo(1.0);
+        assertThat(count(OptimisticRetryAspect.CONFLICTS)).isZero();
+    }
+
+    @Test
+    void shouldRetry_untilSuccess() throws Throwable {
+        when(joinPoint.proceed())
+            .thenThrow(conflict())
+            .thenReturn("ok");
+
+        assertThat(aspect.retryOnConflict(joinPoint)).isEqualTo("ok");
+        verify(joinPoint, times(2)).proceed();
+        assertThat(count(OptimisticRetryAspect.ATTEMPTS)).isEqualTo(2.0);
+        assertThat(count(OptimisticRetryAspect.CONFLICTS)).isEqualTo(1.0);
+        assertThat(count(OptimisticRetryAspect.RETRIES)).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldGiveUp_afterMaxAttempts() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(conflict());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retryOnConflict(joinPoint));
+        verify(joinPoint, times(3)).proceed();
+        assertThat(count(OptimisticRetryAspect.CONFLICTS)).isEqualTo(3.0);
+        assertThat(count(OptimisticRetryAspect.RETRIES)).isEqualTo(2.0);
+        assertThat(count(OptimisticRetryAspect.EXHAUSTED)).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotRetry_businessErrors() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalArgumentException("Withdrawal would exceed overdraft limit"));
+
+        assertThrows(IllegalArgumentException.class, () -> aspect.retryOnConflict(joinPoint));
+        verify(joinPoint, times(1)).proceed();
+        assertThat(count(OptimisticRetryAspect.CONFLICTS)).isZero();
+    }
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("AccountEntity", 1L);
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).tag("operation", "deposit").counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
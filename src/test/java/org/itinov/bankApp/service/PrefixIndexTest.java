@@ -0,0 +1,53 @@
+package org.itinov.bankApp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    @Test
+    void find_shouldMatchNamesWordsAndEmailsIgnoringCaseAndAccents() {
+        PrefixIndex index = PrefixIndex.EMPTY
+            .plus(PrefixIndex.entriesOf(1, "Élodie Martin", "elodie@example.com"))
+            .plus(PrefixIndex.entriesOf(2, "Jane Smith", "jane@example.com"))
+            .plus(PrefixIndex.entriesOf(3, "Marc Smithson", "marc@example.org"));
+
+        assertThat(index.find(PrefixIndex.normalize("ELO"), 10)).containsExactly(1L);
+        assertThat(index.find("mar", 10)).containsExactly(3L, 1L);
+        assertThat(index.find("smith", 10)).containsExactly(2L, 3L);
+        assertThat(index.find("jane@", 10)).containsExactly(2L);
+        assertThat(index.find("zz", 10)).isEmpty();
+    }
+
+    @Test
+    void find_shouldReturnEachIdOnceAndStopAtTheLimit() {
+        PrefixIndex index = PrefixIndex.EMPTY
+            .plus(PrefixIndex.entriesOf(1, "Anna Annabel", "anna@example.com"))
+            .plus(PrefixIndex.entriesOf(2, "Annie", "annie@example.com"));
+
+        assertThat(index.find("ann", 10)).containsExactly(1L, 2L);
+        assertThat(index.find("ann", 1)).containsExactly(1L);
+    }
+
+    @Test
+    void plus_shouldKeepTheKeysSortedAcrossLevelMerges() {
+        PrefixIndex index = PrefixIndex.EMPTY;
+        // added in decreasing order, by batches large enough to fold the delta into the base several times
+        for (long batch = 9; batch >= 0; batch--) {
+            List<PrefixIndex.Entry> entries = new ArrayList<>();
+            for (long id : LongStream.range(batch * 500, (batch + 1) * 500).toArray()) {
+                entries.add(new PrefixIndex.Entry("user%05d".formatted(id), id));
+            }
+            index = index.plus(entries);
+        }
+
+        assertThat(index.size()).isEqualTo(5000);
+        assertThat(index.find("user0", 3)).containsExactly(0L, 1L, 2L);
+        assertThat(index.find("user0049", 100)).hasSize(10).startsWith(490L).endsWith(499L);
+    }
+}
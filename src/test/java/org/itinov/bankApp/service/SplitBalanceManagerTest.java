@@ -0,0 +1,127 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.config.SplitBalanceProperties;
+import org.itinov.bankApp.domain.enums.Currency;
+import org.itinov.bankApp.domain.enums.OperationType;
+import org.itinov.bankApp.domain.model.AccountActivity;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.repository.AccountActivityRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountBalanceSlotRepository;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.BalanceSnapshotRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.mapper.BankPersistenceMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class SplitBalanceManagerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 2, 9, 0);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AccountActivityRepository activityRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private ActivityCounters counters;
+    private SplitBalanceManager manager;
+    private AccountEntity account;
+
+    @BeforeEach
+    void setup() {
+        counters = new ActivityCounters(activityRepository, slotRepository, accountRepository,
+            Mappers.getMapper(BankPersistenceMapper.class));
+        manager = new SplitBalanceManager(accountRepository, slotRepository, snapshotRepository, counters,
+            new SplitBalanceProperties(4, List.of(), "-"));
+        CustomerEntity customer = customerRepository.save(
+            CustomerEntity.builder().name("Shop").email("shop@example.com").keycloakId("kc-shop").build());
+        account = accountRepository.save(AccountEntity.builder()
+            .number("ACC-HOT").balance(100).overdraftLimit(0).currency(Currency.EUR).customer(customer).build());
+    }
+
+    @Test
+    void enable_shouldCreateSlots() {
+        manager.enable(account, 4);
+
+        assertThat(account.getBalanceSlots()).isEqualTo(4);
+        assertThat(slotRepository.findByAccountIdForUpdate(account.getId())).hasSize(4);
+        assertThat(manager.total(account)).isEqualTo(100.0);
+    }
+
+    @Test
+    void deposit_shouldLandOnSlotsAndBeSummedOnRead() {
+        manager.enable(account, 4);
+
+        manager.deposit(account, OperationType.DEPOSIT, 10, T0, "a");
+        manager.deposit(account, OperationType.DEPOSIT, 20, T0, "b");
+        double total = manager.deposit(account, OperationType.DEPOSIT, 30, T0, "c");
+
+        assertThat(account.getBalance()).isEqualTo(100.0);
+        assertThat(total).isEqualTo(160.0);
+        assertThat(manager.total(account)).isEqualTo(160.0);
+    }
+
+    @Test
+    void prepareDebit_shouldConsolidateOnlyWhenNeeded() {
+        manager.enable(account, 4);
+        manager.deposit(account, OperationType.DEPOSIT, 50, T0, "a");
+
+        manager.prepareDebit(account, 80);
+        assertThat(account.getBalance()).isEqualTo(100.0);
+
+        manager.prepareDebit(account, 120);
+        assertThat(account.getBalance()).isEqualTo(150.0);
+        assertThat(slotRepository.sumByAccountId(account.getId())).isZero();
+    }
+
+    @Test
+    void deposit_shouldCountCreditsOnTheSlotsUntilConsolidation() {
+        manager.enable(account, 4);
+        manager.deposit(account, OperationType.DEPOSIT, 10, T0, "a");
+        manager.deposit(account, OperationType.TRANSFER, 20, T0.plusHours(1), "b");
+        manager.deposit(account, OperationType.DEPOSIT, 30, T0.minusHours(1), "c");
+
+        assertThat(activityRepository.findById(account.getId())).isEmpty();
+        AccountActivity expected = new AccountActivity(3, 40, 0, 20, 0, T0.plusHours(1));
+        assertThat(counters.findAll(List.of(account))).containsEntry(account.getId(), expected);
+
+        manager.consolidate(account);
+
+        assertThat(activityRepository.findById(account.getId())).isPresent();
+        assertThat(slotRepository.findTotals(List.of(account.getId())))
+            .allSatisfy(totals -> assertThat(totals.transactionCount()).isZero());
+        assertThat(counters.findAll(List.of(account))).containsEntry(account.getId(), expected);
+    }
+
+    @Test
+    void enable_withZeroSlots_shouldFoldSlotsBackIntoBalance() {
+        manager.enable(account, 4);
+        manager.deposit(account, OperationType.DEPOSIT, 25, T0, "a");
+
+        manager.enable(account, 0);
+
+        assertThat(account.isSplitBalance()).isFalse();
+        assertThat(account.getBalance()).isEqualTo(125.0);
+        assertThat(slotRepository.findByAccountIdForUpdate(account.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,108 @@
+package org.itinov.bankApp.service;
+
+import org.itinov.bankApp.domain.enums.Frequency;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.StandingOrderEntity;
+import org.itinov.bankApp.infrastructure.repository.StandingOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class StandingOrderRunnerTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2025, 1, 31, 9, 0);
+
+    private StandingOrderRepository orderRepository;
+    private BankService bankService;
+    private StandingOrderRunner runner;
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(StandingOrderRepository.class);
+        bankService = mock(BankService.class);
+        runner = new StandingOrderRunner(orderRepository, bankService);
+    }
+
+    @Test
+    void execute_shouldTransferAndMoveToNextOccurrence() {
+        StandingOrderEntity order = order(FIRST, null);
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+
+        Optional<LocalDateTime> next = runner.execute(5L, FIRST.plusMinutes(1));
+
+        verify(bankService).executeScheduledTransfer(1L, 2L, 25.0, "jane");
+        // monthly occurrences are computed from the first execution: Jan 31 -> Feb 28 -> Mar 31
+        assertThat(next).contains(LocalDateTime.of(2025, 2, 28, 9, 0));
+        assertThat(order.getLastExecution()).isEqualTo(FIRST);
+
+        runner.execute(5L, LocalDateTime.of(2025, 3, 1, 0, 0));
+        assertThat(order.getNextExecution()).isEqualTo(LocalDateTime.of(2025, 3, 31, 9, 0));
+    }
+
+    @Test
+    void execute_shouldCatchUpOneOccurrenceAtATime() {
+        StandingOrderEntity order = order(FIRST, null);
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+
+        // after a three months downtime, each call runs one missed occurrence and returns the next overdue one
+        LocalDateTime now = LocalDateTime.of(2025, 5, 1, 0, 0);
+        assertThat(runner.execute(5L, now)).contains(LocalDateTime.of(2025, 2, 28, 9, 0));
+        assertThat(runner.execute(5L, now)).contains(LocalDateTime.of(2025, 3, 31, 9, 0));
+        assertThat(runner.execute(5L, now)).contains(LocalDateTime.of(2025, 4, 30, 9, 0));
+        assertThat(runner.execute(5L, now)).contains(LocalDateTime.of(2025, 5, 31, 9, 0));
+        assertThat(runner.execute(5L, now)).contains(LocalDateTime.of(2025, 5, 31, 9, 0));
+        verify(bankService, times(4)).executeScheduledTransfer(anyLong(), anyLong(), anyDouble(), anyString());
+    }
+
+    @Test
+    void execute_shouldNotTransfer_whenNotYetDue() {
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order(FIRST, null)));
+
+        assertThat(runner.execute(5L, FIRST.minusSeconds(1))).contains(FIRST);
+        verifyNoInteractions(bankService);
+    }
+
+    @Test
+    void execute_shouldEndOrder_afterEndDate() {
+        StandingOrderEntity order = order(FIRST, LocalDate.of(2025, 2, 15));
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+
+        assertThat(runner.execute(5L, FIRST)).isEmpty();
+        assertThat(order.getNextExecution()).isNull();
+    }
+
+    @Test
+    void skip_shouldRecordErrorAndAdvance_onlyForTheRejectedOccurrence() {
+        StandingOrderEntity order = order(FIRST, null);
+        when(orderRepository.findById(5L)).thenReturn(Optional.of(order));
+
+        assertThat(runner.skip(5L, FIRST.minusDays(1), "stale")).contains(FIRST);
+        assertThat(order.getLastError()).isNull();
+
+        assertThat(runner.skip(5L, FIRST, "Transfer would exceed overdraft limit"))
+            .contains(LocalDateTime.of(2025, 2, 28, 9, 0));
+        assertThat(order.getLastError()).contains("overdraft");
+        verifyNoInteractions(bankService);
+    }
+
+    private StandingOrderEntity order(LocalDateTime first, LocalDate endDate) {
+        return StandingOrderEntity.builder()
+            .id(5L)
+            .fromAccount(AccountEntity.builder().id(1L).build())
+            .toAccount(AccountEntity.builder().id(2L).build())
+            .amount(25.0)
+            .frequency(Frequency.MONTHLY)
+            .firstExecution(first)
+            .nextExecution(first)
+            .endDate(endDate)
+            .performedBy("jane")
+            .build();
+    }
+}
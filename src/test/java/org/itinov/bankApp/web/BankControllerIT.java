@@ -2,7 +2,18 @@ package org.itinov.bankApp.web;
 
 import org.hamcrest.Matchers;
 import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.enums.BatchMode;
+import org.itinov.bankApp.domain.enums.ErrorCode;
+import org.itinov.bankApp.domain.enums.Granularity;
+import org.itinov.bankApp.domain.model.BatchResult;
+import org.itinov.bankApp.domain.model.BatchResult.Item;
+import org.itinov.bankApp.domain.model.BatchResult.Status;
 import org.itinov.bankApp.domain.model.Account;
+import org.itinov.bankApp.domain.model.TransactionFilter;
+import org.itinov.bankApp.domain.model.TransactionPage;
+import org.itinov.bankApp.domain.model.ActivityStatistics;
+import org.itinov.bankApp.domain.model.Balance;
+import org.itinov.bankApp.domain.model.BalanceHistory;
 import org.itinov.bankApp.domain.model.Transaction;
 import org.itinov.bankApp.domain.enums.Currency;
 import org.itinov.bankApp.service.BankService;
@@ -19,10 +30,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,6 +65,21 @@ class BankControllerIT {
             .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("/api/accounts/** is forbidden to authenticated users without the customer role")
+    void accountsForbiddenWithoutCustomerRole() throws Exception {
+        mockMvc.perform(get("/api/accounts/{id}/balance", 1)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin")))
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/accounts/{id}/deposit", 1)
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":10}"))
+            .andExpect(status().isForbidden());
+        Mockito.verifyNoInteractions(bankService);
+    }
+
     @Test
     @DisplayName("/api/accounts/customer/{id} forbidden when authenticated user is not the customer")
     void getAccountsForbiddenForOtherCustomer() throws Exception {
@@ -62,6 +91,85 @@ class BankControllerIT {
             .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("/api/accounts/customer/{id}/transactions passes the criteria and returns the next cursor")
+    void searchTransactions() throws Exception {
+        TransactionFilter filter = TransactionFilter.builder()
+            .type(OperationType.DEPOSIT)
+            .minAmount(10.0)
+            .from(LocalDate.of(2025, 1, 1))
+            .performedBy("Jane Smith")
+            .build();
+        Mockito.when(bankService.searchTransactions(5L, filter, "abc", 20)).thenReturn(new TransactionPage(List.of(
+            Transaction.builder().id(42L).amount(15.0).type(OperationType.DEPOSIT).currency(Currency.EUR).build()),
+            "next"));
+        mockMvc.perform(get("/api/accounts/customer/{id}/transactions", 5)
+                .param("type", "DEPOSIT")
+                .param("minAmount", "10")
+                .param("from", "2025-01-01")
+                .param("performedBy", "Jane Smith")
+                .param("cursor", "abc")
+                .param("limit", "20")
+                .header("Authorization", "Bearer fake-token")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(42))
+            .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("/api/accounts/{id}/balance returns the balance at the requested date")
+    void getBalanceAt() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2025, 1, 31, 23, 59, 59);
+        Mockito.when(bankService.getBalanceAt(1L, at)).thenReturn(new Balance(1L, at, 250.0, Currency.EUR));
+        mockMvc.perform(get("/api/accounts/{id}/balance", 1)
+                .param("at", "2025-01-31T23:59:59")
+                .header("Authorization", "Bearer fake-token")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(250.0))
+            .andExpect(jsonPath("$.currency").value("EUR"));
+    }
+
+    @Test
+    @DisplayName("/api/accounts/{id}/balance-history returns a columnar daily series")
+    void getBalanceHistory() throws Exception {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        Mockito.when(bankService.getBalanceHistory(1L, from, from.plusDays(2))).thenReturn(new BalanceHistory(1L,
+            Currency.EUR, new long[]{from.toEpochDay(), from.toEpochDay() + 1, from.toEpochDay() + 2},
+            new double[]{10.0, 10.0, 25.5}));
+        mockMvc.perform(get("/api/accounts/{id}/balance-history", 1)
+                .param("from", "2025-01-01")
+                .param("to", "2025-01-03")
+                .header("Authorization", "Bearer fake-token")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.dates.length()").value(3))
+            .andExpect(jsonPath("$.dates[0]").value(from.toEpochDay()))
+            .andExpect(jsonPath("$.balances[2]").value(25.5));
+    }
+
+    @Test
+    @DisplayName("/api/accounts/{id}/statistics returns aggregated buckets, monthly by default")
+    void getStatistics() throws Exception {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+        Mockito.when(bankService.getActivityStatistics(1L, from, to, Granularity.MONTH))
+            .thenReturn(new ActivityStatistics(1L, Currency.EUR, Granularity.MONTH, from, to, List.of(
+                new ActivityStatistics.Bucket(from, OperationType.DEPOSIT, true, 3, 120.0))));
+        mockMvc.perform(get("/api/accounts/{id}/statistics", 1)
+                .param("from", "2025-01-01")
+                .param("to", "2025-03-31")
+                .header("Authorization", "Bearer fake-token")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.granularity").value("MONTH"))
+            .andExpect(jsonPath("$.buckets[0].type").value("DEPOSIT"))
+            .andExpect(jsonPath("$.buckets[0].credit").value(true))
+            .andExpect(jsonPath("$.buckets[0].count").value(3))
+            .andExpect(jsonPath("$.buckets[0].total").value(120.0));
+    }
+
     @Test
     @DisplayName("Deposit endpoint requires auth and enforces ownership (403 if not owner)")
     void depositForbiddenIfNotOwner() throws Exception {
@@ -104,6 +212,101 @@ class BankControllerIT {
             .andExpect(content().string(Matchers.containsString("overdraft")));
     }
 
+    @Test
+    @DisplayName("Transfer by number returns 201, and 404 for an unknown account number")
+    void transferByNumber() throws Exception {
+        Mockito.when(bankService.transferToNumber(111L, "ACC-JOHN-001", 50.0, "jane")).thenReturn(List.of(
+            Transaction.builder().id(1L).amount(50.0).type(OperationType.TRANSFER).build(),
+            Transaction.builder().id(2L).amount(50.0).type(OperationType.TRANSFER).build()));
+        Mockito.when(bankService.transferToNumber(111L, "ACC-NOPE", 50.0, "jane"))
+            .thenThrow(new jakarta.persistence.EntityNotFoundException("To account not found"));
+
+        mockMvc.perform(post("/api/accounts/{id}/transfer-by-number", 111)
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"toAccountNumber\":\"ACC-JOHN-001\",\"amount\":50}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(post("/api/accounts/{id}/transfer-by-number", 111)
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"toAccountNumber\":\"ACC-NOPE\",\"amount\":50}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/accounts/{id}/transfer-by-number", 111)
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"toAccountNumber\":\" \",\"amount\":50}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Payout returns 201 with the debit and one credit per leg, 400 without legs")
+    void payout() throws Exception {
+        Mockito.when(bankService.payout(Mockito.eq(111L), Mockito.anyList(), Mockito.eq("jane"))).thenReturn(List.of(
+            Transaction.builder().id(1L).amount(30.0).type(OperationType.TRANSFER).build(),
+            Transaction.builder().id(2L).amount(10.0).type(OperationType.TRANSFER).build(),
+            Transaction.builder().id(3L).amount(20.0).type(OperationType.TRANSFER).build()));
+
+        mockMvc.perform(post("/api/accounts/{id}/payout", 111)
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"legs\":[{\"toAccountId\":222,\"amount\":10},{\"toAccountId\":333,\"amount\":20}]}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].amount").value(30.0));
+        mockMvc.perform(post("/api/accounts/{id}/payout", 111)
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"legs\":[]}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Batch returns 201 with one result per operation, 422 when an all-or-nothing batch is rejected")
+    void batch() throws Exception {
+        Mockito.when(bankService.executeBatch(Mockito.anyList(), Mockito.eq(BatchMode.BEST_EFFORT), Mockito.eq("jane")))
+            .thenReturn(new BatchResult(BatchMode.BEST_EFFORT, true, List.of(
+                new Item(0, Status.APPLIED, List.of(Transaction.builder().id(1L).amount(10.0).build()), null),
+                new Item(1, Status.REJECTED, List.of(), ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT))));
+        Mockito.when(bankService.executeBatch(Mockito.anyList(), Mockito.eq(BatchMode.ALL_OR_NOTHING), Mockito.eq("jane")))
+            .thenReturn(new BatchResult(BatchMode.ALL_OR_NOTHING, false, List.of(
+                new Item(0, Status.NOT_APPLIED, List.of(), null),
+                new Item(1, Status.REJECTED, List.of(), ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT))));
+        String operations = "[{\"type\":\"DEPOSIT\",\"accountId\":111,\"amount\":10},"
+            + "{\"type\":\"WITHDRAWAL\",\"accountId\":111,\"amount\":5000}]";
+
+        mockMvc.perform(post("/api/accounts/batch")
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"mode\":\"BEST_EFFORT\",\"operations\":" + operations + "}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.committed").value(true))
+            .andExpect(jsonPath("$.items[0].status").value("APPLIED"))
+            .andExpect(jsonPath("$.items[0].transactions[0].id").value(1))
+            .andExpect(jsonPath("$.items[1].code").value("WITHDRAWAL_EXCEEDS_OVERDRAFT"))
+            .andExpect(jsonPath("$.items[1].message").value("Withdrawal would exceed overdraft limit"));
+        mockMvc.perform(post("/api/accounts/batch")
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"mode\":\"ALL_OR_NOTHING\",\"operations\":" + operations + "}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.committed").value(false))
+            .andExpect(jsonPath("$.items[0].status").value("NOT_APPLIED"));
+        mockMvc.perform(post("/api/accounts/batch")
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"mode\":\"BEST_EFFORT\",\"operations\":[{\"type\":\"DEPOSIT\",\"accountId\":111,\"amount\":-1}]}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Transfer enforces ownership (403 if from account not owned)")
     void transferForbiddenIfNotOwner() throws Exception {
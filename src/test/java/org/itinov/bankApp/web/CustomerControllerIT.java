@@ -2,6 +2,7 @@ package org.itinov.bankApp.web;
 
 import org.itinov.bankApp.config.JwtTestConfig;
 import org.itinov.bankApp.domain.model.Customer;
+import org.itinov.bankApp.domain.model.CustomerPage;
 import org.itinov.bankApp.service.CustomerService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,12 +32,34 @@ class CustomerControllerIT {
     @Test
     @DisplayName("/api/public/customers is publicly accessible and returns 200")
     void publicCustomersAccessible() throws Exception {
-        // Return an empty list to avoid NPE in the controller when using MockitoBean
-        Mockito.when(customerService.findAllCustomers()).thenReturn(java.util.List.of());
+        // Return an empty page to avoid NPE in the controller when using MockitoBean
+        Mockito.when(customerService.findCustomers(null, 100)).thenReturn(new CustomerPage(java.util.List.of(), null));
         mockMvc.perform(get("/api/public/customers").accept(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("/api/public/customers pages with the after parameter and returns the next key")
+    void publicCustomersPaged() throws Exception {
+        Mockito.when(customerService.findCustomers(10L, 1)).thenReturn(new CustomerPage(
+            java.util.List.of(new Customer(11L, "kc", "Jane Smith", "jane@example.com")), 11L));
+        mockMvc.perform(get("/api/public/customers").param("after", "10").param("limit", "1")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].name").value("Jane Smith"))
+            .andExpect(jsonPath("$.nextAfterId").value(11));
+    }
+
+    @Test
+    @DisplayName("/api/public/customers/search returns the customers matching the prefix")
+    void publicCustomersSearch() throws Exception {
+        Mockito.when(customerService.searchCustomers("smi", 10)).thenReturn(
+            java.util.List.of(new Customer(1L, "kc", "Jane Smith", "jane@example.com")));
+        mockMvc.perform(get("/api/public/customers/search").param("q", "smi").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].email").value("jane@example.com"));
+    }
+
     @Test
     @DisplayName("/api/customer requires authenticated ROLE_customer and returns id")
     void currentCustomerRequiresAuth() throws Exception {
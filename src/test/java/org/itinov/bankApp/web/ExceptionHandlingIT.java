@@ -2,10 +2,12 @@ package org.itinov.bankApp.web;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.hamcrest.Matchers;
+import org.itinov.bankApp.domain.enums.ErrorCode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -43,6 +45,17 @@ class ExceptionHandlingIT {
             .andExpect(content().string(Matchers.containsString("Cannot transfer to the same account")));
     }
 
+    @Test
+    @DisplayName("Global ExceptionControllerAdvice returns 400 with code and message for a BusinessRejection")
+    void exceptionAdviceReturnsErrorBodyForRejection() throws Exception {
+        mockMvc.perform(post("/api/test/rejection")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.code").value("WITHDRAWAL_EXCEEDS_OVERDRAFT"))
+            .andExpect(jsonPath("$.message").value("Withdrawal would exceed overdraft limit"));
+    }
+
     @Test
     @DisplayName("Global ExceptionControllerAdvice returns 400 with message for RuntimeException")
     void exceptionAdviceReturnsBadRequestForRuntime() throws Exception {
@@ -70,6 +83,15 @@ class ExceptionHandlingIT {
             .andExpect(content().string(""));
     }
 
+    @Test
+    @DisplayName("Global ExceptionControllerAdvice returns 409 for unresolved optimistic lock conflicts")
+    void exceptionAdviceReturnsConflict() throws Exception {
+        mockMvc.perform(get("/api/test/conflict")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isConflict())
+            .andExpect(content().string(Matchers.containsString("modified concurrently")));
+    }
+
     @RestController
     static class ThrowingController {
         @PostMapping("/api/accounts/transfer")
@@ -77,6 +99,11 @@ class ExceptionHandlingIT {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
 
+        @PostMapping("/api/test/rejection")
+        public void rejection() {
+            throw ErrorCode.WITHDRAWAL_EXCEEDS_OVERDRAFT.rejection();
+        }
+
         @GetMapping("/api/test/runtime")
         public void runtime() {
             throw new RuntimeException("Something bad happened");
@@ -87,6 +114,11 @@ class ExceptionHandlingIT {
             throw new EntityNotFoundException("Entity with id 42 not found");
         }
 
+        @GetMapping("/api/test/conflict")
+        public void conflict() {
+            throw new ObjectOptimisticLockingFailureException("AccountEntity", 1L);
+        }
+
         @GetMapping("/api/test/forbidden")
         public void forbidden() {
             throw new AccessDeniedException("Access is denied");
@@ -0,0 +1,101 @@
+package org.itinov.bankApp.web;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.domain.exception.BusinessRejection;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.itinov.bankApp.service.BankService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.flight-recorder.enabled=true",
+    "bank.flight-recorder.directory=target/recordings-it"
+})
+@AutoConfigureMockMvc
+class FlightRecordingEndpointIT {
+
+    private static final String EVENT = "org.itinov.bankApp.BankOperation";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BankService bankService;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    JwtDecoder jwtDecoder;
+
+    @Test
+    @DisplayName("Bank operations are recorded and an admin dumps the recording through the actuator")
+    void dumpAsAdmin() throws Exception {
+        Long janeId = customerRepository.findByKeycloakId("11111111-1111-1111-1111-111111111111").orElseThrow().getId();
+        Long accountId = accountRepository.findIdsByCustomerId(janeId).getFirst();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwtDecoder.decode("jfr")));
+        try {
+            bankService.deposit(accountId, 42, "jfr");
+            assertThrows(BusinessRejection.class, () -> bankService.withdraw(accountId, 1e9, "jfr"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        mockMvc.perform(post("/actuator/flightrecording")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"file\":\"it.jfr\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.file").value("it.jfr"))
+            .andExpect(jsonPath("$.bytes").isNumber());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of("target/recordings-it/it.jfr")).stream()
+            .filter(event -> event.getEventType().getName().equals(EVENT))
+            .filter(event -> event.getLong("accountId") == accountId)
+            .toList();
+        RecordedEvent deposit = events.stream()
+            .filter(event -> event.getString("operation").equals("deposit")).findFirst().orElseThrow();
+        assertThat(deposit.getString("amountBucket")).isEqualTo("10-100");
+        assertThat(deposit.getString("outcome")).isEqualTo("OK");
+        assertThat(deposit.getLong("statements")).isPositive();
+        assertThat(deposit.getLong("rowsWritten")).isPositive();
+        assertThat(deposit.getDuration().isNegative()).isFalse();
+        RecordedEvent withdrawal = events.stream()
+            .filter(event -> event.getString("operation").equals("withdraw")).findFirst().orElseThrow();
+        assertThat(withdrawal.getString("amountBucket")).isEqualTo(">=100k");
+        assertThat(withdrawal.getString("outcome")).isEqualTo("BusinessRejection");
+    }
+
+    @Test
+    @DisplayName("Recordings are forbidden to customers")
+    void dumpAsCustomer() throws Exception {
+        mockMvc.perform(post("/actuator/flightrecording")
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isForbidden());
+    }
+}
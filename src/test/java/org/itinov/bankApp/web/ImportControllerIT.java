@@ -0,0 +1,66 @@
+package org.itinov.bankApp.web;
+
+import org.itinov.bankApp.batch.BatchReport;
+import org.itinov.bankApp.batch.ImportResult;
+import org.itinov.bankApp.batch.TransactionImportJob;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImportControllerIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    TransactionImportJob transactionImport;
+
+    @Test
+    @DisplayName("Transaction import returns the run report to an admin")
+    void importAsAdmin() throws Exception {
+        Mockito.when(transactionImport.importFile("ledger.csv")).thenReturn(new ImportResult(
+            new BatchReport(TransactionImportJob.JOB_NAME, "ledger.csv:10:1", 1, 12, 10, Duration.ofMillis(40)),
+            2, List.of(new ImportResult.Rejection(120, "unknown account ACC-X"))));
+
+        mockMvc.perform(post("/api/admin/imports/transactions")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"file\":\"ledger.csv\"}")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.lines").value(12))
+            .andExpect(jsonPath("$.imported").value(10))
+            .andExpect(jsonPath("$.rejected").value(2))
+            .andExpect(jsonPath("$.rejections[0].offset").value(120));
+    }
+
+    @Test
+    @DisplayName("Transaction import is forbidden to customers")
+    void importAsCustomer() throws Exception {
+        mockMvc.perform(post("/api/admin/imports/transactions")
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"file\":\"ledger.csv\"}"))
+            .andExpect(status().isForbidden());
+        Mockito.verifyNoInteractions(transactionImport);
+    }
+}
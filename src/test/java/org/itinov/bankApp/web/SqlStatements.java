@@ -0,0 +1,41 @@
+package org.itinov.bankApp.web;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Assertions on the SQL statements of a request, read from the headers written by {@link SqlStatisticsFilter}.
+ * The test must enable them with {@code bank.query-inspection.response-headers=true}.
+ * <p>
+ * Usage: {@code mockMvc.perform(get(...)).andExpect(SqlStatements.atMost(3))}, so that a change adding a query per
+ * row (N+1) fails the test of the endpoint.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    /**
+     * @param max the number of statements the endpoint may execute
+     */
+    public static ResultMatcher atMost(int max) {
+        return result -> assertThat(count(result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER)))
+            .as("SQL statements executed by %s", result.getRequest().getRequestURI())
+            .isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * @param max the number of rows the endpoint may read
+     */
+    public static ResultMatcher rowsAtMost(int max) {
+        return result -> assertThat(count(result.getResponse().getHeader(SqlStatisticsFilter.ROWS_HEADER)))
+            .as("SQL rows read by %s", result.getRequest().getRequestURI())
+            .isLessThanOrEqualTo(max);
+    }
+
+    private static long count(String header) {
+        assertThat(header).as("SQL statistics header, is bank.query-inspection.response-headers set?").isNotNull();
+        return Long.parseLong(header);
+    }
+}
@@ -0,0 +1,117 @@
+package org.itinov.bankApp.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.itinov.bankApp.infrastructure.entity.AccountEntity;
+import org.itinov.bankApp.infrastructure.entity.CustomerEntity;
+import org.itinov.bankApp.infrastructure.jdbc.SqlStatistics;
+import org.itinov.bankApp.infrastructure.repository.AccountRepository;
+import org.itinov.bankApp.infrastructure.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest(properties = {
+    "bank.standing-orders.enabled=false",
+    "bank.query-inspection.response-headers=true"
+})
+@AutoConfigureMockMvc
+class SqlStatisticsIT {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    CustomerRepository customerRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Long janeId;
+    Long accountId;
+
+    @BeforeEach
+    void findJane() {
+        // the test token authenticates Jane
+        CustomerEntity jane = customerRepository.findByKeycloakId("11111111-1111-1111-1111-111111111111")
+            .orElseThrow();
+        janeId = jane.getId();
+        accountId = accountRepository.findIdsByCustomerId(janeId).getFirst();
+    }
+
+    @Test
+    @DisplayName("the accounts of a customer are read without a query per account or per transaction")
+    void accountsOfACustomer() throws Exception {
+        mockMvc.perform(get("/api/accounts/customer/{id}", janeId)
+                .header("Authorization", "Bearer fake-token")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(SqlStatisticsFilter.ROWS_HEADER))
+            .andExpect(header().exists(SqlStatisticsFilter.TIME_HEADER))
+            .andExpect(SqlStatements.atMost(3));
+
+        DistributionSummary statements = meterRegistry.find("bank.http.sql.statements")
+            .tags("method", "GET", "uri", "/api/accounts/customer/{customerId}").summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("the history of an account is read in a bounded number of queries")
+    void historyOfAnAccount() throws Exception {
+        mockMvc.perform(get("/api/accounts/{id}/transactions", accountId)
+                .header("Authorization", "Bearer fake-token")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(SqlStatements.atMost(3));
+    }
+
+    @Test
+    @DisplayName("a deposit runs a bounded number of queries")
+    void deposit() throws Exception {
+        mockMvc.perform(post("/api/accounts/{id}/deposit", accountId)
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 10}"))
+            .andExpect(status().isCreated())
+            // customer, account, insert, update, snapshot, counters and the occasional id sequence call
+            .andExpect(SqlStatements.atMost(11));
+    }
+
+    @Test
+    @DisplayName("statements, rows and repeated statements are counted on the current thread only")
+    void countsTheStatementsOfTheCurrentThread() {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                jdbc.queryForList("select id from customer_entity where id = ?", Long.class, janeId);
+            }
+        } finally {
+            SqlStatistics.stop();
+        }
+        jdbc.queryForList("select id from customer_entity", Long.class);
+
+        assertThat(statistics.statements()).isEqualTo(3);
+        assertThat(statistics.rows()).isEqualTo(3);
+        assertThat(statistics.repeatedStatements(2)).containsEntry("select id from customer_entity where id = ?", 3);
+        assertThat(statistics.repeatedStatements(3)).isEmpty();
+        assertThat(SqlStatistics.current()).isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package org.itinov.bankApp.web;
+
+import org.itinov.bankApp.batch.BatchReport;
+import org.itinov.bankApp.batch.SnapshotResult;
+import org.itinov.bankApp.batch.StateSnapshotJob;
+import org.itinov.bankApp.config.JwtTestConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(JwtTestConfig.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+class StateSnapshotEndpointIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    StateSnapshotJob stateSnapshot;
+
+    @Test
+    @DisplayName("An admin writes a snapshot through the actuator")
+    void saveAsAdmin() throws Exception {
+        Mockito.when(stateSnapshot.save("nightly.bsnap")).thenReturn(new SnapshotResult(Path.of("snapshots/nightly.bsnap"),
+            2048, new BatchReport(StateSnapshotJob.SAVE_JOB_NAME, "nightly.bsnap", 6, 120, 120, Duration.ofMillis(15))));
+
+        mockMvc.perform(post("/actuator/snapshot")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"file\":\"nightly.bsnap\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.file").value("nightly.bsnap"))
+            .andExpect(jsonPath("$.rows").value(120))
+            .andExpect(jsonPath("$.bytes").value(2048));
+    }
+
+    @Test
+    @DisplayName("Snapshots are forbidden to customers")
+    void saveAsCustomer() throws Exception {
+        mockMvc.perform(post("/actuator/snapshot")
+                .header("Authorization", "Bearer fake-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isForbidden());
+        Mockito.verify(stateSnapshot, Mockito.never()).save(Mockito.anyString());
+    }
+}